@@ -0,0 +1,161 @@
+package com.crimeLink.analyzer.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pools of the outbound HTTP clients, one per remote service:
+ * {@code http.client.call-analysis.*}, {@code http.client.facial-recognition.*}
+ * and {@code http.client.storage.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientProperties {
+
+    private Pool callAnalysis = new Pool();
+    private Pool facialRecognition = new Pool();
+    private Pool storage = new Pool();
+
+    public HttpClientProperties() {
+        callAnalysis.setAdaptiveTimeout(true);
+        facialRecognition.setAdaptiveTimeout(true);
+        storage.setReadTimeout(Duration.ofSeconds(60));
+        storage.setKeepAlive(Duration.ofSeconds(30));
+    }
+
+    public Pool getCallAnalysis() {
+        return callAnalysis;
+    }
+
+    public void setCallAnalysis(Pool callAnalysis) {
+        this.callAnalysis = callAnalysis;
+    }
+
+    public Pool getFacialRecognition() {
+        return facialRecognition;
+    }
+
+    public void setFacialRecognition(Pool facialRecognition) {
+        this.facialRecognition = facialRecognition;
+    }
+
+    public Pool getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Pool storage) {
+        this.storage = storage;
+    }
+
+    public static class Pool {
+
+        /** Connections kept open to one host. */
+        private int maxPerRoute = 20;
+        /** Connections across all hosts the pool talks to. */
+        private int maxTotal = 40;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        /** Time to wait for the response after the request is sent. */
+        private Duration readTimeout = Duration.ofSeconds(30);
+        /** Time to wait for a free connection when the pool is exhausted. */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+        /**
+         * Longest an idle connection is reused. Keep it below the server's
+         * idle timeout (uvicorn closes after 5s) so a request never goes out on
+         * a connection the server is closing.
+         */
+        private Duration keepAlive = Duration.ofSeconds(4);
+        /**
+         * Derive each endpoint's response timeout from its observed latency,
+         * with {@code readTimeout} as the upper bound.
+         */
+        private boolean adaptiveTimeout;
+        /** Lower bound of an adaptive timeout. */
+        private Duration minTimeout = Duration.ofSeconds(2);
+        /** Adaptive timeout as a multiple of the endpoint's p99 latency. */
+        private double timeoutMultiplier = 3;
+        /** Recent responses per endpoint the p99 is taken over. */
+        private int latencyWindow = 100;
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public boolean isAdaptiveTimeout() {
+            return adaptiveTimeout;
+        }
+
+        public void setAdaptiveTimeout(boolean adaptiveTimeout) {
+            this.adaptiveTimeout = adaptiveTimeout;
+        }
+
+        public Duration getMinTimeout() {
+            return minTimeout;
+        }
+
+        public void setMinTimeout(Duration minTimeout) {
+            this.minTimeout = minTimeout;
+        }
+
+        public double getTimeoutMultiplier() {
+            return timeoutMultiplier;
+        }
+
+        public void setTimeoutMultiplier(double timeoutMultiplier) {
+            this.timeoutMultiplier = timeoutMultiplier;
+        }
+
+        public int getLatencyWindow() {
+            return latencyWindow;
+        }
+
+        public void setLatencyWindow(int latencyWindow) {
+            this.latencyWindow = latencyWindow;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.crimeLink.analyzer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guards around the ML microservices, one set per service:
+ * {@code ml.call-analysis.*} and {@code ml.facial-recognition.*}. See
+ * {@link com.crimeLink.analyzer.util.Bulkhead} and
+ * {@link com.crimeLink.analyzer.util.CircuitBreaker}.
+ */
+@Component
+@ConfigurationProperties(prefix = "ml")
+public class MlServiceProperties {
+
+    private Service callAnalysis = new Service();
+    private Service facialRecognition = new Service();
+
+    public Service getCallAnalysis() {
+        return callAnalysis;
+    }
+
+    public void setCallAnalysis(Service callAnalysis) {
+        this.callAnalysis = callAnalysis;
+    }
+
+    public Service getFacialRecognition() {
+        return facialRecognition;
+    }
+
+    public void setFacialRecognition(Service facialRecognition) {
+        this.facialRecognition = facialRecognition;
+    }
+
+    public static class Service {
+
+        /** Calls in flight at once. */
+        private int maxConcurrent = 8;
+        /** Callers waiting for a slot before further callers are refused. */
+        private int maxQueued = 32;
+        /** Longest a caller waits for a slot. */
+        private long queueTimeoutMs = 10000;
+        private Breaker breaker = new Breaker();
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public long getQueueTimeoutMs() {
+            return queueTimeoutMs;
+        }
+
+        public void setQueueTimeoutMs(long queueTimeoutMs) {
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+
+        public Breaker getBreaker() {
+            return breaker;
+        }
+
+        public void setBreaker(Breaker breaker) {
+            this.breaker = breaker;
+        }
+    }
+
+    public static class Breaker {
+
+        /** Recent calls the failure rate is computed over. */
+        private int windowSize = 20;
+        /** Calls needed in the window before the breaker may open. */
+        private int minimumCalls = 10;
+        /** Failure rate (%) that opens the breaker. */
+        private double failureRate = 50;
+        /** Time the breaker stays open before letting probes through. */
+        private long openMs = 30000;
+        /** Successful probes needed to close the breaker again. */
+        private int halfOpenProbes = 2;
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRate() {
+            return failureRate;
+        }
+
+        public void setFailureRate(double failureRate) {
+            this.failureRate = failureRate;
+        }
+
+        public long getOpenMs() {
+            return openMs;
+        }
+
+        public void setOpenMs(long openMs) {
+            this.openMs = openMs;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+}
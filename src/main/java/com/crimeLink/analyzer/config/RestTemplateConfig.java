@@ -1,23 +1,150 @@
 package com.crimeLink.analyzer.config;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.crimeLink.analyzer.util.AdaptiveTimeout;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+
 /**
- * Configuration for RestTemplate bean used to communicate with ML microservices.
- * Part of the hybrid monolith + microservices architecture.
+ * RestTemplates for the ML microservices and object storage, each on its own
+ * pooled Apache HttpClient so connections (and their TLS sessions) are kept
+ * alive and reused instead of being opened per request, and a slow service
+ * cannot use up the connections of another. Pools are sized and timed by
+ * {@link HttpClientProperties}.
+ * <p>
+ * The classic (blocking) HttpClient speaks HTTP/1.1 only; the uvicorn ML
+ * services do not offer HTTP/2 either, so reuse is what removes the
+ * handshake cost.
+ * <p>
+ * With {@code adaptive-timeout} on (the ML pools) each request's response
+ * timeout comes from the latency of its endpoint, see {@link AdaptiveTimeout},
+ * so a hung service is given up on after a few multiples of its usual time
+ * rather than the full read timeout.
+ * <p>
+ * Metrics: {@code httpcomponents.httpclient.pool.*} tagged
+ * {@code httpclient=call-analysis|facial-recognition|storage}, and
+ * {@code http.client.adaptive.*} for adaptive pools.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<HttpComponentsClientHttpRequestFactory> factories = new ArrayList<>();
+
+    public RestTemplateConfig(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        // Set timeout for ML service calls (30 seconds for heavy processing)
-        factory.setConnectTimeout(10000);  // 10 seconds connection timeout
-        factory.setReadTimeout(30000);     // 30 seconds read timeout (ML processing can be slow)
+    public RestTemplate callAnalysisRestTemplate() {
+        return pooled("call-analysis", properties.getCallAnalysis());
+    }
+
+    @Bean
+    public RestTemplate facialRecognitionRestTemplate() {
+        return pooled("facial-recognition", properties.getFacialRecognition());
+    }
+
+    @Bean
+    public RestTemplate storageRestTemplate() {
+        return pooled("storage", properties.getStorage());
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        for (HttpComponentsClientHttpRequestFactory factory : factories) {
+            factory.destroy();
+        }
+    }
+
+    private synchronized RestTemplate pooled(String name, HttpClientProperties.Pool pool) {
+        PoolingHttpClientConnectionManager connections = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(pool.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(pool.getReadTimeout()))
+                        .build())
+                .build();
+
+        // Reuse for as long as the server allows, but never beyond the configured keep-alive
+        TimeValue keepAlive = TimeValue.of(pool.getKeepAlive());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(pool.getAcquireTimeout()))
+                .setResponseTimeout(Timeout.of(pool.getReadTimeout()))
+                .build();
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connections)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> keepAlive
+                        .min(DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive);
+
+        AdaptiveTimeout timeouts = pool.isAdaptiveTimeout()
+                ? new AdaptiveTimeout(name, pool.getMinTimeout(), pool.getReadTimeout(),
+                        pool.getTimeoutMultiplier(), pool.getLatencyWindow(), meterRegistry)
+                : null;
+        if (timeouts != null) {
+            // Time to response headers, the span the response timeout guards
+            builder.addExecInterceptorFirst("adaptive-timeout", (request, scope, chain) -> {
+                long start = System.nanoTime();
+                ClassicHttpResponse response;
+                try {
+                    response = chain.proceed(request, scope);
+                } catch (IOException e) {
+                    timeouts.recordFailure(path(request.getPath()));
+                    throw e;
+                }
+                timeouts.record(path(request.getPath()), System.nanoTime() - start);
+                return response;
+            });
+        }
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connections, name).bindTo(meterRegistry);
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(builder.build());
+        if (timeouts != null) {
+            factory.setHttpContextFactory((method, uri) -> {
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.copy(requestConfig)
+                        .setResponseTimeout(Timeout.of(timeouts.timeout(path(uri.getPath()))))
+                        .build());
+                return context;
+            });
+        }
+        factories.add(factory);
         return new RestTemplate(factory);
     }
+
+    /** Request path without the query, which identifies the endpoint. */
+    private static String path(String requestPath) {
+        if (requestPath == null || requestPath.isEmpty()) {
+            return "/";
+        }
+        int query = requestPath.indexOf('?');
+        return query < 0 ? requestPath : requestPath.substring(0, query);
+    }
 }
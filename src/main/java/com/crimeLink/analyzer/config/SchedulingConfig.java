@@ -0,0 +1,13 @@
+package com.crimeLink.analyzer.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} housekeeping tasks (stream heartbeats,
+ * partition maintenance, periodic flushes).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
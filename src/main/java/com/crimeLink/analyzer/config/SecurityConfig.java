@@ -3,6 +3,8 @@ package com.crimeLink.analyzer.config;
 import java.util.Arrays;
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,6 +49,9 @@ public class SecurityConfig {
                 // CRITICAL FIX: Enable CORS using the bean configuration
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Async ML responses are dispatched again once ready; the request was authorized already
+                        // and the JWT filter does not run on the re-dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
@@ -73,8 +78,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/vehicle**").permitAll()
                         .requestMatchers("/api/mobile/auth/**").permitAll()
                         .requestMatchers("/api/duties/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/storage/**").permitAll() // local storage backend only
                         .requestMatchers("/api/crime-reports/map").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/crime-reports").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/crime-reports/page").permitAll()
                         .requestMatchers("/api/crime-reports/upload-evidence").authenticated()
                         .requestMatchers("/api/crime-reports/**").hasAnyRole("OIC", "Admin")
 
@@ -92,7 +99,14 @@ public class SecurityConfig {
                         .requestMatchers("/api/users/field-officers").hasAnyRole("Admin", "OIC", "Investigator")
                         .requestMatchers("/api/admin/officers/*/locations/**")
                         .hasAnyRole("Admin", "OIC", "Investigator")
+                        .requestMatchers("/api/admin/officers/locations/**")
+                        .hasAnyRole("Admin", "OIC", "Investigator")
                         .requestMatchers("/api/admin/**").hasAnyRole("OIC", "Admin")
+                        .requestMatchers("/api/geofences/**").hasAnyRole("OIC", "Admin")
+
+                        // Operational metrics
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("Admin")
 
                         // Officer announcements
                         .requestMatchers("/api/announcements").hasAnyRole("OIC", "FieldOfficer")
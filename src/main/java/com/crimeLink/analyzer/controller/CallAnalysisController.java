@@ -1,17 +1,28 @@
 package com.crimeLink.analyzer.controller;
 
+import com.crimeLink.analyzer.dto.CallAnalysisJobDTO;
+import com.crimeLink.analyzer.entity.User;
+import com.crimeLink.analyzer.service.CallAnalysisJobService;
 import com.crimeLink.analyzer.service.CallAnalysisService;
+import com.crimeLink.analyzer.service.MlGateway;
 import com.crimeLink.analyzer.util.LogSanitizer;
+import com.crimeLink.analyzer.util.ServiceHealth;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for Call Analysis operations.
@@ -20,10 +31,15 @@ import java.util.Map;
  * Architecture Pattern: Hybrid Monolith + Microservices
  * - Spring Boot handles authentication, authorization, and request routing
  * - Python FastAPI handles ML inference (call record analysis, NLP)
+ * - Analysis runs on the {@link MlGateway}'s virtual threads; 503 when the
+ *   call analysis service is saturated
  * 
  * Endpoints:
  * - POST /api/call-analysis/analyze       - Analyze single call record PDF
  * - POST /api/call-analysis/analyze/batch - Analyze multiple call record PDFs
+ * - POST /api/call-analysis/jobs          - Queue call record PDFs as a background job
+ * - GET  /api/call-analysis/jobs/{id}     - Job progress and the results so far
+ * - GET  /api/call-analysis/jobs/{id}/events - Job progress as server-sent events
  * - GET  /api/call-analysis/health        - Check ML service health
  */
 @RestController
@@ -33,6 +49,8 @@ import java.util.Map;
 public class CallAnalysisController {
 
     private final CallAnalysisService callAnalysisService;
+    private final MlGateway mlGateway;
+    private final CallAnalysisJobService callAnalysisJobService;
 
     /**
      * Analyze a single call record PDF.
@@ -41,28 +59,31 @@ public class CallAnalysisController {
      * @return Analysis results with crime indicators, entity graph, etc.
      */
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeCallRecord(
+    public CompletableFuture<ResponseEntity<?>> analyzeCallRecord(
             @RequestParam("file") MultipartFile file) {
         
-        try {
-            log.info("Call record analysis requested: {}", LogSanitizer.sanitize(file.getOriginalFilename()));
-
-            // Validate file
-            ResponseEntity<?> validationError = validatePdfFile(file, 10 * 1024 * 1024); // 10MB
-            if (validationError != null) {
-                return validationError;
-            }
+        log.info("Call record analysis requested: {}", LogSanitizer.sanitize(file.getOriginalFilename()));
 
-            // Forward to ML service
-            JsonNode result = callAnalysisService.analyzeCallRecord(file);
-            
-            return ResponseEntity.ok(result);
-
-        } catch (RuntimeException e) {
-            log.error("Call record analysis failed: {}", e.getMessage());
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", e.getMessage()));
+        // Validate file
+        ResponseEntity<?> validationError = validatePdfFile(file, 10 * 1024 * 1024); // 10MB
+        if (validationError != null) {
+            return CompletableFuture.completedFuture(validationError);
         }
+
+        // Forward to ML service off the request thread
+        return mlGateway.supply(() -> {
+            try {
+                JsonNode result = callAnalysisService.analyzeCallRecord(file);
+                return ResponseEntity.ok(result);
+            } catch (ResponseStatusException e) {
+                log.warn("Call record analysis refused: {}", e.getReason());
+                return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
+            } catch (RuntimeException e) {
+                log.error("Call record analysis failed: {}", e.getMessage());
+                return ResponseEntity.internalServerError()
+                        .body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     /**
@@ -72,38 +93,107 @@ public class CallAnalysisController {
      * @return Batch analysis results
      */
     @PostMapping("/analyze/batch")
-    public ResponseEntity<?> analyzeBatch(
+    public CompletableFuture<ResponseEntity<?>> analyzeBatch(
             @RequestParam("files") MultipartFile[] files) {
         
-        try {
-            log.info("Batch call analysis requested: {} files", files.length);
+        log.info("Batch call analysis requested: {} files", files.length);
+
+        // Validate files
+        if (files.length == 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "No files provided")));
+        }
 
-            // Validate files
-            if (files.length == 0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "No files provided"));
+        for (MultipartFile file : files) {
+            ResponseEntity<?> validationError = validatePdfFile(file, 10 * 1024 * 1024); // 10MB
+            if (validationError != null) {
+                return CompletableFuture.completedFuture(validationError);
             }
+        }
 
-            for (MultipartFile file : files) {
-                ResponseEntity<?> validationError = validatePdfFile(file, 10 * 1024 * 1024); // 10MB
-                if (validationError != null) {
-                    return validationError;
-                }
+        // Forward to ML service off the request thread
+        List<MultipartFile> fileList = Arrays.asList(files);
+        return mlGateway.supply(() -> {
+            try {
+                JsonNode result = callAnalysisService.analyzeBatch(fileList);
+                return ResponseEntity.ok(result);
+            } catch (ResponseStatusException e) {
+                log.warn("Batch call analysis refused: {}", e.getReason());
+                return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
+            } catch (RuntimeException e) {
+                log.error("Batch call analysis failed: {}", e.getMessage());
+                return ResponseEntity.internalServerError()
+                        .body(Map.of("error", e.getMessage()));
             }
+        });
+    }
+
+    /**
+     * Queue call record PDFs for analysis and return at once.
+     * Files are analysed in the background; follow the job at the returned location.
+     *
+     * @param files Array of PDF files containing call records
+     * @return 202 with the queued job
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(
+            @RequestParam("files") MultipartFile[] files,
+            @AuthenticationPrincipal User user) {
+
+        log.info("Call analysis job requested: {} files", files.length);
 
-            // Forward to ML service
-            List<MultipartFile> fileList = Arrays.asList(files);
-            JsonNode result = callAnalysisService.analyzeBatch(fileList);
-            
-            return ResponseEntity.ok(result);
+        if (files.length == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No files provided"));
+        }
 
+        for (MultipartFile file : files) {
+            ResponseEntity<?> validationError = validatePdfFile(file, 10 * 1024 * 1024); // 10MB
+            if (validationError != null) {
+                return validationError;
+            }
+        }
+
+        try {
+            CallAnalysisJobDTO job = callAnalysisJobService.submit(Arrays.asList(files),
+                    user != null ? user.getUsername() : null);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/call-analysis/jobs/" + job.id()))
+                    .body(job);
+        } catch (ResponseStatusException e) {
+            log.warn("Call analysis job refused: {}", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
         } catch (RuntimeException e) {
-            log.error("Batch call analysis failed: {}", e.getMessage());
+            log.error("Call analysis job could not be queued: {}", e.getMessage());
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
+    /**
+     * Progress of a call analysis job with the per-file results available so far.
+     *
+     * @param id Job id
+     * @return The job, or 404 when it does not exist or another user submitted it
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id, @AuthenticationPrincipal User user) {
+        return callAnalysisJobService.getFor(id, user != null ? user.getUsername() : null)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Call analysis job not found")));
+    }
+
+    /**
+     * Stream a call analysis job's progress: a snapshot, one event per finished file
+     * and a final event with the whole job.
+     *
+     * @param id Job id
+     * @return Server-sent event stream; 404 when the job does not exist or another user submitted it
+     */
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable String id, @AuthenticationPrincipal User user) {
+        return callAnalysisJobService.subscribe(id, user != null ? user.getUsername() : null);
+    }
+
     /**
      * Health check endpoint for the call analysis ML service.
      * Public endpoint for monitoring.
@@ -114,9 +204,7 @@ public class CallAnalysisController {
     public ResponseEntity<?> checkHealth() {
         JsonNode health = callAnalysisService.checkHealth();
         
-        String status = health.has("status") ? health.get("status").asText() : "unknown";
-        
-        if ("healthy".equals(status) || "ok".equals(status)) {
+        if (ServiceHealth.isHealthy(health)) {
             return ResponseEntity.ok(health);
         } else {
             return ResponseEntity.status(503).body(health);
@@ -1,6 +1,10 @@
 package com.crimeLink.analyzer.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,12 +17,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeHeatmapTileDTO;
+import com.crimeLink.analyzer.dto.CrimeHotspotDTO;
 import com.crimeLink.analyzer.dto.CrimeReportDTO;
+import com.crimeLink.analyzer.dto.CrimeReportPageDTO;
 import com.crimeLink.analyzer.dto.EvidenceDTO;
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.entity.CrimeType;
 import com.crimeLink.analyzer.service.CrimeReportService;
 import com.crimeLink.analyzer.service.SupabaseService;
+import com.crimeLink.analyzer.util.TileMath;
 
 import lombok.AllArgsConstructor;
 
@@ -43,22 +54,94 @@ public class CrimeReportController {
         return ResponseEntity.ok(crimeReports);
     }
 
+    /** Keyset-paginated listing; see {@link CrimeReportService#getCrimeReportPage}. */
+    @GetMapping("/page")
+    public CrimeReportPageDTO getCrimeReportPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Set<CrimeType> type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLon) {
+        try {
+            BoundingBox bbox = BoundingBox.ofNullable(minLat, minLon, maxLat, maxLon);
+            return crimeReportService.getCrimeReportPage(cursor, size, type, from, to, bbox);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CrimeReportDTO> getCrimeReportById(@PathVariable("id") Long reportId) {
         CrimeReportDTO dto = crimeReportService.getCrimeReportById(reportId);
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Markers in the current viewport; without a box every report is returned.
+     * With {@code zoom} the reports are returned as per-tile clusters instead.
+     */
     @GetMapping("/map")
-    public List<CrimeLocationDTO> getCrimeMapLocations() {
-        return crimeReportService.getCrimeMapLocations();
+    public Object getCrimeMapLocations(
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLon,
+            @RequestParam(required = false) Set<CrimeType> type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer zoom) {
+        BoundingBox bbox;
+        try {
+            bbox = BoundingBox.ofNullable(minLat, minLon, maxLat, maxLon);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (zoom != null) {
+            if (zoom < 0 || zoom > TileMath.MAX_ZOOM) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "zoom must be between 0 and " + TileMath.MAX_ZOOM);
+            }
+            return crimeReportService.getCrimeMapClusters(zoom, bbox, type, from, to);
+        }
+        return crimeReportService.getCrimeMapLocations(bbox, type, from, to);
+    }
+
+    @GetMapping("/heatmap/{z}/{x}/{y}")
+    public CrimeHeatmapTileDTO getHeatmapTile(@PathVariable int z, @PathVariable int x, @PathVariable int y,
+            @RequestParam(required = false) Set<CrimeType> type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return crimeReportService.getHeatmapTile(z, x, y, type, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /** Density clusters of reports in a date window, largest first. */
+    @GetMapping("/hotspots")
+    public List<CrimeHotspotDTO> getHotspots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<CrimeType> type,
+            @RequestParam(required = false) Double epsM,
+            @RequestParam(required = false) Integer minPts) {
+        try {
+            return crimeReportService.getHotspots(from, to, type, epsM, minPts);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PostMapping("/upload-evidence")
     public ResponseEntity<String> uploadEvidence(@RequestParam("file") MultipartFile file) throws Exception {
 
-        String fileUrl = supabaseService.uploadFile(file);
-        return ResponseEntity.ok(fileUrl);
+        StoredFile stored = supabaseService.upload(file);
+        return ResponseEntity.ok().header("X-Content-SHA256", stored.sha256()).body(stored.path());
     }
 
     @GetMapping("/download/{reportId}")
@@ -1,7 +1,9 @@
 package com.crimeLink.analyzer.controller;
 
 import com.crimeLink.analyzer.service.FacialRecognitionService;
+import com.crimeLink.analyzer.service.MlGateway;
 import com.crimeLink.analyzer.util.LogSanitizer;
+import com.crimeLink.analyzer.util.ServiceHealth;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,8 +12,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * REST Controller for Facial Recognition operations.
@@ -20,6 +25,8 @@ import java.util.Map;
  * Architecture Pattern: Hybrid Monolith + Microservices
  * - Spring Boot handles authentication, authorization, and request routing
  * - Python FastAPI handles ML inference (facial recognition)
+ * - ML calls run on the {@link MlGateway}'s virtual threads; 503 when the
+ *   facial recognition service is saturated
  * 
  * Endpoints:
  * - POST /api/facial/analyze    - Analyze suspect image for matches
@@ -35,6 +42,7 @@ import java.util.Map;
 public class FacialRecognitionController {
 
     private final FacialRecognitionService facialRecognitionService;
+    private final MlGateway mlGateway;
 
     /**
      * Analyze a suspect image for facial recognition matches.
@@ -46,39 +54,31 @@ public class FacialRecognitionController {
      * @return Analysis results with matched criminals
      */
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeImage(
+    public CompletableFuture<ResponseEntity<?>> analyzeImage(
             @RequestParam("image") MultipartFile image,
             @RequestParam(value = "threshold", required = false, defaultValue = "45") Float threshold,
             @RequestParam(value = "case_id", required = false) String caseId) {
         
-        try {
-            // Get authenticated user ID from security context
-            String userId = getCurrentUserId();
-            log.info("Facial recognition analysis requested by user: {}", userId);
+        // Get authenticated user ID from security context
+        String userId = getCurrentUserId();
+        log.info("Facial recognition analysis requested by user: {}", userId);
 
-            // Validate image
-            ResponseEntity<?> validationError = validateImageFile(image, 10 * 1024 * 1024); // 10MB
-            if (validationError != null) {
-                return validationError;
-            }
-
-            // Validate threshold range
-            if (threshold != null && (threshold < 0 || threshold > 100)) {
-                log.warn("Validation failed: Threshold {} out of range [0-100]", threshold);
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Threshold must be between 0 and 100"));
-            }
-
-            // Forward to ML service
-            JsonNode result = facialRecognitionService.analyzeImage(image, threshold, userId, caseId);
-            
-            return ResponseEntity.ok(result);
+        // Validate image
+        ResponseEntity<?> validationError = validateImageFile(image, 10 * 1024 * 1024); // 10MB
+        if (validationError != null) {
+            return CompletableFuture.completedFuture(validationError);
+        }
 
-        } catch (RuntimeException e) {
-            log.error("Facial recognition analysis failed: {}", e.getMessage());
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", e.getMessage()));
+        // Validate threshold range
+        if (threshold != null && (threshold < 0 || threshold > 100)) {
+            log.warn("Validation failed: Threshold {} out of range [0-100]", threshold);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Threshold must be between 0 and 100")));
         }
+
+        // Forward to ML service off the request thread
+        return forward("Facial recognition analysis",
+                () -> facialRecognitionService.analyzeImage(image, threshold, userId, caseId));
     }
 
     /**
@@ -93,7 +93,7 @@ public class FacialRecognitionController {
      * @return Registration result with criminal details
      */
     @PostMapping("/register")
-    public ResponseEntity<?> registerCriminal(
+    public CompletableFuture<ResponseEntity<?>> registerCriminal(
             @RequestParam("photo") MultipartFile photo,
             @RequestParam(value = "criminal_id", required = false) String criminalId,
             @RequestParam("name") String name,
@@ -108,38 +108,29 @@ public class FacialRecognitionController {
             @RequestParam(value = "alias", required = false) String alias,
             @RequestParam(value = "status", required = false, defaultValue = "active") String status) {
         
-        try {
-            log.info("Criminal registration requested: {} ({})", LogSanitizer.sanitize(name), LogSanitizer.sanitize(nic));
+        log.info("Criminal registration requested: {} ({})", LogSanitizer.sanitize(name), LogSanitizer.sanitize(nic));
 
-            // Validate required text fields
-            ResponseEntity<?> nameValidation = validateRequiredText(name, "name");
-            if (nameValidation != null) {
-                return nameValidation;
-            }
-
-            ResponseEntity<?> nicValidation = validateRequiredText(nic, "nic");
-            if (nicValidation != null) {
-                return nicValidation;
-            }
-
-            // Validate photo
-            ResponseEntity<?> photoValidation = validateImageFile(photo, 10 * 1024 * 1024); // 10MB
-            if (photoValidation != null) {
-                return photoValidation;
-            }
+        // Validate required text fields
+        ResponseEntity<?> nameValidation = validateRequiredText(name, "name");
+        if (nameValidation != null) {
+            return CompletableFuture.completedFuture(nameValidation);
+        }
 
-            // Forward to ML service
-            JsonNode result = facialRecognitionService.registerCriminal(
-                    photo, criminalId, name, nic, riskLevel, crimeHistory,
-                    address, contactNumber, secondaryContact, dateOfBirth, gender, alias, status);
-            
-            return ResponseEntity.ok(result);
+        ResponseEntity<?> nicValidation = validateRequiredText(nic, "nic");
+        if (nicValidation != null) {
+            return CompletableFuture.completedFuture(nicValidation);
+        }
 
-        } catch (RuntimeException e) {
-            log.error("Criminal registration failed: {}", e.getMessage());
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", e.getMessage()));
+        // Validate photo
+        ResponseEntity<?> photoValidation = validateImageFile(photo, 10 * 1024 * 1024); // 10MB
+        if (photoValidation != null) {
+            return CompletableFuture.completedFuture(photoValidation);
         }
+
+        // Forward to ML service off the request thread
+        return forward("Criminal registration", () -> facialRecognitionService.registerCriminal(
+                photo, criminalId, name, nic, riskLevel, crimeHistory,
+                address, contactNumber, secondaryContact, dateOfBirth, gender, alias, status));
     }
 
     /**
@@ -148,15 +139,8 @@ public class FacialRecognitionController {
      * @return List of criminals
      */
     @GetMapping("/criminals")
-    public ResponseEntity<?> getCriminals() {
-        try {
-            JsonNode result = facialRecognitionService.getCriminals();
-            return ResponseEntity.ok(result);
-        } catch (RuntimeException e) {
-            log.error("Failed to fetch criminals: {}", e.getMessage());
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> getCriminals() {
+        return forward("Fetching criminals", facialRecognitionService::getCriminals);
     }
 
     /**
@@ -166,16 +150,9 @@ public class FacialRecognitionController {
      * @return Recognition history
      */
     @GetMapping("/history")
-    public ResponseEntity<?> getRecognitionHistory(
+    public CompletableFuture<ResponseEntity<?>> getRecognitionHistory(
             @RequestParam(value = "limit", required = false, defaultValue = "50") Integer limit) {
-        try {
-            JsonNode result = facialRecognitionService.getRecognitionHistory(limit);
-            return ResponseEntity.ok(result);
-        } catch (RuntimeException e) {
-            log.error("Failed to fetch history: {}", e.getMessage());
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", e.getMessage()));
-        }
+        return forward("Fetching history", () -> facialRecognitionService.getRecognitionHistory(limit));
     }
 
     /**
@@ -188,15 +165,36 @@ public class FacialRecognitionController {
     public ResponseEntity<?> checkHealth() {
         JsonNode health = facialRecognitionService.checkHealth();
         
-        String status = health.has("status") ? health.get("status").asText() : "unknown";
-        
-        if ("healthy".equals(status)) {
+        if (ServiceHealth.isHealthy(health)) {
             return ResponseEntity.ok(health);
         } else {
             return ResponseEntity.status(503).body(health);
         }
     }
 
+    /**
+     * Run an ML service call on the {@link MlGateway}, mapping a saturated
+     * service to 503 and any other failure to 500.
+     *
+     * @param operation Description used in the logs
+     * @param call      The service call
+     * @return Future completing with the response
+     */
+    private CompletableFuture<ResponseEntity<?>> forward(String operation, Supplier<JsonNode> call) {
+        return mlGateway.supply(() -> {
+            try {
+                return ResponseEntity.ok(call.get());
+            } catch (ResponseStatusException e) {
+                log.warn("{} refused: {}", operation, e.getReason());
+                return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
+            } catch (RuntimeException e) {
+                log.error("{} failed: {}", operation, e.getMessage());
+                return ResponseEntity.internalServerError()
+                        .body(Map.of("error", e.getMessage()));
+            }
+        });
+    }
+
     /**
      * Validate image file for facial recognition.
      * Checks: file not empty, content type is image/*, file size within limit.
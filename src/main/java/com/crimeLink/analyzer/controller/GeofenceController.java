@@ -0,0 +1,55 @@
+package com.crimeLink.analyzer.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.crimeLink.analyzer.dto.DutyFenceTimeDTO;
+import com.crimeLink.analyzer.dto.DutyGeofenceDTO;
+import com.crimeLink.analyzer.service.GeofenceMonitor;
+import com.crimeLink.analyzer.service.GeofenceService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/geofences")
+@RequiredArgsConstructor
+public class GeofenceController {
+    private final GeofenceService geofenceService;
+    private final GeofenceMonitor geofenceMonitor;
+
+    @GetMapping
+    public List<DutyGeofenceDTO> getAll() {
+        return geofenceService.findAll();
+    }
+
+    /** Create or replace the fence for {@code request.location}. */
+    @PutMapping
+    public DutyGeofenceDTO save(@RequestBody DutyGeofenceDTO request) {
+        return geofenceService.save(request);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        geofenceService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/duties/{dutyId}/time")
+    public DutyFenceTimeDTO timeInside(@PathVariable Long dutyId) {
+        DutyFenceTimeDTO time = geofenceMonitor.getTime(dutyId);
+        if (time == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No fence activity for this duty");
+        }
+        return time;
+    }
+}
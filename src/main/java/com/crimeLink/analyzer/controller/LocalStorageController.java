@@ -0,0 +1,76 @@
+package com.crimeLink.analyzer.controller;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.crimeLink.analyzer.service.impl.LocalStorageBackend;
+
+/**
+ * Serves the objects of {@link LocalStorageBackend}; only present with {@code storage.backend=local}.
+ * Only the photo buckets are public, as on Supabase; every other bucket needs a signed URL.
+ */
+@RestController
+@RequestMapping("/api/storage")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageController {
+
+    private final LocalStorageBackend storage;
+    private final Set<String> publicBuckets;
+
+    public LocalStorageController(LocalStorageBackend storage,
+            @Value("${supabase.bucket:criminal-photos}") String photoBucket,
+            @Value("${supabase.weapon-bucket:weapon-photos}") String weaponBucket) {
+        this.storage = storage;
+        this.publicBuckets = Set.of(photoBucket, weaponBucket);
+    }
+
+    @GetMapping("/public/{bucket}/{*path}")
+    public ResponseEntity<Resource> getPublic(@PathVariable String bucket, @PathVariable String path) {
+        if (!publicBuckets.contains(bucket)) {
+            // Same answer as a missing object, so private bucket contents are not probed this way
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Object not found");
+        }
+        return serve(bucket, path.substring(1));
+    }
+
+    @GetMapping("/signed/{bucket}/{*path}")
+    public ResponseEntity<Resource> getSigned(@PathVariable String bucket, @PathVariable String path,
+            @RequestParam long expires, @RequestParam String signature) {
+        String objectPath = path.substring(1);
+        if (!storage.verify(bucket, objectPath, expires, signature)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid or expired signature");
+        }
+        return serve(bucket, objectPath);
+    }
+
+    private ResponseEntity<Resource> serve(String bucket, String path) {
+        Path file;
+        try {
+            file = storage.resolve(bucket, path);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Object not found");
+        }
+        Resource resource = new FileSystemResource(file);
+        MediaType type = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok().contentType(type).body(resource);
+    }
+}
@@ -1,11 +1,18 @@
 package com.crimeLink.analyzer.controller;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +20,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.dto.LocationIngestResult;
 import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.crimeLink.analyzer.dto.MovementStatsDTO;
 import com.crimeLink.analyzer.entity.User;
+import com.crimeLink.analyzer.service.LocationStreamService;
 import com.crimeLink.analyzer.service.impl.LocationServiceImpl;
+import com.crimeLink.analyzer.util.LocationBatchCodec;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,11 +41,36 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class LocationController {
+    /** Guards allocation while decoding; the ingest queue applies its own capacity limit. */
+    private static final int MAX_BINARY_BATCH_POINTS = 100_000;
+
     private final LocationServiceImpl service;
+    private final LocationStreamService streamService;
 
     @PostMapping("/officers/me/locations/bulk")
-    public void uploadMyLocations(@AuthenticationPrincipal User user, @RequestBody List<LocationPointDTO> points) {
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public LocationIngestResult uploadMyLocations(@AuthenticationPrincipal User user,
+            @RequestBody List<LocationPointDTO> points) {
         System.out.println("Received locations: " + points.size()); // REMOVE: for testing
+        return service.saveBulk(uploaderBadgeNo(user), points);
+    }
+
+    /** Same upload in the compact binary encoding, see {@link LocationBatchCodec}. */
+    @PostMapping(value = "/officers/me/locations/bulk", consumes = LocationBatchCodec.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public LocationIngestResult uploadMyLocationsBinary(@AuthenticationPrincipal User user, InputStream body)
+            throws IOException {
+        String officerBadgeNo = uploaderBadgeNo(user);
+        List<LocationPointDTO> points;
+        try {
+            points = LocationBatchCodec.decode(body, MAX_BINARY_BATCH_POINTS);
+        } catch (IllegalArgumentException | EOFException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed location batch: " + e.getMessage());
+        }
+        return service.saveBulk(officerBadgeNo, points);
+    }
+
+    private static String uploaderBadgeNo(User user) {
         if (user == null) {
             throw new RuntimeException("Unauthorized");
         }
@@ -42,7 +83,7 @@ public class LocationController {
         if (officerBadgeNo == null || officerBadgeNo.isBlank()) {
             throw new RuntimeException("Badge number missing");
         }
-        service.saveBulk(officerBadgeNo, points);
+        return officerBadgeNo;
     }
 
     @GetMapping("/admin/officers/{officerBadgeNo}/locations")
@@ -50,13 +91,22 @@ public class LocationController {
             @AuthenticationPrincipal User user,
             @PathVariable String officerBadgeNo,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Double toleranceM,
+            @RequestParam(required = false) Integer maxPoints) {
         System.out.println("📍 LocationController.history() called");
         System.out.println("   Badge: " + officerBadgeNo);
         System.out.println("   From: " + from + ", To: " + to);
         System.out.println("   User: " + (user != null ? user.getEmail() : "NULL"));
         System.out.println("   Role: " + (user != null ? user.getRole() : "NULL"));
         System.out.println("   Authorities: " + (user != null ? user.getAuthorities() : "NULL"));
+        if (toleranceM != null || maxPoints != null) {
+            if ((toleranceM != null && toleranceM < 0) || (maxPoints != null && maxPoints < 2)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "toleranceM must be >= 0 and maxPoints must be >= 2");
+            }
+            return service.getSimplifiedHistory(officerBadgeNo, from, to, toleranceM, maxPoints);
+        }
         return service.getHistory(officerBadgeNo, from, to);
     }
 
@@ -82,4 +132,42 @@ public class LocationController {
     public Object lastLocation(@PathVariable String officerBadgeNo) {
         return service.getLastLocation(officerBadgeNo);
     }
+
+    @GetMapping("/admin/officers/locations/last")
+    public List<LastKnownPositionDTO> allLastLocations() {
+        return service.getAllLastLocations();
+    }
+
+    /** Distance, moving and idle time for one day; {@code date} defaults to today in the duty time zone. */
+    @GetMapping("/admin/officers/{officerBadgeNo}/locations/stats")
+    public MovementStatsDTO movementStats(@PathVariable String officerBadgeNo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        MovementStatsDTO stats = service.getMovementStats(officerBadgeNo, date);
+        if (stats == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No movement recorded for that day");
+        }
+        return stats;
+    }
+
+    @GetMapping("/admin/officers/locations/stats")
+    public List<MovementStatsDTO> allMovementStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return service.getAllMovementStats(date);
+    }
+
+    @GetMapping(value = "/admin/officers/locations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLocations(
+            @RequestParam(required = false) Set<String> badges,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double maxLon) {
+        BoundingBox bbox;
+        try {
+            bbox = BoundingBox.ofNullable(minLat, minLon, maxLat, maxLon);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return streamService.subscribe(badges, bbox);
+    }
 }
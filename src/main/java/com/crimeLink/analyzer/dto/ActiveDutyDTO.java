@@ -0,0 +1,13 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.LocalDate;
+
+/** Duty row needed to resolve which fence applies to an officer's location point. */
+public record ActiveDutyDTO(
+        Long dutyId,
+        String officerBadgeNo,
+        String location,
+        String timeRange,
+        LocalDate date) {
+
+}
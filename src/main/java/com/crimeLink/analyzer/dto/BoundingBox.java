@@ -0,0 +1,36 @@
+package com.crimeLink.analyzer.dto;
+
+/** Latitude/longitude rectangle in degrees, edges inclusive. */
+public record BoundingBox(
+        double minLat,
+        double minLon,
+        double maxLat,
+        double maxLon) {
+
+    public BoundingBox {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box min must not exceed max");
+        }
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLat && latitude <= maxLat
+                && longitude >= minLon && longitude <= maxLon;
+    }
+
+    /**
+     * Build a box from optional request parameters.
+     *
+     * @return the box, or {@code null} when all four are absent
+     * @throws IllegalArgumentException when only some are present
+     */
+    public static BoundingBox ofNullable(Double minLat, Double minLon, Double maxLat, Double maxLon) {
+        if (minLat == null && minLon == null && maxLat == null && maxLon == null) {
+            return null;
+        }
+        if (minLat == null || minLon == null || maxLat == null || maxLon == null) {
+            throw new IllegalArgumentException("minLat, minLon, maxLat and maxLon must be given together");
+        }
+        return new BoundingBox(minLat, minLon, maxLat, maxLon);
+    }
+}
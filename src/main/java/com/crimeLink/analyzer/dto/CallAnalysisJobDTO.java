@@ -0,0 +1,24 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+
+/**
+ * A batch call analysis job and the files analysed so far. {@code finished}
+ * counts completed and failed files; results of completed files are in
+ * {@code files} as soon as they are available.
+ */
+public record CallAnalysisJobDTO(
+        String id,
+        CallAnalysisStatus status,
+        String submittedBy,
+        Instant createdAt,
+        Instant finishedAt,
+        int total,
+        int finished,
+        int failed,
+        List<CallAnalysisJobFileDTO> files) {
+
+}
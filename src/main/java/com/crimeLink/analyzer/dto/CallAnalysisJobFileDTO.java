@@ -0,0 +1,18 @@
+package com.crimeLink.analyzer.dto;
+
+import com.crimeLink.analyzer.entity.CallAnalysisJobFile;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+
+public record CallAnalysisJobFileDTO(
+        int index,
+        String fileName,
+        CallAnalysisStatus status,
+        JsonNode result,
+        String error) {
+
+    public static CallAnalysisJobFileDTO from(CallAnalysisJobFile file) {
+        return new CallAnalysisJobFileDTO(file.getFileIndex(), file.getFileName(), file.getStatus(),
+                file.getResult(), file.getError());
+    }
+}
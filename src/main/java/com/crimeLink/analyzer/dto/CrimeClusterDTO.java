@@ -0,0 +1,18 @@
+package com.crimeLink.analyzer.dto;
+
+import java.util.Map;
+
+import com.crimeLink.analyzer.entity.CrimeType;
+
+/** Reports aggregated into one map tile; the position is their centroid. */
+public record CrimeClusterDTO(
+        String quadkey,
+        int zoom,
+        int x,
+        int y,
+        int count,
+        double latitude,
+        double longitude,
+        Map<CrimeType, Integer> countsByType) {
+
+}
@@ -0,0 +1,16 @@
+package com.crimeLink.analyzer.dto;
+
+/**
+ * Report counts of one z/x/y map tile on a {@code size} x {@code size} grid,
+ * row by row from the north-west corner.
+ */
+public record CrimeHeatmapTileDTO(
+        int z,
+        int x,
+        int y,
+        int size,
+        int total,
+        int max,
+        int[] counts) {
+
+}
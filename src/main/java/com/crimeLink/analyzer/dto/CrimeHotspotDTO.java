@@ -0,0 +1,20 @@
+package com.crimeLink.analyzer.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.crimeLink.analyzer.entity.CrimeType;
+
+/**
+ * A dense group of crime reports. {@code polygon} is the convex hull as
+ * {@code [lat, lon]} pairs, the same shape as duty geofence vertices; it has
+ * fewer than three vertices when the reports are collinear.
+ */
+public record CrimeHotspotDTO(
+        int count,
+        double latitude,
+        double longitude,
+        List<List<Double>> polygon,
+        Map<CrimeType, Integer> countsByType) {
+
+}
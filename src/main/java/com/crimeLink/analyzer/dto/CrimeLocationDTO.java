@@ -1,5 +1,7 @@
 package com.crimeLink.analyzer.dto;
 
+import java.time.LocalDate;
+
 import com.crimeLink.analyzer.entity.CrimeType;
 
 import lombok.AllArgsConstructor;
@@ -10,7 +12,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class CrimeLocationDTO {
+    private Long reportId;
     private Double latitude;
     private Double longitude;
     private CrimeType crimeType; 
+    private LocalDate dateReported;
 }
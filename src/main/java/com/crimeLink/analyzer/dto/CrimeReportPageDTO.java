@@ -0,0 +1,13 @@
+package com.crimeLink.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * One page of reports, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} for the following page; it is {@code null} on the last page.
+ */
+public record CrimeReportPageDTO(
+        List<CrimeReportSummaryDTO> items,
+        String nextCursor) {
+
+}
@@ -0,0 +1,18 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.crimeLink.analyzer.entity.CrimeType;
+
+/** A crime report without its evidence, as listed in pages. */
+public record CrimeReportSummaryDTO(
+        Long reportId,
+        Double latitude,
+        Double longitude,
+        String description,
+        LocalDate dateReported,
+        LocalTime timeReported,
+        CrimeType crimeType) {
+
+}
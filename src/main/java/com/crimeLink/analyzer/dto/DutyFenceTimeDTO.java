@@ -0,0 +1,12 @@
+package com.crimeLink.analyzer.dto;
+
+public record DutyFenceTimeDTO(
+        Long dutyScheduleId,
+        String officerBadgeNo,
+        String location,
+        long insideSeconds,
+        int enterCount,
+        int exitCount,
+        boolean currentlyInside) {
+
+}
@@ -0,0 +1,21 @@
+package com.crimeLink.analyzer.dto;
+
+import java.util.List;
+
+import com.crimeLink.analyzer.entity.DutyGeofence;
+import com.crimeLink.analyzer.enums.GeofenceShape;
+
+public record DutyGeofenceDTO(
+        Long id,
+        String location,
+        GeofenceShape shape,
+        Double centerLat,
+        Double centerLon,
+        Double radiusM,
+        List<List<Double>> vertices) {
+
+    public static DutyGeofenceDTO from(DutyGeofence g) {
+        return new DutyGeofenceDTO(g.getId(), g.getLocation(), g.getShape(), g.getCenterLat(), g.getCenterLon(),
+                g.getRadiusM(), g.getVertices());
+    }
+}
@@ -0,0 +1,21 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.Instant;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+
+public record LastKnownPositionDTO(
+        String officerBadgeNo,
+        Instant ts,
+        double latitude,
+        double longitude,
+        Float accuracyM,
+        Float speedMps,
+        Float headingDeg,
+        String provider) {
+
+    public static LastKnownPositionDTO from(LocationPoint p) {
+        return new LastKnownPositionDTO(p.getOfficerBadgeNo(), p.getTs(), p.getLatitude(), p.getLongitude(),
+                p.getAccuracyM(), p.getSpeedMps(), p.getHeadingDeg(), p.getProvider());
+    }
+}
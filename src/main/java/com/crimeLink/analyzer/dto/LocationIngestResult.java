@@ -0,0 +1,7 @@
+package com.crimeLink.analyzer.dto;
+
+public record LocationIngestResult(
+        int accepted,
+        int rejected) {
+
+}
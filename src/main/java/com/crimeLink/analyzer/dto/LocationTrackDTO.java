@@ -0,0 +1,15 @@
+package com.crimeLink.analyzer.dto;
+
+/**
+ * Simplified location history in columnar form: element {@code i} of each
+ * array describes the same point. {@code ts} holds epoch milliseconds.
+ */
+public record LocationTrackDTO(
+        String officerBadgeNo,
+        int rawPoints,
+        int points,
+        long[] ts,
+        double[] lat,
+        double[] lon) {
+
+}
@@ -0,0 +1,17 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record MovementStatsDTO(
+        String officerBadgeNo,
+        LocalDate day,
+        double distanceM,
+        long movingSeconds,
+        long idleSeconds,
+        Double avgSpeedMps,
+        int pointCount,
+        Instant firstTs,
+        Instant lastTs) {
+
+}
@@ -0,0 +1,13 @@
+package com.crimeLink.analyzer.dto;
+
+import java.util.SortedMap;
+
+/**
+ * A photo after the image pipeline: the re-encoded JPEG without metadata and
+ * its JPEG thumbnails keyed by bounding-box size in pixels, smallest first.
+ */
+public record ProcessedImage(
+        byte[] image,
+        SortedMap<Integer, byte[]> thumbnails) {
+
+}
@@ -0,0 +1,9 @@
+package com.crimeLink.analyzer.dto;
+
+/** An uploaded object: its path in the bucket, size and SHA-256 (lower-case hex). */
+public record StoredFile(
+        String path,
+        long size,
+        String sha256) {
+
+}
@@ -0,0 +1,11 @@
+package com.crimeLink.analyzer.dto;
+
+/**
+ * Public URLs of an uploaded photo and of the thumbnail list views show,
+ * {@code thumbnailUrl} being null when no thumbnail could be made.
+ */
+public record StoredPhoto(
+        String url,
+        String thumbnailUrl) {
+
+}
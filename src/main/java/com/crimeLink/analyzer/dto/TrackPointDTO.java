@@ -0,0 +1,11 @@
+package com.crimeLink.analyzer.dto;
+
+import java.time.Instant;
+
+/** Timestamp and coordinates only, for track reads that must not hydrate entities. */
+public record TrackPointDTO(
+        Instant ts,
+        double latitude,
+        double longitude) {
+
+}
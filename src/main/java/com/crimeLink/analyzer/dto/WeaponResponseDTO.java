@@ -13,6 +13,7 @@ public class WeaponResponseDTO {
     private String status;
     private String remarks;
     private String imageUrl;
+    private String thumbnailUrl;
 
     // Issue details (if issued)
     private OfficerDTO issuedTo;
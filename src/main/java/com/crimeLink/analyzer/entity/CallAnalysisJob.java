@@ -0,0 +1,50 @@
+package com.crimeLink.analyzer.entity;
+
+import java.time.Instant;
+
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A batch of call record PDFs analysed in the background. Progress and
+ * results are kept per file in {@link CallAnalysisJobFile}; the job is
+ * COMPLETED once every file is, whether or not some of them failed.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "call_analysis_jobs")
+public class CallAnalysisJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private CallAnalysisStatus status;
+
+    @Column(name = "submitted_by", length = 100)
+    private String submittedBy;
+
+    @Column(name = "total_files", nullable = false)
+    private int totalFiles;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,68 @@
+package com.crimeLink.analyzer.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One PDF of a {@link CallAnalysisJob} and, once analysed, its result or the
+ * reason it failed.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "call_analysis_job_files", indexes = {
+        @Index(name = "idx_call_analysis_job_files_job", columnList = "job_id, file_index") })
+public class CallAnalysisJobFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    /** Position of the file in the submitted batch. */
+    @Column(name = "file_index", nullable = false)
+    private int fileIndex;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private CallAnalysisStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result", columnDefinition = "jsonb")
+    private JsonNode result;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,46 @@
+package com.crimeLink.analyzer.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Analysis the call analysis service returned for a call record PDF, keyed by
+ * the SHA-256 of the file. {@code modelVersion} is the
+ * {@code call-analysis.cache.version} the result was produced under; rows of
+ * another version are ignored and overwritten.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "call_analysis_results")
+public class CallAnalysisResult {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "model_version", nullable = false, length = 50)
+    private String modelVersion;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result", nullable = false, columnDefinition = "jsonb")
+    private JsonNode result;
+
+    @Column(name = "analyzed_at", nullable = false)
+    private Instant analyzedAt;
+}
@@ -38,6 +38,9 @@ public class Criminal {
     @Column(name = "primary_photo_url", length = 500)
     private String primaryPhotoUrl;
 
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
     @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
 
@@ -131,6 +134,14 @@ public class Criminal {
         this.primaryPhotoUrl = primaryPhotoUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public LocalDate getDateOfBirth() {
         return dateOfBirth;
     }
@@ -0,0 +1,42 @@
+package com.crimeLink.analyzer.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Time an officer spent inside the fence of one duty. */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "duty_fence_time")
+public class DutyFenceTime {
+    @Id
+    @Column(name = "duty_schedule_id")
+    private Long dutyScheduleId;
+
+    @Column(name = "officer_badge_no", length = 20)
+    private String officerBadgeNo;
+
+    private String location;
+
+    @Column(name = "inside_ms", nullable = false)
+    private long insideMs;
+
+    @Column(name = "enter_count", nullable = false)
+    private int enterCount;
+
+    @Column(name = "exit_count", nullable = false)
+    private int exitCount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
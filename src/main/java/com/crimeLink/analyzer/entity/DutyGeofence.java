@@ -0,0 +1,51 @@
+package com.crimeLink.analyzer.entity;
+
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.crimeLink.analyzer.enums.GeofenceShape;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Fence for one duty location, matched to {@link DutySchedule#getLocation()} by name. */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "duty_geofences")
+public class DutyGeofence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "location", nullable = false, unique = true)
+    private String location;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private GeofenceShape shape;
+
+    // CIRCLE
+    private Double centerLat;
+    private Double centerLon;
+    private Double radiusM;
+
+    /** POLYGON vertices as {@code [[lat, lon], ...]}, ring closed implicitly. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "vertices", columnDefinition = "jsonb")
+    private List<List<Double>> vertices;
+}
@@ -3,10 +3,12 @@ package com.crimeLink.analyzer.entity;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -20,7 +22,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "evidence")
+@Table(name = "evidence", indexes = {
+        @Index(name = "idx_evidence_content_sha256", columnList = "content_sha256") })
 public class Evidence {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -32,6 +35,10 @@ public class Evidence {
     private String fileType;
     private Long fileSize;
 
+    /** SHA-256 of the stored object (lower-case hex); null for files uploaded before content addressing. */
+    @Column(length = 64)
+    private String contentSha256;
+
     private LocalDateTime uploadTime;
 
     @ManyToOne
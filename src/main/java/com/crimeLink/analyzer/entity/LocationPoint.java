@@ -12,7 +12,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -24,9 +23,11 @@ import lombok.Setter;
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "location_points", indexes = {
-        @Index(name = "idx_location_points_officer_ts", columnList = "officer_badge_no, ts") })
+// idx_location_points_officer_ts is created by LocationPartitionManager: schema update
+// cannot see indexes on a partitioned table and would try to recreate it on every start.
+@Table(name = "location_points")
 public class LocationPoint {
+    // On PostgreSQL the key is (id, ts), see LocationPartitionManager; ids come from one sequence
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,67 @@
+package com.crimeLink.analyzer.entity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Running movement totals of one officer for one day, maintained during
+ * location ingest. The anchor and pending columns hold the in-progress state
+ * so accumulation resumes where it stopped after a restart.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(name = "officer_daily_movement", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_officer_daily_movement_badge_day", columnNames = { "officer_badge_no", "day" }) })
+public class OfficerDailyMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "officer_badge_no", nullable = false, length = 20)
+    private String officerBadgeNo;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "distance_m", nullable = false)
+    private double distanceM;
+
+    @Column(name = "moving_ms", nullable = false)
+    private long movingMs;
+
+    @Column(name = "idle_ms", nullable = false)
+    private long idleMs;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(name = "first_ts")
+    private Instant firstTs;
+
+    @Column(name = "last_ts")
+    private Instant lastTs;
+
+    @Column(name = "anchor_lat")
+    private Double anchorLat;
+
+    @Column(name = "anchor_lon")
+    private Double anchorLon;
+
+    @Column(name = "pending_ms", nullable = false)
+    private long pendingMs;
+}
@@ -40,6 +40,9 @@ public class Weapon {
 
     private String imageUrl;
 
+    /** Small rendition of {@link #imageUrl} for listings; null for images not uploaded through the API. */
+    private String thumbnailUrl;
+
     @PrePersist
     void onCreate() {
         registerDate = LocalDateTime.now();
@@ -0,0 +1,5 @@
+package com.crimeLink.analyzer.enums;
+
+public enum CallAnalysisStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,6 @@
+package com.crimeLink.analyzer.enums;
+
+public enum GeofenceShape {
+    CIRCLE,
+    POLYGON
+}
@@ -0,0 +1,11 @@
+package com.crimeLink.analyzer.event;
+
+import com.crimeLink.analyzer.entity.CrimeReport;
+
+/**
+ * Published after a crime report has been written. Listeners run on the
+ * request thread and keep in-memory map structures in step with the table.
+ */
+public record CrimeReportSavedEvent(CrimeReport report) {
+
+}
@@ -0,0 +1,22 @@
+package com.crimeLink.analyzer.event;
+
+import java.time.Instant;
+
+/**
+ * Published when an officer's location crosses the fence of their current
+ * duty. Listeners run on the ingest request thread and must stay cheap.
+ */
+public record GeofenceTransitionEvent(
+        String officerBadgeNo,
+        Long dutyScheduleId,
+        String location,
+        Transition transition,
+        Instant ts,
+        double latitude,
+        double longitude) {
+
+    public enum Transition {
+        ENTER,
+        EXIT
+    }
+}
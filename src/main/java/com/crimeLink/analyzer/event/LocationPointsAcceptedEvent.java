@@ -0,0 +1,16 @@
+package com.crimeLink.analyzer.event;
+
+import java.util.List;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+
+/**
+ * Published once per officer upload after its points pass validation and are
+ * handed to the ingest queue. Points are ordered by timestamp. Listeners run on
+ * the request thread and must stay cheap.
+ */
+public record LocationPointsAcceptedEvent(
+        String officerBadgeNo,
+        List<LocationPoint> points) {
+
+}
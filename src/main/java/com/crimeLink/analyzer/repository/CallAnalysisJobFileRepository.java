@@ -0,0 +1,28 @@
+package com.crimeLink.analyzer.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.CallAnalysisJobFile;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+
+@Repository
+public interface CallAnalysisJobFileRepository extends JpaRepository<CallAnalysisJobFile, Long> {
+
+    List<CallAnalysisJobFile> findByJobIdOrderByFileIndex(String jobId);
+
+    List<CallAnalysisJobFile> findByStatusIn(Collection<CallAnalysisStatus> statuses);
+
+    long countByJobIdAndStatusIn(String jobId, Collection<CallAnalysisStatus> statuses);
+
+    @Modifying
+    @Query("DELETE FROM CallAnalysisJobFile f WHERE f.jobId IN "
+            + "(SELECT j.id FROM CallAnalysisJob j WHERE j.finishedAt < ?1)")
+    int deleteOfJobsFinishedBefore(Instant cutoff);
+}
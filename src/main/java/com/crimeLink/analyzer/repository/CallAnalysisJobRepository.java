@@ -0,0 +1,35 @@
+package com.crimeLink.analyzer.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.CallAnalysisJob;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+
+@Repository
+public interface CallAnalysisJobRepository extends JpaRepository<CallAnalysisJob, String> {
+
+    @Modifying
+    @Query("UPDATE CallAnalysisJob j SET j.status = ?3 WHERE j.id = ?1 AND j.status = ?2")
+    int updateStatus(String id, CallAnalysisStatus from, CallAnalysisStatus to);
+
+    /** @return 1 for the caller that finished the job, 0 when it already was */
+    @Modifying
+    @Query("UPDATE CallAnalysisJob j SET j.status = ?2, j.finishedAt = ?3 WHERE j.id = ?1 AND j.finishedAt IS NULL")
+    int markFinished(String id, CallAnalysisStatus status, Instant finishedAt);
+
+    /** Jobs not yet finished none of whose files has one of {@code statuses}. */
+    @Query("SELECT j.id FROM CallAnalysisJob j WHERE j.finishedAt IS NULL AND NOT EXISTS "
+            + "(SELECT f.id FROM CallAnalysisJobFile f WHERE f.jobId = j.id AND f.status IN ?1)")
+    List<String> findUnfinishedIdsWithoutFilesIn(Collection<CallAnalysisStatus> statuses);
+
+    @Modifying
+    @Query("DELETE FROM CallAnalysisJob j WHERE j.finishedAt < ?1")
+    int deleteFinishedBefore(Instant cutoff);
+}
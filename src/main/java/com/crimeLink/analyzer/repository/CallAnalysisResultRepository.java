@@ -0,0 +1,10 @@
+package com.crimeLink.analyzer.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.CallAnalysisResult;
+
+@Repository
+public interface CallAnalysisResultRepository extends JpaRepository<CallAnalysisResult, String> {
+}
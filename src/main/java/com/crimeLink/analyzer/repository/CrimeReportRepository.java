@@ -1,13 +1,19 @@
 package com.crimeLink.analyzer.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.dto.CrimeReportSummaryDTO;
 import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
 
 @Repository
 public interface CrimeReportRepository extends JpaRepository<CrimeReport, Long> {
@@ -15,11 +21,44 @@ public interface CrimeReportRepository extends JpaRepository<CrimeReport, Long>
 
     @Query("""
                 SELECT new com.crimeLink.analyzer.dto.CrimeLocationDTO(
+                c.reportId,
                 c.latitude,
                 c.longitude,
-                c.crimeType
+                c.crimeType,
+                c.dateReported
             )
             FROM CrimeReport c
                 """)
     List<CrimeLocationDTO> findCrimeLocations();
+
+    /**
+     * Reports ordered by {@code (dateReported, reportId)} descending, strictly
+     * after the given position. Every filter is mandatory so the statement has
+     * no optional branches; callers pass the widest values to disable one. The
+     * redundant {@code <= :afterDate} bound lets the planner range-scan
+     * {@code idx_crime_report_date_id}.
+     */
+    @Query("""
+            SELECT new com.crimeLink.analyzer.dto.CrimeReportSummaryDTO(
+                c.reportId, c.latitude, c.longitude, c.description, c.dateReported, c.timeReported, c.crimeType)
+            FROM CrimeReport c
+            WHERE c.crimeType IN :types
+              AND c.dateReported BETWEEN :from AND :to
+              AND c.latitude BETWEEN :minLat AND :maxLat
+              AND c.longitude BETWEEN :minLon AND :maxLon
+              AND c.dateReported <= :afterDate
+              AND (c.dateReported < :afterDate OR c.reportId < :afterId)
+            ORDER BY c.dateReported DESC, c.reportId DESC
+            """)
+    List<CrimeReportSummaryDTO> findPageAfter(
+            @Param("types") Collection<CrimeType> types,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon,
+            @Param("maxLon") double maxLon,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") long afterId,
+            Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.crimeLink.analyzer.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.DutyGeofence;
+
+@Repository
+public interface DutyGeofenceRepository extends JpaRepository<DutyGeofence, Long> {
+    Optional<DutyGeofence> findByLocationIgnoreCase(String location);
+}
@@ -1,11 +1,15 @@
 package com.crimeLink.analyzer.repository;
 
+import com.crimeLink.analyzer.dto.ActiveDutyDTO;
 import com.crimeLink.analyzer.entity.DutySchedule;
+import com.crimeLink.analyzer.enums.DutyStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,4 +52,15 @@ public interface DutyScheduleRepository extends JpaRepository<DutySchedule, Long
             ORDER BY d.location
             """)
     List<String> findDistinctLocations();
+
+    @Query("""
+            SELECT new com.crimeLink.analyzer.dto.ActiveDutyDTO(d.id, o.badgeNo, d.location, d.timeRange, d.date)
+            FROM DutySchedule d JOIN d.assignedOfficer o
+            WHERE d.date BETWEEN :from AND :to
+              AND d.status IN :statuses
+              AND d.location IS NOT NULL
+              AND o.badgeNo IS NOT NULL
+            """)
+    List<ActiveDutyDTO> findDutiesForGeofencing(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("statuses") Collection<DutyStatus> statuses);
 }
@@ -0,0 +1,160 @@
+package com.crimeLink.analyzer.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk writer for {@link LocationPoint} rows.
+ * <p>
+ * {@code LocationPoint.id} uses IDENTITY generation, so Hibernate cannot batch
+ * {@code saveAll} and pays one INSERT round trip per point. This repository
+ * bypasses the persistence context: on PostgreSQL the whole batch is streamed
+ * through a single {@code COPY ... FROM STDIN}; on any other database (H2 in
+ * development) it falls back to one batched multi-row JDBC insert.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class LocationPointBulkRepository {
+
+    /** Physical names as generated by Hibernate ({@code accuracyM} maps to {@code accuracym}). */
+    private static final String COLUMNS =
+            "officer_badge_no, ts, latitude, longitude, accuracym, speed_mps, heading_deg, provider, meta";
+
+    private static final String COPY_SQL =
+            "COPY location_points (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO location_points (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Rows sent per JDBC batch on the non-PostgreSQL fallback path. */
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    /** Size of the client-side buffer in front of the COPY stream. */
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all points in one round trip (COPY) or one JDBC batch sequence.
+     *
+     * @param points detached, already validated points; ids are ignored
+     * @return number of rows written
+     */
+    public int insertAll(List<LocationPoint> points) {
+        if (points.isEmpty()) {
+            return 0;
+        }
+        Integer written = jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            if (con.isWrapperFor(PGConnection.class)) {
+                return copyIn(con, points);
+            }
+            return batchInsert(points);
+        });
+        return written == null ? 0 : written;
+    }
+
+    private int copyIn(Connection con, List<LocationPoint> points) throws SQLException {
+        PGConnection pg = con.unwrap(PGConnection.class);
+        try (PGCopyOutputStream out = new PGCopyOutputStream(pg, COPY_SQL, COPY_BUFFER_BYTES);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            StringBuilder row = new StringBuilder(256);
+            for (LocationPoint p : points) {
+                row.setLength(0);
+                appendCsvRow(row, p);
+                writer.write(row.toString());
+            }
+        } catch (IOException e) {
+            throw new SQLException("COPY into location_points failed: " + e.getMessage(), e);
+        }
+        return points.size();
+    }
+
+    private int batchInsert(List<LocationPoint> points) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, points, JDBC_BATCH_SIZE, (ps, p) -> {
+            ps.setString(1, p.getOfficerBadgeNo());
+            ps.setTimestamp(2, Timestamp.from(p.getTs()));
+            ps.setDouble(3, p.getLatitude());
+            ps.setDouble(4, p.getLongitude());
+            setNullableFloat(ps, 5, p.getAccuracyM());
+            setNullableFloat(ps, 6, p.getSpeedMps());
+            setNullableFloat(ps, 7, p.getHeadingDeg());
+            ps.setString(8, p.getProvider());
+            ps.setString(9, p.getMeta() == null ? null : p.getMeta().toString());
+        });
+        log.debug("Batch-inserted {} location points in {} JDBC batches", points.size(), counts.length);
+        return points.size();
+    }
+
+    private static void setNullableFloat(PreparedStatement ps, int index, Float value)
+            throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.REAL);
+        } else {
+            ps.setFloat(index, value);
+        }
+    }
+
+    /**
+     * Append one CSV record. Text columns are always quoted so that an empty
+     * unquoted field unambiguously means NULL in PostgreSQL's CSV format.
+     */
+    static void appendCsvRow(StringBuilder row, LocationPoint p) {
+        appendQuoted(row, p.getOfficerBadgeNo());
+        row.append(',').append(p.getTs());
+        row.append(',').append(p.getLatitude());
+        row.append(',').append(p.getLongitude());
+        row.append(',');
+        if (p.getAccuracyM() != null) {
+            row.append(p.getAccuracyM());
+        }
+        row.append(',');
+        if (p.getSpeedMps() != null) {
+            row.append(p.getSpeedMps());
+        }
+        row.append(',');
+        if (p.getHeadingDeg() != null) {
+            row.append(p.getHeadingDeg());
+        }
+        row.append(',');
+        appendQuoted(row, p.getProvider());
+        row.append(',');
+        appendQuoted(row, p.getMeta() == null ? null : p.getMeta().toString());
+        row.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') {
+                row.append('"');
+            }
+            row.append(ch);
+        }
+        row.append('"');
+    }
+}
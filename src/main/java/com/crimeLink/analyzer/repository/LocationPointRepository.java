@@ -5,11 +5,33 @@ import java.util.List;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.dto.TrackPointDTO;
 import com.crimeLink.analyzer.entity.LocationPoint;
 
 public interface LocationPointRepository extends JpaRepository<LocationPoint, Long> {
     List<LocationPoint> findByOfficerBadgeNoAndTsBetweenOrderByTsAsc(String officerBadgeNo, Instant from, Instant to);
 
     List<LocationPoint> findByOfficerBadgeNoOrderByTsDesc(String officerBadgeNo, Pageable pageable);
+
+    @Query("""
+            SELECT new com.crimeLink.analyzer.dto.TrackPointDTO(p.ts, p.latitude, p.longitude)
+            FROM LocationPoint p
+            WHERE p.officerBadgeNo = :officerBadgeNo AND p.ts BETWEEN :from AND :to
+            ORDER BY p.ts
+            """)
+    List<TrackPointDTO> findTrack(@Param("officerBadgeNo") String officerBadgeNo,
+            @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("""
+            SELECT new com.crimeLink.analyzer.dto.LastKnownPositionDTO(
+                p.officerBadgeNo, p.ts, p.latitude, p.longitude,
+                p.accuracyM, p.speedMps, p.headingDeg, p.provider)
+            FROM LocationPoint p
+            WHERE p.ts = (SELECT MAX(q.ts) FROM LocationPoint q WHERE q.officerBadgeNo = p.officerBadgeNo)
+            """)
+    List<LastKnownPositionDTO> findLatestPerOfficer();
 }
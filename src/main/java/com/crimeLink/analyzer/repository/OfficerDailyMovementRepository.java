@@ -0,0 +1,17 @@
+package com.crimeLink.analyzer.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.crimeLink.analyzer.entity.OfficerDailyMovement;
+
+@Repository
+public interface OfficerDailyMovementRepository extends JpaRepository<OfficerDailyMovement, Long> {
+    Optional<OfficerDailyMovement> findByOfficerBadgeNoAndDay(String officerBadgeNo, LocalDate day);
+
+    List<OfficerDailyMovement> findByDayOrderByOfficerBadgeNo(LocalDate day);
+}
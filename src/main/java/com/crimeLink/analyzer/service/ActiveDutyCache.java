@@ -0,0 +1,113 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.ActiveDutyDTO;
+import com.crimeLink.analyzer.enums.DutyStatus;
+import com.crimeLink.analyzer.repository.DutyScheduleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Yesterday's and today's duties per officer badge, resolved to time windows.
+ * <p>
+ * Refreshed from the database on a short interval so the location ingest path
+ * can find an officer's current duty without a query per point. Yesterday is
+ * included so that overnight shifts such as {@code 22:00-06:00} keep matching
+ * after midnight.
+ */
+@Slf4j
+@Service
+public class ActiveDutyCache {
+
+    /** A duty and the instants it starts and ends. */
+    public record ActiveDuty(Long dutyId, String location, Instant start, Instant end) {
+    }
+
+    private static final Pattern TIME_RANGE = Pattern.compile("(\\d{1,2})[:.](\\d{2})\\s*-\\s*(\\d{1,2})[:.](\\d{2})");
+    private static final EnumSet<DutyStatus> FENCED_STATUSES =
+            EnumSet.of(DutyStatus.Assigned, DutyStatus.Active, DutyStatus.Completed);
+
+    private final DutyScheduleRepository dutyRepo;
+    private final ZoneId zone;
+    private final Clock clock;
+
+    private volatile Map<String, List<ActiveDuty>> byBadge = Map.of();
+
+    @Autowired
+    public ActiveDutyCache(DutyScheduleRepository dutyRepo,
+            @Value("${geofence.duty-zone:Asia/Colombo}") String zone) {
+        this(dutyRepo, ZoneId.of(zone), Clock.systemUTC());
+    }
+
+    ActiveDutyCache(DutyScheduleRepository dutyRepo, ZoneId zone, Clock clock) {
+        this.dutyRepo = dutyRepo;
+        this.zone = zone;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${geofence.duty-refresh-ms:60000}", initialDelayString = "${geofence.duty-refresh-ms:60000}")
+    public void refresh() {
+        LocalDate today = LocalDate.now(clock.withZone(zone));
+        List<ActiveDutyDTO> rows = dutyRepo.findDutiesForGeofencing(today.minusDays(1), today, FENCED_STATUSES);
+        Map<String, List<ActiveDuty>> next = new HashMap<>();
+        for (ActiveDutyDTO row : rows) {
+            next.computeIfAbsent(row.officerBadgeNo(), b -> new ArrayList<>(2)).add(toActiveDuty(row));
+        }
+        byBadge = next;
+        log.debug("Active duty cache refreshed with {} duties", rows.size());
+    }
+
+    /** @return the duty covering {@code ts} for the officer, or {@code null} */
+    public ActiveDuty find(String officerBadgeNo, Instant ts) {
+        List<ActiveDuty> duties = byBadge.get(officerBadgeNo);
+        if (duties == null) {
+            return null;
+        }
+        for (ActiveDuty duty : duties) {
+            if (!ts.isBefore(duty.start()) && ts.isBefore(duty.end())) {
+                return duty;
+            }
+        }
+        return null;
+    }
+
+    /** A duty without a parseable time range covers its whole day. */
+    ActiveDuty toActiveDuty(ActiveDutyDTO row) {
+        LocalTime from = LocalTime.MIDNIGHT;
+        LocalTime to = LocalTime.MIDNIGHT;
+        Matcher m = row.timeRange() == null ? null : TIME_RANGE.matcher(row.timeRange());
+        if (m != null && m.find()) {
+            try {
+                from = LocalTime.of(Integer.parseInt(m.group(1)) % 24, Integer.parseInt(m.group(2)));
+                to = LocalTime.of(Integer.parseInt(m.group(3)) % 24, Integer.parseInt(m.group(4)));
+            } catch (RuntimeException e) {
+                from = LocalTime.MIDNIGHT;
+                to = LocalTime.MIDNIGHT;
+            }
+        }
+        Instant start = row.date().atTime(from).atZone(zone).toInstant();
+        LocalDate endDate = to.isAfter(from) ? row.date() : row.date().plusDays(1);
+        Instant end = endDate.atTime(to).atZone(zone).toInstant();
+        return new ActiveDuty(row.dutyId(), row.location(), start, end);
+    }
+}
@@ -0,0 +1,462 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.crimeLink.analyzer.dto.CallAnalysisJobDTO;
+import com.crimeLink.analyzer.dto.CallAnalysisJobFileDTO;
+import com.crimeLink.analyzer.entity.CallAnalysisJob;
+import com.crimeLink.analyzer.entity.CallAnalysisJobFile;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+import com.crimeLink.analyzer.repository.CallAnalysisJobFileRepository;
+import com.crimeLink.analyzer.repository.CallAnalysisJobRepository;
+import com.crimeLink.analyzer.util.ContentHash;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch call analysis as background jobs. Submitting spools the uploads to
+ * {@code call-analysis.jobs.spool-dir} and returns at once; the files are
+ * then analysed one by one through {@link CallAnalysisService}, at most
+ * {@code call-analysis.jobs.max-parallel} at a time across all jobs, and each
+ * result is stored as soon as it arrives. Clients poll
+ * {@link #getFor(String, String)} or follow {@link #subscribe(String, String)};
+ * a job is only visible to the user who submitted it.
+ * <p>
+ * A file refused because the ML service is busy or its breaker is open is
+ * retried with a growing delay, capped at {@value #MAX_RETRY_DELAY_MS} ms,
+ * for up to {@code call-analysis.jobs.retry-for-ms}, which must outlast the
+ * breaker's open period so an outage does not fail every queued file; any
+ * other failure fails that file only. Files still queued at shutdown are picked up again on start.
+ * Finished jobs are purged after {@code call-analysis.jobs.retention-days}.
+ * <p>
+ * Metrics: {@code call.analysis.jobs.pending} (files queued or running) and
+ * {@code call.analysis.jobs.files} tagged {@code status=completed|failed}.
+ */
+@Slf4j
+@Service
+public class CallAnalysisJobService {
+
+    static final String PROGRESS_EVENT = "progress";
+    static final String FILE_EVENT = "file";
+    static final String DONE_EVENT = "done";
+    /** Longest wait between attempts while the ML service refuses calls. */
+    static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    private static final Set<CallAnalysisStatus> UNFINISHED =
+            EnumSet.of(CallAnalysisStatus.QUEUED, CallAnalysisStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final CallAnalysisService callAnalysisService;
+    private final CallAnalysisJobRepository jobRepository;
+    private final CallAnalysisJobFileRepository fileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path spoolDir;
+    private final int maxPendingFiles;
+    private final long retryDelayMs;
+    private final long retryForMs;
+    private final long streamTimeoutMs;
+    private final int retentionDays;
+
+    private final ExecutorService workers;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Counter filesCompleted;
+    private final Counter filesFailed;
+
+    public CallAnalysisJobService(CallAnalysisService callAnalysisService, CallAnalysisJobRepository jobRepository,
+            CallAnalysisJobFileRepository fileRepository, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${call-analysis.jobs.spool-dir:./data/call-analysis-jobs}") String spoolDir,
+            @Value("${call-analysis.jobs.max-parallel:4}") int maxParallel,
+            @Value("${call-analysis.jobs.max-pending-files:500}") int maxPendingFiles,
+            @Value("${call-analysis.jobs.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${call-analysis.jobs.retry-for-ms:300000}") long retryForMs,
+            @Value("${call-analysis.jobs.stream-timeout-ms:1800000}") long streamTimeoutMs,
+            @Value("${call-analysis.jobs.retention-days:7}") int retentionDays) {
+        this.callAnalysisService = callAnalysisService;
+        this.jobRepository = jobRepository;
+        this.fileRepository = fileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.spoolDir = Paths.get(spoolDir);
+        this.maxPendingFiles = maxPendingFiles;
+        this.retryDelayMs = retryDelayMs;
+        this.retryForMs = retryForMs;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.retentionDays = retentionDays;
+        this.workers = Executors.newFixedThreadPool(maxParallel,
+                Thread.ofPlatform().name("call-analysis-job-", 0).daemon().factory());
+
+        Gauge.builder("call.analysis.jobs.pending", pending, AtomicInteger::get)
+                .description("Batch job files queued or being analysed")
+                .register(meterRegistry);
+        this.filesCompleted = meterRegistry.counter("call.analysis.jobs.files", "status", "completed");
+        this.filesFailed = meterRegistry.counter("call.analysis.jobs.files", "status", "failed");
+    }
+
+    /**
+     * Spool {@code files} and queue them for analysis.
+     *
+     * @return the new job, all files QUEUED
+     * @throws ResponseStatusException 503 when too many files are already waiting
+     */
+    public CallAnalysisJobDTO submit(List<MultipartFile> files, String submittedBy) {
+        if (pending.get() + files.size() > maxPendingFiles) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many call records waiting for analysis, try again later");
+        }
+        String jobId = UUID.randomUUID().toString();
+        List<CallAnalysisJobFile> rows = new ArrayList<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                String name = file.getOriginalFilename() == null || file.getOriginalFilename().isBlank()
+                        ? "call-record-" + (i + 1) + ".pdf"
+                        : file.getOriginalFilename();
+                CallAnalysisJobFile row = new CallAnalysisJobFile(null, jobId, i, truncate(name, 255),
+                        CallAnalysisStatus.QUEUED, 0, null, null, null);
+                Path target = spooled(row);
+                Files.createDirectories(target.getParent());
+                file.transferTo(target);
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            deleteSpool(jobId);
+            throw new UncheckedIOException("Could not store the uploaded call records", e);
+        }
+
+        CallAnalysisJob job = jobRepository.save(new CallAnalysisJob(jobId, CallAnalysisStatus.QUEUED, submittedBy,
+                rows.size(), Instant.now(), null));
+        List<CallAnalysisJobFile> saved = fileRepository.saveAll(rows);
+        // Snapshot before the workers start changing the rows
+        CallAnalysisJobDTO queued = toDto(job, saved);
+        saved.forEach(this::enqueue);
+        log.info("Call analysis job {} queued with {} files", jobId, saved.size());
+        return queued;
+    }
+
+    /** The job with every file's status and the results available so far. */
+    public Optional<CallAnalysisJobDTO> get(String jobId) {
+        return jobRepository.findById(jobId)
+                .map(job -> toDto(job, fileRepository.findByJobIdOrderByFileIndex(jobId)));
+    }
+
+    /**
+     * The job as {@link #get(String)}, if {@code requester} submitted it;
+     * for anyone else it does not exist.
+     */
+    public Optional<CallAnalysisJobDTO> getFor(String jobId, String requester) {
+        return get(jobId).filter(job -> requester != null && requester.equals(job.submittedBy()));
+    }
+
+    /**
+     * Follow a job: a {@value #PROGRESS_EVENT} snapshot first, a
+     * {@value #FILE_EVENT} event as each file finishes and a final
+     * {@value #DONE_EVENT} with the whole job, after which the stream ends.
+     *
+     * @throws ResponseStatusException 404 for an unknown job or one
+     *         {@code requester} did not submit
+     */
+    public SseEmitter subscribe(String jobId, String requester) {
+        CallAnalysisJobDTO job = getFor(jobId, requester).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Call analysis job not found"));
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        if (job.finishedAt() != null) {
+            subscriber.send(DONE_EVENT, job);
+            subscriber.close();
+            return emitter;
+        }
+
+        subscribers.compute(jobId, (id, followers) -> {
+            Set<Subscriber> set = followers != null ? followers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(jobId, subscriber));
+        emitter.onError(e -> unsubscribe(jobId, subscriber));
+
+        // The job may have finished before the registration, unseen by finish(); a second done is ignored
+        job = get(jobId).orElse(job);
+        if (job.finishedAt() != null) {
+            unsubscribe(jobId, subscriber);
+            subscriber.send(DONE_EVENT, job);
+            subscriber.close();
+        } else {
+            subscriber.send(PROGRESS_EVENT, job);
+        }
+        return emitter;
+    }
+
+    /**
+     * Queue the files left unfinished by the previous run, and complete the
+     * jobs it stopped after their last file was stored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<String> done = jobRepository.findUnfinishedIdsWithoutFilesIn(UNFINISHED);
+        if (!done.isEmpty()) {
+            log.info("Completing {} call analysis jobs whose files were all analysed", done.size());
+            done.forEach(this::complete);
+        }
+        List<CallAnalysisJobFile> unfinished = fileRepository.findByStatusIn(UNFINISHED);
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished call analysis job files", unfinished.size());
+            unfinished.forEach(this::enqueue);
+        }
+    }
+
+    /** Delete jobs that finished more than the retention period ago. */
+    @Transactional
+    @Scheduled(cron = "${call-analysis.jobs.purge-cron:0 45 2 * * *}")
+    public void purge() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        fileRepository.deleteOfJobsFinishedBefore(cutoff);
+        int jobs = jobRepository.deleteFinishedBefore(cutoff);
+        if (jobs > 0) {
+            log.info("Purged {} call analysis jobs finished before {}", jobs, cutoff);
+        }
+    }
+
+    int pendingFiles() {
+        return pending.get();
+    }
+
+    int followedJobs() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        subscribers.values().forEach(followers -> followers.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void enqueue(CallAnalysisJobFile file) {
+        pending.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                process(file);
+            } catch (RuntimeException e) {
+                log.error("Call analysis job {} file {} could not be processed", file.getJobId(),
+                        file.getFileIndex(), e);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private void process(CallAnalysisJobFile file) {
+        Path pdf = spooled(file);
+        if (!Files.exists(pdf)) {
+            finish(file, null, "Uploaded file is no longer available");
+            return;
+        }
+        file.setStatus(CallAnalysisStatus.RUNNING);
+        fileRepository.save(file);
+        transactionTemplate.execute(status -> jobRepository.updateStatus(file.getJobId(),
+                CallAnalysisStatus.QUEUED, CallAnalysisStatus.RUNNING));
+
+        long retryUntil = 0;
+        for (int attempt = 1;; attempt++) {
+            file.setAttempts(file.getAttempts() + 1);
+            try {
+                finish(file, callAnalysisService.analyzeCallRecord(new FileSystemResource(pdf)), null);
+                return;
+            } catch (ResponseStatusException e) {
+                long now = System.currentTimeMillis();
+                if (retryUntil == 0) {
+                    retryUntil = now + retryForMs;
+                }
+                long delay = Math.min(retryDelayMs * attempt, MAX_RETRY_DELAY_MS);
+                if (now + delay > retryUntil) {
+                    finish(file, null, e.getReason());
+                    return;
+                }
+                log.debug("Call analysis job {} file {} refused ({}), retrying", file.getJobId(),
+                        file.getFileIndex(), e.getReason());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    // Shutting down; the file stays RUNNING and is resumed on the next start
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (RuntimeException e) {
+                finish(file, null, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /** Store the outcome of one file and tell followers; completes the job after its last file. */
+    private void finish(CallAnalysisJobFile file, JsonNode result, String error) {
+        file.setStatus(result != null ? CallAnalysisStatus.COMPLETED : CallAnalysisStatus.FAILED);
+        file.setResult(result);
+        file.setError(error == null ? null : truncate(error, MAX_ERROR_LENGTH));
+        file.setFinishedAt(Instant.now());
+        fileRepository.save(file);
+        (result != null ? filesCompleted : filesFailed).increment();
+        deleteQuietly(spooled(file).getParent());
+        publish(file.getJobId(), FILE_EVENT, CallAnalysisJobFileDTO.from(file));
+
+        if (fileRepository.countByJobIdAndStatusIn(file.getJobId(), UNFINISHED) == 0) {
+            complete(file.getJobId());
+        }
+    }
+
+    /** Mark a job with no files left to analyse completed and tell its followers. */
+    private void complete(String jobId) {
+        // Workers finishing the last files together may all get here; only the one whose update lands completes
+        Integer completed = transactionTemplate.execute(status ->
+                jobRepository.markFinished(jobId, CallAnalysisStatus.COMPLETED, Instant.now()));
+        if (completed == null || completed == 0) {
+            return;
+        }
+        deleteSpool(jobId);
+        log.info("Call analysis job {} completed", jobId);
+
+        Set<Subscriber> followers = subscribers.remove(jobId);
+        if (followers != null && !followers.isEmpty()) {
+            get(jobId).ifPresent(done -> followers.forEach(subscriber -> {
+                subscriber.send(DONE_EVENT, done);
+                subscriber.close();
+            }));
+        }
+    }
+
+    private void unsubscribe(String jobId, Subscriber subscriber) {
+        subscribers.computeIfPresent(jobId, (id, followers) -> {
+            followers.remove(subscriber);
+            return followers.isEmpty() ? null : followers;
+        });
+    }
+
+    private void publish(String jobId, String event, Object data) {
+        Set<Subscriber> followers = subscribers.get(jobId);
+        if (followers != null) {
+            followers.forEach(subscriber -> subscriber.send(event, data));
+        }
+    }
+
+    private Path spooled(CallAnalysisJobFile file) {
+        return spoolDir.resolve(file.getJobId())
+                .resolve(Integer.toString(file.getFileIndex()))
+                .resolve(ContentHash.safeName(file.getFileName(), "call-record.pdf"));
+    }
+
+    private void deleteSpool(String jobId) {
+        deleteQuietly(spoolDir.resolve(jobId));
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete spooled call records in {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static CallAnalysisJobDTO toDto(CallAnalysisJob job, List<CallAnalysisJobFile> files) {
+        int finished = 0;
+        int failed = 0;
+        for (CallAnalysisJobFile file : files) {
+            if (!UNFINISHED.contains(file.getStatus())) {
+                finished++;
+            }
+            if (file.getStatus() == CallAnalysisStatus.FAILED) {
+                failed++;
+            }
+        }
+        return new CallAnalysisJobDTO(job.getId(), job.getStatus(), job.getSubmittedBy(), job.getCreatedAt(),
+                job.getFinishedAt(), job.getTotalFiles(), finished, failed,
+                files.stream().map(CallAnalysisJobFileDTO::from).toList());
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    /** One follower of a job; events go out in order on a virtual thread, never on a worker. */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private CompletableFuture<Void> sending = CompletableFuture.completedFuture(null);
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(String event, Object data) {
+            if (closed) {
+                return;
+            }
+            sending = sending.thenRunAsync(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; completion callbacks drop the subscriber
+                }
+            }, senders);
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sending = sending.thenRunAsync(emitter::complete, senders);
+        }
+    }
+}
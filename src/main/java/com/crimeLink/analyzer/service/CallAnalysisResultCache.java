@@ -0,0 +1,193 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.entity.CallAnalysisResult;
+import com.crimeLink.analyzer.repository.CallAnalysisResultRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Call record analyses by SHA-256 of the PDF, so a file that was analysed
+ * before is answered without the ML service. Two tiers: a bounded LRU map in
+ * memory ({@code call-analysis.cache.max-entries} results of at most
+ * {@code call-analysis.cache.max-memory-mb} counted as JSON text) in front of
+ * the {@code call_analysis_results} table, which keeps every result.
+ * <p>
+ * Bump {@code call-analysis.cache.version} when the ML pipeline changes its
+ * output; stored results of another version are then analysed again.
+ * Concurrent requests for the same content share one analysis. The database
+ * tier is best effort: when it fails the request goes on as a miss.
+ * <p>
+ * Metrics: {@code call.analysis.cache.requests} tagged
+ * {@code result=memory|database|shared|miss}, {@code call.analysis.cache.evictions},
+ * and gauges {@code call.analysis.cache.entries} / {@code call.analysis.cache.bytes}.
+ */
+@Slf4j
+@Service
+public class CallAnalysisResultCache {
+
+    /** A result in memory and the size of its JSON text. */
+    private record Entry(JsonNode result, long bytes) {
+    }
+
+    private final CallAnalysisResultRepository repository;
+    private final String version;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    /** Access ordered; guarded by itself, as is {@link #bytes}. */
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final ConcurrentHashMap<String, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CallAnalysisResultCache(CallAnalysisResultRepository repository, MeterRegistry meterRegistry,
+            @Value("${call-analysis.cache.version:1}") String version,
+            @Value("${call-analysis.cache.max-entries:1000}") int maxEntries,
+            @Value("${call-analysis.cache.max-memory-mb:64}") long maxMemoryMb) {
+        this.repository = repository;
+        this.version = version;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+
+        this.memoryHits = meterRegistry.counter("call.analysis.cache.requests", "result", "memory");
+        this.databaseHits = meterRegistry.counter("call.analysis.cache.requests", "result", "database");
+        this.sharedHits = meterRegistry.counter("call.analysis.cache.requests", "result", "shared");
+        this.misses = meterRegistry.counter("call.analysis.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("call.analysis.cache.evictions");
+        Gauge.builder("call.analysis.cache.entries", memory, m -> {
+            synchronized (m) {
+                return m.size();
+            }
+        }).description("Results held in memory").register(meterRegistry);
+        Gauge.builder("call.analysis.cache.bytes", this, c -> {
+            synchronized (c.memory) {
+                return c.bytes;
+            }
+        }).description("JSON size of the results held in memory").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * The analysis of the file whose content hashes to {@code sha256}: cached,
+     * or produced by {@code analyze} and then cached. A failing
+     * {@code analyze} caches nothing.
+     */
+    public JsonNode getOrAnalyze(String sha256, Supplier<JsonNode> analyze) {
+        JsonNode cached = lookup(sha256);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<JsonNode> claim = new CompletableFuture<>();
+        CompletableFuture<JsonNode> running = inFlight.putIfAbsent(sha256, claim);
+        if (running != null) {
+            sharedHits.increment();
+            return await(running).deepCopy();
+        }
+        try {
+            // Another request may have finished the same file between the lookup and the claim
+            JsonNode result = fromMemory(sha256);
+            if (result != null) {
+                memoryHits.increment();
+            } else {
+                misses.increment();
+                result = analyze.get();
+                store(sha256, result);
+            }
+            claim.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(sha256, claim);
+        }
+    }
+
+    private JsonNode lookup(String sha256) {
+        JsonNode result = fromMemory(sha256);
+        if (result != null) {
+            memoryHits.increment();
+            return result;
+        }
+        try {
+            Optional<CallAnalysisResult> stored = repository.findById(sha256)
+                    .filter(r -> version.equals(r.getModelVersion()));
+            if (stored.isPresent()) {
+                databaseHits.increment();
+                remember(sha256, stored.get().getResult());
+                return stored.get().getResult().deepCopy();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Call analysis cache lookup failed, analysing again: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private JsonNode fromMemory(String sha256) {
+        synchronized (memory) {
+            Entry entry = memory.get(sha256);
+            return entry != null ? entry.result().deepCopy() : null;
+        }
+    }
+
+    private void store(String sha256, JsonNode result) {
+        JsonNode copy = result.deepCopy();
+        remember(sha256, copy);
+        try {
+            repository.save(new CallAnalysisResult(sha256, version, copy, Instant.now()));
+        } catch (DataAccessException e) {
+            log.warn("Could not persist call analysis result {}: {}", sha256, e.getMessage());
+        }
+    }
+
+    private void remember(String sha256, JsonNode result) {
+        long size = result.toString().length();
+        if (size > maxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            Entry previous = memory.put(sha256, new Entry(result, size));
+            bytes += size - (previous != null ? previous.bytes() : 0);
+            // Least recently used first; the entry just added is last
+            Iterator<Entry> eldest = memory.values().iterator();
+            while (bytes > maxBytes || memory.size() > maxEntries) {
+                bytes -= eldest.next().bytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static JsonNode await(CompletableFuture<JsonNode> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,21 +1,31 @@
 package com.crimeLink.analyzer.service;
 
+import com.crimeLink.analyzer.config.MlServiceProperties;
+import com.crimeLink.analyzer.util.Bulkhead;
+import com.crimeLink.analyzer.util.CircuitBreaker;
+import com.crimeLink.analyzer.util.ContentHash;
 import com.crimeLink.analyzer.util.LogSanitizer;
+import com.crimeLink.analyzer.util.ServiceHealth;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Service for communicating with the Call Analysis ML microservice.
@@ -23,6 +33,18 @@ import java.util.List;
  * monolith to the Python FastAPI microservice.
  * 
  * Architecture: Frontend -> Spring Boot (this service) -> Python ML Service
+ * <p>
+ * Uploads are forwarded as {@link MultipartFile#getResource()} parts, which
+ * the multipart converter streams from the servlet container's temp files
+ * into the chunked request body, so no upload is held on the heap.
+ * <p>
+ * At most {@code ml.call-analysis.max-concurrent} calls run at once; further
+ * callers wait up to {@code ml.call-analysis.queue-timeout-ms} and are then
+ * refused with 503, see {@link Bulkhead}. In front of that a
+ * {@link CircuitBreaker} refuses calls straight away while the service keeps
+ * timing out or answering 5xx, instead of every caller waiting out the
+ * connect timeout; health checks bypass both but feed the breaker. Response
+ * timeouts adapt to observed latency, see {@code RestTemplateConfig}.
  */
 @Service
 @Slf4j
@@ -30,23 +52,59 @@ public class CallAnalysisService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker breaker;
+    private final CallAnalysisResultCache resultCache;
 
     @Value("${python.call-analysis.url}")
     private String callAnalysisServiceUrl;
 
-    public CallAnalysisService(RestTemplate restTemplate) {
+    public CallAnalysisService(@Qualifier("callAnalysisRestTemplate") RestTemplate restTemplate, MeterRegistry meterRegistry,
+            MlServiceProperties mlServiceProperties, CallAnalysisResultCache resultCache) {
+        MlServiceProperties.Service guard = mlServiceProperties.getCallAnalysis();
+        MlServiceProperties.Breaker breaker = guard.getBreaker();
         this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.resultCache = resultCache;
+        this.bulkhead = new Bulkhead("call-analysis", guard.getMaxConcurrent(), guard.getMaxQueued(),
+                guard.getQueueTimeoutMs(), meterRegistry);
+        this.breaker = new CircuitBreaker("call-analysis", breaker.getWindowSize(), breaker.getMinimumCalls(),
+                breaker.getFailureRate(), breaker.getOpenMs(), breaker.getHalfOpenProbes(),
+                CallAnalysisService::isOutage, meterRegistry);
     }
 
     /**
-     * Analyze a single call record PDF.
+     * Analyze a single call record PDF. A file analysed before is answered
+     * from the {@link CallAnalysisResultCache}.
      *
      * @param file PDF file containing call records
      * @return JSON response with analysis results
      */
     public JsonNode analyzeCallRecord(MultipartFile file) {
-        log.info("Forwarding call record analysis to ML service: {}", LogSanitizer.sanitize(file.getOriginalFilename()));
+        return analyzeCallRecord(file.getResource());
+    }
+
+    /**
+     * Analyze a single call record PDF held outside a request, such as a
+     * spooled batch job file.
+     *
+     * @param pdf PDF containing call records; its file name is sent along
+     * @return JSON response with analysis results
+     */
+    public JsonNode analyzeCallRecord(Resource pdf) {
+        String sha256;
+        try {
+            sha256 = ContentHash.sha256(pdf);
+        } catch (IOException e) {
+            log.warn("Could not hash {}, analysing without the cache: {}",
+                    LogSanitizer.sanitize(pdf.getFilename()), e.getMessage());
+            return analyze(pdf);
+        }
+        return resultCache.getOrAnalyze(sha256, () -> analyze(pdf));
+    }
+
+    private JsonNode analyze(Resource pdf) {
+        log.info("Forwarding call record analysis to ML service: {}", LogSanitizer.sanitize(pdf.getFilename()));
         
         String url = callAnalysisServiceUrl + "/analyze";
         
@@ -55,32 +113,16 @@ public class CallAnalysisService {
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            
-            // Extract file bytes with explicit error handling
-            byte[] fileBytes;
-            try {
-                fileBytes = file.getBytes();
-            } catch (IOException e) {
-                log.error("Failed to read file bytes from uploaded file '{}': {}", 
-                        LogSanitizer.sanitize(file.getOriginalFilename()), e.getMessage());
-                throw new RuntimeException("Failed to read uploaded file contents", e);
-            }
-            
-            body.add("file", new ByteArrayResource(fileBytes) {
-                @Override
-                public String getFilename() {
-                    return file.getOriginalFilename();
-                }
-            });
+            body.add("file", pdf);
 
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = guarded(() -> restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     requestEntity,
                     String.class
-            );
+            ));
 
             log.info("ML service responded with status: {}", response.getStatusCode());
             return objectMapper.readTree(response.getBody());
@@ -110,35 +152,18 @@ public class CallAnalysisService {
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            
             for (MultipartFile file : files) {
-                // Extract file bytes with explicit error handling
-                byte[] fileBytes;
-                try {
-                    fileBytes = file.getBytes();
-                } catch (IOException e) {
-                    log.error("Failed to read file bytes from uploaded file '{}': {}", 
-                            LogSanitizer.sanitize(file.getOriginalFilename()), e.getMessage());
-                    throw new RuntimeException("Failed to read uploaded file: " + file.getOriginalFilename(), e);
-                }
-                
-                final String originalFilename = file.getOriginalFilename();
-                body.add("files", new ByteArrayResource(fileBytes) {
-                    @Override
-                    public String getFilename() {
-                        return originalFilename;
-                    }
-                });
+                body.add("files", file.getResource());
             }
 
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = guarded(() -> restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     requestEntity,
                     String.class
-            );
+            ));
 
             log.info("Batch analysis completed successfully");
             return objectMapper.readTree(response.getBody());
@@ -147,8 +172,8 @@ public class CallAnalysisService {
             log.error("Failed to communicate with call analysis service: {}", e.getMessage());
             throw new RuntimeException("Call analysis service unavailable: " + e.getMessage(), e);
         } catch (IOException e) {
-            log.error("Failed to process files: {}", e.getMessage());
-            throw new RuntimeException("Failed to process files: " + e.getMessage(), e);
+            log.error("Failed to process response from ML service: {}", e.getMessage());
+            throw new RuntimeException("Failed to process ML service response: " + e.getMessage(), e);
         }
     }
 
@@ -160,19 +185,35 @@ public class CallAnalysisService {
     public JsonNode checkHealth() {
         String url = callAnalysisServiceUrl + "/health";
         
+        JsonNode health;
         try {
             ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            return objectMapper.readTree(response.getBody());
+            health = objectMapper.readTree(response.getBody());
         } catch (RestClientException e) {
             log.warn("Call analysis service health check failed: {}", e.getMessage());
-            return objectMapper.createObjectNode()
+            health = objectMapper.createObjectNode()
                     .put("status", "unhealthy")
                     .put("error", e.getMessage());
         } catch (IOException e) {
-            return objectMapper.createObjectNode()
+            health = objectMapper.createObjectNode()
                     .put("status", "unhealthy")
                     .put("error", "Invalid response");
         }
+        breaker.onHealthCheck(ServiceHealth.isHealthy(health));
+        return health;
+    }
+
+    /** Run a call to the service through the breaker and the bulkhead. */
+    private <T> T guarded(Supplier<T> call) {
+        return breaker.call(() -> bulkhead.call(call));
+    }
+
+    /**
+     * Failures that say the service is down or overloaded, as opposed to
+     * rejecting this particular request.
+     */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
     }
 
 }
@@ -0,0 +1,211 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeClusterDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.util.TileMath;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-tile crime counts and coordinate sums for every zoom level up to
+ * {@code crime.cluster.max-level}, kept current on insert.
+ * <p>
+ * Each report adds itself to one tile per level, so a cluster request at any
+ * zoom reads only the stored tiles in the viewport. Clusters use tiles
+ * {@code crime.cluster.level-offset} levels below the map zoom, which is a
+ * quarter of a 256 px tile per side at the default of 2. Counts and sums are
+ * kept per crime type so a type filter is still served from the aggregates; a
+ * date filter is not, and is aggregated on the fly from {@link CrimeSpatialIndex}.
+ */
+@Slf4j
+@Service
+public class CrimeClusterIndex {
+
+    private static final CrimeType[] TYPES = CrimeType.values();
+
+    /** Aggregates of one tile; guarded by its own monitor. */
+    private static final class Cell {
+        private final int[] counts = new int[TYPES.length];
+        private final double[] sumLat = new double[TYPES.length];
+        private final double[] sumLon = new double[TYPES.length];
+        private int total;
+
+        private void add(double lat, double lon, CrimeType type, int sign) {
+            int t = type.ordinal();
+            counts[t] += sign;
+            sumLat[t] += sign * lat;
+            sumLon[t] += sign * lon;
+            total += sign;
+        }
+    }
+
+    private final CrimeSpatialIndex spatialIndex;
+    private final int maxLevel;
+    private final int levelOffset;
+
+    private final List<Map<Long, Cell>> levels;
+    private final Map<Long, CrimeSpatialIndex.Crime> byId = new ConcurrentHashMap<>();
+
+    public CrimeClusterIndex(CrimeSpatialIndex spatialIndex,
+            @Value("${crime.cluster.max-level:18}") int maxLevel,
+            @Value("${crime.cluster.level-offset:2}") int levelOffset) {
+        TileMath.checkZoom(maxLevel);
+        this.spatialIndex = spatialIndex;
+        this.maxLevel = maxLevel;
+        this.levelOffset = levelOffset;
+        this.levels = new ArrayList<>(maxLevel + 1);
+        for (int z = 0; z <= maxLevel; z++) {
+            levels.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /** Runs after {@link CrimeSpatialIndex#warm()}, which is ordered first. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        for (CrimeSpatialIndex.Crime crime : spatialIndex.query(null, null, null, null)) {
+            if (byId.putIfAbsent(crime.reportId(), crime) == null) {
+                apply(crime, 1);
+            }
+        }
+        log.info("Crime cluster index loaded with {} reports over {} levels", byId.size(), maxLevel + 1);
+    }
+
+    @EventListener
+    public void onReportSaved(CrimeReportSavedEvent event) {
+        CrimeReport report = event.report();
+        if (report.getLatitude() != null && report.getLongitude() != null) {
+            put(new CrimeSpatialIndex.Crime(report.getReportId(), report.getLatitude(), report.getLongitude(),
+                    report.getCrimeType(), report.getDateReported()));
+        }
+    }
+
+    synchronized void put(CrimeSpatialIndex.Crime crime) {
+        CrimeSpatialIndex.Crime previous = byId.put(crime.reportId(), crime);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(crime, 1);
+    }
+
+    private void apply(CrimeSpatialIndex.Crime crime, int sign) {
+        for (int z = 0; z <= maxLevel; z++) {
+            long key = TileMath.key(z, TileMath.tileX(crime.longitude(), z), TileMath.tileY(crime.latitude(), z));
+            Map<Long, Cell> level = levels.get(z);
+            Cell cell = level.computeIfAbsent(key, k -> new Cell());
+            synchronized (cell) {
+                cell.add(crime.latitude(), crime.longitude(), crime.crimeType(), sign);
+                if (cell.total == 0) {
+                    level.remove(key);
+                }
+            }
+        }
+    }
+
+    /** Tile level used for clusters at a map zoom. */
+    public int levelFor(int zoom) {
+        return Math.max(0, Math.min(maxLevel, zoom + levelOffset));
+    }
+
+    /**
+     * Clusters for the map zoom inside {@code bbox} (everywhere when null),
+     * counting only {@code types} when given.
+     */
+    public List<CrimeClusterDTO> clusters(int zoom, BoundingBox bbox, Set<CrimeType> types, LocalDate from,
+            LocalDate to) {
+        int level = levelFor(zoom);
+        if (from != null || to != null) {
+            return adHoc(level, bbox, types, from, to);
+        }
+
+        Map<Long, Cell> cells = levels.get(level);
+        List<CrimeClusterDTO> result = new ArrayList<>();
+        if (bbox == null) {
+            cells.forEach((key, cell) -> addCluster(key, cell, types, result));
+            result.sort(Comparator.comparing(CrimeClusterDTO::quadkey));
+            return result;
+        }
+        int x0 = TileMath.tileX(bbox.minLon(), level);
+        int x1 = TileMath.tileX(bbox.maxLon(), level);
+        int y0 = TileMath.tileY(bbox.maxLat(), level);
+        int y1 = TileMath.tileY(bbox.minLat(), level);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > cells.size()) {
+            cells.forEach((key, cell) -> {
+                int x = TileMath.xOf(key);
+                int y = TileMath.yOf(key);
+                if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+                    addCluster(key, cell, types, result);
+                }
+            });
+        } else {
+            for (int y = y0; y <= y1; y++) {
+                for (int x = x0; x <= x1; x++) {
+                    long key = TileMath.key(level, x, y);
+                    Cell cell = cells.get(key);
+                    if (cell != null) {
+                        addCluster(key, cell, types, result);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparing(CrimeClusterDTO::quadkey));
+        return result;
+    }
+
+    private List<CrimeClusterDTO> adHoc(int level, BoundingBox bbox, Set<CrimeType> types, LocalDate from,
+            LocalDate to) {
+        Map<Long, Cell> cells = new HashMap<>();
+        for (CrimeSpatialIndex.Crime crime : spatialIndex.query(bbox, types, from, to)) {
+            long key = TileMath.key(level, TileMath.tileX(crime.longitude(), level),
+                    TileMath.tileY(crime.latitude(), level));
+            cells.computeIfAbsent(key, k -> new Cell()).add(crime.latitude(), crime.longitude(), crime.crimeType(), 1);
+        }
+        List<CrimeClusterDTO> result = new ArrayList<>(cells.size());
+        cells.forEach((key, cell) -> addCluster(key, cell, null, result));
+        result.sort(Comparator.comparing(CrimeClusterDTO::quadkey));
+        return result;
+    }
+
+    private static void addCluster(long key, Cell cell, Set<CrimeType> types, List<CrimeClusterDTO> out) {
+        Map<CrimeType, Integer> byType = new EnumMap<>(CrimeType.class);
+        int count = 0;
+        double lat = 0;
+        double lon = 0;
+        synchronized (cell) {
+            for (CrimeType type : TYPES) {
+                int n = cell.counts[type.ordinal()];
+                if (n > 0 && (types == null || types.isEmpty() || types.contains(type))) {
+                    byType.put(type, n);
+                    count += n;
+                    lat += cell.sumLat[type.ordinal()];
+                    lon += cell.sumLon[type.ordinal()];
+                }
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        int zoom = TileMath.zoomOf(key);
+        int x = TileMath.xOf(key);
+        int y = TileMath.yOf(key);
+        out.add(new CrimeClusterDTO(TileMath.quadkey(zoom, x, y), zoom, x, y, count, lat / count, lon / count,
+                byType));
+    }
+}
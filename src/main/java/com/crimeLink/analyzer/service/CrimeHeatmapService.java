@@ -0,0 +1,164 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeHeatmapTileDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.util.TileMath;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Crime density grids for z/x/y map tiles.
+ * <p>
+ * A tile is binned from the reports {@link CrimeSpatialIndex} finds inside it,
+ * so building one never touches the database or reports outside the tile.
+ * Built tiles are kept in an LRU cache of {@code crime.heatmap.cache-size}
+ * entries, one per tile and filter combination. A saved report evicts only the
+ * cached tiles that contain it, one per zoom level, whatever their filters.
+ * <p>
+ * Metrics: {@code crime.heatmap.tiles} tagged {@code result=hit|miss}.
+ */
+@Service
+public class CrimeHeatmapService {
+
+    private record TileKey(int z, int x, int y, Set<CrimeType> types, LocalDate from, LocalDate to) {
+    }
+
+    private final CrimeSpatialIndex spatialIndex;
+    private final int gridSize;
+    private final int maxZoom;
+
+    /** Guarded by itself, as are {@link #byTile} and {@link #epoch}. */
+    private final LinkedHashMap<TileKey, CrimeHeatmapTileDTO> cache;
+    /** Cached keys per tile, so eviction on insert does not scan the cache. */
+    private final Map<Long, Set<TileKey>> byTile = new HashMap<>();
+    /** Bumped on every invalidation; a tile built across a bump is not cached. */
+    private long epoch;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CrimeHeatmapService(CrimeSpatialIndex spatialIndex, MeterRegistry meterRegistry,
+            @Value("${crime.heatmap.grid-size:64}") int gridSize,
+            @Value("${crime.heatmap.max-zoom:18}") int maxZoom,
+            @Value("${crime.heatmap.cache-size:2000}") int cacheSize) {
+        TileMath.checkZoom(maxZoom);
+        this.spatialIndex = spatialIndex;
+        this.gridSize = gridSize;
+        this.maxZoom = maxZoom;
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, CrimeHeatmapTileDTO> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                forget(eldest.getKey());
+                return true;
+            }
+        };
+        this.hits = meterRegistry.counter("crime.heatmap.tiles", "result", "hit");
+        this.misses = meterRegistry.counter("crime.heatmap.tiles", "result", "miss");
+    }
+
+    /**
+     * @throws IllegalArgumentException when the tile does not exist at that zoom
+     */
+    public CrimeHeatmapTileDTO tile(int z, int x, int y, Set<CrimeType> types, LocalDate from, LocalDate to) {
+        if (z < 0 || z > maxZoom) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + maxZoom);
+        }
+        if (x < 0 || y < 0 || x >= 1 << z || y >= 1 << z) {
+            throw new IllegalArgumentException("Tile " + x + "/" + y + " does not exist at zoom " + z);
+        }
+        TileKey key = new TileKey(z, x, y, types == null || types.isEmpty() ? null : EnumSet.copyOf(types), from, to);
+        long seen;
+        synchronized (cache) {
+            CrimeHeatmapTileDTO cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            seen = epoch;
+        }
+
+        misses.increment();
+        CrimeHeatmapTileDTO tile = build(key);
+        synchronized (cache) {
+            if (epoch == seen) {
+                cache.put(key, tile);
+                byTile.computeIfAbsent(TileMath.key(z, x, y), k -> new HashSet<>()).add(key);
+            }
+        }
+        return tile;
+    }
+
+    private CrimeHeatmapTileDTO build(TileKey key) {
+        int z = key.z();
+        BoundingBox box = new BoundingBox(TileMath.tileLat(key.y() + 1, z), TileMath.tileLon(key.x(), z),
+                TileMath.tileLat(key.y(), z), TileMath.tileLon(key.x() + 1, z));
+        int[] counts = new int[gridSize * gridSize];
+        int total = 0;
+        int max = 0;
+        for (CrimeSpatialIndex.Crime crime : spatialIndex.query(box, key.types(), key.from(), key.to())) {
+            double fx = TileMath.x(crime.longitude(), z) - key.x();
+            double fy = TileMath.y(crime.latitude(), z) - key.y();
+            if (fx < 0 || fx >= 1 || fy < 0 || fy >= 1) {
+                continue; // on the shared edge; it belongs to the neighbouring tile
+            }
+            int cell = (int) (fy * gridSize) * gridSize + (int) (fx * gridSize);
+            max = Math.max(max, ++counts[cell]);
+            total++;
+        }
+        return new CrimeHeatmapTileDTO(z, key.x(), key.y(), gridSize, total, max, counts);
+    }
+
+    /** Runs after {@link CrimeSpatialIndex#onReportSaved}, which is ordered first. */
+    @EventListener
+    public void onReportSaved(CrimeReportSavedEvent event) {
+        CrimeReport report = event.report();
+        if (report.getLatitude() == null || report.getLongitude() == null) {
+            return;
+        }
+        synchronized (cache) {
+            epoch++;
+            for (int z = 0; z <= maxZoom; z++) {
+                long tile = TileMath.key(z, TileMath.tileX(report.getLongitude(), z),
+                        TileMath.tileY(report.getLatitude(), z));
+                Set<TileKey> keys = byTile.remove(tile);
+                if (keys != null) {
+                    keys.forEach(cache::remove);
+                }
+            }
+        }
+    }
+
+    /** Called with the cache lock held. */
+    private void forget(TileKey key) {
+        long tile = TileMath.key(key.z(), key.x(), key.y());
+        Set<TileKey> keys = byTile.get(tile);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            byTile.remove(tile);
+        }
+    }
+
+    int cachedTiles() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
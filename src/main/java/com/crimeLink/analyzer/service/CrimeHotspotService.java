@@ -0,0 +1,246 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.CrimeHotspotDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.util.ConvexHull;
+import com.crimeLink.analyzer.util.DensityClusters;
+import com.crimeLink.analyzer.util.GeoUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crime hotspots found by DBSCAN over the reports of a date window.
+ * <p>
+ * Reports come from {@link CrimeSpatialIndex} and are projected to metres
+ * around their mean latitude, which is accurate for an area the size of the
+ * country. Clustering runs on a dedicated fork-join pool
+ * ({@code crime.hotspot.parallelism}, all cores by default), see
+ * {@link DensityClusters}. The clustering of each (window, types, eps,
+ * minPts) combination is kept in an LRU cache of
+ * {@code crime.hotspot.cache-size} entries and a newly saved report is added
+ * to every cached clustering whose filters it matches, which only touches its
+ * own neighbourhood.
+ * <p>
+ * Metrics: {@code crime.hotspot.build} (full clustering time).
+ */
+@Slf4j
+@Service
+public class CrimeHotspotService {
+
+    private static final double METRES_PER_DEGREE = Math.toRadians(1) * GeoUtils.EARTH_RADIUS_M;
+    private static final double MAX_EPS_M = 5000;
+    private static final int MAX_MIN_POINTS = 1000;
+
+    private record Key(LocalDate from, LocalDate to, Set<CrimeType> types, double epsM, int minPts) {
+    }
+
+    /** One cached clustering; guarded by its own monitor. */
+    private static final class Model {
+        private final Key key;
+        private final double metresPerDegreeLon;
+        private final DensityClusters clusters;
+        private final List<CrimeSpatialIndex.Crime> crimes;
+        private final Set<Long> ids = new HashSet<>();
+        private List<CrimeHotspotDTO> hotspots;
+
+        private Model(Key key, double metresPerDegreeLon, DensityClusters clusters,
+                List<CrimeSpatialIndex.Crime> crimes) {
+            this.key = key;
+            this.metresPerDegreeLon = metresPerDegreeLon;
+            this.clusters = clusters;
+            this.crimes = crimes;
+            crimes.forEach(c -> ids.add(c.reportId()));
+        }
+    }
+
+    private final CrimeSpatialIndex spatialIndex;
+    private final ForkJoinPool pool;
+    private final double defaultEpsM;
+    private final int defaultMinPts;
+
+    /** Guarded by itself, as is {@link #epoch}. */
+    private final LinkedHashMap<Key, Model> cache;
+    /** Bumped on every saved report; a clustering built across a bump is not cached. */
+    private long epoch;
+
+    private final Timer buildTimer;
+
+    public CrimeHotspotService(CrimeSpatialIndex spatialIndex, MeterRegistry meterRegistry,
+            @Value("${crime.hotspot.eps-m:250}") double defaultEpsM,
+            @Value("${crime.hotspot.min-points:5}") int defaultMinPts,
+            @Value("${crime.hotspot.cache-size:16}") int cacheSize,
+            @Value("${crime.hotspot.parallelism:0}") int parallelism) {
+        this.spatialIndex = spatialIndex;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.defaultEpsM = defaultEpsM;
+        this.defaultMinPts = defaultMinPts;
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Model> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.buildTimer = meterRegistry.timer("crime.hotspot.build");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Hotspots among reports dated {@code from}..{@code to} (open ends allowed),
+     * largest first.
+     *
+     * @param epsM   neighbourhood radius in metres, {@code crime.hotspot.eps-m} when null
+     * @param minPts reports within {@code epsM} that make a core, {@code crime.hotspot.min-points} when null
+     * @throws IllegalArgumentException for parameters outside the supported range
+     */
+    public List<CrimeHotspotDTO> hotspots(LocalDate from, LocalDate to, Set<CrimeType> types, Double epsM,
+            Integer minPts) {
+        double eps = epsM == null ? defaultEpsM : epsM;
+        int min = minPts == null ? defaultMinPts : minPts;
+        if (!(eps > 0 && eps <= MAX_EPS_M) || min < 2 || min > MAX_MIN_POINTS) {
+            throw new IllegalArgumentException("epsM must be in (0, " + MAX_EPS_M + "] and minPts in [2, "
+                    + MAX_MIN_POINTS + "]");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Key key = new Key(from, to, types == null || types.isEmpty() ? null : EnumSet.copyOf(types), eps, min);
+
+        Model model;
+        long seen;
+        synchronized (cache) {
+            model = cache.get(key);
+            seen = epoch;
+        }
+        if (model == null) {
+            model = buildTimer.record(() -> build(key));
+            synchronized (cache) {
+                if (epoch == seen) {
+                    cache.put(key, model);
+                }
+            }
+        }
+        synchronized (model) {
+            if (model.hotspots == null) {
+                model.hotspots = materialise(model);
+            }
+            return model.hotspots;
+        }
+    }
+
+    private Model build(Key key) {
+        List<CrimeSpatialIndex.Crime> crimes = new ArrayList<>(
+                spatialIndex.query(null, key.types(), key.from(), key.to()));
+        double meanLat = crimes.stream().mapToDouble(CrimeSpatialIndex.Crime::latitude).average().orElse(0);
+        double metresPerDegreeLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(meanLat));
+        double[] xs = new double[crimes.size()];
+        double[] ys = new double[crimes.size()];
+        for (int i = 0; i < crimes.size(); i++) {
+            xs[i] = crimes.get(i).longitude() * metresPerDegreeLon;
+            ys[i] = crimes.get(i).latitude() * METRES_PER_DEGREE;
+        }
+        DensityClusters clusters = DensityClusters.build(xs, ys, key.epsM(), key.minPts(), pool);
+        log.debug("Clustered {} crime reports for {}", crimes.size(), key);
+        return new Model(key, metresPerDegreeLon, clusters, crimes);
+    }
+
+    private static List<CrimeHotspotDTO> materialise(Model model) {
+        DensityClusters clusters = model.clusters;
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for (int i = 0; i < clusters.size(); i++) {
+            int c = clusters.clusterOf(i);
+            if (c >= 0) {
+                members.computeIfAbsent(c, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<CrimeHotspotDTO> hotspots = new ArrayList<>(members.size());
+        for (List<Integer> group : members.values()) {
+            double[] xs = new double[group.size()];
+            double[] ys = new double[group.size()];
+            double sumLat = 0;
+            double sumLon = 0;
+            Map<CrimeType, Integer> byType = new EnumMap<>(CrimeType.class);
+            for (int k = 0; k < group.size(); k++) {
+                int i = group.get(k);
+                CrimeSpatialIndex.Crime crime = model.crimes.get(i);
+                xs[k] = clusters.x(i);
+                ys[k] = clusters.y(i);
+                sumLat += crime.latitude();
+                sumLon += crime.longitude();
+                byType.merge(crime.crimeType(), 1, Integer::sum);
+            }
+            List<List<Double>> polygon = new ArrayList<>();
+            for (int k : ConvexHull.of(xs, ys)) {
+                CrimeSpatialIndex.Crime vertex = model.crimes.get(group.get(k));
+                polygon.add(List.of(vertex.latitude(), vertex.longitude()));
+            }
+            hotspots.add(new CrimeHotspotDTO(group.size(), sumLat / group.size(), sumLon / group.size(), polygon,
+                    byType));
+        }
+        hotspots.sort(Comparator.comparingInt(CrimeHotspotDTO::count).reversed());
+        return List.copyOf(hotspots);
+    }
+
+    @EventListener
+    public void onReportSaved(CrimeReportSavedEvent event) {
+        CrimeReport report = event.report();
+        if (report.getLatitude() == null || report.getLongitude() == null) {
+            return;
+        }
+        CrimeSpatialIndex.Crime crime = new CrimeSpatialIndex.Crime(report.getReportId(), report.getLatitude(),
+                report.getLongitude(), report.getCrimeType(), report.getDateReported());
+        List<Model> affected = new ArrayList<>();
+        synchronized (cache) {
+            epoch++;
+            for (Model model : cache.values()) {
+                Key key = model.key;
+                if (crime.matches(key.types(), key.from(), key.to())) {
+                    affected.add(model);
+                }
+            }
+        }
+
+        List<Key> stale = new ArrayList<>();
+        for (Model model : affected) {
+            synchronized (model) {
+                if (!model.ids.add(crime.reportId())) {
+                    stale.add(model.key); // an existing report moved; clusters cannot be split in place
+                    continue;
+                }
+                model.clusters.add(crime.longitude() * model.metresPerDegreeLon, crime.latitude() * METRES_PER_DEGREE);
+                model.crimes.add(crime);
+                model.hotspots = null;
+            }
+        }
+        if (!stale.isEmpty()) {
+            synchronized (cache) {
+                stale.forEach(cache::remove);
+            }
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package com.crimeLink.analyzer.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeClusterDTO;
+import com.crimeLink.analyzer.dto.CrimeHeatmapTileDTO;
+import com.crimeLink.analyzer.dto.CrimeHotspotDTO;
 import com.crimeLink.analyzer.dto.CrimeLocationDTO;
 import com.crimeLink.analyzer.dto.CrimeReportDTO;
+import com.crimeLink.analyzer.dto.CrimeReportPageDTO;
+import com.crimeLink.analyzer.dto.CrimeReportSummaryDTO;
 import com.crimeLink.analyzer.dto.EvidenceDTO;
 import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
 import com.crimeLink.analyzer.entity.Evidence;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
 import com.crimeLink.analyzer.mapper.CrimeReportMapper;
 import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import com.crimeLink.analyzer.util.ContentHash;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,8 +37,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CrimeReportService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    /** Stand-ins for an open date range; both are valid SQL dates. */
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final CrimeReportRepository crimeReportRepository;
     private final SupabaseService supabaseService;
+    private final CrimeSpatialIndex spatialIndex;
+    private final CrimeClusterIndex clusterIndex;
+    private final CrimeHeatmapService heatmapService;
+    private final CrimeHotspotService hotspotService;
+    private final ApplicationEventPublisher events;
 
     public CrimeReportDTO saveCrimeReport(CrimeReportDTO reportDTO) {
         // if (reportDTO.getCrimeType() == null) {
@@ -52,12 +81,14 @@ public class CrimeReportService {
                 evidence.setFileName(e.getFileName());
                 evidence.setFileType(e.getFileType());
                 evidence.setFileSize(e.getFileSize());
+                evidence.setContentSha256(ContentHash.ofPath(e.getFileName()));
                 evidence.setCrimeReport(savedReport);
                 return evidence;
             }).collect(Collectors.toList());
             savedReport.setEvidences(evidences);
             crimeReportRepository.save(savedReport);
         }
+        events.publishEvent(new CrimeReportSavedEvent(savedReport));
 
         return CrimeReportMapper.mapToCrimeReportDTO(savedReport);
     }
@@ -67,6 +98,50 @@ public class CrimeReportService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of reports, newest first, continuing after {@code cursor} when
+     * given. Seeks on {@code (date_reported, report_id)} so every page costs the
+     * same however deep it is, and selects summary columns only.
+     *
+     * @throws IllegalArgumentException for a malformed cursor or page size
+     */
+    public CrimeReportPageDTO getCrimeReportPage(String cursor, Integer size, Set<CrimeType> types,
+            LocalDate from, LocalDate to, BoundingBox bbox) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDate afterDate = LATEST;
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                afterDate = LocalDate.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<CrimeReportSummaryDTO> rows = crimeReportRepository.findPageAfter(
+                types == null || types.isEmpty() ? EnumSet.allOf(CrimeType.class) : types,
+                from == null ? EARLIEST : from,
+                to == null ? LATEST : to,
+                bbox == null ? -90 : bbox.minLat(),
+                bbox == null ? 90 : bbox.maxLat(),
+                bbox == null ? -180 : bbox.minLon(),
+                bbox == null ? 180 : bbox.maxLon(),
+                afterDate, afterId, PageRequest.of(0, limit + 1));
+        if (rows.size() <= limit) {
+            return new CrimeReportPageDTO(rows, null);
+        }
+        List<CrimeReportSummaryDTO> page = rows.subList(0, limit);
+        CrimeReportSummaryDTO last = page.get(limit - 1);
+        String next = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (last.dateReported() + ":" + last.reportId()).getBytes(StandardCharsets.UTF_8));
+        return new CrimeReportPageDTO(List.copyOf(page), next);
+    }
+
     private CrimeReportDTO convertToListDTO(CrimeReport report) {
         CrimeReportDTO dto = new CrimeReportDTO();
         dto.setReportId(report.getReportId());
@@ -90,10 +165,12 @@ public class CrimeReportService {
         CrimeReportDTO dto = CrimeReportMapper.mapToCrimeReportDTO(report);
 
         if (report.getEvidences() != null) {
+            Map<String, String> urls = report.getEvidences().isEmpty() ? Map.of()
+                    : supabaseService.getFileUrls(report.getEvidences().stream().map(Evidence::getFileName).toList());
             List<EvidenceDTO> evidenceDTOs = report.getEvidences().stream()
                     .map(e -> EvidenceDTO.builder().evidenceId(e.getId()).fileName(e.getFileName())
                             .fileType(e.getFileType()).fileSize(e.getFileSize())
-                            .downloadUrl(supabaseService.getFileUrl(e.getFileName())).build())
+                            .downloadUrl(urls.get(e.getFileName())).build())
                     .collect(Collectors.toList());
 
             dto.setEvidences(evidenceDTOs);
@@ -101,7 +178,25 @@ public class CrimeReportService {
         return dto;
     }
 
-    public List<CrimeLocationDTO> getCrimeMapLocations() {
-        return crimeReportRepository.findCrimeLocations();
+    /** Map markers from the in-memory index; every filter is optional. */
+    public List<CrimeLocationDTO> getCrimeMapLocations(BoundingBox bbox, Set<CrimeType> types, LocalDate from,
+            LocalDate to) {
+        return spatialIndex.query(bbox, types, from, to).stream().map(CrimeSpatialIndex.Crime::toDto).toList();
+    }
+
+    /** Pre-aggregated map clusters for a zoom level; filters as for {@link #getCrimeMapLocations}. */
+    public List<CrimeClusterDTO> getCrimeMapClusters(int zoom, BoundingBox bbox, Set<CrimeType> types,
+            LocalDate from, LocalDate to) {
+        return clusterIndex.clusters(zoom, bbox, types, from, to);
+    }
+
+    public CrimeHeatmapTileDTO getHeatmapTile(int z, int x, int y, Set<CrimeType> types, LocalDate from,
+            LocalDate to) {
+        return heatmapService.tile(z, x, y, types, from, to);
+    }
+
+    public List<CrimeHotspotDTO> getHotspots(LocalDate from, LocalDate to, Set<CrimeType> types, Double epsM,
+            Integer minPts) {
+        return hotspotService.hotspots(from, to, types, epsM, minPts);
     }
 }
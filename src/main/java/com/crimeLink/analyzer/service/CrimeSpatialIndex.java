@@ -0,0 +1,190 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory grid index of crime report locations for map viewport queries.
+ * <p>
+ * Reports are bucketed into square cells of {@code crime.index.cell-degrees}.
+ * A viewport query visits only the cells it overlaps, or every non-empty cell
+ * when the viewport spans more cells than exist, so its cost follows what is on
+ * screen rather than the size of {@code crime_report}. The index is loaded once
+ * at startup and then kept current from {@link CrimeReportSavedEvent}.
+ * <p>
+ * Cells hold immutable arrays that are replaced on write, so queries read
+ * without locking; writes are rare and serialised.
+ */
+@Slf4j
+@Service
+public class CrimeSpatialIndex {
+
+    /** One indexed report. */
+    public record Crime(long reportId, double latitude, double longitude, CrimeType crimeType,
+            LocalDate dateReported) {
+
+        public boolean matches(Set<CrimeType> types, LocalDate from, LocalDate to) {
+            if (types != null && !types.isEmpty() && !types.contains(crimeType)) {
+                return false;
+            }
+            if (from != null && (dateReported == null || dateReported.isBefore(from))) {
+                return false;
+            }
+            return to == null || (dateReported != null && !dateReported.isAfter(to));
+        }
+
+        public CrimeLocationDTO toDto() {
+            return new CrimeLocationDTO(reportId, latitude, longitude, crimeType, dateReported);
+        }
+    }
+
+    private static final Crime[] EMPTY = new Crime[0];
+
+    private final CrimeReportRepository repo;
+    private final double cellDegrees;
+
+    private final Map<Long, Crime[]> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Crime> byId = new ConcurrentHashMap<>();
+
+    public CrimeSpatialIndex(CrimeReportRepository repo,
+            @Value("${crime.index.cell-degrees:0.01}") double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("crime.index.cell-degrees must be positive");
+        }
+        this.repo = repo;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /** Ordered first: the map aggregates are built from this index. */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warm() {
+        for (CrimeLocationDTO row : repo.findCrimeLocations()) {
+            if (row.getLatitude() == null || row.getLongitude() == null) {
+                continue;
+            }
+            // A report saved while loading is already present and at least as new.
+            byId.putIfAbsent(row.getReportId(), new Crime(row.getReportId(), row.getLatitude(),
+                    row.getLongitude(), row.getCrimeType(), row.getDateReported()));
+        }
+        Map<Long, List<Crime>> grouped = new HashMap<>();
+        for (Crime crime : byId.values()) {
+            grouped.computeIfAbsent(cellOf(crime.latitude(), crime.longitude()), k -> new ArrayList<>()).add(crime);
+        }
+        cells.clear();
+        grouped.forEach((cell, crimes) -> cells.put(cell, crimes.toArray(EMPTY)));
+        log.info("Crime spatial index loaded with {} reports in {} cells", byId.size(), cells.size());
+    }
+
+    /** Ordered first so listeners that read the index see the new report. */
+    @Order(0)
+    @EventListener
+    public void onReportSaved(CrimeReportSavedEvent event) {
+        CrimeReport report = event.report();
+        if (report.getLatitude() != null && report.getLongitude() != null) {
+            put(new Crime(report.getReportId(), report.getLatitude(), report.getLongitude(),
+                    report.getCrimeType(), report.getDateReported()));
+        }
+    }
+
+    synchronized void put(Crime crime) {
+        Crime previous = byId.put(crime.reportId(), crime);
+        if (previous != null) {
+            cells.computeIfPresent(cellOf(previous.latitude(), previous.longitude()), (k, arr) -> {
+                List<Crime> kept = new ArrayList<>(arr.length);
+                for (Crime c : arr) {
+                    if (c.reportId() != previous.reportId()) {
+                        kept.add(c);
+                    }
+                }
+                return kept.isEmpty() ? null : kept.toArray(EMPTY);
+            });
+        }
+        cells.merge(cellOf(crime.latitude(), crime.longitude()), new Crime[] { crime }, (arr, one) -> {
+            Crime[] next = new Crime[arr.length + 1];
+            System.arraycopy(arr, 0, next, 0, arr.length);
+            next[arr.length] = one[0];
+            return next;
+        });
+    }
+
+    /**
+     * Reports inside {@code bbox} (everywhere when null) matching the optional
+     * type and inclusive date filters.
+     */
+    public List<Crime> query(BoundingBox bbox, Set<CrimeType> types, LocalDate from, LocalDate to) {
+        List<Crime> result = new ArrayList<>();
+        if (bbox == null) {
+            for (Crime[] cell : cells.values()) {
+                collect(cell, null, types, from, to, result);
+            }
+            return result;
+        }
+
+        long lat0 = index(bbox.minLat());
+        long lat1 = index(bbox.maxLat());
+        long lon0 = index(bbox.minLon());
+        long lon1 = index(bbox.maxLon());
+        if ((lat1 - lat0 + 1) * (lon1 - lon0 + 1) > cells.size()) {
+            for (Crime[] cell : cells.values()) {
+                collect(cell, bbox, types, from, to, result);
+            }
+            return result;
+        }
+        for (long la = lat0; la <= lat1; la++) {
+            for (long lo = lon0; lo <= lon1; lo++) {
+                Crime[] cell = cells.get(key(la, lo));
+                if (cell != null) {
+                    collect(cell, bbox, types, from, to, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collect(Crime[] cell, BoundingBox bbox, Set<CrimeType> types, LocalDate from,
+            LocalDate to, List<Crime> out) {
+        for (Crime crime : cell) {
+            if ((bbox == null || bbox.contains(crime.latitude(), crime.longitude()))
+                    && crime.matches(types, from, to)) {
+                out.add(crime);
+            }
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private long cellOf(double lat, double lon) {
+        return key(index(lat), index(lon));
+    }
+
+    private long index(double degrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
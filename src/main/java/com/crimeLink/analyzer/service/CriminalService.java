@@ -1,5 +1,6 @@
 package com.crimeLink.analyzer.service;
 
+import com.crimeLink.analyzer.dto.StoredPhoto;
 import com.crimeLink.analyzer.entity.Criminal;
 import com.crimeLink.analyzer.repository.CriminalRepository;
 import com.crimeLink.analyzer.util.LogSanitizer;
@@ -62,8 +63,10 @@ public class CriminalService {
         String photoUrl = null;
         if (photo != null && !photo.isEmpty()) {
             try {
-                photoUrl = supabaseStorageService.uploadPhoto(criminalId, photo);
+                StoredPhoto stored = supabaseStorageService.uploadPhoto(criminalId, photo);
+                photoUrl = stored.url();
                 c.setPrimaryPhotoUrl(photoUrl);
+                c.setThumbnailUrl(stored.thumbnailUrl());
             } catch (Exception e) {
                 log.error("Photo upload failed for criminal {}: {}", LogSanitizer.sanitize(criminalId), LogSanitizer.sanitize(e.getMessage()));
                 // Continue without photo — record still gets created
@@ -158,8 +161,9 @@ public class CriminalService {
         // Handle photo change
         if (photo != null && !photo.isEmpty()) {
             try {
-                String newPhotoUrl = supabaseStorageService.uploadPhoto(criminalId, photo);
-                c.setPrimaryPhotoUrl(newPhotoUrl);
+                StoredPhoto stored = supabaseStorageService.uploadPhoto(criminalId, photo);
+                c.setPrimaryPhotoUrl(stored.url());
+                c.setThumbnailUrl(stored.thumbnailUrl());
                 log.info("Photo updated for criminal {}", LogSanitizer.sanitize(criminalId));
             } catch (Exception e) {
                 log.error("Photo upload failed for criminal {}: {}", LogSanitizer.sanitize(criminalId), LogSanitizer.sanitize(e.getMessage()));
@@ -213,6 +217,8 @@ public class CriminalService {
         m.put("nic", c.getNic());
         m.put("risk_level", c.getRiskLevel());
         m.put("primary_photo_url", c.getPrimaryPhotoUrl());
+        // Listings show the thumbnail; photos stored before thumbnails existed fall back to the original
+        m.put("thumbnail_url", c.getThumbnailUrl() != null ? c.getThumbnailUrl() : c.getPrimaryPhotoUrl());
         m.put("status", c.getStatus());
         m.put("has_embedding", hasEmbedding);
         return m;
@@ -1,21 +1,29 @@
 package com.crimeLink.analyzer.service;
 
+import com.crimeLink.analyzer.config.MlServiceProperties;
+import com.crimeLink.analyzer.util.Bulkhead;
+import com.crimeLink.analyzer.util.CircuitBreaker;
 import com.crimeLink.analyzer.util.LogSanitizer;
+import com.crimeLink.analyzer.util.ServiceHealth;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Service for communicating with the Facial Recognition ML microservice.
@@ -23,6 +31,12 @@ import java.util.Map;
  * monolith to the Python FastAPI microservice.
  * 
  * Architecture: Frontend -> Spring Boot (this service) -> Python ML Service
+ * <p>
+ * Images are forwarded as {@link MultipartFile#getResource()} parts and
+ * streamed from the upload's temp file, see {@link CallAnalysisService}.
+ * Calls are limited by their own {@link Bulkhead}
+ * ({@code ml.facial-recognition.*}), so slow call analysis cannot hold up
+ * face matching and vice versa. The same goes for its {@link CircuitBreaker}.
  */
 @Service
 @Slf4j
@@ -30,13 +44,23 @@ public class FacialRecognitionService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker breaker;
 
     @Value("${python.facial-recognition.url}")
     private String facialRecognitionServiceUrl;
 
-    public FacialRecognitionService(RestTemplate restTemplate) {
+    public FacialRecognitionService(@Qualifier("facialRecognitionRestTemplate") RestTemplate restTemplate,
+            MeterRegistry meterRegistry, MlServiceProperties mlServiceProperties) {
+        MlServiceProperties.Service guard = mlServiceProperties.getFacialRecognition();
+        MlServiceProperties.Breaker breaker = guard.getBreaker();
         this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.bulkhead = new Bulkhead("facial-recognition", guard.getMaxConcurrent(), guard.getMaxQueued(),
+                guard.getQueueTimeoutMs(), meterRegistry);
+        this.breaker = new CircuitBreaker("facial-recognition", breaker.getWindowSize(), breaker.getMinimumCalls(),
+                breaker.getFailureRate(), breaker.getOpenMs(), breaker.getHalfOpenProbes(),
+                FacialRecognitionService::isOutage, meterRegistry);
     }
 
     /**
@@ -61,22 +85,7 @@ public class FacialRecognitionService {
 
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
             
-            // Add image file with explicit error handling
-            byte[] imageBytes;
-            try {
-                imageBytes = image.getBytes();
-            } catch (IOException e) {
-                log.error("Failed to read image bytes from uploaded file '{}': {}", 
-                        LogSanitizer.sanitize(image.getOriginalFilename()), e.getMessage());
-                throw new RuntimeException("Failed to read uploaded image contents", e);
-            }
-            
-            body.add("image", new ByteArrayResource(imageBytes) {
-                @Override
-                public String getFilename() {
-                    return image.getOriginalFilename();
-                }
-            });
+            body.add("image", image.getResource());
             
             // Add optional parameters
             if (threshold != null) {
@@ -92,12 +101,12 @@ public class FacialRecognitionService {
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
             log.debug("Sending request to: {}", url);
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = guarded(() -> restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     requestEntity,
                     String.class
-            );
+            ));
 
             log.info("ML service responded with status: {}", response.getStatusCode());
             return objectMapper.readTree(response.getBody());
@@ -135,22 +144,7 @@ public class FacialRecognitionService {
 
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
             
-            // Extract photo bytes with explicit error handling
-            byte[] photoBytes;
-            try {
-                photoBytes = photo.getBytes();
-            } catch (IOException e) {
-                log.error("Failed to read photo bytes from uploaded file '{}': {}", 
-                        LogSanitizer.sanitize(photo.getOriginalFilename()), e.getMessage());
-                throw new RuntimeException("Failed to read uploaded photo contents", e);
-            }
-            
-            body.add("photos", new ByteArrayResource(photoBytes) {
-                @Override
-                public String getFilename() {
-                    return photo.getOriginalFilename();
-                }
-            });
+            body.add("photos", photo.getResource());
             
             if (criminalId != null) body.add("criminal_id", criminalId);
             body.add("name", name);
@@ -167,12 +161,12 @@ public class FacialRecognitionService {
 
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = guarded(() -> restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     requestEntity,
                     String.class
-            );
+            ));
 
             log.info("Criminal registered successfully");
             return objectMapper.readTree(response.getBody());
@@ -197,7 +191,7 @@ public class FacialRecognitionService {
         String url = facialRecognitionServiceUrl + "/criminals";
         
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = guarded(() -> restTemplate.getForEntity(url, String.class));
             return objectMapper.readTree(response.getBody());
         } catch (RestClientException e) {
             log.error("Failed to fetch criminals: {}", e.getMessage());
@@ -217,13 +211,10 @@ public class FacialRecognitionService {
     public JsonNode getRecognitionHistory(Integer limit) {
         log.debug("Fetching recognition history from ML service");
         
-        String url = facialRecognitionServiceUrl + "/history";
-        if (limit != null) {
-            url += "?limit=" + limit;
-        }
+        String url = facialRecognitionServiceUrl + "/history" + (limit != null ? "?limit=" + limit : "");
         
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = guarded(() -> restTemplate.getForEntity(url, String.class));
             return objectMapper.readTree(response.getBody());
         } catch (RestClientException e) {
             log.error("Failed to fetch history: {}", e.getMessage());
@@ -252,27 +243,13 @@ public class FacialRecognitionService {
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
             MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-
-            byte[] photoBytes;
-            try {
-                photoBytes = photo.getBytes();
-            } catch (IOException e) {
-                log.error("Failed to read photo bytes: {}", e.getMessage());
-                throw new RuntimeException("Failed to read uploaded photo", e);
-            }
-
-            body.add("photo", new ByteArrayResource(photoBytes) {
-                @Override
-                public String getFilename() {
-                    return photo.getOriginalFilename();
-                }
-            });
+            body.add("photo", photo.getResource());
             body.add("criminal_id", criminalId);
 
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url, HttpMethod.POST, requestEntity, String.class);
+            ResponseEntity<String> response = guarded(() -> restTemplate.exchange(
+                    url, HttpMethod.POST, requestEntity, String.class));
 
             log.info("Embedding generated successfully for criminal {}", LogSanitizer.sanitize(criminalId));
             return objectMapper.readTree(response.getBody());
@@ -294,18 +271,31 @@ public class FacialRecognitionService {
     public JsonNode checkHealth() {
         String url = facialRecognitionServiceUrl + "/health";
         
+        JsonNode health;
         try {
             ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            return objectMapper.readTree(response.getBody());
+            health = objectMapper.readTree(response.getBody());
         } catch (RestClientException e) {
             log.warn("Facial recognition service health check failed: {}", e.getMessage());
-            return objectMapper.createObjectNode()
+            health = objectMapper.createObjectNode()
                     .put("status", "unhealthy")
                     .put("error", e.getMessage());
         } catch (IOException e) {
-            return objectMapper.createObjectNode()
+            health = objectMapper.createObjectNode()
                     .put("status", "unhealthy")
                     .put("error", "Invalid response");
         }
+        breaker.onHealthCheck(ServiceHealth.isHealthy(health));
+        return health;
+    }
+
+    /** Run a call to the service through the breaker and the bulkhead. */
+    private <T> T guarded(Supplier<T> call) {
+        return breaker.call(() -> bulkhead.call(call));
+    }
+
+    /** Failures that say the service is down or overloaded, see {@link CallAnalysisService}. */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
     }
 }
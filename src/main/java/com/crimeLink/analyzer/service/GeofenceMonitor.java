@@ -0,0 +1,263 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.DutyFenceTimeDTO;
+import com.crimeLink.analyzer.entity.DutyFenceTime;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.GeofenceTransitionEvent;
+import com.crimeLink.analyzer.event.GeofenceTransitionEvent.Transition;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.DutyFenceTimeRepository;
+import com.crimeLink.analyzer.util.FenceGeometry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests every accepted location point against the fence of the officer's
+ * current duty.
+ * <p>
+ * Duty lookup and the fence test are in-memory and constant time per point, so
+ * this runs inline on the ingest path. Crossing the fence publishes a
+ * {@link GeofenceTransitionEvent}. Time between consecutive inside points is
+ * added to the duty's tally unless the gap exceeds
+ * {@code geofence.max-gap-seconds}, so a phone that went silent is not credited.
+ * Tallies are kept as deltas and written to {@code duty_fence_time} in one
+ * batch on a schedule.
+ * <p>
+ * Metrics: {@code geofence.points.checked}, {@code geofence.transitions}.
+ */
+@Slf4j
+@Service
+public class GeofenceMonitor {
+
+    /** Fence state of one officer; guarded by its own monitor. */
+    private static final class OfficerState {
+        private Long dutyId;
+        private String location;
+        private boolean inside;
+        private Instant lastTs;
+    }
+
+    /** Unflushed changes to one duty's tally; guarded by its own monitor. */
+    private static final class Tally {
+        private final String officerBadgeNo;
+        private final String location;
+        private long insideMs;
+        private int enters;
+        private int exits;
+        private boolean inside;
+
+        private Tally(String officerBadgeNo, String location) {
+            this.officerBadgeNo = officerBadgeNo;
+            this.location = location;
+        }
+    }
+
+    private final ActiveDutyCache duties;
+    private final GeofenceService fences;
+    private final DutyFenceTimeRepository timeRepo;
+    private final ApplicationEventPublisher events;
+    private final long maxGapMs;
+
+    private final Map<String, OfficerState> officers = new ConcurrentHashMap<>();
+    private final Map<Long, Tally> pending = new ConcurrentHashMap<>();
+
+    private final Counter pointsChecked;
+    private final Counter transitions;
+
+    public GeofenceMonitor(
+            ActiveDutyCache duties,
+            GeofenceService fences,
+            DutyFenceTimeRepository timeRepo,
+            ApplicationEventPublisher events,
+            MeterRegistry meterRegistry,
+            @Value("${geofence.max-gap-seconds:300}") long maxGapSeconds) {
+        this.duties = duties;
+        this.fences = fences;
+        this.timeRepo = timeRepo;
+        this.events = events;
+        this.maxGapMs = maxGapSeconds * 1000;
+        this.pointsChecked = meterRegistry.counter("geofence.points.checked");
+        this.transitions = meterRegistry.counter("geofence.transitions");
+    }
+
+    @EventListener
+    public void onPointsAccepted(LocationPointsAcceptedEvent event) {
+        String badge = event.officerBadgeNo();
+        OfficerState state = officers.computeIfAbsent(badge, b -> new OfficerState());
+        synchronized (state) {
+            for (LocationPoint point : event.points()) {
+                check(badge, state, point);
+            }
+        }
+    }
+
+    private void check(String badge, OfficerState state, LocationPoint point) {
+        Instant ts = point.getTs();
+        if (state.lastTs != null && ts.isBefore(state.lastTs)) {
+            return; // late upload; the fence state has already moved on
+        }
+
+        ActiveDutyCache.ActiveDuty duty = duties.find(badge, ts);
+        FenceGeometry fence = duty == null ? null : fences.fenceFor(duty.location());
+        Long dutyId = fence == null ? null : duty.dutyId();
+
+        if (state.dutyId != null && !state.dutyId.equals(dutyId)) {
+            if (state.inside) {
+                transition(badge, state.dutyId, state.location, Transition.EXIT, point);
+            }
+            state.inside = false;
+        }
+        state.dutyId = dutyId;
+        state.location = dutyId == null ? null : duty.location();
+        if (dutyId == null) {
+            state.lastTs = ts;
+            return;
+        }
+
+        pointsChecked.increment();
+        boolean inside = fence.contains(point.getLatitude(), point.getLongitude());
+        if (inside && state.inside && state.lastTs != null) {
+            long gap = ts.toEpochMilli() - state.lastTs.toEpochMilli();
+            if (gap > 0 && gap <= maxGapMs) {
+                Tally tally = tally(dutyId, badge, duty.location());
+                synchronized (tally) {
+                    tally.insideMs += gap;
+                }
+            }
+        }
+        if (inside != state.inside) {
+            transition(badge, dutyId, duty.location(), inside ? Transition.ENTER : Transition.EXIT, point);
+        }
+        state.inside = inside;
+        state.lastTs = ts;
+    }
+
+    private void transition(String badge, Long dutyId, String location, Transition transition, LocationPoint point) {
+        Tally tally = tally(dutyId, badge, location);
+        synchronized (tally) {
+            if (transition == Transition.ENTER) {
+                tally.enters++;
+                tally.inside = true;
+            } else {
+                tally.exits++;
+                tally.inside = false;
+            }
+        }
+        transitions.increment();
+        events.publishEvent(new GeofenceTransitionEvent(badge, dutyId, location, transition, point.getTs(),
+                point.getLatitude(), point.getLongitude()));
+    }
+
+    private Tally tally(Long dutyId, String badge, String location) {
+        return pending.computeIfAbsent(dutyId, id -> new Tally(badge, location));
+    }
+
+    /** Write accumulated tallies in one batch. */
+    @Scheduled(fixedDelayString = "${geofence.flush-ms:30000}")
+    @PreDestroy
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Tally> drained = new HashMap<>();
+        for (Long dutyId : new ArrayList<>(pending.keySet())) {
+            Tally tally = pending.get(dutyId);
+            OfficerState state = officers.get(tally.officerBadgeNo);
+            // Same lock order as the ingest path: officer, then tally.
+            synchronized (state) {
+                synchronized (tally) {
+                    Tally copy = new Tally(tally.officerBadgeNo, tally.location);
+                    copy.insideMs = tally.insideMs;
+                    copy.enters = tally.enters;
+                    copy.exits = tally.exits;
+                    if (copy.insideMs != 0 || copy.enters != 0 || copy.exits != 0) {
+                        drained.put(dutyId, copy);
+                    }
+                    tally.insideMs = 0;
+                    tally.enters = 0;
+                    tally.exits = 0;
+                    if (!dutyId.equals(state.dutyId)) {
+                        pending.remove(dutyId); // officer has moved on; nothing more will be added
+                    }
+                }
+            }
+        }
+
+        if (drained.isEmpty()) {
+            return;
+        }
+        Map<Long, DutyFenceTime> rows = new HashMap<>();
+        timeRepo.findAllById(drained.keySet()).forEach(row -> rows.put(row.getDutyScheduleId(), row));
+        List<DutyFenceTime> updated = new ArrayList<>(drained.size());
+        Instant now = Instant.now();
+        drained.forEach((dutyId, delta) -> {
+            DutyFenceTime row = rows.computeIfAbsent(dutyId,
+                    id -> new DutyFenceTime(id, delta.officerBadgeNo, delta.location, 0, 0, 0, null));
+            row.setInsideMs(row.getInsideMs() + delta.insideMs);
+            row.setEnterCount(row.getEnterCount() + delta.enters);
+            row.setExitCount(row.getExitCount() + delta.exits);
+            row.setUpdatedAt(now);
+            updated.add(row);
+        });
+        try {
+            timeRepo.saveAll(updated);
+        } catch (RuntimeException e) {
+            log.error("Failed to persist {} duty fence tallies, retrying next flush: {}", updated.size(),
+                    e.getMessage());
+            restore(drained);
+        }
+    }
+
+    private void restore(Map<Long, Tally> drained) {
+        drained.forEach((dutyId, delta) -> {
+            Tally tally = tally(dutyId, delta.officerBadgeNo, delta.location);
+            synchronized (tally) {
+                tally.insideMs += delta.insideMs;
+                tally.enters += delta.enters;
+                tally.exits += delta.exits;
+            }
+        });
+    }
+
+    /** Persisted tally plus anything not yet flushed; {@code null} when the duty has none. */
+    public DutyFenceTimeDTO getTime(Long dutyId) {
+        DutyFenceTime row = timeRepo.findById(dutyId).orElse(null);
+        Tally tally = pending.get(dutyId);
+        if (row == null && tally == null) {
+            return null;
+        }
+        long insideMs = row == null ? 0 : row.getInsideMs();
+        int enters = row == null ? 0 : row.getEnterCount();
+        int exits = row == null ? 0 : row.getExitCount();
+        boolean inside = false;
+        String badge = row == null ? null : row.getOfficerBadgeNo();
+        String location = row == null ? null : row.getLocation();
+        if (tally != null) {
+            synchronized (tally) {
+                insideMs += tally.insideMs;
+                enters += tally.enters;
+                exits += tally.exits;
+                inside = tally.inside;
+                badge = tally.officerBadgeNo;
+                location = tally.location;
+            }
+        }
+        return new DutyFenceTimeDTO(dutyId, badge, location, insideMs / 1000, enters, exits, inside);
+    }
+}
@@ -0,0 +1,130 @@
+package com.crimeLink.analyzer.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.crimeLink.analyzer.dto.DutyGeofenceDTO;
+import com.crimeLink.analyzer.entity.DutyGeofence;
+import com.crimeLink.analyzer.enums.GeofenceShape;
+import com.crimeLink.analyzer.repository.DutyGeofenceRepository;
+import com.crimeLink.analyzer.util.FenceGeometry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores duty location fences and keeps a compiled {@link FenceGeometry} for
+ * each one in memory, keyed by the normalised duty location name.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeofenceService {
+
+    private final DutyGeofenceRepository repo;
+    private final Map<String, FenceGeometry> fences = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (DutyGeofence fence : repo.findAll()) {
+            try {
+                fences.put(key(fence.getLocation()), compile(fence));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid geofence {} for {}: {}", fence.getId(), fence.getLocation(), e.getMessage());
+            }
+        }
+        log.info("Loaded {} duty geofences", fences.size());
+    }
+
+    /** @return the fence for a duty location, or {@code null} when none is defined */
+    public FenceGeometry fenceFor(String location) {
+        return location == null ? null : fences.get(key(location));
+    }
+
+    public List<DutyGeofenceDTO> findAll() {
+        return repo.findAll().stream().map(DutyGeofenceDTO::from).toList();
+    }
+
+    /** Create the fence for a location, or replace the existing one. */
+    public DutyGeofenceDTO save(DutyGeofenceDTO request) {
+        if (request.location() == null || request.location().isBlank() || request.shape() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "location and shape are required");
+        }
+        DutyGeofence fence = repo.findByLocationIgnoreCase(request.location().trim()).orElseGet(DutyGeofence::new);
+        fence.setLocation(request.location().trim());
+        fence.setShape(request.shape());
+        if (request.shape() == GeofenceShape.CIRCLE) {
+            fence.setCenterLat(request.centerLat());
+            fence.setCenterLon(request.centerLon());
+            fence.setRadiusM(request.radiusM());
+            fence.setVertices(null);
+        } else {
+            fence.setCenterLat(null);
+            fence.setCenterLon(null);
+            fence.setRadiusM(null);
+            fence.setVertices(request.vertices());
+        }
+
+        FenceGeometry geometry;
+        try {
+            geometry = compile(fence);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        DutyGeofence saved = repo.save(fence);
+        fences.put(key(saved.getLocation()), geometry);
+        return DutyGeofenceDTO.from(saved);
+    }
+
+    public void delete(Long id) {
+        DutyGeofence fence = repo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Geofence not found"));
+        repo.delete(fence);
+        fences.remove(key(fence.getLocation()));
+    }
+
+    static FenceGeometry compile(DutyGeofence fence) {
+        if (fence.getShape() == GeofenceShape.CIRCLE) {
+            if (fence.getCenterLat() == null || fence.getCenterLon() == null || fence.getRadiusM() == null) {
+                throw new IllegalArgumentException("Circle fence needs centerLat, centerLon and radiusM");
+            }
+            checkCoordinate(fence.getCenterLat(), fence.getCenterLon());
+            return FenceGeometry.circle(fence.getCenterLat(), fence.getCenterLon(), fence.getRadiusM());
+        }
+
+        List<List<Double>> vertices = fence.getVertices();
+        if (vertices == null || vertices.size() < 3) {
+            throw new IllegalArgumentException("Polygon fence needs at least three [lat, lon] vertices");
+        }
+        double[] lats = new double[vertices.size()];
+        double[] lons = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            List<Double> v = vertices.get(i);
+            if (v == null || v.size() != 2 || v.get(0) == null || v.get(1) == null) {
+                throw new IllegalArgumentException("Polygon vertices must be [lat, lon] pairs");
+            }
+            checkCoordinate(v.get(0), v.get(1));
+            lats[i] = v.get(0);
+            lons[i] = v.get(1);
+        }
+        return FenceGeometry.polygon(lats, lons);
+    }
+
+    private static void checkCoordinate(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Coordinate out of range: " + lat + ", " + lon);
+        }
+    }
+
+    private static String key(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,297 @@
+package com.crimeLink.analyzer.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.ProcessedImage;
+import com.crimeLink.analyzer.util.ExifOrientation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Normalises uploaded photos: applies the EXIF orientation, re-encodes as a
+ * baseline JPEG without any metadata (location, device, timestamps) and
+ * scales thumbnails to fit {@code photos.thumbnail.sizes} pixel boxes.
+ * <p>
+ * Decoding a camera photo takes tens of megabytes of heap, so work runs on a
+ * fixed pool of {@code photos.processing.threads} workers behind a queue of
+ * {@code photos.processing.queue-capacity} uploads; when both are full
+ * uploads fail fast instead of piling up decoded images. Images above
+ * {@code photos.processing.max-pixels} are refused before decoding.
+ * <p>
+ * Metrics: {@code photos.processing} (time per photo),
+ * {@code photos.processing.queue.depth} and
+ * {@code photos.processing.rejected}.
+ */
+@Slf4j
+@Service
+public class ImagePipeline {
+
+    private final ThreadPoolExecutor executor;
+    private final int[] thumbnailSizes;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final long timeoutMs;
+
+    private final Timer processTimer;
+    private final Counter rejected;
+
+    public ImagePipeline(MeterRegistry meterRegistry,
+            @Value("${photos.processing.threads:2}") int threads,
+            @Value("${photos.processing.queue-capacity:16}") int queueCapacity,
+            @Value("${photos.processing.timeout-ms:30000}") long timeoutMs,
+            @Value("${photos.processing.max-pixels:50000000}") long maxPixels,
+            @Value("${photos.thumbnail.sizes:160,480}") int[] thumbnailSizes,
+            @Value("${photos.jpeg-quality:0.85}") float jpegQuality) {
+        AtomicInteger workers = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, task -> {
+            Thread worker = new Thread(task, "photo-processing-" + workers.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        });
+        this.thumbnailSizes = Arrays.stream(thumbnailSizes).filter(size -> size > 0).sorted().distinct().toArray();
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("photos.processing.queue.depth", queue, BlockingQueue::size)
+                .description("Photos waiting for an image processing worker")
+                .register(meterRegistry);
+        this.processTimer = meterRegistry.timer("photos.processing");
+        this.rejected = meterRegistry.counter("photos.processing.rejected");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Thumbnail box sizes in pixels, smallest first. */
+    public int[] thumbnailSizes() {
+        return thumbnailSizes.clone();
+    }
+
+    /**
+     * Normalise {@code source} on the worker pool, waiting up to
+     * {@code photos.processing.timeout-ms} for the result.
+     *
+     * @return the processed image, or null when {@code source} is not an image
+     *         ImageIO can decode (HEIC, CMYK JPEG, corrupt data)
+     * @throws IOException when the pool is saturated, processing timed out or
+     *         the image is too large
+     */
+    public ProcessedImage process(InputStreamSource source) throws IOException {
+        Future<ProcessedImage> result;
+        try {
+            result = executor.submit(() -> processTimer.recordCallable(() -> normalise(source)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new IOException("Image processing is saturated, try again later", e);
+        }
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new IOException("Image processing timed out", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing image");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Image processing failed", e.getCause());
+        }
+    }
+
+    ProcessedImage normalise(InputStreamSource source) throws IOException {
+        BufferedImage decoded = decode(source);
+        if (decoded == null) {
+            return null;
+        }
+        int orientation;
+        try (InputStream in = source.getInputStream()) {
+            orientation = ExifOrientation.read(in);
+        }
+        BufferedImage image = orient(toRgb(decoded), orientation);
+
+        // Largest first, each thumbnail scaled from the previous one
+        SortedMap<Integer, byte[]> thumbnails = new TreeMap<>();
+        BufferedImage previous = image;
+        for (int i = thumbnailSizes.length - 1; i >= 0; i--) {
+            previous = scaleToFit(previous, thumbnailSizes[i]);
+            thumbnails.put(thumbnailSizes[i], encodeJpeg(previous));
+        }
+        return new ProcessedImage(encodeJpeg(image), thumbnails);
+    }
+
+    private BufferedImage decode(InputStreamSource source) throws IOException {
+        try (InputStream in = source.getInputStream();
+                ImageInputStream image = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                int width;
+                int height;
+                try {
+                    width = reader.getWidth(0);
+                    height = reader.getHeight(0);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Undecodable image header: {}", e.getMessage());
+                    return null;
+                }
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image of " + width + "x" + height + " pixels exceeds the limit of "
+                            + maxPixels);
+                }
+                try {
+                    return reader.read(0);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Undecodable image: {}", e.getMessage());
+                    return null;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Opaque RGB copy; transparent areas become white as JPEG has no alpha. */
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    static BufferedImage orient(BufferedImage source, int orientation) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) {
+            return source;
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = oriented.createGraphics();
+        try {
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * Scale down to fit a {@code box} x {@code box} square, halving with
+     * bilinear filtering first so large reductions do not alias. Smaller
+     * images are returned as they are.
+     */
+    static BufferedImage scaleToFit(BufferedImage source, int box) {
+        double scale = (double) box / Math.max(source.getWidth(), source.getHeight());
+        if (scale >= 1) {
+            return source;
+        }
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = resize(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            // No metadata is passed, so only a bare JFIF header is written
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,294 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only spill journal backing {@link LocationIngestQueue}.
+ * <p>
+ * Every accepted upload is written as one JSON line (a record) to the active
+ * segment before it is acknowledged. Once all points of a record are flushed
+ * to the database its line number is appended to the segment's {@code .acks}
+ * file; a segment is deleted once it has been rolled over and every record in
+ * it has been flushed. Segments still on disk at startup are replayed without
+ * their acknowledged records, so only uploads that were in flight at a crash
+ * can be written twice.
+ */
+@Slf4j
+final class LocationIngestJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ACKS_SUFFIX = ".acks";
+
+    /** One journaled point; short property names keep segments small. */
+    record Entry(String b, Instant t, double la, double lo, Float a, Float s, Float h, String p, JsonNode m) {
+
+        static Entry of(LocationPoint point) {
+            return new Entry(point.getOfficerBadgeNo(), point.getTs(), point.getLatitude(), point.getLongitude(),
+                    point.getAccuracyM(), point.getSpeedMps(), point.getHeadingDeg(), point.getProvider(),
+                    point.getMeta());
+        }
+
+        LocationPoint toPoint() {
+            return new LocationPoint(null, b, t, la, lo, a, s, h, p, m);
+        }
+    }
+
+    /** A journal file and the number of its points not yet flushed. */
+    static final class Segment {
+        private final Path path;
+        private final Path acks;
+        private final AtomicInteger pending = new AtomicInteger();
+        private int records;
+        private volatile boolean sealed;
+
+        private Segment(Path path) {
+            this.path = path;
+            this.acks = acksOf(path);
+        }
+    }
+
+    /** One appended upload: its line in the segment and the points of it not yet flushed. */
+    static final class Record {
+        private final Segment segment;
+        private final int index;
+        private final AtomicInteger pending;
+
+        private Record(Segment segment, int index, int points) {
+            this.segment = segment;
+            this.index = index;
+            this.pending = new AtomicInteger(points);
+        }
+    }
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final long maxSegmentBytes;
+    private final boolean fsync;
+
+    private long nextSequence;
+    private Segment active;
+    private FileChannel channel;
+
+    LocationIngestJournal(Path directory, ObjectMapper mapper, long maxSegmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.mapper = mapper;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replay segments left behind by a previous run, oldest first. A segment is
+     * deleted only after {@code sink} accepted all of its entries; on the first
+     * failure replay stops and the remaining segments are kept for next start.
+     *
+     * @return number of points replayed
+     */
+    synchronized int replay(Consumer<List<LocationPoint>> sink) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (!segments.isEmpty()) {
+            nextSequence = sequenceOf(segments.get(segments.size() - 1)) + 1;
+        }
+
+        int replayed = 0;
+        for (Path segment : segments) {
+            List<LocationPoint> points = read(segment, readAcks(acksOf(segment)));
+            if (!points.isEmpty()) {
+                sink.accept(points);
+                replayed += points.size();
+            }
+            Files.deleteIfExists(segment);
+            Files.deleteIfExists(acksOf(segment));
+        }
+        return replayed;
+    }
+
+    /**
+     * Durably append one upload to the active segment.
+     *
+     * @return the record the points must be acknowledged against once flushed
+     */
+    synchronized Record append(List<LocationPoint> points) throws IOException {
+        List<Entry> entries = new ArrayList<>(points.size());
+        for (LocationPoint point : points) {
+            entries.add(Entry.of(point));
+        }
+        byte[] line = (mapper.writeValueAsString(entries) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        if (channel == null || (channel.size() > 0 && channel.size() + line.length > maxSegmentBytes)) {
+            roll();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        active.pending.addAndGet(points.size());
+        return new Record(active, active.records++, points.size());
+    }
+
+    /**
+     * Record that the given number of points of each record reached the
+     * database. Completed records are marked in their segment's ack file with
+     * one write per segment.
+     */
+    void acknowledge(Map<Record, Integer> flushed) {
+        Map<Segment, StringBuilder> completed = new IdentityHashMap<>();
+        Map<Segment, Integer> points = new IdentityHashMap<>();
+        flushed.forEach((record, count) -> {
+            if (record.pending.addAndGet(-count) == 0) {
+                completed.computeIfAbsent(record.segment, s -> new StringBuilder()).append(record.index).append('\n');
+            }
+            points.merge(record.segment, count, Integer::sum);
+        });
+        completed.forEach(this::writeAcks);
+        points.forEach((segment, count) -> {
+            if (segment.pending.addAndGet(-count) == 0 && segment.sealed) {
+                delete(segment);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            seal(active);
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        active = new Segment(path);
+    }
+
+    private void seal(Segment segment) {
+        segment.sealed = true;
+        if (segment.pending.get() == 0) {
+            delete(segment);
+        }
+    }
+
+    private void writeAcks(Segment segment, CharSequence lines) {
+        // Serialised per segment; a lost marker only means that record is replayed once more
+        synchronized (segment) {
+            if (!Files.exists(segment.path)) {
+                return;
+            }
+            try (FileChannel acks = FileChannel.open(segment.acks, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = StandardCharsets.US_ASCII.encode(CharBuffer.wrap(lines));
+                while (buffer.hasRemaining()) {
+                    acks.write(buffer);
+                }
+                if (fsync) {
+                    acks.force(false);
+                }
+            } catch (IOException e) {
+                log.warn("Could not mark flushed records in {}: {}", segment.acks, e.getMessage());
+            }
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            synchronized (segment) {
+                Files.deleteIfExists(segment.path);
+                Files.deleteIfExists(segment.acks);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete flushed journal segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static Path acksOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + ACKS_SUFFIX);
+    }
+
+    /** Line numbers of the records already flushed; a torn last marker is ignored. */
+    private static Set<Integer> readAcks(Path acks) throws IOException {
+        Set<Integer> flushed = new HashSet<>();
+        if (!Files.exists(acks)) {
+            return flushed;
+        }
+        for (String line : Files.readAllLines(acks, StandardCharsets.US_ASCII)) {
+            try {
+                flushed.add(Integer.parseInt(line.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Skipping unreadable marker in {}: {}", acks, line);
+            }
+        }
+        return flushed;
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private List<LocationPoint> read(Path segment, Set<Integer> flushed) throws IOException {
+        List<LocationPoint> points = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            for (int index = 0; (line = reader.readLine()) != null; index++) {
+                if (line.isBlank() || flushed.contains(index)) {
+                    continue;
+                }
+                try {
+                    List<Entry> entries = mapper.readValue(line, new TypeReference<List<Entry>>() {
+                    });
+                    entries.forEach(e -> points.add(e.toPoint()));
+                } catch (IOException e) {
+                    // A crash mid-append leaves a torn final line; everything before it is intact.
+                    log.warn("Skipping unreadable record in journal segment {}: {}", segment, e.getMessage());
+                }
+            }
+        }
+        return points;
+    }
+}
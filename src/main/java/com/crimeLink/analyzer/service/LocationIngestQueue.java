@@ -0,0 +1,259 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.repository.LocationPointBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded write-behind queue between the location upload endpoint and the database.
+ * <p>
+ * Uploads are journaled to disk and enqueued, then acknowledged without waiting
+ * for the database. A small pool of writer threads drains the queue in large
+ * batches that mix points from all officers and writes them through
+ * {@link LocationPointBulkRepository}. When the queue is full new uploads are
+ * refused with 429 so the mobile client retries later.
+ * <p>
+ * Metrics: {@code location.ingest.queue.depth}, {@code location.ingest.flush.latency},
+ * {@code location.ingest.flush.size}, {@code location.ingest.points.flushed},
+ * {@code location.ingest.uploads.rejected}.
+ */
+@Slf4j
+@Service
+public class LocationIngestQueue {
+
+    private record QueuedPoint(LocationPoint point, LocationIngestJournal.Record record) {
+    }
+
+    private static final long MAX_RETRY_BACKOFF_MS = 5_000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+
+    private final LocationPointBulkRepository bulkRepo;
+    private final LocationIngestJournal journal;
+    private final BlockingQueue<QueuedPoint> queue = new LinkedBlockingQueue<>();
+    private final Semaphore slots;
+    private final int capacity;
+    private final int batchSize;
+    private final int writerCount;
+    private final long lingerMs;
+    private final List<Thread> writers = new ArrayList<>();
+
+    private final Timer flushLatency;
+    private final DistributionSummary flushSize;
+    private final Counter pointsFlushed;
+    private final Counter uploadsRejected;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+
+    public LocationIngestQueue(
+            LocationPointBulkRepository bulkRepo,
+            ObjectMapper mapper,
+            MeterRegistry meterRegistry,
+            @Value("${location.ingest.queue-capacity:100000}") int capacity,
+            @Value("${location.ingest.batch-size:5000}") int batchSize,
+            @Value("${location.ingest.writers:2}") int writerCount,
+            @Value("${location.ingest.linger-ms:50}") long lingerMs,
+            @Value("${location.ingest.journal-dir:./data/location-journal}") String journalDir,
+            @Value("${location.ingest.journal-segment-bytes:8388608}") long segmentBytes,
+            @Value("${location.ingest.journal-fsync:true}") boolean fsync) {
+        this.bulkRepo = bulkRepo;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.writerCount = writerCount;
+        this.lingerMs = lingerMs;
+        this.slots = new Semaphore(capacity);
+        this.journal = new LocationIngestJournal(Path.of(journalDir), mapper, segmentBytes, fsync);
+
+        Gauge.builder("location.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Location points accepted but not yet written to the database")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("location.ingest.flush.latency")
+                .description("Time to write one coalesced batch to the database")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("location.ingest.flush.size")
+                .description("Points per database write")
+                .register(meterRegistry);
+        this.pointsFlushed = meterRegistry.counter("location.ingest.points.flushed");
+        this.uploadsRejected = meterRegistry.counter("location.ingest.uploads.rejected");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        try {
+            int replayed = journal.replay(bulkRepo::insertAll);
+            if (replayed > 0) {
+                log.info("Replayed {} location points from the ingest journal", replayed);
+            }
+        } catch (RuntimeException e) {
+            // Unreplayed segments stay on disk and are retried on the next start.
+            log.error("Location ingest journal replay failed: {}", e.getMessage());
+        }
+
+        running = true;
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::drainLoop, "location-ingest-writer-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+        accepting = true;
+    }
+
+    /**
+     * Journal and enqueue one officer upload. Either all points are accepted or none.
+     *
+     * @throws ResponseStatusException 429 when the queue has no room for the batch
+     */
+    public void enqueue(List<LocationPoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        if (!accepting) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Location ingest is not accepting uploads");
+        }
+        if (points.size() > capacity) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Upload exceeds the maximum of " + capacity + " points");
+        }
+        if (!slots.tryAcquire(points.size())) {
+            uploadsRejected.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Location ingest queue is full, retry later");
+        }
+
+        LocationIngestJournal.Record record;
+        try {
+            record = journal.append(points);
+        } catch (IOException e) {
+            slots.release(points.size());
+            log.error("Failed to journal location upload: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Location upload could not be stored");
+        }
+        for (LocationPoint point : points) {
+            queue.add(new QueuedPoint(point, record));
+        }
+    }
+
+    /** Number of points waiting to be written. */
+    public int depth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        accepting = false;
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} location points left unflushed at shutdown; they will be replayed from the journal",
+                    queue.size());
+        }
+        journal.close();
+    }
+
+    private void drainLoop() {
+        List<QueuedPoint> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedPoint first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+                linger(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Wait briefly for more uploads so that a trickle still produces large writes. */
+    private void linger(List<QueuedPoint> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (running && batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            QueuedPoint next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<QueuedPoint> batch) throws InterruptedException {
+        List<LocationPoint> rows = new ArrayList<>(batch.size());
+        for (QueuedPoint queued : batch) {
+            rows.add(queued.point());
+        }
+
+        long backoff = 100;
+        while (true) {
+            try {
+                flushLatency.record(() -> bulkRepo.insertAll(rows));
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    // Leave the points in the journal; they are replayed on next start.
+                    log.error("Dropping {} location points from memory after failed flush during shutdown: {}",
+                            rows.size(), e.getMessage());
+                    slots.release(batch.size());
+                    return;
+                }
+                log.warn("Location batch flush failed, retrying in {} ms: {}", backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MS);
+            }
+        }
+
+        flushSize.record(rows.size());
+        pointsFlushed.increment(rows.size());
+
+        Map<LocationIngestJournal.Record, Integer> perRecord = new IdentityHashMap<>();
+        for (QueuedPoint queued : batch) {
+            perRecord.merge(queued.record(), 1, Integer::sum);
+        }
+        journal.acknowledge(perRecord);
+        slots.release(batch.size());
+    }
+}
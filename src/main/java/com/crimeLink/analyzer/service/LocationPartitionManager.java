@@ -0,0 +1,392 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Monthly range partitioning and retention for {@code location_points}.
+ * <p>
+ * On PostgreSQL the table created by Hibernate is converted once into a table
+ * partitioned by {@code ts}: the existing rows become one partition covering
+ * everything before the first monthly partition, and new rows land in
+ * {@code location_points_pYYYYMM}. Partitions are created a few months ahead
+ * on a schedule. History queries already filter on {@code ts}, so the planner
+ * prunes them to the months they touch without any change to the repository.
+ * <p>
+ * The primary key becomes {@code (id, ts)}, as a key on a partitioned table
+ * must include the partition column; ids still come from one sequence, so
+ * {@code id} stays unique on its own.
+ * <p>
+ * When retention is configured, partitions that end before the cutoff are
+ * exported to gzip-compressed CSV and then detached and dropped. Other
+ * databases (H2 in development) are left unpartitioned and only get the
+ * {@code (officer_badge_no, ts)} index.
+ */
+@Slf4j
+@Service
+public class LocationPartitionManager {
+
+    static final String TABLE = "location_points";
+    static final String LEGACY_PARTITION = "location_points_legacy";
+    static final String DEFAULT_PARTITION = "location_points_default";
+    private static final String INDEX = "idx_location_points_officer_ts";
+    private static final String SEQUENCE = "location_points_id_seq";
+    private static final String PRIMARY_KEY = "location_points_pkey";
+
+    /** Serialises the one-time conversion when several instances start together. */
+    private static final long MIGRATION_LOCK_KEY = 0x4c6f63506172744cL;
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter PG_TIMESTAMPTZ = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssx");
+    private static final Pattern BOUND = Pattern.compile(
+            "FOR VALUES FROM \\((?:MINVALUE|'([^']+)')\\) TO \\((?:MAXVALUE|'([^']+)')\\)");
+    private static final Pattern SAFE_NAME = Pattern.compile("[a-z0-9_]+");
+
+    /** A range partition; {@code null} bounds stand for MINVALUE / MAXVALUE. */
+    record Partition(String name, Instant from, Instant to) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean archive;
+    private final Path archiveDir;
+
+    private volatile boolean partitioned;
+
+    @Autowired
+    public LocationPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${location.partition.enabled:true}") boolean enabled,
+            @Value("${location.partition.premake-months:3}") int premakeMonths,
+            @Value("${location.partition.retention-months:0}") int retentionMonths,
+            @Value("${location.partition.archive:true}") boolean archive,
+            @Value("${location.partition.archive-dir:./data/location-archive}") String archiveDir) {
+        this(jdbcTemplate, transactionTemplate, Clock.systemUTC(), enabled, premakeMonths, retentionMonths, archive,
+                archiveDir);
+    }
+
+    LocationPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Clock clock,
+            boolean enabled, int premakeMonths, int retentionMonths, boolean archive, String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.archive = archive;
+        this.archiveDir = Path.of(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled && isPostgres()) {
+            try {
+                partitioned = transactionTemplate.execute(status -> convertIfNeeded());
+            } catch (RuntimeException e) {
+                log.error("Location partitioning setup failed, table left as is: {}", e.getMessage());
+            }
+        } else {
+            log.info("Location partitioning disabled for this database");
+        }
+        ensureIndex();
+        if (partitioned) {
+            ensurePrimaryKey();
+            maintain();
+        }
+    }
+
+    /** Create upcoming partitions and apply retention. */
+    @Scheduled(cron = "${location.partition.maintenance-cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        for (YearMonth month : monthsToCreate(listPartitions(), current, premakeMonths)) {
+            createMonthlyPartition(month);
+        }
+        if (retentionMonths > 0) {
+            Instant cutoff = startOf(current.minusMonths(retentionMonths));
+            for (Partition partition : partitionsBefore(listPartitions(), cutoff)) {
+                retire(partition);
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class));
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    /** @return whether {@code location_points} is (now) partitioned */
+    private boolean convertIfNeeded() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, MIGRATION_LOCK_KEY);
+        List<String> kind = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+        if (kind.isEmpty()) {
+            log.warn("Table {} does not exist yet, skipping partitioning", TABLE);
+            return false;
+        }
+        if ("p".equals(kind.get(0))) {
+            return true;
+        }
+
+        log.info("Converting {} to a monthly partitioned table", TABLE);
+        jdbcTemplate.execute("SET LOCAL TIME ZONE 'UTC'");
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS " + INDEX + " RENAME TO idx_location_points_legacy_officer_ts");
+        // Frees the constraint name for the parent's (id, ts) key, see ensurePrimaryKey
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT IF EXISTS " + PRIMARY_KEY);
+
+        // Partitioned parents cannot own the IDENTITY column, so ids move to a plain sequence.
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP DEFAULT");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + SEQUENCE);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + LEGACY_PARTITION, Long.class);
+        jdbcTemplate.execute("CREATE SEQUENCE " + SEQUENCE + " START WITH " + (maxId + 1));
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (ts)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + SEQUENCE + "')");
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " OWNED BY " + TABLE + ".id");
+
+        // Rows without a timestamp can neither live in a range partition nor be part of the key.
+        removeRowsWithoutTimestamp(LEGACY_PARTITION);
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+        OffsetDateTime newest = jdbcTemplate.queryForObject("SELECT MAX(ts) FROM " + LEGACY_PARTITION,
+                OffsetDateTime.class);
+        YearMonth firstMonthly = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        if (newest != null) {
+            YearMonth afterNewest = YearMonth.from(newest.withOffsetSameInstant(ZoneOffset.UTC)).plusMonths(1);
+            if (afterNewest.isAfter(firstMonthly)) {
+                firstMonthly = afterNewest;
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+                + " FOR VALUES FROM (MINVALUE) TO ('" + startOf(firstMonthly) + "')");
+        log.info("{} partitioned; existing rows kept in {} up to {}", TABLE, LEGACY_PARTITION, firstMonthly);
+        return true;
+    }
+
+    /**
+     * Add the {@code (id, ts)} primary key, also to tables converted before the
+     * key was introduced. It cascades to every partition, present and future.
+     */
+    private void ensurePrimaryKey() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, MIGRATION_LOCK_KEY);
+                Integer keys = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'p'",
+                        Integer.class, TABLE);
+                if (keys != null && keys > 0) {
+                    return;
+                }
+                jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT IF EXISTS " + PRIMARY_KEY);
+                removeRowsWithoutTimestamp(TABLE);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN ts SET NOT NULL");
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + PRIMARY_KEY
+                        + " PRIMARY KEY (id, ts)");
+                log.info("Added primary key (id, ts) to {}", TABLE);
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not add the primary key to {}: {}", TABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Ingest has always rejected points without a timestamp, so such rows can
+     * only be left from before; no query can reach them. They are archived
+     * (when archiving is on) and deleted.
+     */
+    private void removeRowsWithoutTimestamp(String table) {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE ts IS NULL", Long.class);
+        if (rows == null || rows == 0) {
+            return;
+        }
+        if (archive) {
+            try {
+                archive(table + "_without_ts", "(SELECT * FROM " + table + " WHERE ts IS NULL)");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Archiving rows without a timestamp failed", e);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE ts IS NULL");
+        log.warn("Removed {} location points without a timestamp from {}", rows, table);
+    }
+
+    /** On a partitioned table this cascades to every partition, present and future. */
+    private void ensureIndex() {
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX + " ON " + TABLE + " (officer_badge_no, ts)");
+        } catch (DataAccessException e) {
+            log.warn("Could not create index {}: {}", INDEX, e.getMessage());
+        }
+    }
+
+    private List<Partition> listPartitions() {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL TIME ZONE 'UTC'");
+            return jdbcTemplate.query("""
+                    SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                    FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE i.inhparent = to_regclass(?)
+                    """, (rs, rowNum) -> parsePartition(rs.getString(1), rs.getString(2)), TABLE)
+                    .stream().filter(p -> p != null).toList();
+        });
+    }
+
+    /**
+     * Rows of {@code month} that arrived before its partition existed sit in
+     * the default partition and would make the new bound fail; they are moved
+     * into the new partition in the same transaction.
+     */
+    private void createMonthlyPartition(YearMonth month) {
+        String name = partitionName(month);
+        String range = "ts >= '" + startOf(month) + "' AND ts < '" + startOf(month.plusMonths(1)) + "'";
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                // Holds off inserts routed to the default partition until the new one takes them
+                jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TEMP TABLE location_points_moving (LIKE " + TABLE + ") ON COMMIT DROP");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range
+                        + " RETURNING *) INSERT INTO location_points_moving SELECT * FROM moved");
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                        + " FOR VALUES FROM ('" + startOf(month) + "') TO ('" + startOf(month.plusMonths(1)) + "')");
+                if (rows > 0) {
+                    jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM location_points_moving");
+                }
+                return rows;
+            });
+            log.info("Created location partition {}{}", name,
+                    moved != null && moved > 0 ? " with " + moved + " rows from " + DEFAULT_PARTITION : "");
+        } catch (DataAccessException e) {
+            log.warn("Could not create location partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void retire(Partition partition) {
+        if (!SAFE_NAME.matcher(partition.name()).matches()) {
+            log.warn("Skipping retention for unexpected partition name {}", partition.name());
+            return;
+        }
+        if (archive) {
+            try {
+                archive(partition.name(), partition.name());
+            } catch (IOException | RuntimeException e) {
+                log.error("Archiving location partition {} failed, keeping it: {}", partition.name(), e.getMessage());
+                return;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.name());
+            jdbcTemplate.execute("DROP TABLE " + partition.name());
+        });
+        log.info("Dropped location partition {} (ended {})", partition.name(), partition.to());
+    }
+
+    /** Export {@code source} (a table or a parenthesised query) to {@code <name>.csv.gz}. */
+    private void archive(String name, String source) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(name + ".csv.gz");
+        Path temp = archiveDir.resolve(name + ".csv.gz.part");
+        Long rows;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+            rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try {
+                    return con.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY " + source + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                } catch (IOException e) {
+                    throw new SQLException("COPY out of " + name + " failed: " + e.getMessage(), e);
+                }
+            });
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Archived {} rows of {} to {}", rows, name, target);
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(MONTH_SUFFIX);
+    }
+
+    static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /** @return the partition, or {@code null} for the default partition or an unparseable bound */
+    static Partition parsePartition(String name, String bound) {
+        Matcher m = bound == null ? null : BOUND.matcher(bound);
+        if (m == null || !m.find()) {
+            return null;
+        }
+        try {
+            return new Partition(name, parseTimestamp(m.group(1)), parseTimestamp(m.group(2)));
+        } catch (DateTimeParseException e) {
+            log.warn("Unrecognised bound for location partition {}: {}", name, bound);
+            return null;
+        }
+    }
+
+    private static Instant parseTimestamp(String value) {
+        return value == null ? null : OffsetDateTime.parse(value, PG_TIMESTAMPTZ).toInstant();
+    }
+
+    /** Months from {@code current} to {@code current + premake} not already covered by a partition. */
+    static List<YearMonth> monthsToCreate(List<Partition> existing, YearMonth current, int premake) {
+        List<YearMonth> missing = new ArrayList<>();
+        for (int i = 0; i <= premake; i++) {
+            YearMonth month = current.plusMonths(i);
+            Instant from = startOf(month);
+            Instant to = startOf(month.plusMonths(1));
+            boolean covered = existing.stream().anyMatch(p -> (p.from() == null || p.from().isBefore(to))
+                    && (p.to() == null || p.to().isAfter(from)));
+            if (!covered) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    /** Partitions whose whole range lies before {@code cutoff}. */
+    static List<Partition> partitionsBefore(List<Partition> existing, Instant cutoff) {
+        return existing.stream().filter(p -> p.to() != null && !p.to().isAfter(cutoff)).toList();
+    }
+}
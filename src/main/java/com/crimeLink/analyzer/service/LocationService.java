@@ -1,15 +1,29 @@
 package com.crimeLink.analyzer.service;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.dto.LocationIngestResult;
 import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.crimeLink.analyzer.dto.LocationTrackDTO;
+import com.crimeLink.analyzer.dto.MovementStatsDTO;
 import com.crimeLink.analyzer.entity.LocationPoint;
 
 public interface LocationService {
-    public void saveBulk(String officerBadgeNo, List<LocationPointDTO> points);
+    public LocationIngestResult saveBulk(String officerBadgeNo, List<LocationPointDTO> points);
 
     public List<LocationPoint> getHistory(String officerBadgeNo, Instant from, Instant to);
 
-    public LocationPoint getLastLocation(String officerBadgeNo);
+    public LocationTrackDTO getSimplifiedHistory(String officerBadgeNo, Instant from, Instant to,
+            Double toleranceM, Integer maxPoints);
+
+    public LastKnownPositionDTO getLastLocation(String officerBadgeNo);
+
+    public List<LastKnownPositionDTO> getAllLastLocations();
+
+    public MovementStatsDTO getMovementStats(String officerBadgeNo, LocalDate day);
+
+    public List<MovementStatsDTO> getAllMovementStats(LocalDate day);
 }
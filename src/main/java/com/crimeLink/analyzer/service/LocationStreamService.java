@@ -0,0 +1,212 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes live officer positions to supervisor dashboards over Server-Sent Events.
+ * <p>
+ * The ingest listener only drops the newest position of each upload into the
+ * pending map of every matching subscriber and returns; it never writes to a
+ * socket. Each subscriber is drained by at most one virtual thread at a time,
+ * so a slow dashboard only delays itself. While a subscriber is behind, a newer
+ * position for the same officer replaces the unsent one, which bounds its
+ * backlog to one entry per officer.
+ * <p>
+ * Metrics: {@code location.stream.subscribers}, {@code location.stream.positions.coalesced}.
+ */
+@Slf4j
+@Service
+public class LocationStreamService {
+
+    static final String POSITION_EVENT = "position";
+
+    private final OfficerPositionRegistry positionRegistry;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter coalesced;
+
+    public LocationStreamService(
+            OfficerPositionRegistry positionRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${location.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${location.stream.max-subscribers:200}") int maxSubscribers) {
+        this.positionRegistry = positionRegistry;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+
+        Gauge.builder("location.stream.subscribers", subscribers, Set::size)
+                .description("Open live position streams")
+                .register(meterRegistry);
+        this.coalesced = meterRegistry.counter("location.stream.positions.coalesced");
+    }
+
+    /**
+     * Open a stream. The current position of every matching officer is sent
+     * first, followed by live updates.
+     *
+     * @param badges officers to follow; {@code null} or empty for all
+     * @param bbox   area to follow; {@code null} for everywhere
+     * @throws ResponseStatusException 503 when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Set<String> badges, BoundingBox bbox) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live location streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(emitter, badges, bbox);
+        return emitter;
+    }
+
+    Subscriber register(SseEmitter emitter, Set<String> badges, BoundingBox bbox) {
+        Subscriber subscriber = new Subscriber(emitter, badges == null || badges.isEmpty() ? null : Set.copyOf(badges),
+                bbox);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        for (LastKnownPositionDTO position : positionRegistry.getAll()) {
+            subscriber.offer(position);
+        }
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    @EventListener
+    public void onPointsAccepted(LocationPointsAcceptedEvent event) {
+        if (subscribers.isEmpty() || event.points().isEmpty()) {
+            return;
+        }
+        LocationPoint latest = event.points().get(event.points().size() - 1);
+        LastKnownPositionDTO position = LastKnownPositionDTO.from(latest);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(position)) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    /** Keeps idle connections open through proxies and detects dead clients. */
+    @Scheduled(fixedRateString = "${location.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> badges;
+        private final BoundingBox bbox;
+        private final Map<String, LastKnownPositionDTO> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(SseEmitter emitter, Set<String> badges, BoundingBox bbox) {
+            this.emitter = emitter;
+            this.badges = badges;
+            this.bbox = bbox;
+        }
+
+        /** @return whether the position matched this subscriber's filter */
+        boolean offer(LastKnownPositionDTO position) {
+            if (badges != null && !badges.contains(position.officerBadgeNo())) {
+                return false;
+            }
+            if (bbox != null && !bbox.contains(position.latitude(), position.longitude())) {
+                return false;
+            }
+            pending.merge(position.officerBadgeNo(), position, (unsent, candidate) -> {
+                coalesced.increment();
+                return candidate.ts().isBefore(unsent.ts()) ? unsent : candidate;
+            });
+            return true;
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Executor already shut down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    sendPending();
+                    draining.set(false);
+                    // Re-claim if something arrived after the last pass but before the flag was cleared.
+                } while ((!pending.isEmpty() || heartbeatDue) && draining.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing live location stream: {}", e.getMessage());
+                subscribers.remove(this);
+                pending.clear();
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void sendPending() throws IOException {
+            Iterator<String> officers = pending.keySet().iterator();
+            while (officers.hasNext()) {
+                LastKnownPositionDTO position = pending.remove(officers.next());
+                if (position != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(POSITION_EVENT)
+                            .id(position.officerBadgeNo() + "@" + position.ts().toEpochMilli())
+                            .data(position, MediaType.APPLICATION_JSON));
+                }
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.crimeLink.analyzer.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs ML proxy calls on virtual threads so the Tomcat worker that accepted
+ * the request goes back to the pool while the Python service works. The
+ * controllers return the {@link CompletableFuture} and Spring MVC completes
+ * the request asynchronously; the caller's security context travels along.
+ * <p>
+ * Virtual threads are not a limit: each ML service bounds its own
+ * concurrency with a {@link com.crimeLink.analyzer.util.Bulkhead}.
+ */
+@Component
+public class MlGateway {
+
+    private final ExecutorService virtualThreads = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("ml-gateway-", 0).factory());
+    private final Executor executor = new DelegatingSecurityContextExecutor(virtualThreads);
+
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreads.shutdownNow();
+    }
+}
@@ -0,0 +1,297 @@
+package com.crimeLink.analyzer.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.MovementStatsDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.entity.OfficerDailyMovement;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.OfficerDailyMovementRepository;
+import com.crimeLink.analyzer.util.GeoUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distance, moving time and idle time per officer per day, accumulated as
+ * location points are accepted so reading them never scans the track.
+ * <p>
+ * GPS jitter makes a parked phone wander by tens of metres, so distance is
+ * measured between anchors rather than between consecutive points: the anchor
+ * only moves once a point lands more than {@code movement.idle-radius-m} away
+ * from it. Time spent near one anchor for longer than
+ * {@code movement.idle-after-seconds} counts as idle, shorter stays as moving.
+ * Gaps longer than {@code movement.max-gap-seconds} are not counted at all.
+ * <p>
+ * Each officer's current day is held in memory, loaded once from
+ * {@code officer_daily_movement} on the officer's first point of the day, and
+ * written back in one batch on a schedule. Late points older than the
+ * officer's latest point are ignored.
+ */
+@Slf4j
+@Service
+public class OfficerMovementTracker {
+
+    /** An officer's current day; guarded by its own monitor. */
+    private static final class OfficerState {
+        private OfficerDailyMovement day;
+    }
+
+    private final OfficerDailyMovementRepository repo;
+    private final ZoneId zone;
+    private final Clock clock;
+    private final long maxGapMs;
+    private final long idleAfterMs;
+    private final double idleRadiusM;
+
+    private final Map<String, OfficerState> officers = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    /** Days that ended and have not been written yet; no longer changed by ingest. */
+    private final Queue<OfficerDailyMovement> finished = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public OfficerMovementTracker(OfficerDailyMovementRepository repo,
+            @Value("${movement.day-zone:Asia/Colombo}") String zone,
+            @Value("${movement.max-gap-seconds:300}") long maxGapSeconds,
+            @Value("${movement.idle-after-seconds:120}") long idleAfterSeconds,
+            @Value("${movement.idle-radius-m:25}") double idleRadiusM) {
+        this(repo, ZoneId.of(zone), Clock.systemUTC(), maxGapSeconds, idleAfterSeconds, idleRadiusM);
+    }
+
+    OfficerMovementTracker(OfficerDailyMovementRepository repo, ZoneId zone, Clock clock,
+            long maxGapSeconds, long idleAfterSeconds, double idleRadiusM) {
+        this.repo = repo;
+        this.zone = zone;
+        this.clock = clock;
+        this.maxGapMs = maxGapSeconds * 1000;
+        this.idleAfterMs = idleAfterSeconds * 1000;
+        this.idleRadiusM = idleRadiusM;
+    }
+
+    @EventListener
+    public void onPointsAccepted(LocationPointsAcceptedEvent event) {
+        String badge = event.officerBadgeNo();
+        OfficerState state = officers.computeIfAbsent(badge, b -> new OfficerState());
+        synchronized (state) {
+            for (LocationPoint point : event.points()) {
+                add(badge, state, point);
+            }
+        }
+    }
+
+    private void add(String badge, OfficerState state, LocationPoint point) {
+        Instant ts = point.getTs();
+        LocalDate date = dayOf(ts);
+        OfficerDailyMovement day = state.day;
+        if (day == null) {
+            day = state.day = load(badge, date);
+        }
+        if (day.getLastTs() != null && !ts.isAfter(day.getLastTs())) {
+            return;
+        }
+        if (date.isBefore(day.getDay())) {
+            return;
+        }
+        if (date.isAfter(day.getDay())) {
+            settle(day);
+            finished.add(day);
+            OfficerDailyMovement next = load(badge, date);
+            if (next.getLastTs() == null) {
+                // Carry the position over so the walk across midnight is counted.
+                next.setAnchorLat(day.getAnchorLat());
+                next.setAnchorLon(day.getAnchorLon());
+                next.setLastTs(day.getLastTs());
+            }
+            day = state.day = next;
+        }
+
+        accumulate(day, point.getLatitude(), point.getLongitude(), ts);
+        dirty.add(badge);
+    }
+
+    private void accumulate(OfficerDailyMovement day, double lat, double lon, Instant ts) {
+        if (day.getFirstTs() == null || ts.isBefore(day.getFirstTs())) {
+            day.setFirstTs(ts);
+        }
+        day.setPointCount(day.getPointCount() + 1);
+
+        Instant lastTs = day.getLastTs();
+        day.setLastTs(ts);
+        if (lastTs == null || day.getAnchorLat() == null) {
+            anchor(day, lat, lon);
+            return;
+        }
+        long dt = ts.toEpochMilli() - lastTs.toEpochMilli();
+        if (dt > maxGapMs) {
+            settle(day);
+            anchor(day, lat, lon);
+            return;
+        }
+
+        double d = GeoUtils.haversineMeters(day.getAnchorLat(), day.getAnchorLon(), lat, lon);
+        if (d <= idleRadiusM) {
+            day.setPendingMs(day.getPendingMs() + dt);
+            return;
+        }
+        // Left the anchor: the stay before this step is idle if it was long, the step itself is movement.
+        long stay = day.getPendingMs();
+        if (stay > idleAfterMs) {
+            day.setIdleMs(day.getIdleMs() + stay);
+            day.setMovingMs(day.getMovingMs() + dt);
+        } else {
+            day.setMovingMs(day.getMovingMs() + stay + dt);
+        }
+        day.setDistanceM(day.getDistanceM() + d);
+        anchor(day, lat, lon);
+    }
+
+    private void settle(OfficerDailyMovement day) {
+        long stay = day.getPendingMs();
+        if (stay > idleAfterMs) {
+            day.setIdleMs(day.getIdleMs() + stay);
+        } else {
+            day.setMovingMs(day.getMovingMs() + stay);
+        }
+        day.setPendingMs(0);
+    }
+
+    private static void anchor(OfficerDailyMovement day, double lat, double lon) {
+        day.setAnchorLat(lat);
+        day.setAnchorLon(lon);
+        day.setPendingMs(0);
+    }
+
+    private OfficerDailyMovement load(String badge, LocalDate date) {
+        return repo.findByOfficerBadgeNoAndDay(badge, date).orElseGet(() -> {
+            OfficerDailyMovement row = new OfficerDailyMovement();
+            row.setOfficerBadgeNo(badge);
+            row.setDay(date);
+            return row;
+        });
+    }
+
+    /** Write changed days in one batch. */
+    @Scheduled(fixedDelayString = "${movement.flush-ms:30000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<OfficerDailyMovement> rows = new ArrayList<>();
+        List<OfficerDailyMovement> sources = new ArrayList<>();
+        for (OfficerDailyMovement done; (done = finished.poll()) != null;) {
+            rows.add(copy(done));
+            sources.add(done);
+        }
+        for (String badge : new ArrayList<>(dirty)) {
+            dirty.remove(badge);
+            OfficerState state = officers.get(badge);
+            synchronized (state) {
+                rows.add(copy(state.day));
+                sources.add(state.day);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<OfficerDailyMovement> saved;
+        try {
+            saved = repo.saveAll(rows);
+        } catch (RuntimeException e) {
+            log.error("Failed to persist {} officer movement rows, retrying next flush: {}", rows.size(),
+                    e.getMessage());
+            for (OfficerDailyMovement source : sources) {
+                OfficerState state = officers.get(source.getOfficerBadgeNo());
+                synchronized (state) {
+                    if (state.day == source) {
+                        dirty.add(source.getOfficerBadgeNo());
+                    } else {
+                        finished.add(source);
+                    }
+                }
+            }
+            return;
+        }
+        // New rows got their ids from the insert; later writes must update them instead.
+        for (int i = 0; i < rows.size(); i++) {
+            OfficerDailyMovement source = sources.get(i);
+            synchronized (officers.get(source.getOfficerBadgeNo())) {
+                source.setId(saved.get(i).getId());
+            }
+        }
+    }
+
+    private static OfficerDailyMovement copy(OfficerDailyMovement d) {
+        return new OfficerDailyMovement(d.getId(), d.getOfficerBadgeNo(), d.getDay(), d.getDistanceM(),
+                d.getMovingMs(), d.getIdleMs(), d.getPointCount(), d.getFirstTs(), d.getLastTs(),
+                d.getAnchorLat(), d.getAnchorLon(), d.getPendingMs());
+    }
+
+    /** @return the officer's totals for {@code date} (today when null), or {@code null} if none */
+    public MovementStatsDTO getStats(String officerBadgeNo, LocalDate date) {
+        LocalDate day = date == null ? today() : date;
+        OfficerState state = officers.get(officerBadgeNo);
+        if (state != null) {
+            synchronized (state) {
+                if (state.day != null && state.day.getDay().equals(day)) {
+                    return toDto(state.day);
+                }
+            }
+        }
+        return repo.findByOfficerBadgeNoAndDay(officerBadgeNo, day).map(this::toDto).orElse(null);
+    }
+
+    /** Totals of every officer with movement on {@code date} (today when null). */
+    public List<MovementStatsDTO> getStats(LocalDate date) {
+        LocalDate day = date == null ? today() : date;
+        Map<String, MovementStatsDTO> byBadge = new TreeMap<>();
+        for (OfficerDailyMovement row : repo.findByDayOrderByOfficerBadgeNo(day)) {
+            byBadge.put(row.getOfficerBadgeNo(), toDto(row));
+        }
+        for (OfficerState state : officers.values()) {
+            synchronized (state) {
+                if (state.day != null && state.day.getDay().equals(day)) {
+                    byBadge.put(state.day.getOfficerBadgeNo(), toDto(state.day));
+                }
+            }
+        }
+        return new ArrayList<>(byBadge.values());
+    }
+
+    /** An unfinished stay is reported the way it would be settled now. */
+    private MovementStatsDTO toDto(OfficerDailyMovement row) {
+        long movingMs = row.getMovingMs();
+        long idleMs = row.getIdleMs();
+        if (row.getPendingMs() > idleAfterMs) {
+            idleMs += row.getPendingMs();
+        } else {
+            movingMs += row.getPendingMs();
+        }
+        Double avgSpeed = movingMs > 0 ? row.getDistanceM() / (movingMs / 1000.0) : null;
+        return new MovementStatsDTO(row.getOfficerBadgeNo(), row.getDay(), row.getDistanceM(), movingMs / 1000,
+                idleMs / 1000, avgSpeed, row.getPointCount(), row.getFirstTs(), row.getLastTs());
+    }
+
+    private LocalDate dayOf(Instant ts) {
+        return LocalDate.ofInstant(ts, zone);
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock.withZone(zone));
+    }
+}
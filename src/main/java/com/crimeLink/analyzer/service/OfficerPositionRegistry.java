@@ -0,0 +1,66 @@
+package com.crimeLink.analyzer.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.LocationPointRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Last known position of every officer, keyed by badge number.
+ * <p>
+ * Warmed once from the database when the application starts and then kept
+ * current from accepted uploads, so dashboard polling never reaches the
+ * database. A position only ever replaces an older one, which makes late or
+ * out-of-order uploads harmless.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OfficerPositionRegistry {
+
+    private final LocationPointRepository repo;
+    private final Map<String, LastKnownPositionDTO> positions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<LastKnownPositionDTO> latest = repo.findLatestPerOfficer();
+        latest.forEach(this::update);
+        log.info("Officer position registry warmed with {} officers", positions.size());
+    }
+
+    @EventListener
+    public void onPointsAccepted(LocationPointsAcceptedEvent event) {
+        List<LocationPoint> points = event.points();
+        if (!points.isEmpty()) {
+            update(LastKnownPositionDTO.from(points.get(points.size() - 1)));
+        }
+    }
+
+    public LastKnownPositionDTO get(String officerBadgeNo) {
+        return positions.get(officerBadgeNo);
+    }
+
+    public List<LastKnownPositionDTO> getAll() {
+        List<LastKnownPositionDTO> all = new ArrayList<>(positions.values());
+        all.sort(Comparator.comparing(LastKnownPositionDTO::officerBadgeNo));
+        return all;
+    }
+
+    void update(LastKnownPositionDTO position) {
+        positions.merge(position.officerBadgeNo(), position,
+                (current, candidate) -> candidate.ts().isAfter(current.ts()) ? candidate : current);
+    }
+}
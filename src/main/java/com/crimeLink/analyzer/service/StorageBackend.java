@@ -0,0 +1,49 @@
+package com.crimeLink.analyzer.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.InputStreamSource;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+
+/**
+ * Object storage for evidence files and photos, addressed by bucket and a
+ * slash-separated path. Selected with {@code storage.backend}
+ * ({@code supabase} by default, or {@code local}).
+ */
+public interface StorageBackend {
+
+    /**
+     * Streams {@code size} bytes from {@code content} into {@code bucket/path},
+     * hashing them on the way.
+     *
+     * @param overwrite replace an existing object instead of failing
+     */
+    public StoredFile put(String bucket, String path, InputStreamSource content, long size, String contentType,
+            boolean overwrite) throws IOException;
+
+    /** Opens the object for reading; the caller closes the stream. */
+    public InputStream get(String bucket, String path) throws IOException;
+
+    /** A URL that downloads the object without credentials for {@code expiresInSeconds}. */
+    public String sign(String bucket, String path, int expiresInSeconds);
+
+    /**
+     * Signed URLs for several objects at once. Objects that could not be
+     * signed are missing from the result.
+     */
+    public Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds);
+
+    /** The permanent URL of an object in a public bucket. */
+    public String publicUrl(String bucket, String path);
+
+    /** Paths of the objects directly inside the folder {@code prefix} (no trailing slash). */
+    public List<String> list(String bucket, String prefix) throws IOException;
+
+    /** Deletes the objects; missing ones are ignored. */
+    public void delete(String bucket, Collection<String> paths) throws IOException;
+}
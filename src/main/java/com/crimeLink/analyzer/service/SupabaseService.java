@@ -1,116 +1,162 @@
 package com.crimeLink.analyzer.service;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.util.ContentHash;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evidence files in the {@code crime-evidence} bucket of the configured
+ * {@link StorageBackend}.
+ * <p>
+ * Signed download URLs are cached per file for
+ * {@code supabase.signed-url.cache-seconds}, a little less than their
+ * {@code supabase.signed-url.expires-in} lifetime, so a URL handed out is
+ * always valid for at least the difference. {@link #getFileUrls} signs every
+ * uncached file of a report in one bulk request.
+ * <p>
+ * Metrics: {@code storage.uploads} tagged {@code kind=evidence} and
+ * {@code result=uploaded|deduplicated}.
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class SupabaseService {
 
-    @Value("${supabase.url}")
-    private String supabaseUrl;
+    private record SignedUrl(String url, Instant cachedUntil) {
+    }
+
+    private final StorageBackend storage;
+    private final MeterRegistry meterRegistry;
 
-    @Value("${supabase.service-key}")
-    private String supabaseServiceKey;
+    @Value("${supabase.signed-url.expires-in:300}")
+    private int signedUrlExpiresIn;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Value("${supabase.signed-url.cache-seconds:270}")
+    private int signedUrlCacheSeconds;
 
     private final String bucket = "crime-evidence";
 
+    private final Map<String, SignedUrl> signedUrls = new ConcurrentHashMap<>();
+    private Clock clock = Clock.systemUTC();
+
     public String uploadFile(MultipartFile file) throws IOException {
+        return upload(file).path();
+    }
+
+    /**
+     * Stores {@code file} content-addressed as {@code <sha256>/<name>}. The
+     * hash is taken from the multipart temp file first; when an object with
+     * that hash already exists its path is returned and nothing is uploaded.
+     * Otherwise the file is streamed up and hashed again on the way, which
+     * catches a temp file that changed in between.
+     */
+    public StoredFile upload(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new RuntimeException("File is empty");
         }
-        
+
         if (file.getSize() > 10 * 1024 * 1024) {
             throw new RuntimeException("File size exceeds the limit of 10MB");
         }
 
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-
-        String uploadUrl = supabaseUrl + "/storage/v1/object/" + bucket + "/" + fileName;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + supabaseServiceKey);
-        headers.set("apikey", supabaseServiceKey);
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-
-        HttpEntity<byte[]> request = new HttpEntity<>(file.getBytes(), headers);
+        String sha256 = ContentHash.sha256(file);
+        List<String> existing = storage.list(bucket, sha256);
+        if (!existing.isEmpty()) {
+            meterRegistry.counter("storage.uploads", "kind", "evidence", "result", "deduplicated").increment();
+            log.debug("Evidence {} already stored as {}", sha256, existing.get(0));
+            return new StoredFile(existing.get(0), file.getSize(), sha256);
+        }
 
-        restTemplate.exchange(uploadUrl, HttpMethod.PUT, request, String.class);
+        String fileName = sha256 + "/" + ContentHash.safeName(file.getOriginalFilename(), "file");
 
-        return fileName;
+        StoredFile stored;
+        try {
+            stored = storage.put(bucket, fileName, file, file.getSize(), "application/octet-stream", false);
+        } catch (IOException | RuntimeException e) {
+            // A concurrent upload of the same file may have stored it first
+            if (storage.list(bucket, sha256).contains(fileName)) {
+                return new StoredFile(fileName, file.getSize(), sha256);
+            }
+            throw e;
+        }
+        if (!sha256.equals(stored.sha256())) {
+            storage.delete(bucket, List.of(fileName));
+            throw new IOException("Evidence changed while uploading " + fileName);
+        }
+        meterRegistry.counter("storage.uploads", "kind", "evidence", "result", "uploaded").increment();
+        log.debug("Uploaded evidence {} ({} bytes)", fileName, stored.size());
+        return stored;
     }
 
     public String getFileUrl(String fileName) {
-        String url = supabaseUrl + "/storage/v1/object/sign/" + bucket + "/" + fileName;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + supabaseServiceKey);
-        headers.set("apikey", supabaseServiceKey);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        String body = "{\"expiresIn\":300}";
-
-        HttpEntity<String> request = new HttpEntity<>(body, headers);
-
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-        String responseBody = response.getBody();
-
-        if (responseBody == null || responseBody.isBlank()) {
-            throw new RuntimeException("Supabase did not return a signed URL");
+        String cached = cachedUrl(fileName);
+        if (cached != null) {
+            return cached;
         }
+        String url = storage.sign(bucket, fileName, signedUrlExpiresIn);
+        cacheUrl(fileName, url);
+        return url;
+    }
 
-        try {
-            JsonNode jsonNode = objectMapper.readTree(responseBody);
-            String signedUrlPath = null;
-
-            if (jsonNode.hasNonNull("signedURL")) {
-                signedUrlPath = jsonNode.get("signedURL").asText();
-            } else if (jsonNode.hasNonNull("signedUrl")) {
-                signedUrlPath = jsonNode.get("signedUrl").asText();
-            }
-
-            if (signedUrlPath == null || signedUrlPath.isBlank()) {
-                throw new RuntimeException("Supabase signed URL field is missing in response");
+    /**
+     * Signed URLs for several files, signing the uncached ones in one request.
+     * Files the storage could not sign are missing from the result.
+     */
+    public Map<String, String> getFileUrls(Collection<String> fileNames) {
+        Map<String, String> urls = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String fileName : new LinkedHashSet<>(fileNames)) {
+            String cached = cachedUrl(fileName);
+            if (cached != null) {
+                urls.put(fileName, cached);
+            } else {
+                missing.add(fileName);
             }
-
-            return toAbsoluteSignedUrl(signedUrlPath.trim());
-        } catch (IOException exception) {
-            throw new RuntimeException("Failed to parse Supabase signed URL response", exception);
         }
-    }
-
-    private String toAbsoluteSignedUrl(String signedUrlPath) {
-        if (signedUrlPath.startsWith("http://") || signedUrlPath.startsWith("https://")) {
-            return signedUrlPath;
+        if (missing.isEmpty()) {
+            return urls;
         }
 
-        String normalizedSupabaseUrl = supabaseUrl.endsWith("/")
-                ? supabaseUrl.substring(0, supabaseUrl.length() - 1)
-                : supabaseUrl;
+        // Even a single file goes through the bulk call, which leaves out what it cannot sign
+        storage.sign(bucket, missing, signedUrlExpiresIn).forEach((fileName, url) -> {
+            cacheUrl(fileName, url);
+            urls.put(fileName, url);
+        });
+        return urls;
+    }
 
-        if (signedUrlPath.startsWith("/storage/v1/")) {
-            return normalizedSupabaseUrl + signedUrlPath;
-        }
+    private String cachedUrl(String fileName) {
+        SignedUrl cached = signedUrls.get(fileName);
+        return cached != null && clock.instant().isBefore(cached.cachedUntil()) ? cached.url() : null;
+    }
 
-        if (signedUrlPath.startsWith("/")) {
-            return normalizedSupabaseUrl + "/storage/v1" + signedUrlPath;
-        }
+    private void cacheUrl(String fileName, String url) {
+        signedUrls.put(fileName, new SignedUrl(url, clock.instant().plusSeconds(signedUrlCacheSeconds)));
+    }
 
-        return normalizedSupabaseUrl + "/storage/v1/" + signedUrlPath;
+    @Scheduled(fixedDelayString = "${supabase.signed-url.sweep-ms:60000}")
+    public void evictExpiredUrls() {
+        Instant now = clock.instant();
+        signedUrls.values().removeIf(signed -> !now.isBefore(signed.cachedUntil()));
     }
 }
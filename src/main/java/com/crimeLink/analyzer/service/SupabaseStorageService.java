@@ -1,32 +1,46 @@
 package com.crimeLink.analyzer.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.crimeLink.analyzer.dto.ProcessedImage;
+import com.crimeLink.analyzer.dto.StoredPhoto;
+import com.crimeLink.analyzer.util.ContentHash;
+import com.crimeLink.analyzer.util.JpegMetadata;
 import com.crimeLink.analyzer.util.LogSanitizer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.util.ArrayList;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Service for uploading files to Supabase Storage.
+ * Service for uploading photos to the configured {@link StorageBackend}.
  * Uploads criminal photos to the configured bucket and returns public URLs.
+ * Photos go through the {@link ImagePipeline} and are stored as
+ * {@code <folder>/<sha256>.jpg} with thumbnails
+ * {@code <folder>/<sha256>_<size>.jpg} beside them, {@code sha256} being the
+ * hash of the uploaded file, so the same photo is only processed and
+ * uploaded once per criminal or weapon. JPEGs the pipeline cannot decode
+ * (CMYK, YCCK) are stored without thumbnails and with their EXIF, XMP and
+ * IPTC segments removed; other undecodable files (HEIC) are refused, as
+ * their metadata cannot be removed here. Storage is not
+ * shared across folders because {@link #deleteFolder} removes a criminal's
+ * folder outright.
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class SupabaseStorageService {
 
-    @Value("${supabase.url}")
-    private String supabaseUrl;
-
-    @Value("${supabase.service-key}")
-    private String supabaseServiceKey;
+    private final StorageBackend storage;
+    private final MeterRegistry meterRegistry;
+    private final ImagePipeline imagePipeline;
 
     @Value("${supabase.bucket}")
     private String bucket;
@@ -34,16 +48,14 @@ public class SupabaseStorageService {
     @Value("${supabase.weapon-bucket:weapon-photos}")
     private String weaponBucket;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
     /**
      * Upload a photo to Supabase Storage.
      *
      * @param criminalId  The criminal's ID (used as folder name)
      * @param file        The image file to upload
-     * @return The public URL of the uploaded photo
+     * @return Public URLs of the uploaded photo and its listing thumbnail
      */
-    public String uploadPhoto(String criminalId, MultipartFile file) {
+    public StoredPhoto uploadPhoto(String criminalId, MultipartFile file) {
         return uploadPhotoToBucket(bucket, criminalId, file);
     }
 
@@ -52,122 +64,94 @@ public class SupabaseStorageService {
      *
      * @param serialNumber Weapon serial number (used as folder name)
      * @param file         The image file to upload
-     * @return The public URL of the uploaded photo
+     * @return Public URLs of the uploaded photo and its listing thumbnail
      */
-    public String uploadWeaponPhoto(String serialNumber, MultipartFile file) {
+    public StoredPhoto uploadWeaponPhoto(String serialNumber, MultipartFile file) {
         return uploadPhotoToBucket(weaponBucket, serialNumber, file);
     }
 
-    private String uploadPhotoToBucket(String targetBucket, String folder, MultipartFile file) {
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isBlank()) {
-            originalFilename = "photo.jpg";
-        }
-
-        // Sanitize filename
-        String safeFilename = originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
-        String storagePath = folder + "/" + safeFilename;
+    private StoredPhoto uploadPhotoToBucket(String targetBucket, String folder, MultipartFile file) {
+        try {
+            // Named by the uploaded content within the folder, so re-uploading the same photo is skipped
+            String sha256 = ContentHash.sha256(file);
+            String normalisedPath = folder + "/" + sha256 + ".jpg";
+            int[] sizes = imagePipeline.thumbnailSizes();
+            String listThumbnail = sizes.length > 0 ? thumbnailPath(folder, sha256, sizes[0]) : null;
+            List<String> existing = storage.list(targetBucket, folder);
+            if (existing.contains(normalisedPath) && (listThumbnail == null || existing.contains(listThumbnail))) {
+                return deduplicated(targetBucket, normalisedPath, listThumbnail);
+            }
 
-        String uploadUrl = supabaseUrl + "/storage/v1/object/" + targetBucket + "/" + storagePath;
+            ProcessedImage processed = imagePipeline.process(file);
+            if (processed == null) {
+                // Not decodable here: only a JPEG can be kept, minus its location and device metadata
+                if (existing.contains(normalisedPath)) {
+                    return deduplicated(targetBucket, normalisedPath, null);
+                }
+                byte[] stripped = JpegMetadata.strip(file.getBytes());
+                if (stripped == null) {
+                    throw new IOException("Unsupported photo format, upload a JPEG or PNG image");
+                }
+                putJpeg(targetBucket, normalisedPath, stripped);
+                return uploaded(targetBucket, normalisedPath, null);
+            }
 
-        try {
-            byte[] fileBytes = file.getBytes();
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + supabaseServiceKey);
-            headers.set("apikey", supabaseServiceKey);
-            headers.setContentType(MediaType.parseMediaType(
-                    file.getContentType() != null ? file.getContentType() : "image/jpeg"));
-            // Upsert mode: overwrite if exists
-            headers.set("x-upsert", "true");
-
-            HttpEntity<byte[]> request = new HttpEntity<>(fileBytes, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    uploadUrl, HttpMethod.POST, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                String publicUrl = supabaseUrl + "/storage/v1/object/public/" + targetBucket + "/" + storagePath;
-                log.info("Photo uploaded successfully: {}", LogSanitizer.sanitize(publicUrl));
-                return publicUrl;
-            } else {
-                log.error("Supabase upload failed with status: {}", response.getStatusCode());
-                throw new RuntimeException("Failed to upload photo to storage. Status: " + response.getStatusCode());
+            for (Map.Entry<Integer, byte[]> thumbnail : processed.thumbnails().entrySet()) {
+                putJpeg(targetBucket, thumbnailPath(folder, sha256, thumbnail.getKey()), thumbnail.getValue());
             }
+            // Written last, so an existing photo always has its thumbnails
+            putJpeg(targetBucket, normalisedPath, processed.image());
+            return uploaded(targetBucket, normalisedPath, listThumbnail);
         } catch (Exception e) {
             log.error("Failed to upload photo for {}: {}", LogSanitizer.sanitize(folder), LogSanitizer.sanitize(e.getMessage()));
             throw new RuntimeException("Photo upload failed: " + e.getMessage(), e);
         }
     }
 
+    private static String thumbnailPath(String folder, String sha256, int size) {
+        return folder + "/" + sha256 + "_" + size + ".jpg";
+    }
+
+    private void putJpeg(String targetBucket, String path, byte[] jpeg) throws IOException {
+        storage.put(targetBucket, path, new ByteArrayResource(jpeg), jpeg.length, "image/jpeg", true);
+    }
+
+    private StoredPhoto deduplicated(String targetBucket, String path, String thumbnailPath) {
+        StoredPhoto photo = toPhoto(targetBucket, path, thumbnailPath);
+        meterRegistry.counter("storage.uploads", "kind", "photo", "result", "deduplicated").increment();
+        log.info("Photo already stored: {}", LogSanitizer.sanitize(photo.url()));
+        return photo;
+    }
+
+    private StoredPhoto uploaded(String targetBucket, String path, String thumbnailPath) {
+        StoredPhoto photo = toPhoto(targetBucket, path, thumbnailPath);
+        meterRegistry.counter("storage.uploads", "kind", "photo", "result", "uploaded").increment();
+        log.info("Photo uploaded successfully: {}", LogSanitizer.sanitize(photo.url()));
+        return photo;
+    }
+
+    private StoredPhoto toPhoto(String targetBucket, String path, String thumbnailPath) {
+        return new StoredPhoto(storage.publicUrl(targetBucket, path),
+                thumbnailPath != null ? storage.publicUrl(targetBucket, thumbnailPath) : null);
+    }
+
     /**
-     * Delete all files under a criminal's folder in Supabase Storage.
+     * Delete all files under a criminal's folder in storage.
      * Lists files first, then issues a bulk delete.
      *
      * @param criminalId The criminal's ID (used as the folder prefix)
      */
     public void deleteFolder(String criminalId) {
         try {
-            // 1) List objects in the folder
-            String listUrl = supabaseUrl + "/storage/v1/object/list/" + bucket;
-
-            HttpHeaders listHeaders = new HttpHeaders();
-            listHeaders.set("Authorization", "Bearer " + supabaseServiceKey);
-            listHeaders.set("apikey", supabaseServiceKey);
-            listHeaders.setContentType(MediaType.APPLICATION_JSON);
-
-            String listBody = "{\"prefix\":\"" + criminalId + "/\",\"limit\":100}";
-            HttpEntity<String> listRequest = new HttpEntity<>(listBody, listHeaders);
-
-            ResponseEntity<String> listResponse = restTemplate.exchange(
-                    listUrl, HttpMethod.POST, listRequest, String.class);
+            List<String> paths = storage.list(bucket, criminalId);
 
-            if (!listResponse.getStatusCode().is2xxSuccessful() || listResponse.getBody() == null) {
-                log.warn("Failed to list storage files for criminal {}", LogSanitizer.sanitize(criminalId));
-                return;
-            }
-
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode files = mapper.readTree(listResponse.getBody());
-
-            if (!files.isArray() || files.isEmpty()) {
+            if (paths.isEmpty()) {
                 log.info("No storage files found for criminal {}", LogSanitizer.sanitize(criminalId));
                 return;
             }
 
-            // 2) Collect file paths
-            List<String> prefixes = new ArrayList<>();
-            for (JsonNode file : files) {
-                String fileName = file.has("name") ? file.get("name").asText() : null;
-                if (fileName != null) {
-                    prefixes.add(criminalId + "/" + fileName);
-                }
-            }
-
-            if (prefixes.isEmpty()) return;
-
-            // 3) Bulk delete via POST /storage/v1/object/remove
-            String deleteUrl = supabaseUrl + "/storage/v1/object/" + bucket;
-
-            HttpHeaders deleteHeaders = new HttpHeaders();
-            deleteHeaders.set("Authorization", "Bearer " + supabaseServiceKey);
-            deleteHeaders.set("apikey", supabaseServiceKey);
-            deleteHeaders.setContentType(MediaType.APPLICATION_JSON);
-
-            String deleteBody = mapper.writeValueAsString(new java.util.LinkedHashMap<String, Object>() {{
-                put("prefixes", prefixes);
-            }});
-            HttpEntity<String> deleteRequest = new HttpEntity<>(deleteBody, deleteHeaders);
-
-            ResponseEntity<String> deleteResponse = restTemplate.exchange(
-                    deleteUrl, HttpMethod.DELETE, deleteRequest, String.class);
-
-            if (deleteResponse.getStatusCode().is2xxSuccessful()) {
-                log.info("Storage files deleted for criminal {}: {} file(s)", LogSanitizer.sanitize(criminalId), prefixes.size());
-            } else {
-                log.warn("Storage deletion returned status {} for criminal {}", deleteResponse.getStatusCode(), LogSanitizer.sanitize(criminalId));
-            }
-
+            storage.delete(bucket, paths);
+            log.info("Storage files deleted for criminal {}: {} file(s)", LogSanitizer.sanitize(criminalId), paths.size());
         } catch (Exception e) {
             log.warn("Storage cleanup failed for criminal {}: {}", LogSanitizer.sanitize(criminalId), LogSanitizer.sanitize(e.getMessage()));
         }
@@ -0,0 +1,218 @@
+package com.crimeLink.analyzer.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.service.StorageBackend;
+import com.crimeLink.analyzer.util.HashingResource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link StorageBackend} on the local disk under {@code storage.local.root},
+ * one directory per bucket, for running the evidence and photo pipelines
+ * offline.
+ * <p>
+ * Uploads are written with {@link FileChannel#transferFrom} into a temporary
+ * file that is then moved into place, so readers never see a partial object.
+ * Objects are served by {@code LocalStorageController}; signed URLs carry an
+ * expiry and an HMAC of bucket, path and expiry under
+ * {@code storage.local.signing-key} (random per start when blank).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Pattern BUCKET = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final long TRANSFER_CHUNK = 1 << 20;
+
+    private final Path root;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+    private final Clock clock = Clock.systemUTC();
+
+    public LocalStorageBackend(@Value("${storage.local.root:./data/storage}") String root,
+            @Value("${storage.local.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${storage.local.signing-key:}") String signingKey) throws IOException {
+        this.root = Files.createDirectories(Path.of(root)).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        byte[] key = signingKey.getBytes(StandardCharsets.UTF_8);
+        if (signingKey.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        }
+        this.signingKey = new SecretKeySpec(key, "HmacSHA256");
+        log.info("Local object storage at {}", this.root);
+    }
+
+    @Override
+    public StoredFile put(String bucket, String path, InputStreamSource content, long size, String contentType,
+            boolean overwrite) throws IOException {
+        Path target = resolve(bucket, path);
+        if (!overwrite && Files.exists(target)) {
+            throw new FileAlreadyExistsException(bucket + "/" + path);
+        }
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            HashingResource body = new HashingResource(content, size, path);
+            try (ReadableByteChannel in = Channels.newChannel(body.getInputStream());
+                    FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    long n = out.transferFrom(in, position, Math.min(TRANSFER_CHUNK, size - position));
+                    if (n <= 0) {
+                        break;
+                    }
+                    position += n;
+                }
+                // Reads past the end so a short or long stream is reported and the hash completed
+                in.read(ByteBuffer.allocate(1));
+            }
+            if (overwrite) {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // rename(2) would silently replace an object written since the check above; a hard
+                // link fails atomically instead, so a concurrent upload loses with FileAlreadyExists
+                Files.createLink(target, tmp);
+            }
+            return new StoredFile(path, size, body.sha256());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream get(String bucket, String path) throws IOException {
+        return Channels.newInputStream(FileChannel.open(resolve(bucket, path), StandardOpenOption.READ));
+    }
+
+    @Override
+    public String sign(String bucket, String path, int expiresInSeconds) {
+        long expires = clock.instant().getEpochSecond() + expiresInSeconds;
+        return baseUrl + "/api/storage/signed/" + bucket + "/" + encodePath(path) + "?expires=" + expires
+                + "&signature=" + signature(bucket, path, expires);
+    }
+
+    @Override
+    public Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds) {
+        Map<String, String> urls = new HashMap<>();
+        for (String path : paths) {
+            if (Files.isRegularFile(resolve(bucket, path))) {
+                urls.put(path, sign(bucket, path, expiresInSeconds));
+            }
+        }
+        return urls;
+    }
+
+    @Override
+    public String publicUrl(String bucket, String path) {
+        return baseUrl + "/api/storage/public/" + bucket + "/" + encodePath(path);
+    }
+
+    @Override
+    public List<String> list(String bucket, String prefix) throws IOException {
+        Path folder = resolve(bucket, prefix);
+        if (!Files.isDirectory(folder)) {
+            return List.of();
+        }
+        List<String> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(folder)) {
+            files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> !name.startsWith(".upload-"))
+                    .sorted()
+                    .forEach(name -> paths.add(prefix + "/" + name));
+        }
+        return paths;
+    }
+
+    @Override
+    public void delete(String bucket, Collection<String> paths) throws IOException {
+        for (String path : paths) {
+            Files.deleteIfExists(resolve(bucket, path));
+        }
+    }
+
+    /**
+     * The file behind an object, for serving it.
+     *
+     * @throws IllegalArgumentException for bucket names or paths that leave the bucket
+     */
+    public Path resolve(String bucket, String path) {
+        if (bucket == null || !BUCKET.matcher(bucket).matches() || path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Invalid storage location");
+        }
+        Path bucketDir = root.resolve(bucket);
+        Path file = bucketDir.resolve(path).normalize();
+        if (!file.startsWith(bucketDir) || file.equals(bucketDir)) {
+            throw new IllegalArgumentException("Invalid storage location");
+        }
+        return file;
+    }
+
+    /** Whether a signed URL's parameters are genuine and not yet expired. */
+    public boolean verify(String bucket, String path, long expires, String signature) {
+        if (signature == null || clock.instant().getEpochSecond() > expires) {
+            return false;
+        }
+        return MessageDigest.isEqual(signature(bucket, path, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(String bucket, String path, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal((bucket + "/" + path + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static String encodePath(String path) {
+        String[] segments = path.split("/", -1);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                out.append('/');
+            }
+            out.append(URLEncoder.encode(segments[i], StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return out.toString();
+    }
+}
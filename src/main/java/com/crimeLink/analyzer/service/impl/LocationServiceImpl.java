@@ -1,50 +1,97 @@
 package com.crimeLink.analyzer.service.impl;
 
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.dto.LocationIngestResult;
 import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.crimeLink.analyzer.dto.LocationTrackDTO;
+import com.crimeLink.analyzer.dto.MovementStatsDTO;
+import com.crimeLink.analyzer.dto.TrackPointDTO;
 import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
 import com.crimeLink.analyzer.repository.LocationPointRepository;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.crimeLink.analyzer.service.LocationIngestQueue;
 import com.crimeLink.analyzer.service.LocationService;
+import com.crimeLink.analyzer.service.OfficerMovementTracker;
+import com.crimeLink.analyzer.service.OfficerPositionRegistry;
+import com.crimeLink.analyzer.util.TrajectorySimplifier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
-import org.springframework.data.domain.PageRequest;
-
 @Service
 @RequiredArgsConstructor
 public class LocationServiceImpl implements LocationService {
+    /** Points reported with a worse accuracy radius than this are dropped. */
+    private static final float MAX_ACCURACY_M = 50;
+    /**
+     * Points stamped further ahead than this come from a wrong device clock; they
+     * would otherwise land in the default partition of location_points.
+     */
+    private static final Duration MAX_FUTURE_SKEW = Duration.ofHours(1);
+
     private final LocationPointRepository repo;
+    private final LocationIngestQueue ingestQueue;
+    private final OfficerPositionRegistry positionRegistry;
+    private final OfficerMovementTracker movementTracker;
+    private final ApplicationEventPublisher events;
     private final ObjectMapper mapper;
 
     @Override
-    public void saveBulk(String officerBadgeNo, List<LocationPointDTO> points) {
-        var entities = points.stream().filter(p -> p.ts() != null)
-                .filter(p -> p.accuracyM() == null || p.accuracyM() <= 50)
-                .map(p -> {
-                    var e = new LocationPoint();
-                    e.setOfficerBadgeNo(officerBadgeNo);
-                    e.setTs(p.ts());
-                    e.setLatitude(p.latitude());
-                    e.setLongitude(p.longitude());
-                    e.setAccuracyM(p.accuracyM());
-                    e.setSpeedMps(p.speedMps());
-                    e.setHeadingDeg(p.headingDeg());
-                    e.setProvider(p.provider());
-
-                    try {
-                        e.setMeta(p.meta() == null ? null : mapper.valueToTree(p.meta()));
-                    } catch (Exception er) {
-                        e.setMeta(null);
-                    }
-                    return e;
-                }).toList();
-        repo.saveAll(entities);
+    public LocationIngestResult saveBulk(String officerBadgeNo, List<LocationPointDTO> points) {
+        List<LocationPoint> entities = new ArrayList<>(points.size());
+        Instant latest = Instant.now().plus(MAX_FUTURE_SKEW);
+        for (LocationPointDTO p : points) {
+            if (isAcceptable(p, latest)) {
+                entities.add(toEntity(officerBadgeNo, p));
+            }
+        }
+        entities.sort(Comparator.comparing(LocationPoint::getTs));
+        ingestQueue.enqueue(entities);
+        if (!entities.isEmpty()) {
+            events.publishEvent(new LocationPointsAcceptedEvent(officerBadgeNo, List.copyOf(entities)));
+        }
+        return new LocationIngestResult(entities.size(), points.size() - entities.size());
+    }
+
+    private boolean isAcceptable(LocationPointDTO p, Instant latest) {
+        if (p == null || p.ts() == null || p.ts().isAfter(latest)) {
+            return false;
+        }
+        if (p.accuracyM() != null && p.accuracyM() > MAX_ACCURACY_M) {
+            return false;
+        }
+        return p.latitude() >= -90 && p.latitude() <= 90
+                && p.longitude() >= -180 && p.longitude() <= 180;
+    }
+
+    private LocationPoint toEntity(String officerBadgeNo, LocationPointDTO p) {
+        var e = new LocationPoint();
+        e.setOfficerBadgeNo(officerBadgeNo);
+        e.setTs(p.ts());
+        e.setLatitude(p.latitude());
+        e.setLongitude(p.longitude());
+        e.setAccuracyM(p.accuracyM());
+        e.setSpeedMps(p.speedMps());
+        e.setHeadingDeg(p.headingDeg());
+        e.setProvider(p.provider());
+
+        try {
+            e.setMeta(p.meta() == null ? null : mapper.valueToTree(p.meta()));
+        } catch (Exception er) {
+            e.setMeta(null);
+        }
+        return e;
     }
 
     @Override
@@ -53,8 +100,63 @@ public class LocationServiceImpl implements LocationService {
     }
 
     @Override
-    public LocationPoint getLastLocation(String officerBadgeNo) {
-        var list = repo.findByOfficerBadgeNoOrderByTsDesc(officerBadgeNo, PageRequest.of(0, 1));
-        return list.isEmpty() ? null : list.get(0);
+    public LocationTrackDTO getSimplifiedHistory(String officerBadgeNo, Instant from, Instant to,
+            Double toleranceM, Integer maxPoints) {
+        List<TrackPointDTO> track = repo.findTrack(officerBadgeNo, from, to);
+        int n = track.size();
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = track.get(i).latitude();
+            lon[i] = track.get(i).longitude();
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon,
+                toleranceM == null ? 0 : toleranceM, maxPoints == null ? 0 : maxPoints);
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) {
+                kept++;
+            }
+        }
+
+        long[] outTs = new long[kept];
+        double[] outLat = new double[kept];
+        double[] outLon = new double[kept];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                outTs[j] = track.get(i).ts().toEpochMilli();
+                outLat[j] = roundCoordinate(lat[i]);
+                outLon[j] = roundCoordinate(lon[i]);
+                j++;
+            }
+        }
+        return new LocationTrackDTO(officerBadgeNo, n, kept, outTs, outLat, outLon);
+    }
+
+    /** Six decimals is ~0.1 m, far below GPS accuracy, and keeps the JSON short. */
+    private static double roundCoordinate(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+
+    @Override
+    public LastKnownPositionDTO getLastLocation(String officerBadgeNo) {
+        return positionRegistry.get(officerBadgeNo);
+    }
+
+    @Override
+    public List<LastKnownPositionDTO> getAllLastLocations() {
+        return positionRegistry.getAll();
+    }
+
+    @Override
+    public MovementStatsDTO getMovementStats(String officerBadgeNo, LocalDate day) {
+        return movementTracker.getStats(officerBadgeNo, day);
+    }
+
+    @Override
+    public List<MovementStatsDTO> getAllMovementStats(LocalDate day) {
+        return movementTracker.getStats(day);
     }
 }
@@ -0,0 +1,221 @@
+package com.crimeLink.analyzer.service.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.service.StorageBackend;
+import com.crimeLink.analyzer.util.HashingResource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/** {@link StorageBackend} over the Supabase Storage REST API. */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageBackend implements StorageBackend {
+
+    private static final int LIST_PAGE = 1000;
+
+    private final String supabaseUrl;
+    private final String serviceKey;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SupabaseStorageBackend(@Value("${supabase.url}") String supabaseUrl,
+            @Value("${supabase.service-key}") String serviceKey,
+            @Qualifier("storageRestTemplate") RestTemplate restTemplate) {
+        this.supabaseUrl = supabaseUrl.endsWith("/") ? supabaseUrl.substring(0, supabaseUrl.length() - 1)
+                : supabaseUrl;
+        this.serviceKey = serviceKey;
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public StoredFile put(String bucket, String path, InputStreamSource content, long size, String contentType,
+            boolean overwrite) {
+        HttpHeaders headers = authHeaders(MediaType.parseMediaType(contentType));
+        if (overwrite) {
+            headers.set("x-upsert", "true");
+        }
+        HashingResource body = new HashingResource(content, size, path);
+        restTemplate.exchange(objectUrl(bucket, path), HttpMethod.POST, new HttpEntity<>(body, headers),
+                String.class);
+        return new StoredFile(path, size, body.sha256());
+    }
+
+    @Override
+    public InputStream get(String bucket, String path) throws IOException {
+        ClientHttpRequest request = restTemplate.getRequestFactory()
+                .createRequest(URI.create(objectUrl(bucket, path)), HttpMethod.GET);
+        request.getHeaders().addAll(authHeaders(MediaType.APPLICATION_JSON));
+        ClientHttpResponse response = request.execute();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            response.close();
+            throw new IOException("Supabase returned " + response.getStatusCode() + " for " + bucket + "/" + path);
+        }
+        return new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    response.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String sign(String bucket, String path, int expiresInSeconds) {
+        String body = "{\"expiresIn\":" + expiresInSeconds + "}";
+        ResponseEntity<String> response = restTemplate.exchange(
+                supabaseUrl + "/storage/v1/object/sign/" + bucket + "/" + path, HttpMethod.POST,
+                new HttpEntity<>(body, authHeaders(MediaType.APPLICATION_JSON)), String.class);
+
+        String responseBody = response.getBody();
+        if (responseBody == null || responseBody.isBlank()) {
+            throw new RuntimeException("Supabase returned empty signed URL response");
+        }
+        try {
+            String signedUrlPath = signedPath(objectMapper.readTree(responseBody));
+            if (signedUrlPath == null || signedUrlPath.isBlank()) {
+                throw new RuntimeException("Supabase signed URL field is missing in response");
+            }
+            return toAbsoluteSignedUrl(signedUrlPath.trim());
+        } catch (IOException exception) {
+            throw new RuntimeException("Failed to parse Supabase signed URL response", exception);
+        }
+    }
+
+    /** One request to the bulk sign endpoint. */
+    @Override
+    public Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds) {
+        Map<String, String> urls = new HashMap<>();
+        if (paths.isEmpty()) {
+            return urls;
+        }
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("expiresIn", expiresInSeconds);
+        body.putPOJO("paths", paths);
+        ResponseEntity<String> response = restTemplate.exchange(supabaseUrl + "/storage/v1/object/sign/" + bucket,
+                HttpMethod.POST, new HttpEntity<>(body.toString(), authHeaders(MediaType.APPLICATION_JSON)),
+                String.class);
+
+        try {
+            JsonNode items = objectMapper.readTree(response.getBody() == null ? "[]" : response.getBody());
+            for (JsonNode item : items) {
+                String path = item.path("path").asText(null);
+                String signed = signedPath(item);
+                if (path == null || signed == null || item.hasNonNull("error")) {
+                    log.warn("Supabase could not sign {}: {}", path, item.path("error").asText(""));
+                    continue;
+                }
+                urls.put(path, toAbsoluteSignedUrl(signed.trim()));
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException("Failed to parse Supabase signed URL response", exception);
+        }
+        return urls;
+    }
+
+    @Override
+    public String publicUrl(String bucket, String path) {
+        return supabaseUrl + "/storage/v1/object/public/" + bucket + "/" + path;
+    }
+
+    @Override
+    public List<String> list(String bucket, String prefix) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (int offset = 0;; offset += LIST_PAGE) {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.put("prefix", prefix + "/");
+            body.put("limit", LIST_PAGE);
+            body.put("offset", offset);
+            ResponseEntity<String> response = restTemplate.exchange(
+                    supabaseUrl + "/storage/v1/object/list/" + bucket, HttpMethod.POST,
+                    new HttpEntity<>(body.toString(), authHeaders(MediaType.APPLICATION_JSON)), String.class);
+
+            JsonNode items = objectMapper.readTree(response.getBody() == null ? "[]" : response.getBody());
+            for (JsonNode item : items) {
+                // Folders come back with a null id
+                if (item.hasNonNull("name") && item.hasNonNull("id")) {
+                    paths.add(prefix + "/" + item.get("name").asText());
+                }
+            }
+            if (items.size() < LIST_PAGE) {
+                return paths;
+            }
+        }
+    }
+
+    @Override
+    public void delete(String bucket, Collection<String> paths) throws IOException {
+        if (paths.isEmpty()) {
+            return;
+        }
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putPOJO("prefixes", paths);
+        restTemplate.exchange(supabaseUrl + "/storage/v1/object/" + bucket, HttpMethod.DELETE,
+                new HttpEntity<>(body.toString(), authHeaders(MediaType.APPLICATION_JSON)), String.class);
+    }
+
+    private String objectUrl(String bucket, String path) {
+        return supabaseUrl + "/storage/v1/object/" + bucket + "/" + path;
+    }
+
+    private HttpHeaders authHeaders(MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + serviceKey);
+        headers.set("apikey", serviceKey);
+        headers.setContentType(contentType);
+        return headers;
+    }
+
+    private static String signedPath(JsonNode node) {
+        if (node.hasNonNull("signedURL")) {
+            return node.get("signedURL").asText();
+        }
+        if (node.hasNonNull("signedUrl")) {
+            return node.get("signedUrl").asText();
+        }
+        return null;
+    }
+
+    private String toAbsoluteSignedUrl(String signedUrlPath) {
+        if (signedUrlPath.startsWith("http://") || signedUrlPath.startsWith("https://")) {
+            return signedUrlPath;
+        }
+        if (signedUrlPath.startsWith("/storage/v1/")) {
+            return supabaseUrl + signedUrlPath;
+        }
+        if (signedUrlPath.startsWith("/")) {
+            return supabaseUrl + "/storage/v1" + signedUrlPath;
+        }
+        return supabaseUrl + "/storage/v1/" + signedUrlPath;
+    }
+}
@@ -1,6 +1,7 @@
 package com.crimeLink.analyzer.service.impl;
 
 import com.crimeLink.analyzer.dto.OfficerDTO;
+import com.crimeLink.analyzer.dto.StoredPhoto;
 import com.crimeLink.analyzer.dto.WeaponAddDTO;
 import com.crimeLink.analyzer.dto.WeaponResponseDTO;
 import com.crimeLink.analyzer.dto.WeaponUpdateDTO;
@@ -53,8 +54,9 @@ public class WeaponServiceImpl implements WeaponService {
         weapon.setWeaponType(dto.getWeaponType());
         weapon.setRemarks(dto.getRemarks());
         weapon.setStatus(dto.getStatus());
-        if (dto.getImageUrl() != null) {
+        if (dto.getImageUrl() != null && !dto.getImageUrl().equals(weapon.getImageUrl())) {
             weapon.setImageUrl(dto.getImageUrl());
+            weapon.setThumbnailUrl(null);
         }
 
         return weaponRepository.save(weapon);
@@ -83,6 +85,8 @@ public class WeaponServiceImpl implements WeaponService {
                     dto.setStatus(weapon.getStatus().toString());
                     dto.setRemarks(weapon.getRemarks());
                     dto.setImageUrl(weapon.getImageUrl());
+                    dto.setThumbnailUrl(weapon.getThumbnailUrl() != null
+                            ? weapon.getThumbnailUrl() : weapon.getImageUrl());
 
                     // If weapon is issued, get issue details
                     if (weapon.getStatus() == WeaponStatus.ISSUED) {
@@ -154,10 +158,11 @@ public class WeaponServiceImpl implements WeaponService {
             throw new RuntimeException("Photo file is required");
         }
 
-        String imageUrl = supabaseStorageService.uploadWeaponPhoto(serialNumber, photo);
-        weapon.setImageUrl(imageUrl);
+        StoredPhoto stored = supabaseStorageService.uploadWeaponPhoto(serialNumber, photo);
+        weapon.setImageUrl(stored.url());
+        weapon.setThumbnailUrl(stored.thumbnailUrl());
         weaponRepository.save(weapon);
 
-        return imageUrl;
+        return stored.url();
     }
 }
\ No newline at end of file
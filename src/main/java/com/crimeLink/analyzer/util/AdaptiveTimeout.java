@@ -0,0 +1,101 @@
+package com.crimeLink.analyzer.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Response timeouts that follow the observed latency of each endpoint of one
+ * service: {@code multiplier} times the p99 of the last {@code windowSize}
+ * responses, clamped to {@code [min, max]}. Until an endpoint has
+ * {@value #MIN_SAMPLES} samples its timeout is {@code max}, so a slow but
+ * healthy endpoint is never cut short by a guess. A request that times out or
+ * fails without a response counts as a sample at {@code max}: its latency is
+ * unknown, and recording nothing would leave the timeout below an endpoint
+ * that has slowed down, failing every request. Two such samples in a window
+ * lift the p99 back to {@code max}.
+ * <p>
+ * Metrics, tagged {@code httpclient} and {@code path}:
+ * {@code http.client.adaptive.latency} (histogram with p50/p95/p99) and
+ * {@code http.client.adaptive.timeout} (current timeout in ms).
+ */
+public final class AdaptiveTimeout {
+
+    static final int MIN_SAMPLES = 20;
+    private static final double PERCENTILE = 0.99;
+
+    private final String name;
+    private final long minNanos;
+    private final long maxNanos;
+    private final double multiplier;
+    private final int windowSize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public AdaptiveTimeout(String name, Duration min, Duration max, double multiplier, int windowSize,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minNanos = min.toNanos();
+        this.maxNanos = Math.max(minNanos, max.toNanos());
+        this.multiplier = multiplier;
+        this.windowSize = windowSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Timeout for the next request to {@code path}. */
+    public Duration timeout(String path) {
+        Window window = windows.get(path);
+        return Duration.ofNanos(window != null ? window.timeoutNanos : maxNanos);
+    }
+
+    /** Record the time {@code path} took to respond. */
+    public void record(String path, long nanos) {
+        windows.computeIfAbsent(path, Window::new).record(nanos);
+    }
+
+    /** Record that {@code path} timed out or failed before responding. */
+    public void recordFailure(String path) {
+        record(path, maxNanos);
+    }
+
+    private final class Window {
+
+        private final long[] samples = new long[windowSize];
+        private final Timer latency;
+        private int count;
+        private int next;
+        private volatile long timeoutNanos = maxNanos;
+
+        Window(String path) {
+            latency = Timer.builder("http.client.adaptive.latency")
+                    .tags("httpclient", name, "path", path)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("http.client.adaptive.timeout", this, w -> w.timeoutNanos / 1_000_000.0)
+                    .tags("httpclient", name, "path", path)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        synchronized void record(long nanos) {
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count < MIN_SAMPLES) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            long p99 = sorted[(int) Math.ceil(PERCENTILE * count) - 1];
+            timeoutNanos = Math.clamp((long) (p99 * multiplier), minNanos, maxNanos);
+        }
+    }
+}
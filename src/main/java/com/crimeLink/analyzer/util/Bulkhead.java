@@ -0,0 +1,95 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Caps the concurrent calls to one downstream service. Callers beyond
+ * {@code maxConcurrent} wait in FIFO order for up to {@code queueTimeoutMs};
+ * when {@code maxQueued} callers are already waiting, or the wait times out,
+ * the call is refused with 503 instead of tying up the caller.
+ * <p>
+ * Metrics, tagged {@code name}: {@code bulkhead.active},
+ * {@code bulkhead.queued}, {@code bulkhead.queue.wait} and
+ * {@code bulkhead.rejected}.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMs, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMs = queueTimeoutMs;
+
+        Gauge.builder("bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Calls in progress")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.queued", queued, AtomicInteger::get)
+                .description("Calls waiting for a free slot")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("bulkhead.queue.wait").tag("name", name).register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.rejected").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Run {@code call} once a slot is free.
+     *
+     * @throws ResponseStatusException 503 when no slot frees up in time
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        if (queued.incrementAndGet() > maxQueued && permits.availablePermits() == 0) {
+            queued.decrementAndGet();
+            throw reject("queue is full");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("interrupted while waiting");
+        } finally {
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw reject("no slot within " + queueTimeoutMs + "ms");
+        }
+    }
+
+    private ResponseStatusException reject(String reason) {
+        rejected.increment();
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                name + " is busy (" + reason + "), try again later");
+    }
+}
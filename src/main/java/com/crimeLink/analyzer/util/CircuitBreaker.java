@@ -0,0 +1,197 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stops calling a downstream service that keeps failing. While CLOSED the
+ * outcomes of the last {@code windowSize} calls are tracked; once at least
+ * {@code minimumCalls} were seen and {@code failureRatePercent} of them
+ * failed, the breaker OPENs and refuses calls with 503 straight away. After
+ * {@code openMs} it goes HALF_OPEN and lets {@code halfOpenProbes} trial
+ * calls through: if all succeed it closes again, the first failure re-opens
+ * it.
+ * <p>
+ * Only exceptions matching {@code isFailure} count as failures; other
+ * exceptions mean the service answered and count as successes.
+ * {@link ResponseStatusException}s are refusals of an inner guard such as a
+ * {@link Bulkhead} and are not counted at all.
+ * <p>
+ * Health checks feed the breaker through {@link #onHealthCheck(boolean)}.
+ * <p>
+ * Metrics, tagged {@code name}: {@code circuit.breaker.state} (1 for the
+ * current {@code state} tag, 0 for the others) and {@code circuit.breaker.calls}
+ * tagged {@code outcome=success|failure|rejected}.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final Predicate<RuntimeException> isFailure;
+    private final LongSupplier nanoTime;
+
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejected;
+
+    private State state = State.CLOSED;
+    /** Bumped on every transition so outcomes of calls let in by an earlier state are dropped. */
+    private long generation;
+    private int recorded;
+    private int next;
+    private int failed;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRatePercent, long openMs,
+            int halfOpenProbes, Predicate<RuntimeException> isFailure, MeterRegistry meterRegistry) {
+        this(name, windowSize, minimumCalls, failureRatePercent, openMs, halfOpenProbes, isFailure, meterRegistry,
+                System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRatePercent, long openMs,
+            int halfOpenProbes, Predicate<RuntimeException> isFailure, MeterRegistry meterRegistry,
+            LongSupplier nanoTime) {
+        this.name = name;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openMs * 1_000_000;
+        this.halfOpenProbes = halfOpenProbes;
+        this.isFailure = isFailure;
+        this.nanoTime = nanoTime;
+
+        for (State s : State.values()) {
+            Gauge.builder("circuit.breaker.state", this, b -> b.state() == s ? 1 : 0)
+                    .description("1 when the breaker is in this state")
+                    .tags("name", name, "state", s.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        this.successes = meterRegistry.counter("circuit.breaker.calls", "name", name, "outcome", "success");
+        this.failures = meterRegistry.counter("circuit.breaker.calls", "name", name, "outcome", "failure");
+        this.rejected = meterRegistry.counter("circuit.breaker.calls", "name", name, "outcome", "rejected");
+    }
+
+    /**
+     * Run {@code call} unless the breaker is open.
+     *
+     * @throws ResponseStatusException 503 when the breaker refuses the call
+     */
+    public <T> T call(Supplier<T> call) {
+        long permit = acquire();
+        try {
+            T result = call.get();
+            onResult(permit, true);
+            return result;
+        } catch (ResponseStatusException e) {
+            onResult(permit, null);
+            throw e;
+        } catch (RuntimeException e) {
+            onResult(permit, !isFailure.test(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Let a health check result steer the breaker: a healthy service ends an
+     * open period early so probes can go through, an unhealthy one counts as
+     * a failed call.
+     */
+    public synchronized void onHealthCheck(boolean healthy) {
+        if (healthy) {
+            if (state == State.OPEN) {
+                transition(State.HALF_OPEN);
+            }
+        } else if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+        } else if (state == State.CLOSED) {
+            recordClosed(false);
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    private synchronized long acquire() {
+        State current = state();
+        if (current == State.OPEN || (current == State.HALF_OPEN && probesStarted >= halfOpenProbes)) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    name + " is unavailable (circuit open), try again later");
+        }
+        if (current == State.HALF_OPEN) {
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    /** @param success outcome of the call, {@code null} when it was refused before reaching the service */
+    private synchronized void onResult(long permit, Boolean success) {
+        if (success != null) {
+            (success ? successes : failures).increment();
+        }
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.CLOSED) {
+            if (success != null) {
+                recordClosed(success);
+            }
+        } else if (state == State.HALF_OPEN) {
+            if (success == null) {
+                probesStarted--;
+            } else if (!success) {
+                transition(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+        }
+    }
+
+    private void recordClosed(boolean success) {
+        if (recorded == outcomes.length && !outcomes[next]) {
+            failed--;
+        }
+        outcomes[next] = success;
+        next = (next + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+        if (!success) {
+            failed++;
+        }
+        if (recorded >= minimumCalls && failed * 100.0 >= failureRatePercent * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+        recorded = 0;
+        next = 0;
+        failed = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (to == State.OPEN) {
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+}
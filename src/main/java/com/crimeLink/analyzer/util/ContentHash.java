@@ -0,0 +1,62 @@
+package com.crimeLink.analyzer.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * SHA-256 content hashes as lower-case hex, and the content-addressed object
+ * paths built from them ({@code <sha256>/<name>}).
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern ADDRESSED_PATH = Pattern.compile("^([0-9a-f]{64})/[^/]+$");
+
+    private ContentHash() {
+        // utility class – no instances
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Hashes the content by streaming it through a fixed buffer. */
+    public static String sha256(InputStreamSource source) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = source.getInputStream()) {
+            for (int n; (n = in.read(buffer)) >= 0;) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** @return the hash a content-addressed path starts with, or {@code null} for any other path */
+    public static String ofPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        Matcher m = ADDRESSED_PATH.matcher(path);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    /** A file name safe to use as the last segment of an object path. */
+    public static String safeName(String name, String fallback) {
+        if (name == null || name.isBlank()) {
+            return fallback;
+        }
+        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+}
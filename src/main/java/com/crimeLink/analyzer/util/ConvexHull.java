@@ -0,0 +1,53 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.Arrays;
+
+/** Convex hull of planar points (Andrew's monotone chain, O(n log n)). */
+public final class ConvexHull {
+
+    private ConvexHull() {
+        // utility class – no instances
+    }
+
+    /**
+     * @param xs point x coordinates
+     * @param ys point y coordinates
+     * @return indices of the hull vertices in counter-clockwise order without
+     *         repeating the first; fewer than three when the points are
+     *         collinear or coincide
+     */
+    public static int[] of(double[] xs, double[] ys) {
+        int n = xs.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> xs[a] != xs[b] ? Double.compare(xs[a], xs[b]) : Double.compare(ys[a], ys[b]));
+        if (n < 3) {
+            return n == 2 && xs[0] == xs[1] && ys[0] == ys[1] ? new int[] { 0 }
+                    : Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+        }
+
+        int[] hull = new int[2 * n];
+        int k = 0;
+        for (int idx = 0; idx < n; idx++) {
+            int i = order[idx];
+            while (k >= 2 && cross(xs, ys, hull[k - 2], hull[k - 1], i) <= 0) {
+                k--;
+            }
+            hull[k++] = i;
+        }
+        for (int idx = n - 2, lower = k + 1; idx >= 0; idx--) {
+            int i = order[idx];
+            while (k >= lower && cross(xs, ys, hull[k - 2], hull[k - 1], i) <= 0) {
+                k--;
+            }
+            hull[k++] = i;
+        }
+        return Arrays.copyOf(hull, Math.max(1, k - 1));
+    }
+
+    private static double cross(double[] xs, double[] ys, int o, int a, int b) {
+        return (xs[a] - xs[o]) * (ys[b] - ys[o]) - (ys[a] - ys[o]) * (xs[b] - xs[o]);
+    }
+}
@@ -0,0 +1,276 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * DBSCAN clustering of planar points that can take further points one at a
+ * time.
+ * <p>
+ * Neighbours are found through a hash grid with cells of side {@code eps}, so
+ * a query looks at the 3 x 3 cells around a point. Clusters are the connected
+ * components of core points (at least {@code minPts} points within
+ * {@code eps}, the point included), held in a union-find. A border point
+ * joins the cluster of its lowest-indexed core neighbour; the rest is noise.
+ * <p>
+ * {@link #build} counts neighbours and links cores in parallel on the given
+ * fork-join pool using a lock-free union-find. {@link #add} then updates only
+ * the neighbourhood of the new point: points whose count reaches
+ * {@code minPts} become cores and are linked, which can merge clusters but
+ * never splits them. Not thread-safe after construction.
+ */
+public final class DensityClusters {
+
+    /** Growable list of point indices in one grid cell. */
+    private static final class Bag {
+        private int[] items = new int[4];
+        private int size;
+
+        private void add(int i) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = i;
+        }
+    }
+
+    private final double eps;
+    private final double epsSq;
+    private final int minPts;
+    private final Map<Long, Bag> grid = new HashMap<>();
+
+    private double[] xs;
+    private double[] ys;
+    private int[] counts;
+    private boolean[] core;
+    private int[] parent;
+    private int[] borderOf;
+    private int n;
+
+    private DensityClusters(double eps, int minPts, int capacity) {
+        if (!(eps > 0) || minPts < 1) {
+            throw new IllegalArgumentException("eps must be positive and minPts at least 1");
+        }
+        this.eps = eps;
+        this.epsSq = eps * eps;
+        this.minPts = minPts;
+        int cap = Math.max(16, capacity);
+        this.xs = new double[cap];
+        this.ys = new double[cap];
+        this.counts = new int[cap];
+        this.core = new boolean[cap];
+        this.parent = new int[cap];
+        this.borderOf = new int[cap];
+    }
+
+    /**
+     * Clusters {@code xs}/{@code ys} (same length, metres or any planar unit
+     * matching {@code eps}).
+     */
+    public static DensityClusters build(double[] xs, double[] ys, double eps, int minPts, ForkJoinPool pool) {
+        int count = xs.length;
+        DensityClusters dc = new DensityClusters(eps, minPts, count + count / 4);
+        System.arraycopy(xs, 0, dc.xs, 0, count);
+        System.arraycopy(ys, 0, dc.ys, 0, count);
+        dc.n = count;
+        for (int i = 0; i < count; i++) {
+            dc.cell(xs[i], ys[i]).add(i);
+        }
+
+        AtomicIntegerArray links = new AtomicIntegerArray(count);
+        pool.submit(() -> {
+            IntStream.range(0, count).parallel().forEach(i -> {
+                int[] c = { 0 };
+                dc.forEachNeighbour(dc.xs[i], dc.ys[i], j -> c[0]++);
+                dc.counts[i] = c[0];
+                dc.core[i] = c[0] >= minPts;
+                links.set(i, i);
+            });
+            IntStream.range(0, count).parallel().filter(i -> dc.core[i]).forEach(i -> dc.forEachNeighbour(
+                    dc.xs[i], dc.ys[i], j -> {
+                        if (j > i && dc.core[j]) {
+                            union(links, i, j);
+                        }
+                    }));
+        }).join();
+
+        for (int i = 0; i < count; i++) {
+            dc.parent[i] = find(links, i);
+        }
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+            dc.borderOf[i] = dc.core[i] ? -1 : dc.lowestCoreNeighbour(i);
+        })).join();
+        return dc;
+    }
+
+    /** @return the index of the new point */
+    public int add(double x, double y) {
+        ensureCapacity(n + 1);
+        int p = n++;
+        xs[p] = x;
+        ys[p] = y;
+        parent[p] = p;
+        borderOf[p] = -1;
+        cell(x, y).add(p);
+
+        int[] neighbours = neighbours(p);
+        counts[p] = neighbours.length;
+        for (int q : neighbours) {
+            if (q != p) {
+                counts[q]++;
+            }
+        }
+        for (int c : neighbours) {
+            if (core[c] || counts[c] < minPts) {
+                continue;
+            }
+            core[c] = true;
+            for (int r : neighbours(c)) {
+                if (core[r]) {
+                    union(c, r);
+                } else if (borderOf[r] < 0 || borderOf[r] > c) {
+                    borderOf[r] = c;
+                }
+            }
+        }
+        if (!core[p] && borderOf[p] < 0) {
+            borderOf[p] = lowestCoreNeighbour(p);
+        }
+        return p;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isCore(int i) {
+        return core[i];
+    }
+
+    /** @return an id shared by every point of the same cluster, or -1 for noise */
+    public int clusterOf(int i) {
+        if (core[i]) {
+            return find(i);
+        }
+        return borderOf[i] < 0 ? -1 : find(borderOf[i]);
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    private int lowestCoreNeighbour(int i) {
+        int[] best = { -1 };
+        forEachNeighbour(xs[i], ys[i], j -> {
+            if (core[j] && (best[0] < 0 || j < best[0])) {
+                best[0] = j;
+            }
+        });
+        return best[0];
+    }
+
+    private int[] neighbours(int i) {
+        Bag out = new Bag();
+        forEachNeighbour(xs[i], ys[i], out::add);
+        return Arrays.copyOf(out.items, out.size);
+    }
+
+    private void forEachNeighbour(double x, double y, IntConsumer action) {
+        long cx = (long) Math.floor(x / eps);
+        long cy = (long) Math.floor(y / eps);
+        for (long gx = cx - 1; gx <= cx + 1; gx++) {
+            for (long gy = cy - 1; gy <= cy + 1; gy++) {
+                Bag bag = grid.get(key(gx, gy));
+                if (bag == null) {
+                    continue;
+                }
+                for (int k = 0; k < bag.size; k++) {
+                    int j = bag.items[k];
+                    double dx = xs[j] - x;
+                    double dy = ys[j] - y;
+                    if (dx * dx + dy * dy <= epsSq) {
+                        action.accept(j);
+                    }
+                }
+            }
+        }
+    }
+
+    private Bag cell(double x, double y) {
+        return grid.computeIfAbsent(key((long) Math.floor(x / eps), (long) Math.floor(y / eps)), k -> new Bag());
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= xs.length) {
+            return;
+        }
+        int cap = Math.max(needed, xs.length * 2);
+        xs = Arrays.copyOf(xs, cap);
+        ys = Arrays.copyOf(ys, cap);
+        counts = Arrays.copyOf(counts, cap);
+        core = Arrays.copyOf(core, cap);
+        parent = Arrays.copyOf(parent, cap);
+        borderOf = Arrays.copyOf(borderOf, cap);
+    }
+
+    // Union-find. Roots are always linked under the lower index, so parents
+    // only ever decrease along a path and path halving is safe under CAS.
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a != b) {
+            parent[Math.max(a, b)] = Math.min(a, b);
+        }
+    }
+
+    private static int find(AtomicIntegerArray links, int i) {
+        while (true) {
+            int p = links.get(i);
+            if (p == i) {
+                return i;
+            }
+            int gp = links.get(p);
+            if (gp != p) {
+                links.compareAndSet(i, p, gp);
+            }
+            i = p;
+        }
+    }
+
+    private static void union(AtomicIntegerArray links, int a, int b) {
+        while (true) {
+            a = find(links, a);
+            b = find(links, b);
+            if (a == b) {
+                return;
+            }
+            int high = Math.max(a, b);
+            int low = Math.min(a, b);
+            if (links.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.crimeLink.analyzer.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the EXIF orientation tag (0x0112) of a JPEG without decoding it.
+ * <p>
+ * Phone cameras store pixels in sensor order and record the rotation in this
+ * tag, so it has to be applied before the EXIF block is dropped by
+ * re-encoding. Values follow the EXIF spec: 1 is upright, 3 is 180 degrees,
+ * 6 and 8 are 90 degrees clockwise and counter-clockwise, the even ones
+ * mirror.
+ */
+public final class ExifOrientation {
+
+    public static final int NORMAL = 1;
+
+    private static final int SOI = 0xFFD8;
+    private static final int SOS = 0xFFDA;
+    private static final int EOI = 0xFFD9;
+    private static final int APP1 = 0xFFE1;
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Orientation of the JPEG in {@code in}, {@link #NORMAL} for other formats,
+     * images without EXIF and malformed EXIF. Reads only up to the first
+     * EXIF segment; the stream is not closed.
+     */
+    public static int read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        try {
+            if (data.readUnsignedShort() != SOI) {
+                return NORMAL;
+            }
+            while (true) {
+                int marker = data.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+                    return NORMAL;
+                }
+                int length = data.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return NORMAL;
+                }
+                if (marker != APP1) {
+                    data.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = data.readNBytes(length);
+                if (segment.length == length && length > EXIF_HEADER.length
+                        && Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+                    return fromTiff(ByteBuffer.wrap(segment, EXIF_HEADER.length, length - EXIF_HEADER.length)
+                            .slice());
+                }
+                // Another APP1 payload (XMP); keep looking
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        }
+    }
+
+    private static int fromTiff(ByteBuffer tiff) {
+        try {
+            if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+                return NORMAL;
+            }
+            if (tiff.getShort(2) != 42) {
+                return NORMAL;
+            }
+            int ifd = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                    int value = tiff.getShort(entry + 8);
+                    return value >= 1 && value <= 8 ? value : NORMAL;
+                }
+            }
+            return NORMAL;
+        } catch (IndexOutOfBoundsException e) {
+            return NORMAL;
+        }
+    }
+}
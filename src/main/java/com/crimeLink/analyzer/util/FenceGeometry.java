@@ -0,0 +1,220 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A circle or simple polygon fence compiled for fast point-in-fence tests.
+ * <p>
+ * Vertices are projected once onto a local plane in metres (equirectangular
+ * around the fence centre, accurate to well under a metre for fences a few
+ * kilometres across). A polygon's bounding box is covered by a uniform grid;
+ * every cell records the edges that touch it and whether its centre lies
+ * inside. A query is answered from its cell alone: cells no edge touches are
+ * wholly inside or outside, and otherwise only the crossings between the
+ * cell's few edges and the segment from the cell centre to the point decide.
+ * The cost per point therefore does not grow with the number of vertices.
+ */
+public final class FenceGeometry {
+
+    private static final double METRES_PER_DEGREE = Math.toRadians(1) * GeoUtils.EARTH_RADIUS_M;
+    private static final int MIN_GRID = 4;
+    private static final int MAX_GRID = 64;
+
+    private final double refLat;
+    private final double refLon;
+    private final double metresPerDegreeLon;
+
+    // Circle
+    private final double radiusSq;
+
+    // Polygon
+    private final double[] xs;
+    private final double[] ys;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int grid;
+    private final double cellW;
+    private final double cellH;
+    private final int[][] cellEdges;
+    private final boolean[] centreInside;
+
+    private FenceGeometry(double refLat, double refLon, double radiusM) {
+        this.refLat = refLat;
+        this.refLon = refLon;
+        this.metresPerDegreeLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(refLat));
+        this.radiusSq = radiusM * radiusM;
+        this.xs = null;
+        this.ys = null;
+        this.minX = -radiusM;
+        this.minY = -radiusM;
+        this.maxX = radiusM;
+        this.maxY = radiusM;
+        this.grid = 0;
+        this.cellW = 0;
+        this.cellH = 0;
+        this.cellEdges = null;
+        this.centreInside = null;
+    }
+
+    private FenceGeometry(double[] lats, double[] lons) {
+        int n = lats.length;
+        double sumLat = 0;
+        double sumLon = 0;
+        for (int i = 0; i < n; i++) {
+            sumLat += lats[i];
+            sumLon += lons[i];
+        }
+        this.refLat = sumLat / n;
+        this.refLon = sumLon / n;
+        this.metresPerDegreeLon = METRES_PER_DEGREE * Math.cos(Math.toRadians(refLat));
+        this.radiusSq = 0;
+
+        this.xs = new double[n];
+        this.ys = new double[n];
+        double x0 = Double.MAX_VALUE;
+        double y0 = Double.MAX_VALUE;
+        double x1 = -Double.MAX_VALUE;
+        double y1 = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            xs[i] = projectX(lons[i]);
+            ys[i] = projectY(lats[i]);
+            x0 = Math.min(x0, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            x1 = Math.max(x1, xs[i]);
+            y1 = Math.max(y1, ys[i]);
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+
+        this.grid = Math.max(MIN_GRID, Math.min(MAX_GRID, (int) Math.ceil(2 * Math.sqrt(n))));
+        this.cellW = Math.max((maxX - minX) / grid, 1e-9);
+        this.cellH = Math.max((maxY - minY) / grid, 1e-9);
+
+        List<List<Integer>> buckets = new ArrayList<>(grid * grid);
+        for (int c = 0; c < grid * grid; c++) {
+            buckets.add(new ArrayList<>(2));
+        }
+        for (int e = 0; e < n; e++) {
+            int f = (e + 1) % n;
+            int cx0 = cellX(Math.min(xs[e], xs[f]));
+            int cx1 = cellX(Math.max(xs[e], xs[f]));
+            int cy0 = cellY(Math.min(ys[e], ys[f]));
+            int cy1 = cellY(Math.max(ys[e], ys[f]));
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    buckets.get(cy * grid + cx).add(e);
+                }
+            }
+        }
+        this.cellEdges = new int[grid * grid][];
+        this.centreInside = new boolean[grid * grid];
+        for (int c = 0; c < grid * grid; c++) {
+            cellEdges[c] = buckets.get(c).stream().mapToInt(Integer::intValue).toArray();
+            centreInside[c] = rayCast(centreX(c % grid), centreY(c / grid));
+        }
+    }
+
+    public static FenceGeometry circle(double latitude, double longitude, double radiusM) {
+        if (!(radiusM > 0)) {
+            throw new IllegalArgumentException("Circle radius must be positive");
+        }
+        return new FenceGeometry(latitude, longitude, radiusM);
+    }
+
+    /**
+     * @param latitudes  vertex latitudes; the ring is closed implicitly
+     * @param longitudes vertex longitudes
+     */
+    public static FenceGeometry polygon(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length || latitudes.length < 3) {
+            throw new IllegalArgumentException("Polygon needs at least three vertices");
+        }
+        return new FenceGeometry(latitudes.clone(), longitudes.clone());
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        double x = projectX(longitude);
+        double y = projectY(latitude);
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return false;
+        }
+        if (xs == null) {
+            return x * x + y * y <= radiusSq;
+        }
+
+        int cx = cellX(x);
+        int cy = cellY(y);
+        int cell = cy * grid + cx;
+        boolean inside = centreInside[cell];
+        double ox = centreX(cx);
+        double oy = centreY(cy);
+        for (int e : cellEdges[cell]) {
+            int f = (e + 1) % xs.length;
+            if (crosses(ox, oy, x, y, xs[e], ys[e], xs[f], ys[f])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private double projectX(double longitude) {
+        return (longitude - refLon) * metresPerDegreeLon;
+    }
+
+    private double projectY(double latitude) {
+        return (latitude - refLat) * METRES_PER_DEGREE;
+    }
+
+    private int cellX(double x) {
+        return Math.min(grid - 1, Math.max(0, (int) ((x - minX) / cellW)));
+    }
+
+    private int cellY(double y) {
+        return Math.min(grid - 1, Math.max(0, (int) ((y - minY) / cellH)));
+    }
+
+    private double centreX(int cx) {
+        return minX + (cx + 0.5) * cellW;
+    }
+
+    private double centreY(int cy) {
+        return minY + (cy + 0.5) * cellH;
+    }
+
+    /** Even-odd test against every edge; only used while compiling. */
+    private boolean rayCast(double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > y) != (ys[j] > y)
+                    && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Whether segment a-b crosses edge c-d. An edge endpoint counts on one side
+     * only, so a segment through a shared vertex is counted once.
+     */
+    private static boolean crosses(double ax, double ay, double bx, double by,
+            double cx, double cy, double dx, double dy) {
+        double d1 = orient(ax, ay, bx, by, cx, cy);
+        double d2 = orient(ax, ay, bx, by, dx, dy);
+        if ((d1 > 0) == (d2 > 0)) {
+            return false;
+        }
+        double d3 = orient(cx, cy, dx, dy, ax, ay);
+        double d4 = orient(cx, cy, dx, dy, bx, by);
+        return (d3 > 0) != (d4 > 0);
+    }
+
+    private static double orient(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+}
@@ -0,0 +1,53 @@
+package com.crimeLink.analyzer.util;
+
+/**
+ * Small geodesy helpers for WGS84 latitude/longitude in degrees.
+ * <p>
+ * Distances use a spherical earth, which is accurate to well under 1% and
+ * plenty for patrol tracks, geofences and map clustering.
+ */
+public final class GeoUtils {
+
+    /** Mean earth radius in metres. */
+    public static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    private GeoUtils() {
+        // utility class – no instances
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula.
+     *
+     * @return distance in metres
+     */
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Distance from point P to the segment A–B, projecting onto a local flat plane
+     * centred on A. Valid for segments up to a few tens of kilometres.
+     *
+     * @return distance in metres
+     */
+    public static double segmentDistanceMeters(double latP, double lonP,
+                                               double latA, double lonA,
+                                               double latB, double lonB) {
+        double cosLat = Math.cos(Math.toRadians(latA));
+        double bx = Math.toRadians(lonB - lonA) * cosLat;
+        double by = Math.toRadians(latB - latA);
+        double px = Math.toRadians(lonP - lonA) * cosLat;
+        double py = Math.toRadians(latP - latA);
+
+        double lengthSq = bx * bx + by * by;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSq));
+        double dx = px - t * bx;
+        double dy = py - t * by;
+        return Math.sqrt(dx * dx + dy * dy) * EARTH_RADIUS_M;
+    }
+}
@@ -0,0 +1,110 @@
+package com.crimeLink.analyzer.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * A single-use request body that streams from {@code source} and computes its
+ * SHA-256 as it is read.
+ * <p>
+ * The declared length lets {@code RestTemplate} send a fixed-length request
+ * straight from the source stream, so an upload holds one copy buffer rather
+ * than the whole file. Reading a different number of bytes than declared
+ * fails the read, and with it the upload.
+ */
+public final class HashingResource extends AbstractResource {
+
+    private final InputStreamSource source;
+    private final long length;
+    private final String filename;
+
+    private MessageDigest digest;
+    private long read;
+    private String sha256;
+
+    public HashingResource(InputStreamSource source, long length, String filename) {
+        this.source = source;
+        this.length = length;
+        this.filename = filename;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (digest != null) {
+            throw new IllegalStateException("HashingResource can only be read once");
+        }
+        digest = ContentHash.newSha256();
+        return new FilterInputStream(source.getInputStream()) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    finish();
+                } else {
+                    update(new byte[] { (byte) b }, 0, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                int n = super.read(buf, off, len);
+                if (n < 0) {
+                    finish();
+                } else {
+                    update(buf, off, n);
+                }
+                return n;
+            }
+        };
+    }
+
+    private synchronized void update(byte[] buf, int off, int n) throws IOException {
+        read += n;
+        if (read > length) {
+            throw new IOException(filename + " is longer than the declared " + length + " bytes");
+        }
+        digest.update(buf, off, n);
+    }
+
+    private synchronized void finish() throws IOException {
+        if (read != length) {
+            throw new IOException(filename + " ended after " + read + " of " + length + " bytes");
+        }
+        if (sha256 == null) {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    /**
+     * @return the SHA-256 of the content, lower-case hex
+     * @throws IllegalStateException before the content has been read to the end
+     */
+    public synchronized String sha256() {
+        if (sha256 == null) {
+            throw new IllegalStateException(filename + " has not been read to the end");
+        }
+        return sha256;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getDescription() {
+        return "streamed upload [" + filename + "]";
+    }
+}
@@ -0,0 +1,85 @@
+package com.crimeLink.analyzer.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Removes metadata segments from a JPEG without decoding it.
+ * <p>
+ * Used for JPEGs ImageIO cannot decode (CMYK, YCCK), which therefore cannot
+ * be re-encoded like other photos. Only the segments needed to render the
+ * image are kept among the application segments: APP0 (JFIF), APP2 ICC
+ * profiles and APP14 (Adobe colour transform). EXIF and XMP (APP1, where
+ * cameras put GPS position and device serials), IPTC (APP13), multi-picture
+ * previews and comments are dropped. Everything from the first scan on is
+ * copied verbatim.
+ */
+public final class JpegMetadata {
+
+    private static final int SOI = 0xD8;
+    private static final int EOI = 0xD9;
+    private static final int SOS = 0xDA;
+    private static final int APP0 = 0xE0;
+    private static final int APP2 = 0xE2;
+    private static final int APP14 = 0xEE;
+    private static final int APP15 = 0xEF;
+    private static final int COM = 0xFE;
+    private static final byte[] ICC_HEADER = "ICC_PROFILE\0".getBytes(StandardCharsets.US_ASCII);
+
+    private JpegMetadata() {
+    }
+
+    /**
+     * Copy of {@code jpeg} without its metadata segments, or null when the
+     * data is not a JPEG or its segment headers are malformed.
+     */
+    public static byte[] strip(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != SOI) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(jpeg.length);
+        out.write(jpeg, 0, 2);
+        int pos = 2;
+        while (true) {
+            if (pos + 1 >= jpeg.length || (jpeg[pos] & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = jpeg[pos + 1] & 0xFF;
+            if (marker == 0xFF) {
+                // Fill byte before a marker
+                pos++;
+                continue;
+            }
+            if (marker == SOS || marker == EOI) {
+                out.write(jpeg, pos, jpeg.length - pos);
+                return out.toByteArray();
+            }
+            if (pos + 3 >= jpeg.length) {
+                return null;
+            }
+            int end = pos + 2 + (((jpeg[pos + 2] & 0xFF) << 8) | (jpeg[pos + 3] & 0xFF));
+            if (end > jpeg.length || end < pos + 4) {
+                return null;
+            }
+            if (keep(marker, jpeg, pos + 4, end)) {
+                out.write(jpeg, pos, end - pos);
+            }
+            pos = end;
+        }
+    }
+
+    private static boolean keep(int marker, byte[] jpeg, int from, int to) {
+        if (marker == COM) {
+            return false;
+        }
+        if (marker < APP0 || marker > APP15) {
+            return true;
+        }
+        if (marker == APP2) {
+            return to - from >= ICC_HEADER.length
+                    && Arrays.equals(jpeg, from, from + ICC_HEADER.length, ICC_HEADER, 0, ICC_HEADER.length);
+        }
+        return marker == APP0 || marker == APP14;
+    }
+}
@@ -0,0 +1,327 @@
+package com.crimeLink.analyzer.util;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.crimeLink.analyzer.dto.LocationPointDTO;
+
+/**
+ * Compact binary encoding of a mobile location batch
+ * ({@value #MEDIA_TYPE}).
+ * <p>
+ * Layout, where {@code uvarint} is unsigned LEB128 and {@code svarint} is a
+ * zigzag-encoded LEB128:
+ *
+ * <pre>
+ * magic      "CLLB" (4 bytes), version (1 byte, = 1)
+ * count      uvarint                 number of points
+ * strings    uvarint n, then n x (uvarint length, UTF-8 bytes)
+ *                                    providers, meta keys and meta string values
+ * baseTs     svarint                 epoch millis
+ * point      flags (1 byte)          bit 0 accuracy, 1 speed, 2 heading, 3 provider, 4 meta
+ *            svarint                 ts delta in ms from the previous point (first: from baseTs)
+ *            svarint, svarint        lat, lon delta in 1e-7 degrees from the previous point (first: from 0)
+ *            [uvarint]               accuracy in decimetres
+ *            [uvarint]               speed in cm/s
+ *            [uvarint]               heading in tenths of a degree
+ *            [uvarint]               provider string index
+ *            [uvarint n, n x (uvarint key index, type byte, value)]
+ *                                    meta; type 0 false, 1 true, 2 svarint long,
+ *                                    3 IEEE double (8 bytes, big-endian), 4 string index, 5 null
+ * </pre>
+ *
+ * A point sampled every few seconds while walking typically takes 8-12 bytes
+ * instead of ~150 bytes of JSON. Decoding reads the stream once and builds the
+ * DTOs directly, without an intermediate JSON tree.
+ */
+public final class LocationBatchCodec {
+
+    public static final String MEDIA_TYPE = "application/x-crimelink-locations";
+
+    private static final byte[] MAGIC = { 'C', 'L', 'L', 'B' };
+    private static final int VERSION = 1;
+
+    private static final int HAS_ACCURACY = 1;
+    private static final int HAS_SPEED = 1 << 1;
+    private static final int HAS_HEADING = 1 << 2;
+    private static final int HAS_PROVIDER = 1 << 3;
+    private static final int HAS_META = 1 << 4;
+
+    private static final int META_FALSE = 0;
+    private static final int META_TRUE = 1;
+    private static final int META_LONG = 2;
+    private static final int META_DOUBLE = 3;
+    private static final int META_STRING = 4;
+    private static final int META_NULL = 5;
+
+    private static final double COORD_SCALE = 1e7;
+    private static final int MAX_STRINGS = 1024;
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final int MAX_META_ENTRIES = 64;
+
+    private LocationBatchCodec() {
+    }
+
+    /**
+     * Decode one batch.
+     *
+     * @param maxPoints upper bound on the declared point count, checked before anything is allocated
+     * @throws IllegalArgumentException when the payload is malformed or exceeds a limit
+     * @throws IOException              when reading the stream fails
+     */
+    public static List<LocationPointDTO> decode(InputStream in, int maxPoints) throws IOException {
+        Reader r = new Reader(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+        for (byte b : MAGIC) {
+            if (r.readByte() != b) {
+                throw new IllegalArgumentException("Not a location batch");
+            }
+        }
+        int version = r.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported location batch version " + version);
+        }
+
+        int count = r.readCount(maxPoints, "points");
+        int stringCount = r.readCount(MAX_STRINGS, "strings");
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = r.readString();
+        }
+
+        long ts = r.readSignedVarLong();
+        long lat = 0;
+        long lon = 0;
+        List<LocationPointDTO> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int flags = r.readByte();
+            ts += r.readSignedVarLong();
+            lat += r.readSignedVarLong();
+            lon += r.readSignedVarLong();
+            Float accuracy = (flags & HAS_ACCURACY) != 0 ? r.readVarLong() / 10f : null;
+            Float speed = (flags & HAS_SPEED) != 0 ? r.readVarLong() / 100f : null;
+            Float heading = (flags & HAS_HEADING) != 0 ? r.readVarLong() / 10f : null;
+            String provider = (flags & HAS_PROVIDER) != 0 ? lookup(strings, r.readVarLong()) : null;
+            Map<String, Object> meta = (flags & HAS_META) != 0 ? readMeta(r, strings) : null;
+            points.add(new LocationPointDTO(Instant.ofEpochMilli(ts), lat / COORD_SCALE, lon / COORD_SCALE,
+                    accuracy, speed, heading, provider, meta));
+        }
+        if (r.in.read() != -1) {
+            throw new IllegalArgumentException("Trailing bytes after " + count + " points");
+        }
+        return points;
+    }
+
+    /**
+     * Encode one batch. Coordinates are rounded to 1e-7 degrees (~1 cm),
+     * accuracy and heading to 0.1 and speed to 0.01. Meta values other than
+     * booleans, integral numbers, floating point numbers and strings are sent
+     * as their {@code toString()}.
+     */
+    public static void encode(List<LocationPointDTO> points, OutputStream out) throws IOException {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (LocationPointDTO p : points) {
+            if (p.provider() != null) {
+                index.putIfAbsent(p.provider(), index.size());
+            }
+            if (p.meta() != null) {
+                p.meta().forEach((k, v) -> {
+                    index.putIfAbsent(k, index.size());
+                    if (v instanceof String || (v != null && !isScalar(v))) {
+                        index.putIfAbsent(v.toString(), index.size());
+                    }
+                });
+            }
+        }
+
+        Writer w = new Writer(out);
+        out.write(MAGIC);
+        out.write(VERSION);
+        w.writeVarLong(points.size());
+        w.writeVarLong(index.size());
+        for (String s : index.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            w.writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+
+        long prevTs = points.isEmpty() ? 0 : points.get(0).ts().toEpochMilli();
+        w.writeSignedVarLong(prevTs);
+        long prevLat = 0;
+        long prevLon = 0;
+        for (LocationPointDTO p : points) {
+            int flags = (p.accuracyM() != null ? HAS_ACCURACY : 0)
+                    | (p.speedMps() != null ? HAS_SPEED : 0)
+                    | (p.headingDeg() != null ? HAS_HEADING : 0)
+                    | (p.provider() != null ? HAS_PROVIDER : 0)
+                    | (p.meta() != null ? HAS_META : 0);
+            out.write(flags);
+            long ts = p.ts().toEpochMilli();
+            long lat = Math.round(p.latitude() * COORD_SCALE);
+            long lon = Math.round(p.longitude() * COORD_SCALE);
+            w.writeSignedVarLong(ts - prevTs);
+            w.writeSignedVarLong(lat - prevLat);
+            w.writeSignedVarLong(lon - prevLon);
+            prevTs = ts;
+            prevLat = lat;
+            prevLon = lon;
+            if (p.accuracyM() != null) {
+                w.writeVarLong(Math.max(0, Math.round(p.accuracyM() * 10)));
+            }
+            if (p.speedMps() != null) {
+                w.writeVarLong(Math.max(0, Math.round(p.speedMps() * 100)));
+            }
+            if (p.headingDeg() != null) {
+                w.writeVarLong(Math.max(0, Math.round(p.headingDeg() * 10)));
+            }
+            if (p.provider() != null) {
+                w.writeVarLong(index.get(p.provider()));
+            }
+            if (p.meta() != null) {
+                w.writeVarLong(p.meta().size());
+                for (Map.Entry<String, Object> e : p.meta().entrySet()) {
+                    w.writeVarLong(index.get(e.getKey()));
+                    writeMetaValue(w, out, index, e.getValue());
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean isScalar(Object v) {
+        return v instanceof Boolean || v instanceof Number;
+    }
+
+    private static void writeMetaValue(Writer w, OutputStream out, Map<String, Integer> index, Object v)
+            throws IOException {
+        if (v == null) {
+            out.write(META_NULL);
+        } else if (v instanceof Boolean b) {
+            out.write(b ? META_TRUE : META_FALSE);
+        } else if (v instanceof Byte || v instanceof Short || v instanceof Integer || v instanceof Long) {
+            out.write(META_LONG);
+            w.writeSignedVarLong(((Number) v).longValue());
+        } else if (v instanceof Number n) {
+            out.write(META_DOUBLE);
+            long bits = Double.doubleToLongBits(n.doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        } else {
+            out.write(META_STRING);
+            w.writeVarLong(index.get(v.toString()));
+        }
+    }
+
+    private static Map<String, Object> readMeta(Reader r, String[] strings) throws IOException {
+        int entries = r.readCount(MAX_META_ENTRIES, "meta entries");
+        Map<String, Object> meta = new HashMap<>(entries * 2);
+        for (int i = 0; i < entries; i++) {
+            String key = lookup(strings, r.readVarLong());
+            int type = r.readByte();
+            Object value = switch (type) {
+                case META_FALSE -> Boolean.FALSE;
+                case META_TRUE -> Boolean.TRUE;
+                case META_LONG -> r.readSignedVarLong();
+                case META_DOUBLE -> {
+                    long bits = 0;
+                    for (int b = 0; b < 8; b++) {
+                        bits = (bits << 8) | r.readByte();
+                    }
+                    yield Double.longBitsToDouble(bits);
+                }
+                case META_STRING -> lookup(strings, r.readVarLong());
+                case META_NULL -> null;
+                default -> throw new IllegalArgumentException("Unknown meta value type " + type);
+            };
+            meta.put(key, value);
+        }
+        return meta;
+    }
+
+    private static String lookup(String[] strings, long index) {
+        if (index < 0 || index >= strings.length) {
+            throw new IllegalArgumentException("String index " + index + " out of range");
+        }
+        return strings[(int) index];
+    }
+
+    private static final class Reader {
+        private final InputStream in;
+
+        private Reader(InputStream in) {
+            this.in = in;
+        }
+
+        int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated location batch");
+            }
+            return b;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+
+        long readSignedVarLong() throws IOException {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        int readCount(int max, String what) throws IOException {
+            long n = readVarLong();
+            if (n < 0 || n > max) {
+                throw new IllegalArgumentException("Too many " + what + ": " + n + " (max " + max + ")");
+            }
+            return (int) n;
+        }
+
+        String readString() throws IOException {
+            int length = readCount(MAX_STRING_BYTES, "string bytes");
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated location batch");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Writer {
+        private final OutputStream out;
+
+        private Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        void writeSignedVarLong(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.crimeLink.analyzer.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Reads the {@code /health} responses of the ML services. Both report
+ * {@code "healthy"}, older call-analysis builds {@code "ok"}; anything else,
+ * including a missing status, is unhealthy.
+ */
+public final class ServiceHealth {
+
+    private ServiceHealth() {
+    }
+
+    /** Whether {@code health} reports a service able to take requests. */
+    public static boolean isHealthy(JsonNode health) {
+        String status = health.path("status").asText();
+        return "healthy".equals(status) || "ok".equals(status);
+    }
+}
@@ -0,0 +1,81 @@
+package com.crimeLink.analyzer.util;
+
+/**
+ * Web Mercator (slippy map) tile arithmetic, matching the z/x/y scheme used by
+ * Leaflet, Google and OpenStreetMap tiles. Tile {@code y} grows southwards.
+ */
+public final class TileMath {
+
+    /** Latitudes beyond this are outside the square Web Mercator world. */
+    public static final double MAX_LATITUDE = 85.05112878;
+    /** Deepest zoom that still packs into {@link #key(int, int, int)}. */
+    public static final int MAX_ZOOM = 24;
+
+    private TileMath() {
+        // utility class – no instances
+    }
+
+    public static int tileX(double longitude, int zoom) {
+        return Math.min((1 << zoom) - 1, Math.max(0, (int) Math.floor(x(longitude, zoom))));
+    }
+
+    public static int tileY(double latitude, int zoom) {
+        return Math.min((1 << zoom) - 1, Math.max(0, (int) Math.floor(y(latitude, zoom))));
+    }
+
+    /** Tile x with the position inside the tile as fraction. */
+    public static double x(double longitude, int zoom) {
+        return (longitude + 180) / 360 * (1 << zoom);
+    }
+
+    /** Tile y with the position inside the tile as fraction. */
+    public static double y(double latitude, int zoom) {
+        double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * (1 << zoom);
+    }
+
+    /** Longitude of the tile's west edge. */
+    public static double tileLon(int x, int zoom) {
+        return (double) x / (1 << zoom) * 360 - 180;
+    }
+
+    /** Latitude of the tile's north edge. */
+    public static double tileLat(int y, int zoom) {
+        double n = Math.PI - 2 * Math.PI * y / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /** Packs a tile into one long, unique across zoom levels. */
+    public static long key(int zoom, int x, int y) {
+        return ((long) zoom << 56) | ((long) x << 28) | y;
+    }
+
+    public static int zoomOf(long key) {
+        return (int) (key >>> 56);
+    }
+
+    public static int xOf(long key) {
+        return (int) ((key >>> 28) & 0xFFFFFFF);
+    }
+
+    public static int yOf(long key) {
+        return (int) (key & 0xFFFFFFF);
+    }
+
+    /** Bing-style quadkey: one base-4 digit per zoom level, most significant first. */
+    public static String quadkey(int zoom, int x, int y) {
+        char[] digits = new char[zoom];
+        for (int i = zoom; i > 0; i--) {
+            int mask = 1 << (i - 1);
+            int digit = ((x & mask) != 0 ? 1 : 0) + ((y & mask) != 0 ? 2 : 0);
+            digits[zoom - i] = (char) ('0' + digit);
+        }
+        return new String(digits);
+    }
+
+    public static void checkZoom(int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+    }
+}
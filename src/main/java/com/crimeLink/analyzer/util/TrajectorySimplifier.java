@@ -0,0 +1,76 @@
+package com.crimeLink.analyzer.util;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Douglas-Peucker line simplification for GPS tracks.
+ * <p>
+ * Instead of the usual recursion, segments are refined greatest deviation
+ * first from a priority queue. That lets one pass honour either a distance
+ * tolerance, a point budget, or both: refinement stops as soon as the worst
+ * remaining deviation is within tolerance or the budget is spent, and the
+ * points kept are always the most significant ones.
+ */
+public final class TrajectorySimplifier {
+
+    private record Segment(int start, int end, int farthest, double deviation) {
+    }
+
+    private TrajectorySimplifier() {
+        // utility class – no instances
+    }
+
+    /**
+     * Select the points to keep.
+     *
+     * @param lat        latitudes in track order
+     * @param lon        longitudes in track order
+     * @param toleranceM maximum allowed deviation in metres; {@code <= 0} for none
+     * @param maxPoints  maximum points to return; {@code <= 0} for no limit
+     * @return flags, one per input point, {@code true} where the point is kept
+     */
+    public static boolean[] simplify(double[] lat, double[] lon, double toleranceM, int maxPoints) {
+        int n = lat.length;
+        boolean[] keep = new boolean[n];
+        if (n <= 2 || (maxPoints > 0 && maxPoints >= n && toleranceM <= 0)) {
+            Arrays.fill(keep, true);
+            return keep;
+        }
+
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        PriorityQueue<Segment> queue = new PriorityQueue<>((a, b) -> Double.compare(b.deviation(), a.deviation()));
+        queue.add(farthest(lat, lon, 0, n - 1));
+
+        while (!queue.isEmpty()) {
+            if (maxPoints > 0 && kept >= maxPoints) {
+                break;
+            }
+            Segment segment = queue.poll();
+            if (segment.farthest() < 0 || segment.deviation() <= toleranceM) {
+                break;
+            }
+            keep[segment.farthest()] = true;
+            kept++;
+            queue.add(farthest(lat, lon, segment.start(), segment.farthest()));
+            queue.add(farthest(lat, lon, segment.farthest(), segment.end()));
+        }
+        return keep;
+    }
+
+    private static Segment farthest(double[] lat, double[] lon, int start, int end) {
+        int index = -1;
+        double max = -1;
+        for (int i = start + 1; i < end; i++) {
+            double d = GeoUtils.segmentDistanceMeters(lat[i], lon[i], lat[start], lon[start], lat[end], lon[end]);
+            if (d > max) {
+                max = d;
+                index = i;
+            }
+        }
+        return new Segment(start, end, index, max);
+    }
+}
@@ -0,0 +1,138 @@
+package com.crimeLink.analyzer.benchmark;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.repository.LocationPointBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Points/sec for the location upload write path, before and after bulk ingest.
+ * <p>
+ * "Before" replays what {@code saveAll} does with IDENTITY ids: one INSERT plus
+ * generated-key fetch per point. "After" is {@link LocationPointBulkRepository}
+ * (COPY on PostgreSQL, batched insert elsewhere).
+ * <p>
+ * Disabled by default. Run against in-memory H2 with
+ * <pre>
+ *   mvn test -Dtest=LocationIngestBenchmark -Dbenchmark=true
+ * </pre>
+ * or against a scratch PostgreSQL database by adding
+ * {@code -Dbenchmark.jdbc-url=... -Dbenchmark.username=... -Dbenchmark.password=...}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LocationIngestBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String BADGE_PREFIX = "BENCH-";
+
+    @Test
+    void compareRowByRowInsertWithBulkIngest() throws Exception {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:location_bench;DB_CLOSE_DELAY=-1");
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url,
+                System.getProperty("benchmark.username", "sa"),
+                System.getProperty("benchmark.password", ""), true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            boolean postgres = url.startsWith("jdbc:postgresql:");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS location_points ("
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "officer_badge_no VARCHAR(20) NOT NULL, ts TIMESTAMP WITH TIME ZONE, "
+                    + "latitude DOUBLE PRECISION NOT NULL, longitude DOUBLE PRECISION NOT NULL, "
+                    + "accuracym REAL, speed_mps REAL, heading_deg REAL, provider VARCHAR(255), "
+                    + "meta " + (postgres ? "JSONB" : "VARCHAR(2000)") + ")");
+
+            LocationPointBulkRepository bulk = new LocationPointBulkRepository(jdbc);
+            List<LocationPoint> batch = sampleBatch();
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                rowByRow(dataSource.getConnection(), batch, postgres);
+                bulk.insertAll(batch);
+            }
+
+            long rowNanos = 0;
+            long bulkNanos = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                rowByRow(dataSource.getConnection(), batch, postgres);
+                rowNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                bulk.insertAll(batch);
+                bulkNanos += System.nanoTime() - start;
+            }
+
+            long points = (long) BATCH_SIZE * MEASURED_ROUNDS;
+            double before = points / (rowNanos / 1e9);
+            double after = points / (bulkNanos / 1e9);
+            System.out.printf("location ingest [%s] batch=%d rounds=%d%n", url, BATCH_SIZE, MEASURED_ROUNDS);
+            System.out.printf("  row-by-row (saveAll equivalent): %,.0f points/sec%n", before);
+            System.out.printf("  bulk ingest:                     %,.0f points/sec (%.1fx)%n", after, after / before);
+
+            jdbc.update("DELETE FROM location_points WHERE officer_badge_no LIKE ?", BADGE_PREFIX + "%");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static void rowByRow(Connection con, List<LocationPoint> batch, boolean postgres) throws Exception {
+        String sql = "INSERT INTO location_points (officer_badge_no, ts, latitude, longitude, accuracym, "
+                + "speed_mps, heading_deg, provider, meta) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (LocationPoint p : batch) {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, p.getOfficerBadgeNo());
+                ps.setTimestamp(2, Timestamp.from(p.getTs()));
+                ps.setDouble(3, p.getLatitude());
+                ps.setDouble(4, p.getLongitude());
+                ps.setFloat(5, p.getAccuracyM());
+                ps.setFloat(6, p.getSpeedMps());
+                ps.setFloat(7, p.getHeadingDeg());
+                ps.setString(8, p.getProvider());
+                if (postgres) {
+                    ps.setObject(9, p.getMeta().toString(), Types.OTHER);
+                } else {
+                    ps.setString(9, p.getMeta().toString());
+                }
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+    }
+
+    private static List<LocationPoint> sampleBatch() {
+        ObjectMapper mapper = new ObjectMapper();
+        Instant start = Instant.parse("2026-01-01T08:00:00Z");
+        List<LocationPoint> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            LocationPoint p = new LocationPoint();
+            p.setOfficerBadgeNo(BADGE_PREFIX + (i % 10));
+            p.setTs(start.plusSeconds(i * 5L));
+            p.setLatitude(6.9271 + i * 1e-5);
+            p.setLongitude(79.8612 + i * 1e-5);
+            p.setAccuracyM(8f);
+            p.setSpeedMps(1.4f);
+            p.setHeadingDeg(180f);
+            p.setProvider("fused");
+            p.setMeta(mapper.valueToTree(Map.of("battery", 80, "charging", false)));
+            batch.add(p);
+        }
+        return batch;
+    }
+}
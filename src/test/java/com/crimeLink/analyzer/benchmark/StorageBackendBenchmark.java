@@ -0,0 +1,105 @@
+package com.crimeLink.analyzer.benchmark;
+
+import com.crimeLink.analyzer.config.HttpClientProperties;
+import com.crimeLink.analyzer.config.RestTemplateConfig;
+import com.crimeLink.analyzer.service.StorageBackend;
+import com.crimeLink.analyzer.service.impl.LocalStorageBackend;
+import com.crimeLink.analyzer.service.impl.SupabaseStorageBackend;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Upload throughput (MB/s) of each {@link StorageBackend} for a few evidence
+ * file sizes, streaming from a file on disk as a multipart upload would.
+ * <p>
+ * The Supabase backend talks to an in-process HTTP stub that discards the
+ * body, so it measures the client side of the transfer; point it at a real
+ * project with {@code -Dbenchmark.supabase-url=... -Dbenchmark.supabase-key=...}
+ * (uploads go to {@code benchmark.supabase-bucket}, default
+ * {@code crime-evidence}, and are deleted afterwards).
+ * <p>
+ * Disabled by default. Run with
+ * <pre>
+ *   mvn test -Dtest=StorageBackendBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StorageBackendBenchmark {
+
+    private static final int[] SIZES = { 64 * 1024, 1024 * 1024, 10 * 1024 * 1024 };
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    void compareUploadThroughput() throws Exception {
+        Path work = Files.createTempDirectory("storage-bench");
+        HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+        try {
+            String supabaseUrl = System.getProperty("benchmark.supabase-url");
+            String bucket = System.getProperty("benchmark.supabase-bucket", "crime-evidence");
+            RestTemplateConfig http = new RestTemplateConfig(new HttpClientProperties(), new SimpleMeterRegistry());
+            StorageBackend local = new LocalStorageBackend(work.resolve("store").toString(), "http://localhost", "");
+            StorageBackend supabase = supabaseUrl != null
+                    ? new SupabaseStorageBackend(supabaseUrl, System.getProperty("benchmark.supabase-key"),
+                            http.storageRestTemplate())
+                    : new SupabaseStorageBackend("http://127.0.0.1:" + stub.getAddress().getPort(), "key",
+                            http.storageRestTemplate());
+
+            System.out.printf("storage upload [supabase=%s] rounds=%d%n",
+                    supabaseUrl != null ? supabaseUrl : "local stub", MEASURED_ROUNDS);
+            for (int size : SIZES) {
+                Path source = work.resolve("source-" + size);
+                byte[] data = new byte[size];
+                new Random(size).nextBytes(data);
+                Files.write(source, data);
+
+                double localMbs = measure(local, bucket, source, size);
+                double supabaseMbs = measure(supabase, bucket, source, size);
+                System.out.printf("  %,10d bytes  local: %8.1f MB/s  supabase: %8.1f MB/s%n", size, localMbs,
+                        supabaseMbs);
+            }
+        } finally {
+            stub.stop(0);
+            try (var files = Files.walk(work)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static double measure(StorageBackend backend, String bucket, Path source, long size) throws Exception {
+        FileSystemResource content = new FileSystemResource(source);
+        List<String> written = new ArrayList<>();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            written.add(backend.put(bucket, "bench/" + UUID.randomUUID(), content, size,
+                    "application/octet-stream", false).path());
+        }
+        long nanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            String path = "bench/" + UUID.randomUUID();
+            long start = System.nanoTime();
+            backend.put(bucket, path, content, size, "application/octet-stream", false);
+            nanos += System.nanoTime() - start;
+            written.add(path);
+        }
+        backend.delete(bucket, written);
+        return (double) size * MEASURED_ROUNDS / (1024 * 1024) / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,111 @@
+package com.crimeLink.analyzer.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RestTemplateConfigTest {
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch hang = new CountDownLatch(1);
+    private volatile boolean hanging;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private RestTemplateConfig config;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (hanging) {
+                try {
+                    hang.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/health";
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getCallAnalysis().setKeepAlive(Duration.ofSeconds(30));
+        properties.getCallAnalysis().setMinTimeout(Duration.ofMillis(200));
+        config = new RestTemplateConfig(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        hang.countDown();
+        config.close();
+        server.stop(0);
+    }
+
+    @Test
+    void pooledTemplate_reusesOneConnectionForSequentialCalls() {
+        RestTemplate restTemplate = config.callAnalysisRestTemplate();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", restTemplate.getForObject(url, String.class));
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", "call-analysis", "state", "available").gauge().value());
+        assertEquals(20, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "call-analysis").gauge().value());
+    }
+
+    @Test
+    void pools_areSeparatePerService() {
+        config.callAnalysisRestTemplate().getForObject(url, String.class);
+        config.facialRecognitionRestTemplate().getForObject(url, String.class);
+
+        assertEquals(2, clientPorts.size());
+        assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", "facial-recognition", "state", "available").gauge().value());
+    }
+
+    @Test
+    void adaptiveTimeout_givesUpOnHungServiceAfterLearnedTimeout() {
+        RestTemplate restTemplate = config.callAnalysisRestTemplate();
+        for (int i = 0; i < 20; i++) { // samples before the timeout adapts
+            restTemplate.getForObject(url + "?attempt=" + i, String.class);
+        }
+        hanging = true;
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url, String.class));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        // The timed-out request counts as a sample at the read timeout, so the next one may wait that long
+        assertEquals(30_000, meterRegistry.get("http.client.adaptive.timeout")
+                .tags("httpclient", "call-analysis", "path", "/health").gauge().value());
+        assertEquals(21, meterRegistry.get("http.client.adaptive.latency")
+                .tags("httpclient", "call-analysis", "path", "/health").timer().count());
+    }
+}
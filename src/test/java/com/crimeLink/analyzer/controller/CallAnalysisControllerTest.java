@@ -1,23 +1,38 @@
 package com.crimeLink.analyzer.controller;
 
+import com.crimeLink.analyzer.dto.CallAnalysisJobDTO;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+import com.crimeLink.analyzer.service.CallAnalysisJobService;
 import com.crimeLink.analyzer.service.CallAnalysisService;
+import com.crimeLink.analyzer.service.MlGateway;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,22 +43,28 @@ class CallAnalysisControllerTest {
     @Mock
     private CallAnalysisService callAnalysisService;
 
-    @InjectMocks
-    private CallAnalysisController controller;
+    @Mock
+    private CallAnalysisJobService callAnalysisJobService;
 
+    private final MlGateway mlGateway = new MlGateway();
     private MockMvc mockMvc;
     private final ObjectMapper mapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new CallAnalysisController(callAnalysisService, mlGateway, callAnalysisJobService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mlGateway.shutdown();
     }
 
     @Test
     void analyzeCallRecord_shouldReturn400_whenNoFile() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "", "application/pdf", new byte[0]);
 
-        mockMvc.perform(multipart("/api/call-analysis/analyze").file(file))
+        performAsync(multipart("/api/call-analysis/analyze").file(file))
                 .andExpect(status().isBadRequest());
     }
 
@@ -51,7 +72,7 @@ class CallAnalysisControllerTest {
     void analyzeCallRecord_shouldReturn400_whenWrongType() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "abc".getBytes());
 
-        mockMvc.perform(multipart("/api/call-analysis/analyze").file(file))
+        performAsync(multipart("/api/call-analysis/analyze").file(file))
                 .andExpect(status().isBadRequest());
     }
 
@@ -60,13 +81,25 @@ class CallAnalysisControllerTest {
         MockMultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", "abc".getBytes());
         ObjectNode result = mapper.createObjectNode().put("status", "done");
 
-        when(callAnalysisService.analyzeCallRecord(any())).thenReturn(result);
+        when(callAnalysisService.analyzeCallRecord(any(MultipartFile.class))).thenReturn(result);
 
-        mockMvc.perform(multipart("/api/call-analysis/analyze").file(file))
+        performAsync(multipart("/api/call-analysis/analyze").file(file))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("done"));
     }
 
+    @Test
+    void analyzeCallRecord_shouldReturn503_whenServiceBusy() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", "abc".getBytes());
+
+        when(callAnalysisService.analyzeCallRecord(any(MultipartFile.class))).thenThrow(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "call-analysis is busy"));
+
+        performAsync(multipart("/api/call-analysis/analyze").file(file))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("call-analysis is busy"));
+    }
+
     @Test
     void analyzeBatch_shouldReturn400_whenEmpty() throws Exception {
         mockMvc.perform(multipart("/api/call-analysis/analyze/batch"))
@@ -81,11 +114,68 @@ class CallAnalysisControllerTest {
 
         when(callAnalysisService.analyzeBatch(anyList())).thenReturn(result);
 
-        mockMvc.perform(multipart("/api/call-analysis/analyze/batch").file(f1).file(f2))
+        performAsync(multipart("/api/call-analysis/analyze/batch").file(f1).file(f2))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.batch").value("ok"));
     }
 
+    @Test
+    void submitJob_shouldReturn202WithLocation_whenValid() throws Exception {
+        MockMultipartFile f1 = new MockMultipartFile("files", "a.pdf", "application/pdf", "abc".getBytes());
+        MockMultipartFile f2 = new MockMultipartFile("files", "b.pdf", "application/pdf", "def".getBytes());
+        CallAnalysisJobDTO job = new CallAnalysisJobDTO("job-1", CallAnalysisStatus.QUEUED, null, null, null,
+                2, 0, 0, List.of());
+
+        when(callAnalysisJobService.submit(anyList(), isNull())).thenReturn(job);
+
+        mockMvc.perform(multipart("/api/call-analysis/jobs").file(f1).file(f2))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/call-analysis/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    void submitJob_shouldReturn400_whenWrongType() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("files", "a.txt", "text/plain", "abc".getBytes());
+
+        mockMvc.perform(multipart("/api/call-analysis/jobs").file(file))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(callAnalysisJobService);
+    }
+
+    @Test
+    void submitJob_shouldReturn503_whenTooManyPending() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("files", "a.pdf", "application/pdf", "abc".getBytes());
+
+        when(callAnalysisJobService.submit(anyList(), isNull())).thenThrow(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many call records waiting"));
+
+        mockMvc.perform(multipart("/api/call-analysis/jobs").file(file))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Too many call records waiting"));
+    }
+
+    @Test
+    void getJob_shouldReturnJob_whenFound() throws Exception {
+        CallAnalysisJobDTO job = new CallAnalysisJobDTO("job-1", CallAnalysisStatus.RUNNING, null, null, null,
+                2, 1, 0, List.of());
+        when(callAnalysisJobService.getFor(eq("job-1"), isNull())).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/call-analysis/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.finished").value(1));
+    }
+
+    @Test
+    void getJob_shouldReturn404_whenUnknown() throws Exception {
+        when(callAnalysisJobService.getFor(eq("nope"), isNull())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/call-analysis/jobs/nope"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void health_shouldReturn200_whenHealthy() throws Exception {
         ObjectNode node = mapper.createObjectNode().put("status", "healthy");
@@ -103,4 +193,12 @@ class CallAnalysisControllerTest {
         mockMvc.perform(get("/api/call-analysis/health"))
                 .andExpect(status().isServiceUnavailable());
     }
-}
\ No newline at end of file
+
+    /** Perform a request to an async endpoint and dispatch its completed result. */
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -1,23 +1,27 @@
 package com.crimeLink.analyzer.controller;
 
 import com.crimeLink.analyzer.service.FacialRecognitionService;
+import com.crimeLink.analyzer.service.MlGateway;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,15 +32,13 @@ class FacialRecognitionControllerTest {
     @Mock
     private FacialRecognitionService facialRecognitionService;
 
-    @InjectMocks
-    private FacialRecognitionController controller;
-
+    private final MlGateway mlGateway = new MlGateway();
     private MockMvc mockMvc;
     private final ObjectMapper mapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new FacialRecognitionController(facialRecognitionService, mlGateway)).build();
         SecurityContextHolder.getContext().setAuthentication(
                 new TestingAuthenticationToken("user-1", null)
         );
@@ -45,13 +47,14 @@ class FacialRecognitionControllerTest {
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
+        mlGateway.shutdown();
     }
 
     @Test
     void analyzeImage_shouldReturn400_whenNoImage() throws Exception {
         MockMultipartFile image = new MockMultipartFile("image", "", "image/jpeg", new byte[0]);
 
-        mockMvc.perform(multipart("/api/facial/analyze").file(image))
+        performAsync(multipart("/api/facial/analyze").file(image))
                 .andExpect(status().isBadRequest());
     }
 
@@ -59,7 +62,7 @@ class FacialRecognitionControllerTest {
     void analyzeImage_shouldReturn400_whenWrongType() throws Exception {
         MockMultipartFile image = new MockMultipartFile("image", "a.txt", "text/plain", "abc".getBytes());
 
-        mockMvc.perform(multipart("/api/facial/analyze").file(image))
+        performAsync(multipart("/api/facial/analyze").file(image))
                 .andExpect(status().isBadRequest());
     }
 
@@ -67,7 +70,7 @@ class FacialRecognitionControllerTest {
     void analyzeImage_shouldReturn400_whenThresholdInvalid() throws Exception {
         MockMultipartFile image = new MockMultipartFile("image", "a.jpg", "image/jpeg", "abc".getBytes());
 
-        mockMvc.perform(multipart("/api/facial/analyze")
+        performAsync(multipart("/api/facial/analyze")
                         .file(image)
                         .param("threshold", "101"))
                 .andExpect(status().isBadRequest());
@@ -81,7 +84,7 @@ class FacialRecognitionControllerTest {
         when(facialRecognitionService.analyzeImage(any(), eq(45.0f), eq("unknown"), isNull()))
                 .thenReturn(result);
 
-        mockMvc.perform(multipart("/api/facial/analyze").file(image))
+        performAsync(multipart("/api/facial/analyze").file(image))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.match").value("ok"));
     }
@@ -90,7 +93,7 @@ class FacialRecognitionControllerTest {
     void registerCriminal_shouldReturn400_whenNameMissing() throws Exception {
         MockMultipartFile photo = new MockMultipartFile("photo", "a.jpg", "image/jpeg", "abc".getBytes());
 
-        mockMvc.perform(multipart("/api/facial/register")
+        performAsync(multipart("/api/facial/register")
                         .file(photo)
                         .param("name", "")
                         .param("nic", "123"))
@@ -101,7 +104,7 @@ class FacialRecognitionControllerTest {
     void registerCriminal_shouldReturn400_whenNicMissing() throws Exception {
         MockMultipartFile photo = new MockMultipartFile("photo", "a.jpg", "image/jpeg", "abc".getBytes());
 
-        mockMvc.perform(multipart("/api/facial/register")
+        performAsync(multipart("/api/facial/register")
                         .file(photo)
                         .param("name", "John")
                         .param("nic", ""))
@@ -117,7 +120,7 @@ class FacialRecognitionControllerTest {
                 any(), any(), eq("John"), eq("123"), any(), any(), any(), any(), any(), any(), any(), any(), any()
         )).thenReturn(result);
 
-        mockMvc.perform(multipart("/api/facial/register")
+        performAsync(multipart("/api/facial/register")
                         .file(photo)
                         .param("name", "John")
                         .param("nic", "123"))
@@ -130,7 +133,7 @@ class FacialRecognitionControllerTest {
         ObjectNode result = mapper.createObjectNode().put("count", 1);
         when(facialRecognitionService.getCriminals()).thenReturn(result);
 
-        mockMvc.perform(get("/api/facial/criminals"))
+        performAsync(get("/api/facial/criminals"))
                 .andExpect(status().isOk());
     }
 
@@ -139,7 +142,7 @@ class FacialRecognitionControllerTest {
         ObjectNode result = mapper.createObjectNode().put("history", "ok");
         when(facialRecognitionService.getRecognitionHistory(50)).thenReturn(result);
 
-        mockMvc.perform(get("/api/facial/history"))
+        performAsync(get("/api/facial/history"))
                 .andExpect(status().isOk());
     }
 
@@ -160,4 +163,12 @@ class FacialRecognitionControllerTest {
         mockMvc.perform(get("/api/facial/health"))
                 .andExpect(status().isServiceUnavailable());
     }
-}
\ No newline at end of file
+
+    /** Perform a request to an async endpoint and dispatch its completed result. */
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,67 @@
+package com.crimeLink.analyzer.controller;
+
+import com.crimeLink.analyzer.service.impl.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocalStorageControllerTest {
+
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend storage;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalStorageBackend(root.toString(), "", "secret");
+        storage.put("photos", "C1/p.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+        storage.put("crime-evidence", "R1/e.pdf", () -> new ByteArrayInputStream(ABC), 3, "application/pdf", false);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new LocalStorageController(storage, "photos", "weapon-photos")).build();
+    }
+
+    @Test
+    void getPublic_servesObjectWithItsContentType() throws Exception {
+        mockMvc.perform(get(storage.publicUrl("photos", "C1/p.jpg")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(ABC));
+    }
+
+    @Test
+    void getPublic_missingObject_returns404() throws Exception {
+        mockMvc.perform(get("/api/storage/public/photos/C1/none.jpg")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPublic_privateBucket_returns404AndIsOnlyServedSigned() throws Exception {
+        mockMvc.perform(get(storage.publicUrl("crime-evidence", "R1/e.pdf"))).andExpect(status().isNotFound());
+
+        mockMvc.perform(get(storage.sign("crime-evidence", "R1/e.pdf", 60)))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(ABC));
+    }
+
+    @Test
+    void getSigned_requiresValidSignature() throws Exception {
+        String url = storage.sign("photos", "C1/p.jpg", 60);
+
+        mockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(content().bytes(ABC));
+        mockMvc.perform(get(url.replace("C1/p.jpg", "C1/q.jpg"))).andExpect(status().isForbidden());
+        mockMvc.perform(get(storage.sign("photos", "C1/p.jpg", -1))).andExpect(status().isForbidden());
+    }
+}
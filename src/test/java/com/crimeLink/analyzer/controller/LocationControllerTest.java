@@ -0,0 +1,102 @@
+package com.crimeLink.analyzer.controller;
+
+import com.crimeLink.analyzer.dto.LocationIngestResult;
+import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.crimeLink.analyzer.entity.User;
+import com.crimeLink.analyzer.service.LocationStreamService;
+import com.crimeLink.analyzer.service.impl.LocationServiceImpl;
+import com.crimeLink.analyzer.util.LocationBatchCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
+class LocationControllerTest {
+
+    @InjectMocks
+    private LocationController controller;
+
+    @Mock
+    private LocationServiceImpl service;
+
+    @Mock
+    private LocationStreamService streamService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        User officer = new User();
+        officer.setRole("FieldOfficer");
+        officer.setBadgeNo("B-100");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(officer, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void uploadMyLocations_shouldAcceptBinaryBatch() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        LocationBatchCodec.encode(List.of(
+                new LocationPointDTO(Instant.parse("2026-01-01T08:00:00Z"), 6.9271, 79.8612, 5f, null, null, "gps", null),
+                new LocationPointDTO(Instant.parse("2026-01-01T08:00:05Z"), 6.9272, 79.8613, 5f, null, null, "gps", null)),
+                body);
+        when(service.saveBulk(eq("B-100"), anyList())).thenReturn(new LocationIngestResult(2, 0));
+
+        mockMvc.perform(post("/api/officers/me/locations/bulk")
+                        .contentType(LocationBatchCodec.MEDIA_TYPE)
+                        .content(body.toByteArray()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2));
+
+        verify(service).saveBulk(eq("B-100"), argThat(points -> points.size() == 2
+                && points.get(1).ts().equals(Instant.parse("2026-01-01T08:00:05Z"))));
+    }
+
+    @Test
+    void uploadMyLocations_shouldReturn400_whenBinaryBatchIsMalformed() throws Exception {
+        mockMvc.perform(post("/api/officers/me/locations/bulk")
+                        .contentType(LocationBatchCodec.MEDIA_TYPE)
+                        .content(new byte[] { 'C', 'L', 'L', 'B', 1, 5 }))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void uploadMyLocations_shouldStillAcceptJson() throws Exception {
+        when(service.saveBulk(eq("B-100"), anyList())).thenReturn(new LocationIngestResult(1, 0));
+
+        mockMvc.perform(post("/api/officers/me/locations/bulk")
+                        .contentType("application/json")
+                        .content("[{\"ts\":\"2026-01-01T08:00:00Z\",\"latitude\":6.9,\"longitude\":79.8}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(1));
+    }
+}
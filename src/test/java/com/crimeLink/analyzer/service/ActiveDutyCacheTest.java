@@ -0,0 +1,39 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.ActiveDutyDTO;
+import com.crimeLink.analyzer.repository.DutyScheduleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ActiveDutyCacheTest {
+
+    private final DutyScheduleRepository dutyRepo = mock(DutyScheduleRepository.class);
+    private final ActiveDutyCache cache = new ActiveDutyCache(dutyRepo, ZoneId.of("Asia/Colombo"),
+            Clock.fixed(Instant.parse("2026-01-02T01:00:00Z"), ZoneId.of("UTC")));
+
+    @Test
+    void find_shouldResolveDayAndOvernightShiftsInDutyTimeZone() {
+        when(dutyRepo.findDutiesForGeofencing(eq(LocalDate.of(2026, 1, 1)), eq(LocalDate.of(2026, 1, 2)), any()))
+                .thenReturn(List.of(
+                        new ActiveDutyDTO(1L, "B-1", "Matara", "22:00-06:00", LocalDate.of(2026, 1, 1)),
+                        new ActiveDutyDTO(2L, "B-1", "Galle", "08:00 - 12:00", LocalDate.of(2026, 1, 2)),
+                        new ActiveDutyDTO(3L, "B-2", "Weligama", null, LocalDate.of(2026, 1, 2))));
+        cache.refresh();
+
+        // 05:59 and 06:00 Colombo time (UTC+5:30) on 2 Jan
+        assertEquals(1L, cache.find("B-1", Instant.parse("2026-01-02T00:29:00Z")).dutyId());
+        assertNull(cache.find("B-1", Instant.parse("2026-01-02T00:30:00Z")));
+        assertEquals(2L, cache.find("B-1", Instant.parse("2026-01-02T03:00:00Z")).dutyId());
+        assertEquals(3L, cache.find("B-2", Instant.parse("2026-01-02T18:00:00Z")).dutyId());
+        assertNull(cache.find("B-3", Instant.parse("2026-01-02T03:00:00Z")));
+    }
+}
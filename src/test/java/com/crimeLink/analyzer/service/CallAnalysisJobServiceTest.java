@@ -0,0 +1,300 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.CallAnalysisJobDTO;
+import com.crimeLink.analyzer.entity.CallAnalysisJob;
+import com.crimeLink.analyzer.entity.CallAnalysisJobFile;
+import com.crimeLink.analyzer.enums.CallAnalysisStatus;
+import com.crimeLink.analyzer.repository.CallAnalysisJobFileRepository;
+import com.crimeLink.analyzer.repository.CallAnalysisJobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CallAnalysisJobServiceTest {
+
+    private final CallAnalysisService callAnalysisService = mock(CallAnalysisService.class);
+    private final CallAnalysisJobRepository jobRepository = mock(CallAnalysisJobRepository.class);
+    private final CallAnalysisJobFileRepository fileRepository = mock(CallAnalysisJobFileRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Stand-in for the tables; entities are updated in place like managed ones. */
+    private final Map<String, CallAnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final List<CallAnalysisJobFile> files = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path spool;
+
+    private CallAnalysisJobService service;
+
+    @BeforeEach
+    void setUp() {
+        when(jobRepository.save(any())).thenAnswer(inv -> {
+            CallAnalysisJob job = inv.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(jobRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(jobs.get(inv.getArgument(0))));
+        when(jobRepository.updateStatus(anyString(), any(), any())).thenAnswer(inv -> {
+            CallAnalysisJob job = jobs.get(inv.getArgument(0));
+            if (job == null || job.getStatus() != inv.getArgument(1)) {
+                return 0;
+            }
+            job.setStatus(inv.getArgument(2));
+            return 1;
+        });
+        when(jobRepository.markFinished(anyString(), any(), any())).thenAnswer(inv -> {
+            CallAnalysisJob job = jobs.get(inv.getArgument(0));
+            synchronized (this) {
+                if (job == null || job.getFinishedAt() != null) {
+                    return 0;
+                }
+                job.setStatus(inv.getArgument(1));
+                job.setFinishedAt(inv.getArgument(2));
+                return 1;
+            }
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(fileRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<CallAnalysisJobFile> rows = inv.getArgument(0);
+            files.addAll(rows);
+            return rows;
+        });
+        when(fileRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(fileRepository.findByJobIdOrderByFileIndex(anyString())).thenAnswer(inv -> files.stream()
+                .filter(f -> f.getJobId().equals(inv.getArgument(0)))
+                .toList());
+        when(fileRepository.countByJobIdAndStatusIn(anyString(), anyCollection())).thenAnswer(inv -> {
+            Collection<CallAnalysisStatus> statuses = inv.getArgument(1);
+            return files.stream()
+                    .filter(f -> f.getJobId().equals(inv.getArgument(0)) && statuses.contains(f.getStatus()))
+                    .count();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private CallAnalysisJobService newService(int maxPendingFiles) {
+        return newService(maxPendingFiles, 5_000);
+    }
+
+    private CallAnalysisJobService newService(int maxPendingFiles, long retryForMs) {
+        service = new CallAnalysisJobService(callAnalysisService, jobRepository, fileRepository, transactionTemplate,
+                new SimpleMeterRegistry(), spool.toString(), 2, maxPendingFiles, 1, retryForMs, 60_000, 7);
+        return service;
+    }
+
+    private static MockMultipartFile pdf(String name) {
+        return new MockMultipartFile("files", name, "application/pdf", name.getBytes());
+    }
+
+    private CallAnalysisJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            CallAnalysisJobDTO job = service.get(jobId).orElseThrow();
+            if (job.finishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job did not finish");
+        return null;
+    }
+
+    @Test
+    void submit_shouldAnalyseEveryFileAndCompleteJob() throws Exception {
+        JsonNode result = mapper.createObjectNode().put("status", "done");
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenReturn(result);
+
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf"), pdf("b.pdf")), "officer@example.com");
+
+        assertEquals(CallAnalysisStatus.QUEUED, submitted.status());
+        assertEquals(2, submitted.total());
+        assertEquals("officer@example.com", submitted.submittedBy());
+
+        CallAnalysisJobDTO done = awaitFinished(submitted.id());
+        assertEquals(CallAnalysisStatus.COMPLETED, done.status());
+        assertEquals(2, done.finished());
+        assertEquals(0, done.failed());
+        assertTrue(done.files().stream().allMatch(f -> "done".equals(f.result().get("status").asText())));
+        assertFalse(Files.exists(spool.resolve(submitted.id())), "spooled uploads should be removed");
+    }
+
+    @Test
+    void submit_shouldRecordFailedFileWithoutFailingOthers() throws Exception {
+        JsonNode result = mapper.createObjectNode().put("status", "done");
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenAnswer(inv -> {
+            Resource pdf = inv.getArgument(0);
+            if ("bad.pdf".equals(pdf.getFilename())) {
+                throw new IllegalStateException("Unreadable PDF");
+            }
+            return result;
+        });
+
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("good.pdf"), pdf("bad.pdf")), null);
+
+        CallAnalysisJobDTO done = awaitFinished(submitted.id());
+        assertEquals(CallAnalysisStatus.COMPLETED, done.status());
+        assertEquals(2, done.finished());
+        assertEquals(1, done.failed());
+        assertEquals(CallAnalysisStatus.COMPLETED, done.files().get(0).status());
+        assertEquals(CallAnalysisStatus.FAILED, done.files().get(1).status());
+        assertEquals("Unreadable PDF", done.files().get(1).error());
+    }
+
+    @Test
+    void submit_shouldRetryWhileServiceRefusesCalls() throws Exception {
+        JsonNode result = mapper.createObjectNode().put("status", "done");
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "call-analysis is busy"))
+                .thenReturn(result);
+
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf")), null);
+
+        CallAnalysisJobDTO done = awaitFinished(submitted.id());
+        assertEquals(0, done.failed());
+        assertEquals(2, files.get(0).getAttempts());
+    }
+
+    @Test
+    void submit_shouldKeepRetryingThroughAnOutage_untilTheServiceRecovers() throws Exception {
+        ResponseStatusException open = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "call-analysis is temporarily unavailable");
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class)))
+                .thenThrow(open, open, open, open, open, open, open, open)
+                .thenReturn(mapper.createObjectNode());
+
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf")), null);
+
+        CallAnalysisJobDTO done = awaitFinished(submitted.id());
+        assertEquals(0, done.failed());
+        assertEquals(9, files.get(0).getAttempts());
+    }
+
+    @Test
+    void submit_shouldFailFile_whenRefusedForTheWholeRetryPeriod() throws Exception {
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "call-analysis is busy"));
+
+        CallAnalysisJobDTO submitted = newService(10, 50).submit(List.of(pdf("a.pdf")), null);
+
+        CallAnalysisJobDTO done = awaitFinished(submitted.id());
+        assertEquals(1, done.failed());
+        assertEquals("call-analysis is busy", done.files().get(0).error());
+        assertTrue(files.get(0).getAttempts() > 1);
+    }
+
+    @Test
+    void submit_shouldReturn503_whenTooManyFilesPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenAnswer(inv -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return mapper.createObjectNode();
+        });
+        newService(2).submit(List.of(pdf("a.pdf"), pdf("b.pdf")), null);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.submit(List.of(pdf("c.pdf")), null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(1, jobs.size());
+        release.countDown();
+    }
+
+    @Test
+    void finish_shouldLeaveCompletionToWorkerWhoseUpdateLanded() throws Exception {
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenReturn(mapper.createObjectNode());
+        // Another worker already completed the job
+        when(jobRepository.markFinished(anyString(), any(), any())).thenReturn(0);
+
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf")), null);
+
+        verify(jobRepository, timeout(5_000)).markFinished(eq(submitted.id()), eq(CallAnalysisStatus.COMPLETED), any());
+        assertTrue(Files.exists(spool.resolve(submitted.id())), "only the completing worker cleans up the job");
+        assertNull(jobs.get(submitted.id()).getFinishedAt());
+    }
+
+    @Test
+    void subscribe_shouldNotRegisterFollowers_whenJobFinished() throws Exception {
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenReturn(mapper.createObjectNode());
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf")), "officer@example.com");
+        awaitFinished(submitted.id());
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(service.subscribe(submitted.id(), "officer@example.com"));
+        }
+
+        assertEquals(0, service.followedJobs());
+    }
+
+    @Test
+    void resume_shouldCompleteJobsStoppedAfterTheirLastFile() throws Exception {
+        jobs.put("job-1", new CallAnalysisJob("job-1", CallAnalysisStatus.RUNNING, null, 1, Instant.now(), null));
+        files.add(new CallAnalysisJobFile(1L, "job-1", 0, "a.pdf", CallAnalysisStatus.COMPLETED, 1,
+                mapper.createObjectNode(), null, Instant.now()));
+        Files.createDirectories(spool.resolve("job-1"));
+        when(jobRepository.findUnfinishedIdsWithoutFilesIn(anyCollection())).thenReturn(List.of("job-1"));
+
+        newService(10).resume();
+
+        assertEquals(CallAnalysisStatus.COMPLETED, jobs.get("job-1").getStatus());
+        assertNotNull(jobs.get("job-1").getFinishedAt());
+        assertFalse(Files.exists(spool.resolve("job-1")));
+        verify(callAnalysisService, never()).analyzeCallRecord(any(Resource.class));
+    }
+
+    @Test
+    void subscribe_shouldReturn404_whenJobUnknown() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> newService(10).subscribe("missing", "officer@example.com"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void jobs_shouldOnlyBeVisibleToTheirSubmitter() {
+        when(callAnalysisService.analyzeCallRecord(any(Resource.class))).thenReturn(mapper.createObjectNode());
+        CallAnalysisJobDTO submitted = newService(10).submit(List.of(pdf("a.pdf")), "officer@example.com");
+
+        assertTrue(service.getFor(submitted.id(), "officer@example.com").isPresent());
+        assertTrue(service.getFor(submitted.id(), "other@example.com").isEmpty());
+        assertTrue(service.getFor(submitted.id(), null).isEmpty());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.subscribe(submitted.id(), "other@example.com"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+}
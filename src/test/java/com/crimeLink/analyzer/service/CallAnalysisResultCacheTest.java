@@ -0,0 +1,208 @@
+package com.crimeLink.analyzer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.crimeLink.analyzer.entity.CallAnalysisResult;
+import com.crimeLink.analyzer.repository.CallAnalysisResultRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CallAnalysisResultCacheTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+
+    @Mock
+    private CallAnalysisResultRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger analyses = new AtomicInteger();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void missAnalysesAndStoresInBothTiers() {
+        CallAnalysisResultCache cache = cache(10, 1);
+
+        JsonNode result = cache.getOrAnalyze(HASH_A, () -> analysis("a"));
+
+        assertEquals("a", result.get("file").asText());
+        ArgumentCaptor<CallAnalysisResult> saved = ArgumentCaptor.forClass(CallAnalysisResult.class);
+        verify(repository).save(saved.capture());
+        assertEquals(HASH_A, saved.getValue().getContentHash());
+        assertEquals("1", saved.getValue().getModelVersion());
+        assertEquals(result, saved.getValue().getResult());
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void memoryHitSkipsAnalysisAndDatabase() {
+        CallAnalysisResultCache cache = cache(10, 1);
+        JsonNode first = cache.getOrAnalyze(HASH_A, () -> analysis("a"));
+
+        JsonNode second = cache.getOrAnalyze(HASH_A, () -> analysis("other"));
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, analyses.get());
+        verify(repository).findById(HASH_A);
+        assertEquals(1, count("memory"));
+    }
+
+    @Test
+    void databaseHitIsPromotedToMemory() {
+        CallAnalysisResultCache cache = cache(10, 1);
+        when(repository.findById(HASH_A)).thenReturn(Optional.of(
+                new CallAnalysisResult(HASH_A, "1", analysisNode("stored"), Instant.now())));
+
+        assertEquals("stored", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+        assertEquals("stored", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+
+        assertEquals(0, analyses.get());
+        verify(repository).findById(HASH_A);
+        verify(repository, never()).save(any());
+        assertEquals(1, count("database"));
+    }
+
+    @Test
+    void resultOfAnotherVersionIsAnalysedAgain() {
+        CallAnalysisResultCache cache = cache(10, 1);
+        when(repository.findById(HASH_A)).thenReturn(Optional.of(
+                new CallAnalysisResult(HASH_A, "0", analysisNode("old"), Instant.now())));
+
+        assertEquals("a", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+        verify(repository).save(any());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        CallAnalysisResultCache cache = cache(2, 1);
+        cache.getOrAnalyze(HASH_A, () -> analysis("a"));
+        cache.getOrAnalyze(HASH_B, () -> analysis("b"));
+        cache.getOrAnalyze(HASH_A, () -> analysis("a"));
+        cache.getOrAnalyze(HASH_C, () -> analysis("c"));
+
+        cache.getOrAnalyze(HASH_A, () -> analysis("a"));
+        cache.getOrAnalyze(HASH_B, () -> analysis("b"));
+
+        assertEquals(4, analyses.get());
+        assertEquals(2, meterRegistry.get("call.analysis.cache.evictions").counter().count());
+        assertEquals(2, meterRegistry.get("call.analysis.cache.entries").gauge().value());
+    }
+
+    @Test
+    void evictsBeyondMaxMemory() {
+        CallAnalysisResultCache cache = cache(10, 1);
+        String half = "x".repeat(600 * 1024);
+        cache.getOrAnalyze(HASH_A, () -> analysis(half));
+        cache.getOrAnalyze(HASH_B, () -> analysis(half));
+
+        cache.getOrAnalyze(HASH_A, () -> analysis(half));
+
+        assertEquals(3, analyses.get());
+        assertEquals(1, meterRegistry.get("call.analysis.cache.entries").gauge().value());
+    }
+
+    @Test
+    void failedAnalysisIsNotCached() {
+        CallAnalysisResultCache cache = cache(10, 1);
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrAnalyze(HASH_A, () -> {
+            throw new IllegalStateException("ML down");
+        }));
+
+        assertEquals("a", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+        verify(repository).save(any());
+    }
+
+    @Test
+    void databaseFailureFallsBackToAnalysis() {
+        CallAnalysisResultCache cache = cache(10, 1);
+        when(repository.findById(HASH_A)).thenThrow(new DataAccessResourceFailureException("db down"));
+        when(repository.save(any())).thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertEquals("a", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+        assertEquals("a", cache.getOrAnalyze(HASH_A, () -> analysis("a")).get("file").asText());
+
+        assertEquals(1, analyses.get());
+    }
+
+    @Test
+    @Timeout(10)
+    void concurrentRequestsShareOneAnalysis() throws Exception {
+        CallAnalysisResultCache cache = cache(10, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<JsonNode> first = callers.submit(() -> cache.getOrAnalyze(HASH_A, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return analysis("a");
+        }));
+        assertEquals(true, started.await(5, TimeUnit.SECONDS));
+        Future<JsonNode> second = callers.submit(() -> cache.getOrAnalyze(HASH_A, () -> analysis("other")));
+        while (meterRegistry.get("call.analysis.cache.requests").tag("result", "shared").counter().count() < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("a", first.get().get("file").asText());
+        assertEquals("a", second.get().get("file").asText());
+        assertEquals(1, analyses.get());
+    }
+
+    private CallAnalysisResultCache cache(int maxEntries, long maxMemoryMb) {
+        return new CallAnalysisResultCache(repository, meterRegistry, "1", maxEntries, maxMemoryMb);
+    }
+
+    private JsonNode analysis(String file) {
+        analyses.incrementAndGet();
+        return analysisNode(file);
+    }
+
+    private ObjectNode analysisNode(String file) {
+        return mapper.createObjectNode().put("file", file);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("call.analysis.cache.requests").tag("result", result).counter().count();
+    }
+}
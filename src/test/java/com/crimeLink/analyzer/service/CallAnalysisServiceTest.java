@@ -1,6 +1,12 @@
 package com.crimeLink.analyzer.service;
 
+import com.crimeLink.analyzer.config.HttpClientProperties;
+import com.crimeLink.analyzer.config.MlServiceProperties;
+import com.crimeLink.analyzer.config.RestTemplateConfig;
+import com.crimeLink.analyzer.repository.CallAnalysisResultRepository;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,14 +17,25 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,11 +44,14 @@ class CallAnalysisServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private CallAnalysisResultRepository resultRepository;
+
     private CallAnalysisService service;
 
     @BeforeEach
     void setUp() {
-        service = new CallAnalysisService(restTemplate);
+        service = newService(restTemplate, new SimpleMeterRegistry());
         ReflectionTestUtils.setField(service, "callAnalysisServiceUrl", "http://localhost:5001");
     }
 
@@ -51,6 +71,26 @@ class CallAnalysisServiceTest {
         assertEquals("ok", result.get("result").asText());
     }
 
+    @Test
+    void analyzeCallRecord_shouldAnswerResubmittedFileFromCache() {
+        when(restTemplate.exchange(
+                eq("http://localhost:5001/analyze"),
+                eq(HttpMethod.POST),
+                any(HttpEntity.class),
+                eq(String.class)
+        )).thenReturn(ResponseEntity.ok("{\"result\":\"ok\"}"));
+
+        JsonNode first = service.analyzeCallRecord(
+                new MockMultipartFile("file", "a.pdf", "application/pdf", "same".getBytes()));
+        JsonNode second = service.analyzeCallRecord(
+                new MockMultipartFile("file", "renamed.pdf", "application/pdf", "same".getBytes()));
+
+        assertEquals(first, second);
+        verify(restTemplate, times(1)).exchange(
+                anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        verify(resultRepository).save(any());
+    }
+
     @Test
     void analyzeCallRecord_shouldThrow_whenRestFails() {
         MockMultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", "abc".getBytes());
@@ -65,6 +105,48 @@ class CallAnalysisServiceTest {
         assertThrows(RuntimeException.class, () -> service.analyzeCallRecord(file));
     }
 
+    @Test
+    void analyzeCallRecord_shouldFailFast_onceServiceKeepsTimingOut() {
+        MockMultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", "abc".getBytes());
+
+        when(restTemplate.exchange(
+                eq("http://localhost:5001/analyze"),
+                eq(HttpMethod.POST),
+                any(HttpEntity.class),
+                eq(String.class)
+        )).thenThrow(new ResourceAccessException("Connect timed out"));
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RuntimeException.class, () -> service.analyzeCallRecord(file));
+        }
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.analyzeCallRecord(file));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        verify(restTemplate, times(10)).exchange(
+                anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    void checkHealth_shouldLetCallsThroughOpenBreaker_whenHealthy() {
+        MockMultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", "abc".getBytes());
+
+        doThrow(new ResourceAccessException("Connect timed out")).when(restTemplate).exchange(
+                eq("http://localhost:5001/analyze"), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RuntimeException.class, () -> service.analyzeCallRecord(file));
+        }
+        assertThrows(ResponseStatusException.class, () -> service.analyzeCallRecord(file));
+
+        when(restTemplate.getForEntity("http://localhost:5001/health", String.class))
+                .thenReturn(ResponseEntity.ok("{\"status\":\"healthy\"}"));
+        doReturn(ResponseEntity.ok("{\"result\":\"ok\"}")).when(restTemplate).exchange(
+                eq("http://localhost:5001/analyze"), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        service.checkHealth();
+
+        assertEquals("ok", service.analyzeCallRecord(file).get("result").asText());
+    }
+
     @Test
     void analyzeBatch_shouldReturnJson() {
         MockMultipartFile f1 = new MockMultipartFile("files", "a.pdf", "application/pdf", "abc".getBytes());
@@ -81,6 +163,44 @@ class CallAnalysisServiceTest {
         assertEquals("ok", result.get("batch").asText());
     }
 
+    @Test
+    void analyzeBatch_streamsUploadsWithoutCopyingThem() throws Exception {
+        AtomicReference<String> transferEncoding = new AtomicReference<>();
+        AtomicReference<String> received = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/analyze/batch", exchange -> {
+            transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            received.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1));
+            byte[] response = "{\"batch\":\"ok\"}".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestTemplateConfig http = new RestTemplateConfig(new HttpClientProperties(), meterRegistry);
+        try {
+            CallAnalysisService streaming = newService(http.callAnalysisRestTemplate(), meterRegistry);
+            ReflectionTestUtils.setField(streaming, "callAnalysisServiceUrl",
+                    "http://127.0.0.1:" + server.getAddress().getPort());
+            MockMultipartFile a = spy(new MockMultipartFile("files", "a.pdf", "application/pdf", "%PDF-a".getBytes()));
+            MockMultipartFile b = spy(new MockMultipartFile("files", "b.pdf", "application/pdf", "%PDF-b".getBytes()));
+
+            JsonNode result = streaming.analyzeBatch(List.of(a, b));
+
+            assertEquals("ok", result.get("batch").asText());
+            assertEquals("chunked", transferEncoding.get());
+            assertTrue(received.get().contains("filename=\"a.pdf\""));
+            assertTrue(received.get().contains("%PDF-a"));
+            assertTrue(received.get().contains("%PDF-b"));
+            verify(a, never()).getBytes();
+            verify(b, never()).getBytes();
+        } finally {
+            http.close();
+            server.stop(0);
+        }
+    }
+
     @Test
     void checkHealth_shouldReturnHealthyNode() {
         when(restTemplate.getForEntity("http://localhost:5001/health", String.class))
@@ -100,4 +220,9 @@ class CallAnalysisServiceTest {
 
         assertEquals("unhealthy", result.get("status").asText());
     }
-}
\ No newline at end of file
+
+    private CallAnalysisService newService(RestTemplate template, SimpleMeterRegistry meterRegistry) {
+        return new CallAnalysisService(template, meterRegistry, new MlServiceProperties(),
+                new CallAnalysisResultCache(resultRepository, meterRegistry, "1", 100, 16));
+    }
+}
@@ -0,0 +1,85 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeClusterDTO;
+import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CrimeClusterIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    private final CrimeReportRepository repo = mock(CrimeReportRepository.class);
+    private CrimeSpatialIndex spatialIndex;
+    private CrimeClusterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repo.findCrimeLocations()).thenReturn(List.of(
+                new CrimeLocationDTO(1L, 6.9271, 79.8612, CrimeType.THEFT, DAY),
+                new CrimeLocationDTO(2L, 6.9281, 79.8622, CrimeType.THEFT, DAY.minusDays(5)),
+                new CrimeLocationDTO(3L, 6.9291, 79.8632, CrimeType.ASSAULT, DAY),
+                new CrimeLocationDTO(4L, 7.2906, 80.6337, CrimeType.THEFT, DAY)));
+        spatialIndex = new CrimeSpatialIndex(repo, 0.01);
+        spatialIndex.warm();
+        index = new CrimeClusterIndex(spatialIndex, 18, 2);
+        index.warm();
+    }
+
+    @Test
+    void clusters_shouldGroupNearbyReportsAtLowZoom() {
+        List<CrimeClusterDTO> clusters = index.clusters(6, null, null, null, null);
+
+        assertEquals(2, clusters.size());
+        CrimeClusterDTO colombo = clusters.stream().filter(c -> c.count() == 3).findFirst().orElseThrow();
+        assertEquals(8, colombo.zoom());
+        assertEquals(8, colombo.quadkey().length());
+        assertEquals(6.9281, colombo.latitude(), 1e-9);
+        assertEquals(79.8622, colombo.longitude(), 1e-9);
+        assertEquals(Map.of(CrimeType.THEFT, 2, CrimeType.ASSAULT, 1), colombo.countsByType());
+    }
+
+    @Test
+    void clusters_shouldSplitAtHighZoomAndHonourViewportAndType() {
+        BoundingBox colombo = new BoundingBox(6.90, 79.80, 6.95, 79.90);
+
+        assertEquals(3, index.clusters(16, colombo, null, null, null).size());
+        List<CrimeClusterDTO> thefts = index.clusters(6, colombo, Set.of(CrimeType.THEFT), null, null);
+        assertEquals(1, thefts.size());
+        assertEquals(2, thefts.get(0).count());
+    }
+
+    @Test
+    void clusters_shouldAggregateOnTheFlyWhenFilteredByDate() {
+        List<CrimeClusterDTO> clusters = index.clusters(6, null, null, DAY, DAY);
+
+        assertEquals(List.of(2, 1), clusters.stream().map(CrimeClusterDTO::count).sorted((a, b) -> b - a).toList());
+    }
+
+    @Test
+    void onReportSaved_shouldUpdateAggregatesAndUndoPreviousPosition() {
+        index.onReportSaved(new CrimeReportSavedEvent(new CrimeReport(5L, 6.9275, 79.8615, "x", DAY,
+                LocalTime.NOON, CrimeType.ROBBERY, null)));
+        index.onReportSaved(new CrimeReportSavedEvent(new CrimeReport(4L, 6.9276, 79.8616, "moved", DAY,
+                LocalTime.NOON, CrimeType.THEFT, null)));
+
+        List<CrimeClusterDTO> clusters = index.clusters(0, null, null, null, null);
+        assertEquals(1, clusters.size());
+        assertEquals(5, clusters.get(0).count());
+        assertEquals(1, index.clusters(6, null, null, null, null).size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.CrimeHeatmapTileDTO;
+import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import com.crimeLink.analyzer.util.TileMath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CrimeHeatmapServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+    private static final int Z = 12;
+
+    private final CrimeReportRepository repo = mock(CrimeReportRepository.class);
+    private CrimeSpatialIndex spatialIndex;
+    private CrimeHeatmapService heatmap;
+    private int x;
+    private int y;
+
+    @BeforeEach
+    void setUp() {
+        when(repo.findCrimeLocations()).thenReturn(List.of(
+                new CrimeLocationDTO(1L, 6.9271, 79.8612, CrimeType.THEFT, DAY),
+                new CrimeLocationDTO(2L, 6.9271, 79.8612, CrimeType.ASSAULT, DAY.minusDays(3)),
+                new CrimeLocationDTO(3L, 6.9400, 79.8750, CrimeType.THEFT, DAY),
+                new CrimeLocationDTO(4L, 7.2906, 80.6337, CrimeType.THEFT, DAY)));
+        spatialIndex = spy(new CrimeSpatialIndex(repo, 0.01));
+        spatialIndex.warm();
+        heatmap = new CrimeHeatmapService(spatialIndex, new SimpleMeterRegistry(), 16, 18, 100);
+        x = TileMath.tileX(79.8612, Z);
+        y = TileMath.tileY(6.9271, Z);
+    }
+
+    @Test
+    void tile_shouldBinReportsInsideTile() {
+        CrimeHeatmapTileDTO tile = heatmap.tile(Z, x, y, null, null, null);
+
+        assertEquals(16, tile.size());
+        assertEquals(3, tile.total());
+        assertEquals(2, tile.max());
+        assertEquals(3, Arrays.stream(tile.counts()).sum());
+    }
+
+    @Test
+    void tile_shouldApplyFilters() {
+        assertEquals(2, heatmap.tile(Z, x, y, Set.of(CrimeType.THEFT), null, null).total());
+        assertEquals(1, heatmap.tile(Z, x, y, null, DAY.minusDays(5), DAY.minusDays(1)).total());
+        assertEquals(4, heatmap.tile(0, 0, 0, null, null, null).total());
+    }
+
+    @Test
+    void tile_shouldServeRepeatsFromCache() {
+        CrimeHeatmapTileDTO first = heatmap.tile(Z, x, y, null, null, null);
+        CrimeHeatmapTileDTO second = heatmap.tile(Z, x, y, null, null, null);
+
+        assertSame(first, second);
+        verify(spatialIndex, times(1)).query(any(), any(), any(), any());
+    }
+
+    @Test
+    void onReportSaved_shouldEvictOnlyTilesContainingReport() {
+        int kandyX = TileMath.tileX(80.6337, Z);
+        int kandyY = TileMath.tileY(7.2906, Z);
+        heatmap.tile(Z, x, y, null, null, null);
+        heatmap.tile(Z, x, y, Set.of(CrimeType.THEFT), null, null);
+        heatmap.tile(Z, kandyX, kandyY, null, null, null);
+        assertEquals(3, heatmap.cachedTiles());
+
+        CrimeReport report = new CrimeReport(5L, 6.9280, 79.8620, "x", DAY, LocalTime.NOON, CrimeType.THEFT, null);
+        spatialIndex.onReportSaved(new CrimeReportSavedEvent(report));
+        heatmap.onReportSaved(new CrimeReportSavedEvent(report));
+
+        assertEquals(1, heatmap.cachedTiles());
+        assertEquals(4, heatmap.tile(Z, x, y, null, null, null).total());
+    }
+
+    @Test
+    void tile_shouldRejectTilesOutsideZoom() {
+        assertThrows(IllegalArgumentException.class, () -> heatmap.tile(2, 4, 0, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> heatmap.tile(19, 0, 0, null, null, null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.CrimeHotspotDTO;
+import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CrimeHotspotServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+    /** Degrees of latitude per 10 m. */
+    private static final double TEN_M = 10 / 111_195.0;
+
+    private final CrimeReportRepository repo = mock(CrimeReportRepository.class);
+    private CrimeSpatialIndex spatialIndex;
+    private CrimeHotspotService service;
+
+    @BeforeEach
+    void setUp() {
+        List<CrimeLocationDTO> rows = new ArrayList<>();
+        long id = 1;
+        // Pettah: a 3 x 3 block of thefts 10 m apart, plus an assault.
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                rows.add(new CrimeLocationDTO(id++, 6.9360 + i * TEN_M, 79.8500 + j * TEN_M, CrimeType.THEFT, DAY));
+            }
+        }
+        rows.add(new CrimeLocationDTO(id++, 6.9360 + TEN_M, 79.8500 + TEN_M, CrimeType.ASSAULT, DAY));
+        // Kandy: five robberies a month earlier.
+        for (int i = 0; i < 5; i++) {
+            rows.add(new CrimeLocationDTO(id++, 7.2906 + i * TEN_M, 80.6337, CrimeType.ROBBERY, DAY.minusDays(30)));
+        }
+        // Isolated report.
+        rows.add(new CrimeLocationDTO(id, 6.0535, 80.2210, CrimeType.FRAUD, DAY));
+        when(repo.findCrimeLocations()).thenReturn(rows);
+        spatialIndex = spy(new CrimeSpatialIndex(repo, 0.01));
+        spatialIndex.warm();
+        service = new CrimeHotspotService(spatialIndex, new SimpleMeterRegistry(), 50, 4, 8, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void hotspots_shouldReturnClustersLargestFirstWithHullAndBreakdown() {
+        List<CrimeHotspotDTO> hotspots = service.hotspots(null, null, null, null, null);
+
+        assertEquals(2, hotspots.size());
+        CrimeHotspotDTO pettah = hotspots.get(0);
+        assertEquals(10, pettah.count());
+        assertEquals(Map.of(CrimeType.THEFT, 9, CrimeType.ASSAULT, 1), pettah.countsByType());
+        assertEquals(4, pettah.polygon().size());
+        assertEquals(6.9360 + TEN_M, pettah.latitude(), 1e-6);
+        assertEquals(5, hotspots.get(1).count());
+    }
+
+    @Test
+    void hotspots_shouldApplyWindowAndTypeFilters() {
+        assertEquals(1, service.hotspots(DAY.minusDays(1), DAY, null, null, null).size());
+        List<CrimeHotspotDTO> robberies = service.hotspots(null, null, Set.of(CrimeType.ROBBERY), null, null);
+        assertEquals(1, robberies.size());
+        assertEquals(7.2906 + 2 * TEN_M, robberies.get(0).latitude(), 1e-6);
+    }
+
+    @Test
+    void hotspots_shouldReuseCachedClusteringAndAddNewReports() {
+        service.hotspots(DAY.minusDays(1), DAY, null, null, null);
+        for (int i = 0; i < 4; i++) {
+            CrimeReport report = new CrimeReport(100L + i, 6.0535 + i * TEN_M, 80.2210, "x", DAY, LocalTime.NOON,
+                    CrimeType.FRAUD, null);
+            spatialIndex.onReportSaved(new CrimeReportSavedEvent(report));
+            service.onReportSaved(new CrimeReportSavedEvent(report));
+        }
+
+        List<CrimeHotspotDTO> hotspots = service.hotspots(DAY.minusDays(1), DAY, null, null, null);
+
+        assertEquals(2, hotspots.size());
+        assertEquals(Map.of(CrimeType.FRAUD, 5), hotspots.get(1).countsByType());
+        verify(spatialIndex, times(1)).query(isNull(), isNull(), eq(DAY.minusDays(1)), eq(DAY));
+    }
+
+    @Test
+    void hotspots_shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> service.hotspots(null, null, null, 0.0, null));
+        assertThrows(IllegalArgumentException.class, () -> service.hotspots(null, null, null, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> service.hotspots(DAY, DAY.minusDays(1), null, null, null));
+    }
+}
@@ -0,0 +1,108 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeReportDTO;
+import com.crimeLink.analyzer.dto.CrimeReportPageDTO;
+import com.crimeLink.analyzer.dto.CrimeReportSummaryDTO;
+import com.crimeLink.analyzer.dto.EvidenceDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.entity.Evidence;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CrimeReportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    @Mock
+    private CrimeReportRepository crimeReportRepository;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @InjectMocks
+    private CrimeReportService service;
+
+    private static List<CrimeReportSummaryDTO> rows(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> new CrimeReportSummaryDTO(id, 6.9, 79.8, "report " + id, DAY,
+                LocalTime.NOON, CrimeType.THEFT)).toList();
+    }
+
+    @Test
+    void getCrimeReportPage_shouldReturnCursorWhenMoreRowsExist() {
+        when(crimeReportRepository.findPageAfter(eq(EnumSet.allOf(CrimeType.class)), any(), any(), eq(-90.0),
+                eq(90.0), eq(-180.0), eq(180.0), any(), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 3))))
+                .thenReturn(rows(30, 29, 28));
+
+        CrimeReportPageDTO page = service.getCrimeReportPage(null, 2, null, null, null, null);
+
+        assertEquals(List.of(30L, 29L), page.items().stream().map(CrimeReportSummaryDTO::reportId).toList());
+        assertNotNull(page.nextCursor());
+
+        when(crimeReportRepository.findPageAfter(any(), any(), any(), anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), eq(DAY), eq(29L), eq(PageRequest.of(0, 3)))).thenReturn(rows(28));
+        CrimeReportPageDTO next = service.getCrimeReportPage(page.nextCursor(), 2, null, null, null, null);
+
+        assertEquals(List.of(28L), next.items().stream().map(CrimeReportSummaryDTO::reportId).toList());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void getCrimeReportPage_shouldPassFiltersToQuery() {
+        when(crimeReportRepository.findPageAfter(any(), any(), any(), anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), any(), anyLong(), any())).thenReturn(List.of());
+
+        service.getCrimeReportPage(null, null, Set.of(CrimeType.FRAUD), DAY.minusDays(7), DAY,
+                new BoundingBox(6.8, 79.8, 7.0, 80.0));
+
+        verify(crimeReportRepository).findPageAfter(Set.of(CrimeType.FRAUD), DAY.minusDays(7), DAY, 6.8, 7.0, 79.8,
+                80.0, LocalDate.of(9999, 12, 31), Long.MAX_VALUE, PageRequest.of(0, 51));
+    }
+
+    @Test
+    void getCrimeReportPage_shouldRejectBadCursorAndSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCrimeReportPage("not-a-cursor", null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCrimeReportPage(null, 500, null, null, null, null));
+        verifyNoInteractions(crimeReportRepository);
+    }
+
+    @Test
+    void saveCrimeReport_shouldRecordContentHashOfEvidence() {
+        String hash = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        CrimeReportDTO dto = new CrimeReportDTO();
+        dto.setCrimeType("THEFT");
+        dto.setEvidences(List.of(
+                EvidenceDTO.builder().fileName(hash + "/photo.jpg").fileType("image/jpeg").fileSize(3L).build(),
+                EvidenceDTO.builder().fileName("5f1c_legacy.jpg").fileType("image/jpeg").fileSize(3L).build()));
+        when(crimeReportRepository.save(any(CrimeReport.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.saveCrimeReport(dto);
+
+        verify(crimeReportRepository, times(2)).save(argThat(report -> {
+            List<Evidence> evidences = report.getEvidences();
+            return evidences == null || (hash.equals(evidences.get(0).getContentSha256())
+                    && evidences.get(1).getContentSha256() == null);
+        }));
+    }
+}
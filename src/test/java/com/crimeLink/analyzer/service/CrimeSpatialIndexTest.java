@@ -0,0 +1,80 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.CrimeLocationDTO;
+import com.crimeLink.analyzer.entity.CrimeReport;
+import com.crimeLink.analyzer.entity.CrimeType;
+import com.crimeLink.analyzer.event.CrimeReportSavedEvent;
+import com.crimeLink.analyzer.repository.CrimeReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CrimeSpatialIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    private final CrimeReportRepository repo = mock(CrimeReportRepository.class);
+    private CrimeSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repo.findCrimeLocations()).thenReturn(List.of(
+                new CrimeLocationDTO(1L, 6.9271, 79.8612, CrimeType.THEFT, DAY),
+                new CrimeLocationDTO(2L, 6.9350, 79.8500, CrimeType.ASSAULT, DAY.minusDays(5)),
+                new CrimeLocationDTO(3L, 7.2906, 80.6337, CrimeType.THEFT, DAY),
+                new CrimeLocationDTO(4L, 5.9485, 80.5353, CrimeType.FRAUD, DAY.plusDays(1))));
+        index = new CrimeSpatialIndex(repo, 0.01);
+        index.warm();
+    }
+
+    private static List<Long> ids(List<CrimeSpatialIndex.Crime> crimes) {
+        return crimes.stream().map(CrimeSpatialIndex.Crime::reportId).sorted().toList();
+    }
+
+    @Test
+    void query_shouldReturnOnlyReportsInsideViewport() {
+        BoundingBox colombo = new BoundingBox(6.90, 79.80, 6.95, 79.90);
+
+        assertEquals(List.of(1L, 2L), ids(index.query(colombo, null, null, null)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.query(null, null, null, null)));
+    }
+
+    @Test
+    void query_shouldApplyTypeAndDateFilters() {
+        BoundingBox island = new BoundingBox(5.5, 79.5, 10.0, 82.0);
+
+        assertEquals(List.of(1L, 3L), ids(index.query(island, Set.of(CrimeType.THEFT), null, null)));
+        assertEquals(List.of(1L, 3L, 4L), ids(index.query(island, null, DAY, null)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.query(island, null, null, DAY)));
+    }
+
+    @Test
+    void query_shouldScanNonEmptyCellsWhenViewportIsHuge() {
+        BoundingBox world = new BoundingBox(-90, -180, 90, 180);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.query(world, null, null, null)));
+    }
+
+    @Test
+    void onReportSaved_shouldIndexNewReportAndMoveUpdatedOne() {
+        CrimeReport report = new CrimeReport(5L, 6.9300, 79.8600, "Snatch theft", DAY, LocalTime.NOON,
+                CrimeType.ROBBERY, null);
+        index.onReportSaved(new CrimeReportSavedEvent(report));
+        BoundingBox colombo = new BoundingBox(6.90, 79.80, 6.95, 79.90);
+        assertEquals(List.of(1L, 2L, 5L), ids(index.query(colombo, null, null, null)));
+
+        CrimeReport moved = new CrimeReport(1L, 7.2900, 80.6300, "Relocated", DAY, LocalTime.NOON,
+                CrimeType.THEFT, null);
+        index.onReportSaved(new CrimeReportSavedEvent(moved));
+        assertEquals(List.of(2L, 5L), ids(index.query(colombo, null, null, null)));
+        assertEquals(5, index.size());
+    }
+}
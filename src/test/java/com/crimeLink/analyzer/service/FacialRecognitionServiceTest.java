@@ -1,21 +1,29 @@
 package com.crimeLink.analyzer.service;
 
+import com.crimeLink.analyzer.config.MlServiceProperties;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +36,7 @@ class FacialRecognitionServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new FacialRecognitionService(restTemplate);
+        service = new FacialRecognitionService(restTemplate, new SimpleMeterRegistry(), new MlServiceProperties());
         ReflectionTestUtils.setField(service, "facialRecognitionServiceUrl", "http://localhost:5002");
     }
 
@@ -48,6 +56,22 @@ class FacialRecognitionServiceTest {
         assertEquals("ok", result.get("result").asText());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void analyzeImage_forwardsUploadAsStreamedResource() throws Exception {
+        MockMultipartFile image = spy(new MockMultipartFile("image", "a.jpg", "image/jpeg", "abc".getBytes()));
+        ArgumentCaptor<HttpEntity<MultiValueMap<String, Object>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        when(restTemplate.exchange(eq("http://localhost:5002/analyze"), eq(HttpMethod.POST), request.capture(),
+                eq(String.class))).thenReturn(ResponseEntity.ok("{}"));
+
+        service.analyzeImage(image, null, "user-1", null);
+
+        Resource part = (Resource) request.getValue().getBody().getFirst("image");
+        assertEquals("a.jpg", part.getFilename());
+        assertEquals("abc", new String(part.getInputStream().readAllBytes()));
+        verify(image, never()).getBytes();
+    }
+
     @Test
     void registerCriminal_shouldReturnJson() {
         MockMultipartFile photo = new MockMultipartFile("photo", "a.jpg", "image/jpeg", "abc".getBytes());
@@ -0,0 +1,113 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.DutyFenceTimeDTO;
+import com.crimeLink.analyzer.entity.DutyFenceTime;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.GeofenceTransitionEvent;
+import com.crimeLink.analyzer.event.GeofenceTransitionEvent.Transition;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.DutyFenceTimeRepository;
+import com.crimeLink.analyzer.util.FenceGeometry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GeofenceMonitorTest {
+
+    private static final Instant SHIFT_START = Instant.parse("2026-01-01T02:30:00Z");
+    private static final double IN_LAT = 5.9485;
+    private static final double OUT_LAT = 5.9600;
+    private static final double LON = 80.5353;
+
+    private final ActiveDutyCache duties = mock(ActiveDutyCache.class);
+    private final GeofenceService fences = mock(GeofenceService.class);
+    private final DutyFenceTimeRepository timeRepo = mock(DutyFenceTimeRepository.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private GeofenceMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new GeofenceMonitor(duties, fences, timeRepo, events, new SimpleMeterRegistry(), 300);
+        when(duties.find(eq("B-1"), any())).thenReturn(new ActiveDutyCache.ActiveDuty(7L, "Matara",
+                SHIFT_START, SHIFT_START.plusSeconds(4 * 3600)));
+        when(fences.fenceFor("Matara")).thenReturn(FenceGeometry.circle(IN_LAT, LON, 300));
+    }
+
+    private static LocationPoint point(int second, double lat) {
+        return new LocationPoint(null, "B-1", SHIFT_START.plusSeconds(second), lat, LON, 5f, null, null, "gps", null);
+    }
+
+    private void upload(LocationPoint... points) {
+        monitor.onPointsAccepted(new LocationPointsAcceptedEvent("B-1", List.of(points)));
+    }
+
+    @Test
+    void onPointsAccepted_shouldEmitEnterAndExitAndAccumulateTimeInside() {
+        upload(point(0, OUT_LAT), point(10, IN_LAT), point(20, IN_LAT));
+        upload(point(30, IN_LAT), point(40, OUT_LAT));
+
+        ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+        verify(events, times(2)).publishEvent(published.capture());
+        List<Transition> transitions = published.getAllValues().stream()
+                .map(e -> ((GeofenceTransitionEvent) e).transition()).toList();
+        assertEquals(List.of(Transition.ENTER, Transition.EXIT), transitions);
+
+        DutyFenceTimeDTO time = monitor.getTime(7L);
+        assertEquals(20, time.insideSeconds());
+        assertEquals(1, time.enterCount());
+        assertFalse(time.currentlyInside());
+    }
+
+    @Test
+    void onPointsAccepted_shouldNotCreditGapsLongerThanLimit() {
+        upload(point(0, IN_LAT), point(60, IN_LAT), point(60 + 301, IN_LAT));
+
+        assertEquals(60, monitor.getTime(7L).insideSeconds());
+        assertTrue(monitor.getTime(7L).currentlyInside());
+    }
+
+    @Test
+    void flush_shouldAddDeltasToPersistedTallyInOneBatch() {
+        when(timeRepo.findAllById(any())).thenReturn(List.of(
+                new DutyFenceTime(7L, "B-1", "Matara", 100_000, 2, 2, null)));
+        upload(point(0, IN_LAT), point(30, IN_LAT));
+
+        monitor.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DutyFenceTime>> saved = ArgumentCaptor.forClass(List.class);
+        verify(timeRepo).saveAll(saved.capture());
+        DutyFenceTime row = saved.getValue().get(0);
+        assertEquals(130_000, row.getInsideMs());
+        assertEquals(3, row.getEnterCount());
+
+        monitor.flush();
+        verify(timeRepo, times(1)).saveAll(any());
+    }
+
+    @Test
+    void onPointsAccepted_shouldIgnoreOfficersWithoutFencedDuty() {
+        when(duties.find(eq("B-2"), any())).thenReturn(null);
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points.add(new LocationPoint(null, "B-2", SHIFT_START.plusSeconds(i), IN_LAT, LON, 5f, null, null,
+                    "gps", null));
+        }
+        monitor.onPointsAccepted(new LocationPointsAcceptedEvent("B-2", points));
+
+        verifyNoInteractions(events);
+        when(timeRepo.findById(any())).thenReturn(Optional.empty());
+        assertNull(monitor.getTime(99L));
+    }
+}
@@ -0,0 +1,194 @@
+package com.crimeLink.analyzer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.core.io.InputStreamSource;
+
+import com.crimeLink.analyzer.dto.ProcessedImage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImagePipelineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImagePipeline pipeline = pipeline(2, 16, 50_000_000);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private ImagePipeline pipeline(int threads, int queueCapacity, long maxPixels) {
+        meterRegistry = new SimpleMeterRegistry();
+        return new ImagePipeline(meterRegistry, threads, queueCapacity, 5000, maxPixels, new int[] { 480, 160 },
+                0.85f);
+    }
+
+    /** Left half red, right half blue. */
+    private static BufferedImage halves(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /** {@code jpeg} with a big-endian EXIF segment holding only an orientation tag. */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8, // header, IFD0 at 8
+                0, 1, // one entry
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0, // orientation, SHORT, count 1
+                0, 0, 0, 0 }; // no next IFD
+        byte[] exif = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int length = 2 + exif.length + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2); // SOI
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(exif);
+        out.writeBytes(tiff);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] jpeg) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(jpeg));
+    }
+
+    private static boolean isJpeg(byte[] data) {
+        return (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8;
+    }
+
+    @Test
+    void process_reencodesAsJpegWithThumbnailsOfEachSize() throws IOException {
+        byte[] png = encode(halves(1000, 500, BufferedImage.TYPE_INT_ARGB), "png");
+
+        ProcessedImage processed = pipeline.process(() -> new ByteArrayInputStream(png));
+
+        assertTrue(isJpeg(processed.image()));
+        BufferedImage image = decode(processed.image());
+        assertEquals(1000, image.getWidth());
+        assertEquals(500, image.getHeight());
+        assertEquals(List.of(160, 480), List.copyOf(processed.thumbnails().keySet()));
+        BufferedImage small = decode(processed.thumbnails().get(160));
+        BufferedImage medium = decode(processed.thumbnails().get(480));
+        assertEquals(160, small.getWidth());
+        assertEquals(80, small.getHeight());
+        assertEquals(480, medium.getWidth());
+        assertEquals(240, medium.getHeight());
+        assertTrue(processed.thumbnails().get(160).length < processed.image().length);
+    }
+
+    @Test
+    void process_appliesExifOrientationAndDropsExif() throws IOException {
+        byte[] jpeg = withOrientation(encode(halves(40, 20, BufferedImage.TYPE_INT_RGB), "jpg"), 6);
+
+        ProcessedImage processed = pipeline.process(() -> new ByteArrayInputStream(jpeg));
+
+        BufferedImage image = decode(processed.image());
+        // Rotated 90 degrees clockwise: the red left half is now on top
+        assertEquals(20, image.getWidth());
+        assertEquals(40, image.getHeight());
+        assertTrue(new Color(image.getRGB(10, 5)).getRed() > 200);
+        assertTrue(new Color(image.getRGB(10, 35)).getBlue() > 200);
+        assertFalse(new String(processed.image(), StandardCharsets.ISO_8859_1).contains("Exif"));
+    }
+
+    @Test
+    void process_smallImage_isNotUpscaled() throws IOException {
+        byte[] png = encode(halves(100, 60, BufferedImage.TYPE_INT_RGB), "png");
+
+        ProcessedImage processed = pipeline.process(() -> new ByteArrayInputStream(png));
+
+        assertEquals(100, decode(processed.thumbnails().get(480)).getWidth());
+        assertEquals(100, decode(processed.thumbnails().get(160)).getWidth());
+    }
+
+    @Test
+    void process_notAnImage_returnsNull() throws IOException {
+        byte[] text = "not an image".getBytes(StandardCharsets.US_ASCII);
+
+        assertNull(pipeline.process(() -> new ByteArrayInputStream(text)));
+    }
+
+    @Test
+    void process_tooManyPixels_fails() throws IOException {
+        pipeline.shutdown();
+        pipeline = pipeline(1, 1, 100);
+        byte[] png = encode(halves(20, 20, BufferedImage.TYPE_INT_RGB), "png");
+
+        assertThrows(IOException.class, () -> pipeline.process(() -> new ByteArrayInputStream(png)));
+    }
+
+    @Test
+    @Timeout(10)
+    void process_poolAndQueueFull_failsFast() throws Exception {
+        pipeline.shutdown();
+        pipeline = pipeline(1, 1, 50_000_000);
+        byte[] png = encode(halves(20, 20, BufferedImage.TYPE_INT_RGB), "png");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStreamSource blocked = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ByteArrayInputStream(png);
+        };
+
+        CompletableFuture<ProcessedImage> running = CompletableFuture.supplyAsync(() -> process(blocked));
+        started.await();
+        CompletableFuture<ProcessedImage> queued = CompletableFuture.supplyAsync(() -> process(blocked));
+        while (meterRegistry.get("photos.processing.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(IOException.class, () -> pipeline.process(() -> new ByteArrayInputStream(png)));
+        assertEquals(1, meterRegistry.counter("photos.processing.rejected").count());
+        release.countDown();
+        assertEquals(20, decode(running.get().image()).getWidth());
+        assertEquals(20, decode(queued.get().image()).getWidth());
+    }
+
+    private ProcessedImage process(InputStreamSource source) {
+        try {
+            return pipeline.process(source);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
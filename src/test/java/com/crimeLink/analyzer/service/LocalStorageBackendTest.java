@@ -0,0 +1,145 @@
+package com.crimeLink.analyzer.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.service.impl.LocalStorageBackend;
+
+class LocalStorageBackendTest {
+
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new LocalStorageBackend(root.toString(), "http://localhost:8080/", "secret");
+    }
+
+    @Test
+    void put_thenGet_roundTripsContentAndHash() throws IOException {
+        StoredFile stored = backend.put("photos", "C1/p.jpg", () -> new ByteArrayInputStream(ABC), 3,
+                "image/jpeg", false);
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", stored.sha256());
+        try (InputStream in = backend.get("photos", "C1/p.jpg")) {
+            assertArrayEquals(ABC, in.readAllBytes());
+        }
+        try (var files = Files.list(root.resolve("photos/C1"))) {
+            assertEquals(1, files.count()); // no temp file left behind
+        }
+    }
+
+    @Test
+    void put_existingWithoutOverwrite_fails() throws IOException {
+        backend.put("photos", "p.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+
+        assertThrows(FileAlreadyExistsException.class,
+                () -> backend.put("photos", "p.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false));
+        backend.put("photos", "p.jpg", () -> new ByteArrayInputStream("xy".getBytes()), 2, "image/jpeg", true);
+        assertEquals(2, Files.size(root.resolve("photos/p.jpg")));
+    }
+
+    @Test
+    void put_objectWrittenDuringUploadWithoutOverwrite_failsAndKeepsWinner() throws IOException {
+        Path target = root.resolve("photos/race.jpg");
+
+        assertThrows(FileAlreadyExistsException.class, () -> backend.put("photos", "race.jpg", () -> {
+            // A concurrent upload lands after the existence check, while this one is still streaming
+            backend.put("photos", "race.jpg", () -> new ByteArrayInputStream("xy".getBytes()), 2, "image/jpeg",
+                    false);
+            return new ByteArrayInputStream(ABC);
+        }, 3, "image/jpeg", false));
+        assertEquals(2, Files.size(target));
+        try (var leftovers = Files.list(target.getParent())) {
+            assertEquals(List.of(target), leftovers.toList());
+        }
+    }
+
+    @Test
+    void put_shortStream_failsAndLeavesNothing() throws IOException {
+        assertThrows(IOException.class,
+                () -> backend.put("photos", "p.jpg", () -> new ByteArrayInputStream(ABC), 10, "image/jpeg", false));
+
+        try (var files = Files.list(root.resolve("photos"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void resolve_rejectsPathsOutsideTheBucket() {
+        assertThrows(IllegalArgumentException.class, () -> backend.resolve("photos", "../other/x"));
+        assertThrows(IllegalArgumentException.class, () -> backend.resolve("..", "x"));
+        assertThrows(IllegalArgumentException.class, () -> backend.resolve("photos", "/etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> backend.resolve("photos", "a/.."));
+    }
+
+    @Test
+    void signedUrl_verifiesUntilExpiry() throws IOException {
+        backend.put("crime-evidence", "a b.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+
+        UriComponents url = UriComponentsBuilder.fromUri(URI.create(backend.sign("crime-evidence", "a b.jpg", 60)))
+                .build();
+        long expires = Long.parseLong(url.getQueryParams().getFirst("expires"));
+        String signature = url.getQueryParams().getFirst("signature");
+
+        assertEquals("/api/storage/signed/crime-evidence/a%20b.jpg", url.getPath());
+        assertTrue(backend.verify("crime-evidence", "a b.jpg", expires, signature));
+        assertFalse(backend.verify("crime-evidence", "other.jpg", expires, signature));
+        assertFalse(backend.verify("crime-evidence", "a b.jpg", expires + 1, signature));
+
+        UriComponents expired = UriComponentsBuilder
+                .fromUri(URI.create(backend.sign("crime-evidence", "a b.jpg", -1))).build();
+        assertFalse(backend.verify("crime-evidence", "a b.jpg",
+                Long.parseLong(expired.getQueryParams().getFirst("expires")),
+                expired.getQueryParams().getFirst("signature")));
+    }
+
+    @Test
+    void signMany_skipsMissingObjects() throws IOException {
+        backend.put("crime-evidence", "a.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+
+        Map<String, String> urls = backend.sign("crime-evidence", List.of("a.jpg", "missing.jpg"), 60);
+
+        assertEquals(List.of("a.jpg"), List.copyOf(urls.keySet()));
+    }
+
+    @Test
+    void list_thenDelete() throws IOException {
+        backend.put("photos", "C1/a.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+        backend.put("photos", "C1/b.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+        backend.put("photos", "C2/c.jpg", () -> new ByteArrayInputStream(ABC), 3, "image/jpeg", false);
+
+        List<String> paths = backend.list("photos", "C1");
+        backend.delete("photos", paths);
+
+        assertEquals(List.of("C1/a.jpg", "C1/b.jpg"), paths);
+        assertEquals(List.of(), backend.list("photos", "C1"));
+        assertEquals(List.of("C2/c.jpg"), backend.list("photos", "C2"));
+        assertEquals("http://localhost:8080/api/storage/public/photos/C1/a.jpg", backend.publicUrl("photos", "C1/a.jpg"));
+    }
+}
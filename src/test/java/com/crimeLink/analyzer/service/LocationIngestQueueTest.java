@@ -0,0 +1,125 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.repository.LocationPointBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class LocationIngestQueueTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+    private final LocationPointBulkRepository bulkRepo = mock(LocationPointBulkRepository.class);
+    private LocationIngestQueue queue;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    private LocationIngestQueue newQueue(int capacity) {
+        return new LocationIngestQueue(bulkRepo, mapper, new SimpleMeterRegistry(),
+                capacity, 100, 1, 0, journalDir.toString(), 1024 * 1024, false);
+    }
+
+    private static List<LocationPoint> points(String badge, int count) {
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new LocationPoint(null, badge, Instant.parse("2026-01-01T08:00:00Z").plusSeconds(i),
+                    6.9 + i * 1e-4, 79.8, 5f, null, null, "gps", null));
+        }
+        return points;
+    }
+
+    @Test
+    void enqueue_shouldFlushPointsAndDeleteJournalOnShutdown() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        when(bulkRepo.insertAll(anyList())).thenAnswer(inv -> {
+            flushed.countDown();
+            return inv.<List<?>>getArgument(0).size();
+        });
+
+        queue = newQueue(1000);
+        queue.start();
+        queue.enqueue(points("B-1", 3));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        queue.stop();
+        queue = null;
+
+        try (var files = Files.list(journalDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void enqueue_shouldReturn429_whenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(bulkRepo.insertAll(anyList())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return inv.<List<?>>getArgument(0).size();
+        });
+
+        queue = newQueue(5);
+        queue.start();
+        queue.enqueue(points("B-1", 5));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> queue.enqueue(points("B-2", 1)));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatusCode());
+        release.countDown();
+    }
+
+    @Test
+    void start_shouldReplayJournaledPointsLeftByPreviousRun() throws Exception {
+        LocationIngestJournal previousRun = new LocationIngestJournal(journalDir, mapper, 1024 * 1024, false);
+        previousRun.replay(p -> { });
+        previousRun.append(points("B-7", 4));
+        previousRun.close();
+
+        queue = newQueue(1000);
+        queue.start();
+
+        verify(bulkRepo).insertAll(argThat(list -> list.size() == 4
+                && "B-7".equals(list.get(0).getOfficerBadgeNo())));
+    }
+
+    @Test
+    void start_shouldNotReplayRecordsFlushedBeforeCrash() throws Exception {
+        LocationIngestJournal previousRun = new LocationIngestJournal(journalDir, mapper, 1024 * 1024, false);
+        previousRun.replay(p -> { });
+        LocationIngestJournal.Record flushed = previousRun.append(points("B-7", 4));
+        previousRun.append(points("B-8", 2));
+        previousRun.acknowledge(Map.of(flushed, 4));
+        previousRun.close();
+
+        queue = newQueue(1000);
+        queue.start();
+
+        verify(bulkRepo).insertAll(argThat(list -> list.size() == 2
+                && list.stream().allMatch(p -> "B-8".equals(p.getOfficerBadgeNo()))));
+    }
+}
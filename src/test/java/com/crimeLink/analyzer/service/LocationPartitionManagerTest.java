@@ -0,0 +1,80 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.service.LocationPartitionManager.Partition;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocationPartitionManagerTest {
+
+    @Test
+    void parsePartition_shouldReadRangeBoundsAndSkipDefault() {
+        Partition legacy = LocationPartitionManager.parsePartition("location_points_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00+00')");
+        Partition monthly = LocationPartitionManager.parsePartition("location_points_p202611",
+                "FOR VALUES FROM ('2026-11-01 00:00:00+00') TO ('2026-12-01 00:00:00+00')");
+
+        assertNull(legacy.from());
+        assertEquals(Instant.parse("2026-11-01T00:00:00Z"), legacy.to());
+        assertEquals(Instant.parse("2026-11-01T00:00:00Z"), monthly.from());
+        assertEquals(Instant.parse("2026-12-01T00:00:00Z"), monthly.to());
+        assertNull(LocationPartitionManager.parsePartition("location_points_default", "DEFAULT"));
+    }
+
+    @Test
+    void monthsToCreate_shouldSkipMonthsCoveredByLegacyOrExistingPartitions() {
+        List<Partition> existing = List.of(
+                new Partition("location_points_legacy", null, Instant.parse("2026-11-01T00:00:00Z")),
+                new Partition("location_points_p202611", Instant.parse("2026-11-01T00:00:00Z"),
+                        Instant.parse("2026-12-01T00:00:00Z")));
+
+        List<YearMonth> missing = LocationPartitionManager.monthsToCreate(existing, YearMonth.of(2026, 10), 3);
+
+        assertEquals(List.of(YearMonth.of(2026, 12), YearMonth.of(2027, 1)), missing);
+        assertEquals("location_points_p202612", LocationPartitionManager.partitionName(YearMonth.of(2026, 12)));
+    }
+
+    @Test
+    void partitionsBefore_shouldOnlyReturnFullyExpiredPartitions() {
+        List<Partition> existing = List.of(
+                new Partition("location_points_legacy", null, Instant.parse("2025-03-01T00:00:00Z")),
+                new Partition("location_points_p202503", Instant.parse("2025-03-01T00:00:00Z"),
+                        Instant.parse("2025-04-01T00:00:00Z")),
+                new Partition("location_points_p202504", Instant.parse("2025-04-01T00:00:00Z"),
+                        Instant.parse("2025-05-01T00:00:00Z")));
+
+        List<Partition> expired = LocationPartitionManager.partitionsBefore(existing,
+                Instant.parse("2025-04-01T00:00:00Z"));
+
+        assertEquals(List.of("location_points_legacy", "location_points_p202503"),
+                expired.stream().map(Partition::name).toList());
+    }
+
+    @Test
+    void initialize_shouldOnlyCreateIndex_whenDatabaseIsNotPostgres() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        when(jdbc.execute(ArgumentMatchers.<ConnectionCallback<Boolean>>any())).thenReturn(false);
+        LocationPartitionManager manager = new LocationPartitionManager(jdbc, tx,
+                Clock.fixed(Instant.parse("2026-10-17T00:00:00Z"), ZoneOffset.UTC), true, 3, 12, true, "unused");
+
+        manager.initialize();
+        manager.maintain();
+
+        verifyNoInteractions(tx);
+        verify(jdbc).execute("CREATE INDEX IF NOT EXISTS idx_location_points_officer_ts "
+                + "ON location_points (officer_badge_no, ts)");
+        verify(jdbc, times(1)).execute(anyString());
+    }
+}
@@ -0,0 +1,149 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.LocationIngestResult;
+import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.crimeLink.analyzer.dto.LocationTrackDTO;
+import com.crimeLink.analyzer.dto.TrackPointDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.LocationPointRepository;
+import com.crimeLink.analyzer.service.impl.LocationServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocationServiceImplTest {
+
+    @Mock
+    private LocationPointRepository repo;
+
+    @Mock
+    private LocationIngestQueue ingestQueue;
+
+    @Mock
+    private OfficerPositionRegistry positionRegistry;
+
+    @Mock
+    private OfficerMovementTracker movementTracker;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private LocationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LocationServiceImpl(repo, ingestQueue, positionRegistry, movementTracker, events, new ObjectMapper());
+    }
+
+    private static LocationPointDTO point(Instant ts, double lat, double lon, Float accuracy) {
+        return new LocationPointDTO(ts, lat, lon, accuracy, 1.5f, 90f, "gps", Map.of("battery", 80));
+    }
+
+    @Test
+    void saveBulk_shouldEnqueueValidPointsAsOneBatch() {
+        Instant now = Instant.parse("2026-01-01T08:00:00Z");
+        List<LocationPointDTO> points = List.of(
+                point(now, 6.9271, 79.8612, 5f),
+                point(now.plusSeconds(5), 6.9272, 79.8613, null));
+
+        LocationIngestResult result = service.saveBulk("B-100", points);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LocationPoint>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ingestQueue).enqueue(captor.capture());
+        List<LocationPoint> written = captor.getValue();
+
+        assertEquals(2, result.accepted());
+        assertEquals(0, result.rejected());
+        assertEquals(2, written.size());
+        assertEquals("B-100", written.get(0).getOfficerBadgeNo());
+        assertEquals(80, written.get(0).getMeta().get("battery").asInt());
+        verify(events).publishEvent(any(LocationPointsAcceptedEvent.class));
+    }
+
+    @Test
+    void getSimplifiedHistory_shouldShrinkShiftLongTrackByAnOrderOfMagnitude() throws Exception {
+        Instant start = Instant.parse("2026-01-01T06:00:00Z");
+        List<LocationPoint> raw = new ArrayList<>();
+        List<TrackPointDTO> track = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Instant ts = start.plusSeconds(i);
+            double lat = 6.9 + Math.sin(i / 400.0) * 0.01;
+            double lon = 79.8 + i * 2e-6;
+            raw.add(new LocationPoint((long) i, "B-100", ts, lat, lon, 5f, 1.2f, 90f, "fused",
+                    new ObjectMapper().valueToTree(Map.of("battery", 80))));
+            track.add(new TrackPointDTO(ts, lat, lon));
+        }
+        when(repo.findTrack("B-100", start, start.plusSeconds(20_000))).thenReturn(track);
+
+        LocationTrackDTO simplified = service.getSimplifiedHistory("B-100", start, start.plusSeconds(20_000),
+                null, 500);
+
+        ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+        int rawBytes = json.writeValueAsBytes(raw).length;
+        int simplifiedBytes = json.writeValueAsBytes(simplified).length;
+        assertEquals(20_000, simplified.rawPoints());
+        assertEquals(500, simplified.points());
+        assertEquals(500, simplified.lat().length);
+        assertTrue(simplifiedBytes * 10 < rawBytes, simplifiedBytes + " vs " + rawBytes);
+    }
+
+    @Test
+    void saveBulk_shouldOrderPointsByTimestamp() {
+        Instant now = Instant.parse("2026-01-01T08:00:00Z");
+        service.saveBulk("B-100", List.of(point(now.plusSeconds(10), 6.9, 79.8, 5f), point(now, 6.9, 79.8, 5f)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LocationPoint>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ingestQueue).enqueue(captor.capture());
+        assertEquals(now, captor.getValue().get(0).getTs());
+    }
+
+    @Test
+    void saveBulk_shouldRejectMissingTimestampPoorAccuracyAndOutOfRangeCoordinates() {
+        Instant now = Instant.parse("2026-01-01T08:00:00Z");
+        List<LocationPointDTO> points = List.of(
+                point(null, 6.9, 79.8, 5f),
+                point(now, 6.9, 79.8, 120f),
+                point(now, 95.0, 79.8, 5f),
+                point(now, 6.9, 181.0, 5f),
+                point(now, 6.9, 79.8, 50f));
+
+        LocationIngestResult result = service.saveBulk("B-100", points);
+
+        assertEquals(1, result.accepted());
+        assertEquals(4, result.rejected());
+    }
+
+    @Test
+    void saveBulk_shouldRejectPointsFromTheFuture() {
+        Instant now = Instant.now();
+        List<LocationPointDTO> points = List.of(
+                point(now.plusSeconds(60), 6.9, 79.8, 5f),
+                point(now.plus(Duration.ofDays(40)), 6.9, 79.8, 5f));
+
+        LocationIngestResult result = service.saveBulk("B-100", points);
+
+        assertEquals(1, result.accepted());
+        assertEquals(1, result.rejected());
+    }
+}
@@ -0,0 +1,131 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.BoundingBox;
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LocationStreamServiceTest {
+
+    private final OfficerPositionRegistry registry = mock(OfficerPositionRegistry.class);
+    private final LocationStreamService service =
+            new LocationStreamService(registry, new SimpleMeterRegistry(), 60_000, 10);
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    /** Counts position events instead of writing to a response. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<Object> sent = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch gate;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(LastKnownPositionDTO.class::isInstance)
+                    .forEach(sent::add);
+        }
+    }
+
+    private static LocationPointsAcceptedEvent event(String badge, double lat, double lon, int second) {
+        LocationPoint p = new LocationPoint(null, badge, Instant.parse("2026-01-01T08:00:00Z").plusSeconds(second),
+                lat, lon, 5f, null, null, "gps", null);
+        return new LocationPointsAcceptedEvent(badge, List.of(p));
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (list.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void subscribe_shouldSendCurrentPositionsThenLiveUpdatesMatchingFilter() throws Exception {
+        when(registry.getAll()).thenReturn(List.of(
+                new LastKnownPositionDTO("B-1", Instant.parse("2026-01-01T07:00:00Z"), 6.9, 79.8, 5f, null, null, "gps"),
+                new LastKnownPositionDTO("B-2", Instant.parse("2026-01-01T07:00:00Z"), 6.9, 79.8, 5f, null, null, "gps")));
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.register(emitter, Set.of("B-1"), new BoundingBox(6.0, 79.0, 7.0, 80.0));
+        awaitSize(emitter.sent, 1);
+
+        service.onPointsAccepted(event("B-2", 6.91, 79.81, 1));
+        service.onPointsAccepted(event("B-1", 8.5, 79.81, 2));
+        service.onPointsAccepted(event("B-1", 6.92, 79.82, 3));
+
+        awaitSize(emitter.sent, 2);
+        Thread.sleep(50);
+        assertEquals(2, emitter.sent.size());
+        assertEquals(6.92, ((LastKnownPositionDTO) emitter.sent.get(1)).latitude());
+    }
+
+    @Test
+    void onPointsAccepted_shouldKeepOnlyLatestPerOfficer_whenSubscriberIsBehind() throws Exception {
+        when(registry.getAll()).thenReturn(List.of(
+                new LastKnownPositionDTO("B-1", Instant.parse("2026-01-01T07:00:00Z"), 6.9, 79.8, 5f, null, null, "gps")));
+        RecordingEmitter slow = new RecordingEmitter();
+        CountDownLatch gate = new CountDownLatch(1);
+        slow.gate = gate;
+        service.register(slow, null, null);
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 100; i++) {
+            service.onPointsAccepted(event("B-1", 6.9 + i * 1e-4, 79.8, i));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000,
+                "ingest must not wait for a blocked subscriber");
+
+        gate.countDown();
+        awaitSize(slow.sent, 2);
+        Thread.sleep(50);
+        assertEquals(2, slow.sent.size());
+        assertEquals(Instant.parse("2026-01-01T08:01:40Z"), ((LastKnownPositionDTO) slow.sent.get(1)).ts());
+    }
+
+    @Test
+    void subscriber_shouldBeRemoved_whenSendFails() throws Exception {
+        when(registry.getAll()).thenReturn(List.of());
+        SseEmitter broken = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        service.register(broken, null, null);
+        assertEquals(1, service.subscriberCount());
+
+        service.onPointsAccepted(event("B-1", 6.9, 79.8, 1));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.subscriberCount());
+    }
+}
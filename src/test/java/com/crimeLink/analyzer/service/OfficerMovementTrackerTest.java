@@ -0,0 +1,134 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.MovementStatsDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.entity.OfficerDailyMovement;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.OfficerDailyMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OfficerMovementTrackerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Colombo");
+    /** 08:00 local. */
+    private static final Instant START = Instant.parse("2026-01-01T02:30:00Z");
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+    private static final double LAT = 6.9271;
+    private static final double LON = 79.8612;
+    /** Degrees of latitude per 100 m. */
+    private static final double HUNDRED_M = 100 / 111_195.0;
+
+    private final OfficerDailyMovementRepository repo = mock(OfficerDailyMovementRepository.class);
+    private OfficerMovementTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new OfficerMovementTracker(repo, ZONE, Clock.fixed(START, ZONE), 300, 120, 25);
+        when(repo.findByOfficerBadgeNoAndDay(any(), any())).thenReturn(Optional.empty());
+    }
+
+    private static LocationPoint point(long second, double lat) {
+        return new LocationPoint(null, "B-1", START.plusSeconds(second), lat, LON, 5f, null, null, "gps", null);
+    }
+
+    private void upload(LocationPoint... points) {
+        tracker.onPointsAccepted(new LocationPointsAcceptedEvent("B-1", List.of(points)));
+    }
+
+    @Test
+    void onPointsAccepted_shouldAccumulateDistanceAndMovingTime() {
+        upload(point(0, LAT), point(10, LAT + HUNDRED_M), point(20, LAT + 2 * HUNDRED_M));
+        upload(point(30, LAT + 3 * HUNDRED_M));
+
+        MovementStatsDTO stats = tracker.getStats("B-1", null);
+        assertEquals(DAY, stats.day());
+        assertEquals(300, stats.distanceM(), 1);
+        assertEquals(30, stats.movingSeconds());
+        assertEquals(0, stats.idleSeconds());
+        assertEquals(10, stats.avgSpeedMps(), 0.1);
+        assertEquals(4, stats.pointCount());
+        verify(repo, times(1)).findByOfficerBadgeNoAndDay("B-1", DAY);
+    }
+
+    @Test
+    void onPointsAccepted_shouldTreatJitterAroundOnePlaceAsIdle() {
+        double jitter = HUNDRED_M / 10;
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 60; i++) {
+            points.add(point(i * 10L, LAT + (i % 2 == 0 ? jitter : -jitter)));
+        }
+        upload(points.toArray(LocationPoint[]::new));
+
+        MovementStatsDTO stats = tracker.getStats("B-1", DAY);
+        assertEquals(0, stats.distanceM());
+        assertEquals(600, stats.idleSeconds());
+        assertEquals(0, stats.movingSeconds());
+        assertNull(stats.avgSpeedMps());
+    }
+
+    @Test
+    void onPointsAccepted_shouldSkipLongGapsAndLatePoints() {
+        upload(point(0, LAT), point(10, LAT + HUNDRED_M), point(10 + 301, LAT + 5 * HUNDRED_M));
+        upload(point(5, LAT + 9 * HUNDRED_M));
+
+        MovementStatsDTO stats = tracker.getStats("B-1", DAY);
+        assertEquals(100, stats.distanceM(), 1);
+        assertEquals(10, stats.movingSeconds());
+        assertEquals(3, stats.pointCount());
+    }
+
+    @Test
+    void onPointsAccepted_shouldStartNewRowAtLocalMidnight() {
+        long toMidnight = 16 * 3600 - 10;
+        upload(point(toMidnight - 10, LAT), point(toMidnight, LAT + HUNDRED_M), point(toMidnight + 20, LAT + 2 * HUNDRED_M));
+
+        MovementStatsDTO next = tracker.getStats("B-1", DAY.plusDays(1));
+        assertEquals(100, next.distanceM(), 1);
+        assertEquals(20, next.movingSeconds());
+        assertEquals(1, next.pointCount());
+
+        when(repo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        tracker.flush();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OfficerDailyMovement>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repo).saveAll(saved.capture());
+        assertEquals(List.of(DAY, DAY.plusDays(1)), saved.getValue().stream().map(OfficerDailyMovement::getDay).toList());
+        assertEquals(100, saved.getValue().get(0).getDistanceM(), 1);
+    }
+
+    @Test
+    void flush_shouldResumeFromPersistedRowAndOnlyWriteChangedOfficers() {
+        OfficerDailyMovement row = new OfficerDailyMovement(5L, "B-1", DAY, 1000, 600_000, 60_000, 50,
+                START.minusSeconds(3600), START.minusSeconds(10), LAT, LON, 0);
+        when(repo.findByOfficerBadgeNoAndDay("B-1", DAY)).thenReturn(Optional.of(row));
+        when(repo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        upload(point(0, LAT + HUNDRED_M));
+        tracker.flush();
+        tracker.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OfficerDailyMovement>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repo, times(1)).saveAll(saved.capture());
+        OfficerDailyMovement written = saved.getValue().get(0);
+        assertEquals(5L, written.getId());
+        assertEquals(1100, written.getDistanceM(), 1);
+        assertEquals(610_000, written.getMovingMs());
+        assertEquals(51, written.getPointCount());
+    }
+}
@@ -0,0 +1,62 @@
+package com.crimeLink.analyzer.service;
+
+import com.crimeLink.analyzer.dto.LastKnownPositionDTO;
+import com.crimeLink.analyzer.entity.LocationPoint;
+import com.crimeLink.analyzer.event.LocationPointsAcceptedEvent;
+import com.crimeLink.analyzer.repository.LocationPointRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OfficerPositionRegistryTest {
+
+    @Mock
+    private LocationPointRepository repo;
+
+    @InjectMocks
+    private OfficerPositionRegistry registry;
+
+    private static final Instant T0 = Instant.parse("2026-01-01T08:00:00Z");
+
+    private static LocationPoint point(String badge, Instant ts, double lat) {
+        return new LocationPoint(null, badge, ts, lat, 79.8, 5f, null, null, "gps", null);
+    }
+
+    @Test
+    void onPointsAccepted_shouldKeepLatestPointOfBatch() {
+        registry.onPointsAccepted(new LocationPointsAcceptedEvent("B-1",
+                List.of(point("B-1", T0, 6.1), point("B-1", T0.plusSeconds(5), 6.2))));
+
+        assertEquals(6.2, registry.get("B-1").latitude());
+    }
+
+    @Test
+    void onPointsAccepted_shouldIgnoreOlderUpload() {
+        registry.onPointsAccepted(new LocationPointsAcceptedEvent("B-1", List.of(point("B-1", T0.plusSeconds(60), 6.5))));
+        registry.onPointsAccepted(new LocationPointsAcceptedEvent("B-1", List.of(point("B-1", T0, 6.1))));
+
+        assertEquals(6.5, registry.get("B-1").latitude());
+    }
+
+    @Test
+    void warm_shouldLoadLatestPositionsAndSortByBadge() {
+        when(repo.findLatestPerOfficer()).thenReturn(List.of(
+                new LastKnownPositionDTO("B-2", T0, 7.0, 80.0, null, null, null, "gps"),
+                new LastKnownPositionDTO("B-1", T0, 6.0, 79.0, null, null, null, "gps")));
+
+        registry.warm();
+
+        assertEquals(List.of("B-1", "B-2"),
+                registry.getAll().stream().map(LastKnownPositionDTO::officerBadgeNo).toList());
+        assertNull(registry.get("B-3"));
+    }
+}
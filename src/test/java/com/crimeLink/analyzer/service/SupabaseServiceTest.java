@@ -0,0 +1,178 @@
+package com.crimeLink.analyzer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SupabaseServiceTest {
+
+    private static final String BUCKET = "crime-evidence";
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+    private static final Instant T0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Mock
+    private StorageBackend storage;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SupabaseService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SupabaseService(storage, meterRegistry);
+        ReflectionTestUtils.setField(service, "signedUrlExpiresIn", 300);
+        ReflectionTestUtils.setField(service, "signedUrlCacheSeconds", 270);
+        at(T0);
+    }
+
+    private void at(Instant now) {
+        ReflectionTestUtils.setField(service, "clock", Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void getFileUrl_reusesSignedUrlUntilCacheExpiry() {
+        when(storage.sign(BUCKET, "a.jpg", 300)).thenReturn("url-1", "url-2");
+
+        String first = service.getFileUrl("a.jpg");
+        at(T0.plusSeconds(269));
+        assertEquals(first, service.getFileUrl("a.jpg"));
+        at(T0.plusSeconds(270));
+        String second = service.getFileUrl("a.jpg");
+
+        assertEquals("url-1", first);
+        assertEquals("url-2", second);
+        verify(storage, times(2)).sign(BUCKET, "a.jpg", 300);
+    }
+
+    @Test
+    void getFileUrls_signsOnlyUncachedFilesInOneRequest() {
+        when(storage.sign(BUCKET, "a.jpg", 300)).thenReturn("url-a");
+        when(storage.sign(BUCKET, List.of("b.jpg", "c.jpg", "d.jpg"), 300))
+                .thenReturn(Map.of("b.jpg", "url-b", "c.jpg", "url-c"));
+
+        service.getFileUrl("a.jpg");
+        Map<String, String> urls = service.getFileUrls(List.of("a.jpg", "b.jpg", "c.jpg", "b.jpg", "d.jpg"));
+
+        assertEquals(Map.of("a.jpg", "url-a", "b.jpg", "url-b", "c.jpg", "url-c"), urls);
+        assertFalse(urls.containsKey("d.jpg"));
+        // Everything that was signed is now cached.
+        assertEquals("url-b", service.getFileUrls(List.of("b.jpg")).get("b.jpg"));
+        verify(storage).sign(BUCKET, "a.jpg", 300);
+        verify(storage).sign(BUCKET, List.of("b.jpg", "c.jpg", "d.jpg"), 300);
+        verifyNoMoreInteractions(storage);
+    }
+
+    @Test
+    void getFileUrls_singleUnsignableFile_isLeftOut() {
+        when(storage.sign(BUCKET, List.of("gone.jpg"), 300)).thenReturn(Map.of());
+
+        assertEquals(Map.of(), service.getFileUrls(List.of("gone.jpg")));
+        verify(storage, never()).sign(BUCKET, "gone.jpg", 300);
+    }
+
+    @Test
+    void evictExpiredUrls_dropsOnlyExpiredEntries() {
+        when(storage.sign(eq(BUCKET), any(String.class), eq(300))).thenReturn("url");
+
+        service.getFileUrl("a.jpg");
+        at(T0.plusSeconds(100));
+        service.getFileUrl("b.jpg");
+        at(T0.plusSeconds(300));
+        service.evictExpiredUrls();
+
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(service, "signedUrls");
+        assertEquals(1, cache.size());
+        assertTrue(cache.containsKey("b.jpg"));
+    }
+
+    @Test
+    void upload_storesContentAddressed() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "my note.txt", "text/plain", ABC);
+        String path = ABC_SHA256 + "/my_note.txt";
+        when(storage.list(BUCKET, ABC_SHA256)).thenReturn(List.of());
+        when(storage.put(BUCKET, path, file, 3L, "application/octet-stream", false))
+                .thenReturn(new StoredFile(path, 3, ABC_SHA256));
+
+        StoredFile stored = service.upload(file);
+
+        assertEquals(new StoredFile(path, 3, ABC_SHA256), stored);
+        assertEquals(1, meterRegistry.counter("storage.uploads", "kind", "evidence", "result", "uploaded").count());
+    }
+
+    @Test
+    void upload_sameContentAgain_linksExistingObject() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "other-name.txt", "text/plain", ABC);
+        when(storage.list(BUCKET, ABC_SHA256)).thenReturn(List.of(ABC_SHA256 + "/note.txt"));
+
+        StoredFile stored = service.upload(file);
+
+        assertEquals(ABC_SHA256 + "/note.txt", stored.path());
+        verify(storage, never()).put(any(), any(), any(), anyLong(), any(), anyBoolean());
+        assertEquals(1,
+                meterRegistry.counter("storage.uploads", "kind", "evidence", "result", "deduplicated").count());
+    }
+
+    @Test
+    void upload_lostRaceToIdenticalUpload_linksTheWinner() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "note.txt", "text/plain", ABC);
+        String path = ABC_SHA256 + "/note.txt";
+        when(storage.list(BUCKET, ABC_SHA256)).thenReturn(List.of()).thenReturn(List.of(path));
+        when(storage.put(BUCKET, path, file, 3L, "application/octet-stream", false))
+                .thenThrow(new FileAlreadyExistsException(path));
+
+        assertEquals(path, service.upload(file).path());
+    }
+
+    @Test
+    void upload_contentChangedDuringUpload_deletesAndFails() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "note.txt", "text/plain", ABC);
+        String path = ABC_SHA256 + "/note.txt";
+        when(storage.list(BUCKET, ABC_SHA256)).thenReturn(List.of());
+        when(storage.put(BUCKET, path, file, 3L, "application/octet-stream", false))
+                .thenReturn(new StoredFile(path, 3, "something-else"));
+
+        assertThrows(IOException.class, () -> service.upload(file));
+        verify(storage).delete(BUCKET, List.of(path));
+    }
+
+    @Test
+    void upload_rejectsEmptyFile() {
+        MockMultipartFile empty = new MockMultipartFile("file", "note.txt", "text/plain", new byte[0]);
+
+        assertThrows(RuntimeException.class, () -> service.upload(empty));
+        verifyNoInteractions(storage);
+    }
+}
@@ -0,0 +1,109 @@
+package com.crimeLink.analyzer.service;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.crimeLink.analyzer.dto.StoredFile;
+import com.crimeLink.analyzer.service.impl.SupabaseStorageBackend;
+
+class SupabaseStorageBackendTest {
+
+    private static final String STORAGE = "http://supabase.test/storage/v1";
+
+    private SupabaseStorageBackend backend;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        backend = new SupabaseStorageBackend("http://supabase.test/", "key", restTemplate);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void put_streamsContentAndReturnsItsHash() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "p.jpg", "image/jpeg",
+                "abc".getBytes(StandardCharsets.US_ASCII));
+        server.expect(requestTo(STORAGE + "/object/photos/C1/p.jpg")).andExpect(method(HttpMethod.POST))
+                .andExpect(header("x-upsert", "true"))
+                .andExpect(header("Authorization", "Bearer key"))
+                .andExpect(content().bytes("abc".getBytes(StandardCharsets.US_ASCII)))
+                .andRespond(withSuccess());
+
+        StoredFile stored = backend.put("photos", "C1/p.jpg", file, 3, "image/jpeg", true);
+
+        assertEquals(new StoredFile("C1/p.jpg", 3,
+                "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"), stored);
+        server.verify();
+    }
+
+    @Test
+    void sign_single_makesRelativeUrlAbsolute() {
+        server.expect(requestTo(STORAGE + "/object/sign/crime-evidence/a.jpg"))
+                .andExpect(content().json("{\"expiresIn\":300}"))
+                .andRespond(withSuccess("{\"signedURL\":\"/object/sign/crime-evidence/a.jpg?token=1\"}",
+                        MediaType.APPLICATION_JSON));
+
+        assertEquals(STORAGE + "/object/sign/crime-evidence/a.jpg?token=1",
+                backend.sign("crime-evidence", "a.jpg", 300));
+        server.verify();
+    }
+
+    @Test
+    void sign_many_usesBulkEndpointAndSkipsFailures() {
+        server.expect(requestTo(STORAGE + "/object/sign/crime-evidence")).andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("{\"expiresIn\":300,\"paths\":[\"b.jpg\",\"d.jpg\"]}"))
+                .andRespond(withSuccess("""
+                        [{"error":null,"path":"b.jpg","signedURL":"/object/sign/crime-evidence/b.jpg?token=b"},
+                         {"error":"Either the object does not exist or you do not have access to it",
+                          "path":"d.jpg","signedURL":null}]
+                        """, MediaType.APPLICATION_JSON));
+
+        Map<String, String> urls = backend.sign("crime-evidence", List.of("b.jpg", "d.jpg"), 300);
+
+        assertEquals(STORAGE + "/object/sign/crime-evidence/b.jpg?token=b", urls.get("b.jpg"));
+        assertFalse(urls.containsKey("d.jpg"));
+        server.verify();
+    }
+
+    @Test
+    void list_thenDelete_removesFilesInFolder() throws Exception {
+        server.expect(requestTo(STORAGE + "/object/list/photos"))
+                .andExpect(content().json("{\"prefix\":\"C1/\",\"offset\":0}"))
+                .andRespond(withSuccess("""
+                        [{"name":"a.jpg","id":"1"},{"name":"b.jpg","id":"2"},{"name":"sub","id":null}]
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(startsWith(STORAGE + "/object/photos"))).andExpect(method(HttpMethod.DELETE))
+                .andExpect(content().json("{\"prefixes\":[\"C1/a.jpg\",\"C1/b.jpg\"]}"))
+                .andRespond(withSuccess());
+
+        List<String> paths = backend.list("photos", "C1");
+        backend.delete("photos", paths);
+
+        assertEquals(List.of("C1/a.jpg", "C1/b.jpg"), paths);
+        server.verify();
+    }
+
+    @Test
+    void publicUrl() {
+        assertEquals(STORAGE + "/object/public/photos/C1/p.jpg", backend.publicUrl("photos", "C1/p.jpg"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.crimeLink.analyzer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.crimeLink.analyzer.dto.StoredPhoto;
+import com.crimeLink.analyzer.service.impl.LocalStorageBackend;
+import com.crimeLink.analyzer.util.ContentHash;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SupabaseStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend storage;
+    private SimpleMeterRegistry meterRegistry;
+    private ImagePipeline imagePipeline;
+    private SupabaseStorageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalStorageBackend(root.toString(), "http://localhost:8080", "secret");
+        meterRegistry = new SimpleMeterRegistry();
+        imagePipeline = new ImagePipeline(meterRegistry, 1, 4, 5000, 50_000_000, new int[] { 160, 480 }, 0.85f);
+        service = new SupabaseStorageService(storage, meterRegistry, imagePipeline);
+        ReflectionTestUtils.setField(service, "bucket", "criminal-photos");
+        ReflectionTestUtils.setField(service, "weaponBucket", "weapon-photos");
+    }
+
+    @AfterEach
+    void tearDown() {
+        imagePipeline.shutdown();
+    }
+
+    /** A JPEG ImageIO cannot decode (no frame header), carrying an EXIF segment and a comment. */
+    private static MockMultipartFile photo(String name, String scan) {
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        jpeg.writeBytes(new byte[] { (byte) 0xFF, (byte) 0xD8 });
+        segment(jpeg, 0xE1, "Exif\0\0GPS 6.9271N 79.8612E");
+        segment(jpeg, 0xFE, "Camera serial 1234");
+        segment(jpeg, 0xEE, "Adobe");
+        segment(jpeg, 0xDA, "");
+        jpeg.writeBytes(scan.getBytes(StandardCharsets.US_ASCII));
+        jpeg.writeBytes(new byte[] { (byte) 0xFF, (byte) 0xD9 });
+        return new MockMultipartFile("photo", name, "image/jpeg", jpeg.toByteArray());
+    }
+
+    private static void segment(ByteArrayOutputStream jpeg, int marker, String payload) {
+        byte[] data = payload.getBytes(StandardCharsets.US_ASCII);
+        jpeg.writeBytes(new byte[] { (byte) 0xFF, (byte) marker, (byte) ((data.length + 2) >> 8),
+                (byte) (data.length + 2) });
+        jpeg.writeBytes(data);
+    }
+
+    @Test
+    void uploadPhoto_undecodableJpeg_storesByContentHashWithoutMetadata() throws Exception {
+        MockMultipartFile file = photo("Front View.JPG", "abc");
+        String sha256 = ContentHash.sha256(file);
+
+        StoredPhoto stored = service.uploadPhoto("C1", file);
+
+        // Not decodable, so kept without thumbnails
+        assertEquals("http://localhost:8080/api/storage/public/criminal-photos/C1/" + sha256 + ".jpg",
+                stored.url());
+        assertNull(stored.thumbnailUrl());
+        assertEquals(1, meterRegistry.counter("storage.uploads", "kind", "photo", "result", "uploaded").count());
+        try (InputStream in = storage.get("criminal-photos", "C1/" + sha256 + ".jpg")) {
+            String kept = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+            assertFalse(kept.contains("GPS"), "EXIF must not be stored");
+            assertFalse(kept.contains("Camera serial"), "comments must not be stored");
+            assertTrue(kept.contains("Adobe") && kept.contains("abc"));
+        }
+    }
+
+    @Test
+    void uploadPhoto_undecodableNonJpeg_isRefused() throws Exception {
+        MockMultipartFile heic = new MockMultipartFile("photo", "p.heic", "image/heic",
+                "\0\0\0\u0018ftypheic".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(RuntimeException.class, () -> service.uploadPhoto("C1", heic));
+        assertEquals(List.of(), storage.list("criminal-photos", "C1"));
+    }
+
+    @Test
+    void uploadPhoto_samePhotoAgain_isNotUploadedTwice() throws Exception {
+        StoredPhoto first = service.uploadPhoto("C1", photo("a.jpg", "abc"));
+        StoredPhoto second = service.uploadPhoto("C1", photo("renamed.jpg", "abc"));
+        StoredPhoto other = service.uploadPhoto("C1", photo("b.jpg", "xyz"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, storage.list("criminal-photos", "C1").size());
+        assertEquals(1, meterRegistry.counter("storage.uploads", "kind", "photo", "result", "deduplicated").count());
+    }
+
+    @Test
+    void uploadPhoto_image_storesNormalisedJpegAndThumbnailsOnce() throws Exception {
+        BufferedImage image = new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        MockMultipartFile file = new MockMultipartFile("photo", "p.png", "image/png", png.toByteArray());
+        String sha256 = ContentHash.sha256(file);
+
+        StoredPhoto stored = service.uploadPhoto("C1", file);
+        StoredPhoto again = service.uploadPhoto("C1", file);
+
+        String base = "http://localhost:8080/api/storage/public/criminal-photos/C1/" + sha256;
+        assertEquals(new StoredPhoto(base + ".jpg", base + "_160.jpg"), stored);
+        assertEquals(stored, again);
+        assertEquals(List.of("C1/" + sha256 + ".jpg", "C1/" + sha256 + "_160.jpg", "C1/" + sha256 + "_480.jpg"),
+                storage.list("criminal-photos", "C1"));
+        try (InputStream thumbnail = storage.get("criminal-photos", "C1/" + sha256 + "_160.jpg")) {
+            assertEquals(160, ImageIO.read(thumbnail).getWidth());
+        }
+        assertEquals(1, meterRegistry.counter("storage.uploads", "kind", "photo", "result", "deduplicated").count());
+    }
+
+    @Test
+    void deleteFolder_removesOnlyThatCriminalsPhotos() throws Exception {
+        MockMultipartFile file = photo("a.jpg", "abc");
+        service.uploadPhoto("C1", file);
+        service.uploadPhoto("C2", file);
+
+        service.deleteFolder("C1");
+
+        assertEquals(List.of(), storage.list("criminal-photos", "C1"));
+        assertEquals(List.of("C2/" + ContentHash.sha256(file) + ".jpg"), storage.list("criminal-photos", "C2"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveTimeoutTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveTimeout timeouts = new AdaptiveTimeout("svc", Duration.ofSeconds(1),
+            Duration.ofSeconds(30), 3, 100, meterRegistry);
+
+    @Test
+    void usesMaximumUntilEnoughSamples() {
+        record("/analyze", Duration.ofMillis(500), AdaptiveTimeout.MIN_SAMPLES - 1);
+
+        assertEquals(Duration.ofSeconds(30), timeouts.timeout("/analyze"));
+        assertEquals(Duration.ofSeconds(30), timeouts.timeout("/unknown"));
+    }
+
+    @Test
+    void followsP99TimesMultiplier() {
+        record("/analyze", Duration.ofMillis(500), 98);
+        record("/analyze", Duration.ofSeconds(4), 2);
+
+        assertEquals(Duration.ofSeconds(12), timeouts.timeout("/analyze"));
+        assertEquals(12_000, meterRegistry.get("http.client.adaptive.timeout")
+                .tags("httpclient", "svc", "path", "/analyze").gauge().value());
+        assertEquals(100, meterRegistry.get("http.client.adaptive.latency")
+                .tags("httpclient", "svc", "path", "/analyze").timer().count());
+    }
+
+    @Test
+    void isClampedToBounds() {
+        record("/fast", Duration.ofMillis(10), 50);
+        record("/slow", Duration.ofSeconds(20), 50);
+
+        assertEquals(Duration.ofSeconds(1), timeouts.timeout("/fast"));
+        assertEquals(Duration.ofSeconds(30), timeouts.timeout("/slow"));
+    }
+
+    @Test
+    void forgetsSamplesOutsideTheWindow() {
+        record("/analyze", Duration.ofSeconds(8), 100);
+        record("/analyze", Duration.ofMillis(500), 100);
+
+        assertEquals(Duration.ofMillis(1500), timeouts.timeout("/analyze"));
+    }
+
+    @Test
+    void returnsToMaximumWhenLatencyRisesPastTheTimeout_andAdaptsAgainOnRecovery() {
+        record("/analyze", Duration.ofMillis(500), 100);
+        assertEquals(Duration.ofMillis(1500), timeouts.timeout("/analyze"));
+
+        // The endpoint slows to 5s, so requests hit the 1.5s timeout
+        timeouts.recordFailure("/analyze");
+        timeouts.recordFailure("/analyze");
+        assertEquals(Duration.ofSeconds(30), timeouts.timeout("/analyze"));
+
+        record("/analyze", Duration.ofSeconds(5), 20);
+        assertEquals(Duration.ofSeconds(30), timeouts.timeout("/analyze"));
+
+        record("/analyze", Duration.ofMillis(500), 100);
+        assertEquals(Duration.ofMillis(1500), timeouts.timeout("/analyze"));
+    }
+
+    private void record(String path, Duration latency, int times) {
+        for (int i = 0; i < times; i++) {
+            timeouts.record(path, latency.toNanos());
+        }
+    }
+}
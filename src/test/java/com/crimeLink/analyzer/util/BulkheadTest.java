@@ -0,0 +1,112 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void call_returnsResultAndFreesSlot() {
+        Bulkhead bulkhead = new Bulkhead("svc", 1, 0, 100, meterRegistry);
+
+        assertEquals("a", bulkhead.call(() -> "a"));
+        assertEquals("b", bulkhead.call(() -> "b"));
+        assertEquals(0, gauge("bulkhead.active"));
+    }
+
+    @Test
+    void call_freesSlotWhenCallThrows() {
+        Bulkhead bulkhead = new Bulkhead("svc", 1, 0, 100, meterRegistry);
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.call(() -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    @Test
+    @Timeout(10)
+    void call_rejectsWhenNoSlotFreesInTime() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("svc", 1, 4, 50, meterRegistry);
+        occupy(bulkhead);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> bulkhead.call(() -> "late"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertTrue(e.getReason().startsWith("svc is busy"));
+        assertEquals(1, gauge("bulkhead.active"));
+        assertEquals(1, meterRegistry.get("bulkhead.rejected").tag("name", "svc").counter().count());
+        assertEquals(2, meterRegistry.get("bulkhead.queue.wait").tag("name", "svc").timer().count());
+    }
+
+    @Test
+    @Timeout(10)
+    void call_rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("svc", 1, 0, 60_000, meterRegistry);
+        occupy(bulkhead);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> bulkhead.call(() -> "late"));
+
+        assertTrue(e.getReason().contains("queue is full"));
+        assertEquals(0, gauge("bulkhead.queued"));
+    }
+
+    @Test
+    @Timeout(10)
+    void call_waitsForSlotWhileQueued() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("svc", 1, 1, 60_000, meterRegistry);
+        occupy(bulkhead);
+
+        Future<String> waiting = callers.submit(() -> bulkhead.call(() -> "queued"));
+        while (gauge("bulkhead.queued") < 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("queued", waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    /** Hold the bulkhead's only slot until {@link #release} opens. */
+    private void occupy(Bulkhead bulkhead) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> bulkhead.call(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("name", "svc").gauge().value();
+    }
+}
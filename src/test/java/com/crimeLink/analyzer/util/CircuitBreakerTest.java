@@ -0,0 +1,135 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.crimeLink.analyzer.util.CircuitBreaker.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 1000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("svc", 10, 4, 50, OPEN_MS, 2,
+            e -> e instanceof UncheckedIOException, meterRegistry, now::get);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void opensAtFailureRateAndFailsFast() {
+        succeed(2);
+        fail(2);
+
+        assertEquals(State.OPEN, breaker.state());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> breaker.call(() -> "x"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(1, meterRegistry.get("circuit.breaker.calls").tags("name", "svc", "outcome", "rejected")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("circuit.breaker.state").tags("name", "svc", "state", "open")
+                .gauge().value());
+    }
+
+    @Test
+    void otherExceptionsCountAsSuccess() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalArgumentException.class, () -> breaker.call(() -> {
+                throw new IllegalArgumentException("bad request");
+            }));
+        }
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void innerRefusalsAreNotCounted() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResponseStatusException.class, () -> breaker.call(() -> {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "busy");
+            }));
+        }
+        fail(2);
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenAfterOpenPeriodClosesOnSuccessfulProbes() {
+        fail(4);
+        now.addAndGet(OPEN_MS * 1_000_000);
+
+        assertEquals(State.HALF_OPEN, breaker.state());
+        succeed(2);
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenReopensOnFailedProbe() {
+        fail(4);
+        now.addAndGet(OPEN_MS * 1_000_000);
+
+        fail(1);
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenLimitsConcurrentProbes() {
+        fail(4);
+        now.addAndGet(OPEN_MS * 1_000_000);
+
+        assertThrows(ResponseStatusException.class, () -> breaker.call(() ->
+                breaker.call(() -> breaker.call(() -> "third probe"))));
+        assertEquals(State.HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    void healthChecksFeedTheBreaker() {
+        fail(4);
+
+        breaker.onHealthCheck(true);
+        assertEquals(State.HALF_OPEN, breaker.state());
+
+        breaker.onHealthCheck(false);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void failedHealthChecksCountAsFailures() {
+        succeed(2);
+        breaker.onHealthCheck(false);
+        breaker.onHealthCheck(false);
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            assertEquals("ok", breaker.call(() -> "ok"));
+        }
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(UncheckedIOException.class, () -> breaker.call(() -> {
+                throw new UncheckedIOException(new IOException("connect timed out"));
+            }));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class ContentHashTest {
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @Test
+    void sha256_ofStream() throws IOException {
+        assertEquals(ABC_SHA256,
+                ContentHash.sha256(() -> new ByteArrayInputStream("abc".getBytes(StandardCharsets.US_ASCII))));
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                ContentHash.sha256(() -> new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void ofPath_onlyForContentAddressedPaths() {
+        assertEquals(ABC_SHA256, ContentHash.ofPath(ABC_SHA256 + "/report.pdf"));
+        assertNull(ContentHash.ofPath("0b6f0a3c-8e0e-4d3b-9d0e-2a1f5c6b7d8e_report.pdf"));
+        assertNull(ContentHash.ofPath(ABC_SHA256.toUpperCase() + "/report.pdf"));
+        assertNull(ContentHash.ofPath(ABC_SHA256 + "/a/b.pdf"));
+        assertNull(ContentHash.ofPath(null));
+    }
+
+    @Test
+    void safeName() {
+        assertEquals("my_file__1_.pdf", ContentHash.safeName("my file (1).pdf", "file"));
+        assertEquals("file", ContentHash.safeName(" ", "file"));
+        assertEquals("file", ContentHash.safeName(null, "file"));
+    }
+}
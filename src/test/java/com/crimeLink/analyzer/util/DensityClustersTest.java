@@ -0,0 +1,87 @@
+package com.crimeLink.analyzer.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DensityClustersTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void build_shouldSeparateDenseGroupsFromNoise() {
+        double[] xs = { 0, 10, 20, 10, 1000, 1010, 1020, 1010, 5000 };
+        double[] ys = { 0, 0, 0, 10, 0, 0, 0, 10, 5000 };
+
+        DensityClusters dc = DensityClusters.build(xs, ys, 15, 3, pool);
+
+        int a = dc.clusterOf(0);
+        int b = dc.clusterOf(4);
+        assertTrue(a >= 0 && b >= 0);
+        assertNotEquals(a, b);
+        for (int i = 1; i < 4; i++) {
+            assertEquals(a, dc.clusterOf(i));
+            assertEquals(b, dc.clusterOf(i + 4));
+        }
+        assertEquals(-1, dc.clusterOf(8));
+    }
+
+    @Test
+    void add_shouldPromoteCoresAndMergeClusters() {
+        double[] xs = { 0, 5, 10, 15, 65, 70, 75, 80 };
+        double[] ys = new double[8];
+        DensityClusters dc = DensityClusters.build(xs, ys, 20, 4, pool);
+        int left = dc.clusterOf(0);
+        int right = dc.clusterOf(7);
+        assertNotEquals(left, right);
+
+        int bridge = dc.add(40, 0);
+        assertEquals(-1, dc.clusterOf(bridge));
+
+        dc.add(25, 0);
+        dc.add(55, 0);
+        assertFalse(dc.isCore(bridge));
+        assertEquals(left, dc.clusterOf(bridge)); // border of the core at 25
+        assertNotEquals(dc.clusterOf(0), dc.clusterOf(7));
+
+        int last = dc.add(41, 0);
+        assertTrue(dc.isCore(bridge));
+        assertEquals(dc.clusterOf(0), dc.clusterOf(7));
+        assertEquals(dc.clusterOf(0), dc.clusterOf(last));
+    }
+
+    @Test
+    void add_shouldMatchBatchClusteringOfSamePoints() {
+        Random random = new Random(42);
+        int n = 2000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            boolean hot = i % 3 != 0;
+            double cx = hot ? (i % 2) * 3000 : 0;
+            double spread = hot ? 300 : 10_000;
+            xs[i] = cx + random.nextGaussian() * spread;
+            ys[i] = random.nextGaussian() * spread;
+        }
+
+        DensityClusters batch = DensityClusters.build(xs, ys, 100, 6, pool);
+        DensityClusters incremental = DensityClusters.build(new double[0], new double[0], 100, 6, pool);
+        for (int i = 0; i < n; i++) {
+            incremental.add(xs[i], ys[i]);
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(batch.isCore(i), incremental.isCore(i));
+            assertEquals(batch.clusterOf(i), incremental.clusterOf(i), "point " + i);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.crimeLink.analyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenceGeometryTest {
+
+    @Test
+    void circle_shouldContainPointsWithinRadius() {
+        FenceGeometry fence = FenceGeometry.circle(5.9485, 80.5353, 200);
+
+        assertTrue(fence.contains(5.9485, 80.5353));
+        assertTrue(fence.contains(5.9485 + 150 / 111_195.0, 80.5353));
+        assertFalse(fence.contains(5.9485 + 250 / 111_195.0, 80.5353));
+    }
+
+    @Test
+    void polygon_shouldHandleConcaveShape() {
+        // U shape opening to the north: the notch between the arms is outside.
+        double[] lat = {6.00, 6.00, 6.03, 6.03, 6.01, 6.01, 6.03, 6.03};
+        double[] lon = {80.00, 80.03, 80.03, 80.02, 80.02, 80.01, 80.01, 80.00};
+        FenceGeometry fence = FenceGeometry.polygon(lat, lon);
+
+        assertTrue(fence.contains(6.005, 80.015));
+        assertTrue(fence.contains(6.02, 80.005));
+        assertTrue(fence.contains(6.02, 80.025));
+        assertFalse(fence.contains(6.02, 80.015));
+        assertFalse(fence.contains(6.04, 80.015));
+    }
+
+    @Test
+    void polygon_shouldAgreeWithPlainRayCastingOnManyPoints() {
+        int n = 200;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = 0.01 + 0.008 * random.nextDouble();
+            lat[i] = 6.9 + r * Math.sin(angle);
+            lon[i] = 79.86 + r * Math.cos(angle);
+        }
+        FenceGeometry fence = FenceGeometry.polygon(lat, lon);
+
+        for (int k = 0; k < 20_000; k++) {
+            double plat = 6.9 + (random.nextDouble() - 0.5) * 0.04;
+            double plon = 79.86 + (random.nextDouble() - 0.5) * 0.04;
+            assertEquals(rayCast(lat, lon, plat, plon), fence.contains(plat, plon),
+                    "point " + plat + ", " + plon);
+        }
+    }
+
+    private static boolean rayCast(double[] lat, double[] lon, double y, double x) {
+        boolean inside = false;
+        for (int i = 0, j = lat.length - 1; i < lat.length; j = i++) {
+            if ((lat[i] > y) != (lat[j] > y)
+                    && x < (lon[j] - lon[i]) * (y - lat[i]) / (lat[j] - lat[i]) + lon[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
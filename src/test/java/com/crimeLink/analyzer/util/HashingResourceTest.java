@@ -0,0 +1,59 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class HashingResourceTest {
+
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @Test
+    void hashesWhatIsStreamed() throws IOException {
+        HashingResource resource = new HashingResource(() -> new ByteArrayInputStream(ABC), 3, "abc.txt");
+
+        byte[] out;
+        try (InputStream in = resource.getInputStream()) {
+            int first = in.read();
+            byte[] rest = in.readAllBytes();
+            out = new byte[] { (byte) first, rest[0], rest[1] };
+        }
+
+        assertArrayEquals(ABC, out);
+        assertEquals(ABC_SHA256, resource.sha256());
+        assertEquals(3, resource.contentLength());
+    }
+
+    @Test
+    void sha256_beforeFullyRead_throws() throws IOException {
+        HashingResource resource = new HashingResource(() -> new ByteArrayInputStream(ABC), 3, "abc.txt");
+        resource.getInputStream().read();
+
+        assertThrows(IllegalStateException.class, resource::sha256);
+    }
+
+    @Test
+    void lengthMismatch_failsTheRead() {
+        HashingResource shorter = new HashingResource(() -> new ByteArrayInputStream(ABC), 4, "abc.txt");
+        HashingResource longer = new HashingResource(() -> new ByteArrayInputStream(ABC), 2, "abc.txt");
+
+        assertThrows(IOException.class, () -> shorter.getInputStream().readAllBytes());
+        assertThrows(IOException.class, () -> longer.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void secondRead_throws() throws IOException {
+        HashingResource resource = new HashingResource(() -> new ByteArrayInputStream(ABC), 3, "abc.txt");
+        resource.getInputStream().readAllBytes();
+
+        assertThrows(IllegalStateException.class, resource::getInputStream);
+    }
+}
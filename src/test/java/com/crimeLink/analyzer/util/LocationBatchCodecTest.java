@@ -0,0 +1,85 @@
+package com.crimeLink.analyzer.util;
+
+import com.crimeLink.analyzer.dto.LocationPointDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationBatchCodecTest {
+
+    private static List<LocationPointDTO> walk(int n) {
+        List<LocationPointDTO> points = new ArrayList<>();
+        Instant start = Instant.parse("2026-01-01T08:00:00.250Z");
+        for (int i = 0; i < n; i++) {
+            points.add(new LocationPointDTO(start.plusSeconds(5L * i), 6.9271234 + i * 2e-5, 79.8612345 - i * 1e-5,
+                    8.5f, 1.4f, 182.3f, "fused", Map.of("battery", 80 - i / 60, "charging", false)));
+        }
+        return points;
+    }
+
+    private static byte[] encode(List<LocationPointDTO> points) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocationBatchCodec.encode(points, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void decode_shouldRoundTripEncodedBatch() throws Exception {
+        List<LocationPointDTO> points = new ArrayList<>(walk(3));
+        points.add(new LocationPointDTO(Instant.parse("2026-01-01T07:59:00Z"), -33.8688197, 151.2092955,
+                null, null, null, null, Map.of("note", "gps, \"cold\"", "level", 0.25)));
+
+        List<LocationPointDTO> decoded = LocationBatchCodec.decode(new ByteArrayInputStream(encode(points)), 100);
+
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            LocationPointDTO expected = points.get(i);
+            LocationPointDTO actual = decoded.get(i);
+            assertEquals(expected.ts(), actual.ts());
+            assertEquals(expected.latitude(), actual.latitude(), 1e-7);
+            assertEquals(expected.longitude(), actual.longitude(), 1e-7);
+            assertEquals(expected.accuracyM(), actual.accuracyM());
+            assertEquals(expected.headingDeg(), actual.headingDeg());
+            assertEquals(expected.provider(), actual.provider());
+        }
+        assertEquals(Map.of("battery", 80L, "charging", false), decoded.get(0).meta());
+        assertEquals(Map.of("note", "gps, \"cold\"", "level", 0.25), decoded.get(3).meta());
+        assertNull(decoded.get(3).speedMps());
+    }
+
+    @Test
+    void encode_shouldBeMuchSmallerThanJson() throws Exception {
+        List<LocationPointDTO> points = walk(500);
+        ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        int json = mapper.writeValueAsBytes(points).length;
+        int binary = encode(points).length;
+
+        assertTrue(binary * 8 < json, "binary=" + binary + " json=" + json);
+    }
+
+    @Test
+    void decode_shouldRejectMalformedPayloads() throws Exception {
+        byte[] valid = encode(walk(10));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationBatchCodec.decode(new ByteArrayInputStream("[{}]".getBytes()), 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationBatchCodec.decode(new ByteArrayInputStream(valid), 5));
+        assertThrows(EOFException.class,
+                () -> LocationBatchCodec.decode(new ByteArrayInputStream(Arrays.copyOf(valid, valid.length - 3)), 100));
+        byte[] trailing = Arrays.copyOf(valid, valid.length + 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationBatchCodec.decode(new ByteArrayInputStream(trailing), 100));
+    }
+}
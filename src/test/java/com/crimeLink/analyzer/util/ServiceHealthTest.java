@@ -0,0 +1,26 @@
+package com.crimeLink.analyzer.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ServiceHealthTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void acceptsHealthyAndOk() {
+        assertTrue(ServiceHealth.isHealthy(mapper.createObjectNode().put("status", "healthy")));
+        assertTrue(ServiceHealth.isHealthy(mapper.createObjectNode().put("status", "ok")));
+    }
+
+    @Test
+    void rejectsOtherOrMissingStatus() {
+        assertFalse(ServiceHealth.isHealthy(mapper.createObjectNode().put("status", "unhealthy")));
+        assertFalse(ServiceHealth.isHealthy(mapper.createObjectNode().put("status", "OK ")));
+        assertFalse(ServiceHealth.isHealthy(mapper.createObjectNode()));
+    }
+}
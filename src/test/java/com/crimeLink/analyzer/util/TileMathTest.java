@@ -0,0 +1,43 @@
+package com.crimeLink.analyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileMathTest {
+
+    @Test
+    void tileXY_shouldMatchSlippyMapTiles() {
+        // Colombo at zoom 10 is tile 739/492 on OpenStreetMap.
+        assertEquals(739, TileMath.tileX(79.8612, 10));
+        assertEquals(492, TileMath.tileY(6.9271, 10));
+        assertEquals(0, TileMath.tileX(-180, 3));
+        assertEquals(7, TileMath.tileX(180, 3));
+        assertEquals(0, TileMath.tileY(89.9, 3));
+    }
+
+    @Test
+    void tileEdges_shouldBracketPointsInTile() {
+        int x = TileMath.tileX(79.8612, 14);
+        int y = TileMath.tileY(6.9271, 14);
+
+        assertTrue(TileMath.tileLon(x, 14) <= 79.8612 && 79.8612 < TileMath.tileLon(x + 1, 14));
+        assertTrue(TileMath.tileLat(y, 14) >= 6.9271 && 6.9271 > TileMath.tileLat(y + 1, 14));
+    }
+
+    @Test
+    void quadkey_shouldEncodeTileAsBase4Digits() {
+        assertEquals("213", TileMath.quadkey(3, 3, 5));
+        assertEquals("", TileMath.quadkey(0, 0, 0));
+    }
+
+    @Test
+    void key_shouldRoundTrip() {
+        long key = TileMath.key(18, 190_000, 123_456);
+
+        assertEquals(18, TileMath.zoomOf(key));
+        assertEquals(190_000, TileMath.xOf(key));
+        assertEquals(123_456, TileMath.yOf(key));
+        assertNotEquals(TileMath.key(17, 190_000, 123_456), key);
+    }
+}
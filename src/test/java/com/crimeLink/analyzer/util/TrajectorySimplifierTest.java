@@ -0,0 +1,66 @@
+package com.crimeLink.analyzer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrajectorySimplifierTest {
+
+    private static int count(boolean[] keep) {
+        int n = 0;
+        for (boolean k : keep) {
+            if (k) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    void simplify_shouldCollapseStraightLineToEndpoints() {
+        int n = 1000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 6.9 + i * 1e-5;
+            lon[i] = 79.8 + i * 1e-5;
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, 1.0, 0);
+
+        assertEquals(2, count(keep));
+        assertTrue(keep[0]);
+        assertTrue(keep[n - 1]);
+    }
+
+    @Test
+    void simplify_shouldKeepCornerOfLShapedTrack() {
+        double[] lat = {6.90, 6.91, 6.92, 6.92, 6.92};
+        double[] lon = {79.80, 79.80, 79.80, 79.81, 79.82};
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, 10.0, 0);
+
+        assertArrayEquals(new boolean[]{true, false, true, false, true}, keep);
+    }
+
+    @Test
+    void simplify_shouldRespectPointBudget() {
+        int n = 5000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 6.9 + Math.sin(i / 50.0) * 0.01;
+            lon[i] = 79.8 + i * 1e-5;
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, 0, 200);
+
+        assertEquals(200, count(keep));
+    }
+
+    @Test
+    void haversineMeters_shouldMatchKnownDistance() {
+        // One degree of latitude is ~111.2 km
+        assertEquals(111_195, GeoUtils.haversineMeters(0, 0, 1, 0), 50);
+    }
+}